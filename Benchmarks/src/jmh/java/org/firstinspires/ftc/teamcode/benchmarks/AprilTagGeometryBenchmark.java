@@ -0,0 +1,42 @@
+// Filename: AprilTagGeometryBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.AprilTagGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Measures the ground-distance math done for every detected tag in
+ * AprilTagWebcam_MultiDetectV3.telemetryAprilTag().
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class AprilTagGeometryBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final double CORRECTION_FACTOR = 0.975;
+
+    private final double[] slantRange = new double[INPUTS];
+    private final double[] elevation = new double[INPUTS];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(13353);
+        for (int i = 0; i < INPUTS; i++) {
+            slantRange[i] = 12 + random.nextDouble() * 120; // 1 to 11 feet, in inches
+            elevation[i] = random.nextDouble() * 30 - 15;   // -15 to +15 degrees
+        }
+    }
+
+    @Benchmark
+    public double correctedGroundDistance() {
+        int i = index++ & (INPUTS - 1);
+        return AprilTagGeometry.correctedGroundDistance(slantRange[i], elevation[i], CORRECTION_FACTOR);
+    }
+}
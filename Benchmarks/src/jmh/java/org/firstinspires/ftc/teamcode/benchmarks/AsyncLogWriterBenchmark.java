@@ -0,0 +1,87 @@
+// Filename: AsyncLogWriterBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.AsyncLogWriter;
+import org.firstinspires.ftc.teamcode.FastFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Measures what logging one health-sample line costs the thread that logs it.
+ *
+ * - asyncWrite: AsyncLogWriter.write(), which only copies the line into the queue. The GC
+ *   profiler should show 0 B/op.
+ * - fileWriterWriteAndFlush: the old way, a FileWriter on the calling thread, flushed per line so
+ *   the data is actually in the file (as a live log needs), like the old per-event saves.
+ *
+ * Files go to a temporary directory, which is deleted afterwards. After each iteration the
+ * writer's dropped-line count and queue high-water mark are printed: if lines were dropped, the
+ * benchmark produced lines faster than the disk could take them.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class AsyncLogWriterBenchmark {
+
+    private File directory;
+    private AsyncLogWriter asyncWriter;
+    private FileWriter fileWriter;
+    private final StringBuilder line = new StringBuilder(64);
+    private double time = 0;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        directory = File.createTempFile("asynclog", "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Could not create " + directory);
+        }
+        asyncWriter = new AsyncLogWriter(new File(directory, "async.csv"), false);
+        fileWriter = new FileWriter(new File(directory, "sync.csv"), false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        asyncWriter.close();
+        fileWriter.close();
+        System.out.println("  async: dropped " + asyncWriter.getDroppedCount()
+                + " of " + (asyncWriter.getDroppedCount() + asyncWriter.getLinesWritten())
+                + ", high-water mark " + asyncWriter.getHighWaterMark() + "/" + asyncWriter.getCapacity());
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /** Builds a line like one health sample: "12.34,12.512,3.210,4.100". */
+    private StringBuilder nextLine() {
+        time += 0.2;
+        line.setLength(0);
+        FastFormat.appendFixed(line, time, 2).append(',');
+        FastFormat.appendFixed(line, 12.5, 3).append(',');
+        FastFormat.appendFixed(line, 3.21, 3).append(',');
+        FastFormat.appendFixed(line, 4.1, 3);
+        return line;
+    }
+
+    @Benchmark
+    public boolean asyncWrite() {
+        return asyncWriter.write(nextLine());
+    }
+
+    @Benchmark
+    public void fileWriterWriteAndFlush() throws IOException {
+        fileWriter.append(nextLine()).append('\n');
+        fileWriter.flush();
+    }
+}
@@ -0,0 +1,43 @@
+// Filename: BatteryEstimatorBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.BatteryEstimator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one BatteryEstimator.addSample() call, as made by every health monitor update.
+ *
+ * The samples come from a simulated pack (12.6 V behind 0.14 ohms) under a current that switches
+ * between idle and driving, so the recursive least squares fit is always being corrected.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class BatteryEstimatorBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final double[] volts = new double[SAMPLES];
+    private final double[] amps = new double[SAMPLES];
+    private BatteryEstimator estimator;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < SAMPLES; i++) {
+            amps[i] = ((i / 32) % 2 == 0) ? 1.5 : 12.0 + (i % 7);
+            volts[i] = 12.6 - 0.14 * amps[i] + 0.01 * ((i * 13) % 5 - 2);
+        }
+        estimator = new BatteryEstimator(0.995, 0.08, 0.20, 3.0);
+    }
+
+    @Benchmark
+    public double addSample() {
+        int i = index++ & (SAMPLES - 1);
+        estimator.addSample(volts[i], amps[i]);
+        return estimator.getResistanceOhms();
+    }
+}
@@ -0,0 +1,96 @@
+// Filename: ConfigFileBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.ConfigFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Measures what saving the PID tuner's four coefficients costs in file writes.
+ *
+ * - batchedCrashSafeSave: Config.edit()...commit(), one crash-safe write (temp file, fsync,
+ *   rename) holding all four values.
+ * - fourCrashSafeSaves: the same write once per value, as four Config.save() calls would do if
+ *   each one reached the file.
+ * - fourPlainRewrites: the old Config.save(), a FileWriter rewrite per value with no fsync. Cheap,
+ *   but a power cut mid-write can leave a corrupt file.
+ *
+ * The fsync makes the crash-safe times depend heavily on the storage: run it on hardware like the
+ * Control Hub's flash to get meaningful numbers. Files go to a temporary directory, deleted after.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class ConfigFileBenchmark {
+
+    private static final String[] KEYS = {"ARM_P", "ARM_I", "ARM_D", "ARM_F"};
+    private static final String COMMENT = "Robot Configuration - Updated by an Ultimate Tool";
+
+    private File directory;
+    private File file;
+    private final Properties properties = new Properties();
+    private int run = 0;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        directory = File.createTempFile("configfile", "");
+        if (!directory.delete() || !directory.mkdir()) {
+            throw new IOException("Could not create " + directory);
+        }
+        file = new File(directory, "robot_config.properties");
+        // A realistic file: a few dozen tuned values besides the ones being saved.
+        for (int i = 0; i < 40; i++) {
+            properties.setProperty("TUNED_VALUE_" + i, String.valueOf(i * 0.125));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File each : files) {
+                each.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private void change(int key) {
+        properties.setProperty(KEYS[key], String.valueOf(run++ * 0.0001));
+    }
+
+    @Benchmark
+    public void batchedCrashSafeSave() throws IOException {
+        for (int key = 0; key < KEYS.length; key++) {
+            change(key);
+        }
+        ConfigFile.write(file, properties, COMMENT);
+    }
+
+    @Benchmark
+    public void fourCrashSafeSaves() throws IOException {
+        for (int key = 0; key < KEYS.length; key++) {
+            change(key);
+            ConfigFile.write(file, properties, COMMENT);
+        }
+    }
+
+    @Benchmark
+    public void fourPlainRewrites() throws IOException {
+        for (int key = 0; key < KEYS.length; key++) {
+            change(key);
+            try (FileWriter writer = new FileWriter(file, false)) {
+                properties.store(writer, COMMENT);
+            }
+        }
+    }
+}
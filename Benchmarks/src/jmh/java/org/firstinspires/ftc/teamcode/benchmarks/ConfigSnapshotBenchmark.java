@@ -0,0 +1,57 @@
+// Filename: ConfigSnapshotBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.ConfigKey;
+import org.firstinspires.ftc.teamcode.ConfigSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Properties;
+
+/**
+ * Compares reading a tunable from a parsed ConfigSnapshot with the old Config.getDouble() way:
+ * a Properties lookup and a Double.parseDouble() on every read.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class ConfigSnapshotBenchmark {
+
+    private final Properties properties = new Properties();
+    private ConfigSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        properties.setProperty("ARM_P", "12.5000");
+        properties.setProperty("ARM_I", "0.0100");
+        properties.setProperty("ARM_D", "1.2000");
+        properties.setProperty("ARM_F", "0.4500");
+        snapshot = ConfigSnapshot.parse(ConfigKey.class, properties);
+    }
+
+    @Benchmark
+    public double snapshotGet() {
+        return snapshot.get(ConfigKey.ARM_P) + snapshot.get(ConfigKey.ARM_D);
+    }
+
+    @Benchmark
+    public double propertiesParse() {
+        return parse("ARM_P", 10.0) + parse("ARM_D", 1.0);
+    }
+
+    /** The old Config.getDouble(). */
+    private double parse(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(properties.getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    @Benchmark
+    public ConfigSnapshot parseSnapshot() {
+        return ConfigSnapshot.parse(ConfigKey.class, properties);
+    }
+}
@@ -0,0 +1,71 @@
+// Filename: FastFormatBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.FastFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares FastFormat with String.format for the number formatting done in telemetry and the
+ * health log.
+ *
+ * The FastFormat benchmarks append into a StringBuilder that is reused between calls, like on the
+ * robot, and return the builder rather than a String. The GC profiler should show 0 B/op for them.
+ * The String.format benchmarks show what every loop used to allocate.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class FastFormatBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final String THREE_VALUE_PATTERN = "XYZ %6.1f %6.1f %6.1f  (inch)";
+
+    private final double[] values = new double[INPUTS];
+    private final double[] xyz = new double[3];
+    private final StringBuilder buffer = new StringBuilder(64);
+    private FastFormat.Pattern pattern;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(13353);
+        for (int i = 0; i < INPUTS; i++) {
+            values[i] = random.nextDouble() * 200 - 100;
+        }
+        pattern = FastFormat.compile(THREE_VALUE_PATTERN);
+    }
+
+    @Benchmark
+    public StringBuilder appendFixed() {
+        buffer.setLength(0);
+        return FastFormat.appendFixed(buffer, values[index++ & (INPUTS - 1)], 2);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(Locale.US, "%.2f", values[index++ & (INPUTS - 1)]);
+    }
+
+    @Benchmark
+    public StringBuilder patternThreeValues() {
+        int i = index++;
+        xyz[0] = values[i & (INPUTS - 1)];
+        xyz[1] = values[(i + 1) & (INPUTS - 1)];
+        xyz[2] = values[(i + 2) & (INPUTS - 1)];
+        buffer.setLength(0);
+        return pattern.appendTo(buffer, xyz);
+    }
+
+    @Benchmark
+    public String stringFormatThreeValues() {
+        int i = index++;
+        return String.format(Locale.US, THREE_VALUE_PATTERN,
+                values[i & (INPUTS - 1)], values[(i + 1) & (INPUTS - 1)], values[(i + 2) & (INPUTS - 1)]);
+    }
+}
@@ -0,0 +1,67 @@
+// Filename: MecanumLocalizerBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.Constants;
+import org.firstinspires.ftc.teamcode.MecanumLocalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one MecanumLocalizer update, made every loop by RobotMecanum.update(): four encoder
+ * reads, the heading read, the forward kinematics and the pose exponential.
+ *
+ * The wheels and the heading follow a simulated mecanum drivetrain that drives, strafes and
+ * turns at the same time.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class MecanumLocalizerBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final double TRACK_WIDTH = 14.0;
+    private static final double WHEEL_BASE = 12.0;
+    private static final double LOOP_SECONDS = 0.01;
+
+    // The ticks each wheel moves, and the radians the robot turns, in one loop.
+    private final int[][] wheelDeltas = new int[4][SAMPLES];
+    private final double[] turns = new double[SAMPLES];
+    private final int[] wheels = new int[4];
+    private double heading;
+    private MecanumLocalizer localizer;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        double inchesPerTick = Constants.DRIVE_INCHES_PER_TICK;
+        double turnRadius = (TRACK_WIDTH + WHEEL_BASE) / 2;
+        for (int i = 0; i < SAMPLES; i++) {
+            double forward = 40 * Math.sin(i * 0.01) * LOOP_SECONDS;   // inches per loop
+            double left = 20 * Math.cos(i * 0.013) * LOOP_SECONDS;
+            double turn = 2 * Math.sin(i * 0.05) * LOOP_SECONDS;       // radians per loop
+            double[] inches = {
+                    forward - left - turn * turnRadius, forward + left + turn * turnRadius,
+                    forward + left - turn * turnRadius, forward - left + turn * turnRadius};
+            for (int wheel = 0; wheel < 4; wheel++) {
+                wheelDeltas[wheel][i] = (int) Math.round(inches[wheel] / inchesPerTick);
+            }
+            turns[i] = turn;
+        }
+        localizer = new MecanumLocalizer(() -> wheels[0], () -> wheels[1], () -> wheels[2], () -> wheels[3],
+                () -> heading, inchesPerTick, TRACK_WIDTH, WHEEL_BASE, 1.0);
+        localizer.update();
+    }
+
+    @Benchmark
+    public double update() {
+        int i = index++ & (SAMPLES - 1);
+        for (int wheel = 0; wheel < 4; wheel++) {
+            wheels[wheel] += wheelDeltas[wheel][i];
+        }
+        heading += turns[i];
+        localizer.update();
+        return localizer.getX() + localizer.getY() + localizer.getHeading();
+    }
+}
@@ -0,0 +1,60 @@
+// Filename: PowerGovernorBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.BatteryEstimator;
+import org.firstinspires.ftc.teamcode.PowerGovernor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the power governor's two calls: govern(), made every loop before the motor powers are
+ * sent, and addMeasurement(), made whenever the health monitor has a new sample.
+ *
+ * The measurements come from a simulated battery (12.4 V behind 0.15 ohms) driven by the same
+ * varying powers, so the model is learning throughout. The battery model itself is a
+ * BatteryEstimator fed from the same measurements, as the health monitor does on the robot.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class PowerGovernorBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final double[] drivePowers = new double[SAMPLES];
+    private final double[] volts = new double[SAMPLES];
+    private final double[] amps = new double[SAMPLES];
+    private BatteryEstimator battery;
+    private PowerGovernor governor;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < SAMPLES; i++) {
+            drivePowers[i] = 4.0 * ((i * 37) % 101) / 100.0; // 0 to 4 motors at full power
+            amps[i] = 1.0 + 5.5 * drivePowers[i];
+            volts[i] = 12.4 - 0.15 * amps[i];
+        }
+        battery = new BatteryEstimator(0.995, 0.08, 0.20, 3.0);
+        governor = new PowerGovernor(battery, 9.0, 1.0, 5.0);
+        for (int i = 0; i < SAMPLES; i++) {
+            battery.addSample(volts[i], amps[i]);
+            governor.addMeasurement(amps[i], drivePowers[i]);
+        }
+    }
+
+    @Benchmark
+    public double govern() {
+        governor.govern(drivePowers[index++ & (SAMPLES - 1)], 0.7);
+        return governor.getDriveScale() + governor.getMechanismScale();
+    }
+
+    @Benchmark
+    public double addMeasurement() {
+        int i = index++ & (SAMPLES - 1);
+        governor.addMeasurement(amps[i], drivePowers[i]);
+        return governor.getAmpsPerPower();
+    }
+}
@@ -0,0 +1,62 @@
+// Filename: StallDetectorBankBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.NanoClock;
+import org.firstinspires.ftc.teamcode.StallDetector;
+import org.firstinspires.ftc.teamcode.StallDetectorBank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares watching every motor of a robot for stalls with one StallDetector per motor against
+ * one StallDetectorBank with a channel per motor.
+ *
+ * Each benchmark call is one stall-detection task run over all CHANNELS motors, with the real
+ * system clock. The separate detectors read the clock once per motor; the bank reads it once.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class StallDetectorBankBenchmark {
+
+    private static final int CHANNELS = 8;
+    private static final int SAMPLES = 1024;
+
+    private final double[][] currents = new double[SAMPLES][CHANNELS];
+    private final StallDetector[] detectors = new StallDetector[CHANNELS];
+    private StallDetectorBank bank;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < SAMPLES; i++) {
+            for (int ch = 0; ch < CHANNELS; ch++) {
+                // Each motor alternates 128-sample stretches at 2 A and 9 A, shifted by channel.
+                currents[i][ch] = (((i + ch * 16) / 128) % 2 == 0) ? 2.0 : 9.0;
+            }
+        }
+        bank = new StallDetectorBank(CHANNELS, NanoClock.SYSTEM);
+        for (int ch = 0; ch < CHANNELS; ch++) {
+            detectors[ch] = new StallDetector(8.0, 0);
+            bank.addChannel("motor" + ch, 8.0, 7.0, 0, 0);
+        }
+    }
+
+    @Benchmark
+    public long separateDetectors() {
+        double[] sample = currents[index++ & (SAMPLES - 1)];
+        long stalled = 0;
+        for (int ch = 0; ch < CHANNELS; ch++) {
+            detectors[ch].update(sample[ch]);
+            if (detectors[ch].isStalled()) stalled |= 1L << ch;
+        }
+        return stalled;
+    }
+
+    @Benchmark
+    public long bank() {
+        return bank.update(currents[index++ & (SAMPLES - 1)]);
+    }
+}
@@ -0,0 +1,63 @@
+// Filename: StallDetectorBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.NanoClock;
+import org.firstinspires.ftc.teamcode.StallDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one StallDetector.update() call, as made by the stall-detection task.
+ *
+ * The current alternates between long "normal" and "stalled" stretches, so both the timer start
+ * and the timer check paths are exercised. Both the real system clock and a trivial fake clock
+ * are measured, to separate the cost of System.nanoTime() from the detector's own logic.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class StallDetectorBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final double[] currents = new double[SAMPLES];
+    private StallDetector systemClockDetector;
+    private StallDetector fakeClockDetector;
+    private long fakeNanos = 0;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < SAMPLES; i++) {
+            // 256 samples at 2 A, then 256 samples at 9 A, and so on.
+            currents[i] = ((i / 256) % 2 == 0) ? 2.0 : 9.0;
+        }
+        systemClockDetector = new StallDetector(8.0, 250);
+        fakeClockDetector = new StallDetector(8.0, 250, new NanoClock() {
+            @Override
+            public long nanoTime() {
+                fakeNanos += 10_000_000L; // Every update is one 10 ms loop later.
+                return fakeNanos;
+            }
+
+            @Override
+            public void sleepNanos(long nanos) {
+                fakeNanos += nanos;
+            }
+        });
+    }
+
+    @Benchmark
+    public boolean updateSystemClock() {
+        systemClockDetector.update(currents[index++ & (SAMPLES - 1)]);
+        return systemClockDetector.isStalled();
+    }
+
+    @Benchmark
+    public boolean updateFakeClock() {
+        fakeClockDetector.update(currents[index++ & (SAMPLES - 1)]);
+        return fakeClockDetector.isStalled();
+    }
+}
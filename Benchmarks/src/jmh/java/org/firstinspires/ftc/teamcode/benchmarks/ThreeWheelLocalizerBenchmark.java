@@ -0,0 +1,61 @@
+// Filename: ThreeWheelLocalizerBenchmark.java
+package org.firstinspires.ftc.teamcode.benchmarks;
+
+import org.firstinspires.ftc.teamcode.Constants;
+import org.firstinspires.ftc.teamcode.ThreeWheelLocalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures one ThreeWheelLocalizer update, made every loop: three encoder reads and the pose
+ * exponential.
+ *
+ * The pods follow a simulated drivetrain that drives, strafes and turns at the same time, so
+ * both the arc and the straight-line (Taylor series) branch are exercised.
+ *
+ * @author Team 13353
+ */
+@State(Scope.Thread)
+public class ThreeWheelLocalizerBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final double TRACK_WIDTH = 12.0;
+    private static final double FORWARD_OFFSET = -6.0;
+    private static final double LOOP_SECONDS = 0.01;
+
+    // The ticks each pod moves in one loop.
+    private final int[] leftDeltas = new int[SAMPLES];
+    private final int[] rightDeltas = new int[SAMPLES];
+    private final int[] perpendicularDeltas = new int[SAMPLES];
+    private int left, right, perpendicular;
+    private ThreeWheelLocalizer localizer;
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        double inchesPerTick = Constants.ODOMETRY_INCHES_PER_TICK;
+        for (int i = 0; i < SAMPLES; i++) {
+            double forward = 40 * Math.sin(i * 0.01);                   // inches per second
+            double strafe = 20 * Math.cos(i * 0.013);
+            double turn = (i & 0xff) < 128 ? 2 * Math.sin(i * 0.05) : 0; // radians per second
+            leftDeltas[i] = (int) Math.round((forward - turn * TRACK_WIDTH / 2) * LOOP_SECONDS / inchesPerTick);
+            rightDeltas[i] = (int) Math.round((forward + turn * TRACK_WIDTH / 2) * LOOP_SECONDS / inchesPerTick);
+            perpendicularDeltas[i] = (int) Math.round((strafe + turn * FORWARD_OFFSET) * LOOP_SECONDS / inchesPerTick);
+        }
+        localizer = new ThreeWheelLocalizer(() -> left, () -> right, () -> perpendicular,
+                inchesPerTick, TRACK_WIDTH, FORWARD_OFFSET);
+        localizer.update();
+    }
+
+    @Benchmark
+    public double update() {
+        int i = index++ & (SAMPLES - 1);
+        left += leftDeltas[i];
+        right += rightDeltas[i];
+        perpendicular += perpendicularDeltas[i];
+        localizer.update();
+        return localizer.getX() + localizer.getY() + localizer.getHeading();
+    }
+}
@@ -0,0 +1,168 @@
+// Filename: AsyncLogWriterTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for AsyncLogWriter against real files in a temporary folder.
+ *
+ * @author Team 13353
+ */
+public class AsyncLogWriterTest {
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("AsyncLogWriterTest").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        folder.delete();
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII);
+    }
+
+    private static int writerThreadCount() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("AsyncLogWriter") && thread.isAlive()) count++;
+        }
+        return count;
+    }
+
+    /** Waits for a previous test's writer thread to finish exiting. */
+    private static void awaitNoWriterThread() throws InterruptedException {
+        for (int i = 0; i < 200 && writerThreadCount() > 0; i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, writerThreadCount());
+    }
+
+    @Test
+    public void everyQueuedLineIsInTheFileAfterClose() throws IOException {
+        File file = new File(folder, "log.csv");
+        AsyncLogWriter writer = new AsyncLogWriter(file, false);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(writer.write("line " + i));
+        }
+        writer.close();
+
+        assertTrue(writer.isClosed());
+        List<String> lines = readLines(file);
+        assertEquals(500, lines.size());
+        assertEquals("line 0", lines.get(0));
+        assertEquals("line 499", lines.get(499));
+        assertEquals(500, writer.getLinesWritten());
+    }
+
+    @Test
+    public void writersShareOneThread() throws Exception {
+        awaitNoWriterThread();
+        AsyncLogWriter[] writers = new AsyncLogWriter[4];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new AsyncLogWriter(new File(folder, "log" + i + ".csv"), false);
+            writers[i].write("writer " + i);
+        }
+        assertEquals(1, writerThreadCount());
+
+        // Closing one writer leaves the others running on the same thread.
+        writers[0].close();
+        writers[1].write("still open");
+        for (int i = 1; i < writers.length; i++) {
+            writers[i].close();
+        }
+        assertEquals("writer 0", readLines(new File(folder, "log0.csv")).get(0));
+        assertEquals("still open", readLines(new File(folder, "log1.csv")).get(1));
+        assertEquals(1, readLines(new File(folder, "log3.csv")).size());
+    }
+
+    @Test
+    public void writeAfterCloseIsRefused() throws IOException {
+        File file = new File(folder, "log.csv");
+        AsyncLogWriter writer = new AsyncLogWriter(file, false);
+        writer.write("before");
+        writer.close();
+
+        assertFalse(writer.write("after"));
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(1, readLines(file).size());
+    }
+
+    @Test
+    public void acceptedLinesAreNeverLostWhenCloseRacesWithWrite() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            File file = new File(folder, "race" + round + ".csv");
+            AsyncLogWriter writer = new AsyncLogWriter(file, false, 1 << 16, 32);
+            AtomicInteger accepted = new AtomicInteger();
+            Thread[] producers = new Thread[3];
+            for (int p = 0; p < producers.length; p++) {
+                int id = p;
+                producers[p] = new Thread(() -> {
+                    // Keep writing until close() refuses a line.
+                    for (int i = 0; writer.write(id + ":" + i); i++) {
+                        accepted.incrementAndGet();
+                    }
+                });
+                producers[p].start();
+            }
+            Thread.sleep(1);
+            writer.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            List<String> lines = readLines(file);
+            assertEquals(accepted.get(), lines.size());
+            assertEquals(lines.size(), new HashSet<String>(lines).size());
+        }
+    }
+
+    @Test
+    public void longAndNonAsciiLinesAreCleanedUp() throws IOException {
+        File file = new File(folder, "log.csv");
+        AsyncLogWriter writer = new AsyncLogWriter(file, false, 8, 8);
+        writer.write("0123456789");
+        writer.write("caf\u00e9");
+        writer.close();
+
+        List<String> lines = readLines(file);
+        assertEquals("0123456", lines.get(0));
+        assertEquals("caf?", lines.get(1));
+        assertEquals(1, writer.getTruncatedCount());
+    }
+
+    @Test
+    public void threadEndsWhenTheLastWriterCloses() throws Exception {
+        AsyncLogWriter writer = new AsyncLogWriter(new File(folder, "log.csv"), false);
+        writer.close();
+        awaitNoWriterThread();
+
+        // A new writer starts a new thread.
+        AsyncLogWriter next = new AsyncLogWriter(new File(folder, "next.csv"), false);
+        assertTrue(next.write("ok"));
+        next.close();
+        assertEquals("ok", readLines(new File(folder, "next.csv")).get(0));
+    }
+}
@@ -0,0 +1,118 @@
+// Filename: BatteryEstimatorTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests that BatteryEstimator recovers a simulated battery's open-circuit voltage and resistance.
+ *
+ * @author Team 13353
+ */
+public class BatteryEstimatorTest {
+
+    private final Random random = new Random(13353);
+
+    private static BatteryEstimator createEstimator() {
+        return new BatteryEstimator(0.995, 0.05, 0.25, 3.0);
+    }
+
+    /** Feeds samples from a battery with a random load of 1 to 20 A. */
+    private void simulate(BatteryEstimator estimator, double ocv, double ohms, double noiseVolts, int samples) {
+        for (int i = 0; i < samples; i++) {
+            double amps = 1 + 19 * random.nextDouble();
+            estimator.addSample(ocv - ohms * amps + noiseVolts * random.nextGaussian(), amps);
+        }
+    }
+
+    @Test
+    public void recoversOpenCircuitVoltageAndResistance() {
+        BatteryEstimator estimator = createEstimator();
+        // The starting uncertainty acts as a prior, so convergence takes a few hundred samples.
+        simulate(estimator, 12.9, 0.11, 0.0, 1000);
+        assertTrue(estimator.hasEstimate());
+        assertEquals(12.9, estimator.getOpenCircuitVolts(), 1e-3);
+        assertEquals(0.11, estimator.getResistanceOhms(), 1e-3);
+        assertEquals(0.0, estimator.getLastErrorVolts(), 1e-3);
+    }
+
+    @Test
+    public void recoversFromNoisySamples() {
+        BatteryEstimator estimator = createEstimator();
+        simulate(estimator, 12.6, 0.15, 0.03, 1000);
+        assertEquals(12.6, estimator.getOpenCircuitVolts(), 0.03);
+        assertEquals(0.15, estimator.getResistanceOhms(), 0.005);
+    }
+
+    @Test
+    public void followsTheBatteryAsItDrains() {
+        BatteryEstimator estimator = createEstimator();
+        simulate(estimator, 13.2, 0.08, 0.0, 500);
+        simulate(estimator, 12.3, 0.12, 0.0, 1500);
+        assertEquals(12.3, estimator.getOpenCircuitVolts(), 0.01);
+        assertEquals(0.12, estimator.getResistanceOhms(), 0.002);
+    }
+
+    @Test
+    public void steadyCurrentIsNotAnEstimateAndDoesNotWindUp() {
+        BatteryEstimator estimator = createEstimator();
+        for (int i = 0; i < 5000; i++) {
+            estimator.addSample(12.5, 4.0);
+        }
+        assertFalse(estimator.hasEstimate());
+        assertEquals(0, estimator.getCurrentSpanAmps(), 0);
+        // The samples still agree with the model; once the current varies, it converges.
+        assertEquals(12.5, estimator.getOpenCircuitVolts() - estimator.getResistanceOhms() * 4.0, 1e-6);
+        simulate(estimator, 12.7, 0.09, 0.0, 1000);
+        assertTrue(estimator.hasEstimate());
+        assertEquals(0.09, estimator.getResistanceOhms(), 0.005);
+    }
+
+    @Test
+    public void healthFollowsResistanceBetweenNewAndRetire() {
+        BatteryEstimator estimator = createEstimator();
+        simulate(estimator, 12.9, 0.15, 0.0, 1000);
+        assertEquals(0.5, estimator.getHealth(), 0.01);
+
+        estimator.reset();
+        simulate(estimator, 12.9, 0.04, 0.0, 1000);
+        assertEquals(1.0, estimator.getHealth(), 0);
+
+        estimator.reset();
+        simulate(estimator, 12.9, 0.30, 0.0, 1000);
+        assertEquals(0.0, estimator.getHealth(), 0);
+    }
+
+    @Test
+    public void chargeFollowsTheDischargeCurve() {
+        assertEquals(0.0, BatteryEstimator.chargeAtVolts(10.5), 0);
+        assertEquals(0.0, BatteryEstimator.chargeAtVolts(11.0), 0);
+        assertEquals(0.05, BatteryEstimator.chargeAtVolts(11.4), 1e-9);
+        assertEquals(0.5, BatteryEstimator.chargeAtVolts(12.45), 1e-9);
+        assertEquals(1.0, BatteryEstimator.chargeAtVolts(13.4), 0);
+        assertEquals(1.0, BatteryEstimator.chargeAtVolts(14.0), 0);
+
+        BatteryEstimator estimator = createEstimator();
+        simulate(estimator, 12.45, 0.1, 0.0, 1000);
+        assertEquals(0.5, estimator.getStateOfCharge(), 0.01);
+        assertEquals(1.5, estimator.getRemainingAmpHours(), 0.03);
+    }
+
+    @Test
+    public void invalidSamplesAreIgnoredAndResetForgets() {
+        BatteryEstimator estimator = createEstimator();
+        estimator.addSample(Double.NaN, 3);
+        estimator.addSample(0, 3);
+        assertEquals(0, estimator.getSampleCount());
+        simulate(estimator, 12.9, 0.11, 0.0, 50);
+        estimator.reset();
+        assertEquals(0, estimator.getSampleCount());
+        assertEquals(0, estimator.getOpenCircuitVolts(), 0);
+        assertEquals(0.05, estimator.getResistanceOhms(), 0);
+    }
+}
@@ -0,0 +1,66 @@
+// Filename: BatteryHistoryTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Tests for reading and writing the battery history file.
+ *
+ * @author Team 13353
+ */
+public class BatteryHistoryTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("BatteryHistoryTest", ".csv");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void formattedRecordsReadBackForTheirPack() throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(BatteryHistory.HEADER + "\n");
+            writer.write(BatteryHistory.format(new BatteryHistory.Record("2026-10-01 10:00", 3,
+                    12.8765, 0.10234, 0.856, 0.62, 11.2, 1500)) + "\n");
+            writer.write(BatteryHistory.format(new BatteryHistory.Record("2026-10-01 11:00", 4,
+                    12.5, 0.2, 0.25, 0.4, 10.8, 900)) + "\n");
+            writer.write("damaged,line\n");
+            writer.write(BatteryHistory.format(new BatteryHistory.Record("2026-10-02 09:30", 3,
+                    12.9, 0.105, 0.84, 0.7, 11.1, 1700)) + "\n");
+        }
+
+        List<BatteryHistory.Record> records = BatteryHistory.read(file, 3);
+        assertEquals(2, records.size());
+        BatteryHistory.Record first = records.get(0);
+        assertEquals("2026-10-01 10:00", first.time);
+        assertEquals(12.877, first.openCircuitVolts, 1e-9);
+        assertEquals(0.1023, first.resistanceOhms, 1e-9);
+        assertEquals(0.856, first.health, 1e-9);
+        assertEquals(1500, first.samples);
+        assertEquals("2026-10-02 09:30", records.get(1).time);
+        assertEquals(1, BatteryHistory.read(file, 4).size());
+    }
+
+    @Test
+    public void missingFileHasNoRecords() throws IOException {
+        assertTrue(file.delete());
+        assertTrue(BatteryHistory.read(file, 3).isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+// Filename: BulkReadManagerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for BulkReadManager, driven by fake hubs that count their own transactions.
+ *
+ * @author Team 13353
+ */
+public class BulkReadManagerTest {
+
+    /** A hub that counts every transaction it is asked to make. */
+    private static class FakeHub implements BulkReadManager.Hub {
+        boolean isManual = false;
+        int modeChanges = 0;
+        int bulkReads = 0;
+        long transactions = 0;
+
+        @Override
+        public void setManualCaching(boolean manual) {
+            isManual = manual;
+            modeChanges++;
+        }
+
+        @Override
+        public void refreshBulkData() {
+            bulkReads++;
+            transactions++;
+        }
+
+        @Override
+        public long getTransactionCount() {
+            return transactions;
+        }
+
+        /** A command the hub sends on its own, e.g. a query the wrapper can see. */
+        void command() {
+            transactions++;
+        }
+    }
+
+    private final FakeHub controlHub = new FakeHub();
+    private final FakeHub expansionHub = new FakeHub();
+    private final BulkReadManager bulkReads = new BulkReadManager();
+
+    @Before
+    public void setUp() {
+        bulkReads.init(controlHub, expansionHub);
+    }
+
+    @Test
+    public void hubsStayInAutoModeUntilFirstUpdate() {
+        assertEquals(2, bulkReads.getHubCount());
+        assertFalse(controlHub.isManual);
+        assertEquals(0, controlHub.bulkReads);
+
+        bulkReads.update();
+        assertTrue(controlHub.isManual);
+        assertTrue(expansionHub.isManual);
+
+        // The mode is only switched once.
+        bulkReads.update();
+        assertEquals(2, controlHub.modeChanges);
+    }
+
+    @Test
+    public void everyHubIsRefreshedOncePerLoop() {
+        for (int loop = 0; loop < 10; loop++) {
+            bulkReads.update();
+        }
+        assertEquals(10, controlHub.bulkReads);
+        assertEquals(10, expansionHub.bulkReads);
+        assertEquals(9, bulkReads.getCompletedLoops());
+        assertEquals(2, bulkReads.getLastLoopTransactions());
+    }
+
+    @Test
+    public void perLoopCountIncludesHubAndReportedTransactions() {
+        bulkReads.update();
+        assertEquals(2, bulkReads.getTransactionsThisLoop());
+
+        // Loop 1: the bulk reads, two commands seen by the control hub, three reported writes.
+        controlHub.command();
+        controlHub.command();
+        bulkReads.recordTransaction();
+        bulkReads.recordTransactions(2);
+        assertEquals(7, bulkReads.getTransactionsThisLoop());
+        bulkReads.update();
+        assertEquals(7, bulkReads.getLastLoopTransactions());
+
+        // Loop 2: only the bulk reads.
+        assertEquals(2, bulkReads.getTransactionsThisLoop());
+        bulkReads.update();
+        assertEquals(2, bulkReads.getLastLoopTransactions());
+
+        // Loop 3: one command on the expansion hub.
+        expansionHub.command();
+        bulkReads.update();
+        assertEquals(3, bulkReads.getLastLoopTransactions());
+
+        assertEquals(3, bulkReads.getCompletedLoops());
+        assertEquals(7, bulkReads.getPeakLoopTransactions());
+        assertEquals(4.0, bulkReads.getAverageLoopTransactions(), 1e-9);
+    }
+
+    @Test
+    public void transactionsBeforeFirstLoopAreNotCounted() {
+        // E.g. init reads made in AUTO mode.
+        controlHub.command();
+        bulkReads.recordTransaction();
+        bulkReads.update();
+        bulkReads.update();
+        assertEquals(2, bulkReads.getLastLoopTransactions());
+        assertEquals(1, bulkReads.getCompletedLoops());
+    }
+
+    @Test
+    public void initResetsStatistics() {
+        bulkReads.update();
+        bulkReads.recordTransactions(5);
+        bulkReads.update();
+        assertEquals(7, bulkReads.getPeakLoopTransactions());
+
+        FakeHub onlyHub = new FakeHub();
+        bulkReads.init(onlyHub);
+        assertEquals(1, bulkReads.getHubCount());
+        assertEquals(0, bulkReads.getPeakLoopTransactions());
+        assertEquals(0, bulkReads.getCompletedLoops());
+        bulkReads.update();
+        bulkReads.update();
+        assertEquals(1, bulkReads.getLastLoopTransactions());
+    }
+}
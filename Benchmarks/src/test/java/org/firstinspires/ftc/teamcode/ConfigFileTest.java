@@ -0,0 +1,116 @@
+// Filename: ConfigFileTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * Tests for ConfigFile's crash-safe write, in a temporary folder.
+ *
+ * @author Team 13353
+ */
+public class ConfigFileTest {
+
+    private File folder;
+    private File file;
+    private File temp;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("ConfigFileTest").toFile();
+        file = new File(folder, "robot_config.properties");
+        temp = new File(folder, "robot_config.properties.tmp");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        folder.delete();
+    }
+
+    private static Properties properties(String key, String value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        return properties;
+    }
+
+    /** Writes part of the file, then fails, like a full disk part-way through a save. */
+    private static class FailingProperties extends Properties {
+        @Override
+        public void store(Writer writer, String comments) throws IOException {
+            writer.write("ARM_P=");
+            writer.flush();
+            throw new IOException("Disk full");
+        }
+    }
+
+    @Test
+    public void writeThenReadRoundTrips() throws IOException {
+        ConfigFile.write(file, properties("ARM_P", "12.5"), "Test");
+        assertEquals("12.5", ConfigFile.read(file).getProperty("ARM_P"));
+        assertFalse(temp.exists());
+    }
+
+    @Test
+    public void writeReplacesTheWholeFile() throws IOException {
+        ConfigFile.write(file, properties("ARM_P", "12.5"), "Test");
+        ConfigFile.write(file, properties("ARM_I", "0.5"), "Test");
+        Properties read = ConfigFile.read(file);
+        assertEquals(1, read.size());
+        assertEquals("0.5", read.getProperty("ARM_I"));
+        assertFalse(temp.exists());
+    }
+
+    @Test
+    public void failedWriteLeavesTheOldFile() throws IOException {
+        ConfigFile.write(file, properties("ARM_P", "12.5"), "Test");
+        try {
+            ConfigFile.write(file, new FailingProperties(), "Test");
+            fail("The failed write did not throw");
+        } catch (IOException e) {
+            assertEquals("Disk full", e.getMessage());
+        }
+        assertEquals("12.5", ConfigFile.read(file).getProperty("ARM_P"));
+        assertFalse(temp.exists());
+    }
+
+    @Test
+    public void failedFirstWriteCreatesNoFile() {
+        try {
+            ConfigFile.write(file, new FailingProperties(), "Test");
+            fail("The failed write did not throw");
+        } catch (IOException e) {
+            // Expected
+        }
+        assertFalse(file.exists());
+        assertFalse(temp.exists());
+    }
+
+    @Test
+    public void unwritableFolderThrows() throws IOException {
+        File missing = new File(new File(folder, "no_such_folder"), "robot_config.properties");
+        try {
+            ConfigFile.write(missing, properties("ARM_P", "12.5"), "Test");
+            fail("Writing into a missing folder did not throw");
+        } catch (IOException e) {
+            // Expected
+        }
+        assertFalse(missing.exists());
+        assertTrue(folder.exists());
+    }
+}
@@ -0,0 +1,118 @@
+// Filename: ConfigSnapshotTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Properties;
+
+/**
+ * Tests for ConfigSnapshot.parse: every way a value can be rejected, and the message it gives.
+ *
+ * @author Team 13353
+ */
+public class ConfigSnapshotTest {
+
+    private static ConfigSnapshot parse(String... keysAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return ConfigSnapshot.parse(ConfigKey.class, properties);
+    }
+
+    @Test
+    public void missingKeysUseTheirDefaults() {
+        ConfigSnapshot snapshot = parse();
+        for (ConfigKey key : ConfigKey.values()) {
+            assertEquals(key.getDefault(), snapshot.get(key), 0);
+            assertFalse(snapshot.isOverridden(key));
+        }
+        assertTrue(snapshot.getErrors().isEmpty());
+        assertEquals(ConfigKey.class, snapshot.getKeyType());
+    }
+
+    @Test
+    public void validValuesOverrideTheDefaults() {
+        ConfigSnapshot snapshot = parse("ARM_P", " 12.5 ", "BATTERY_ID", "7", "ODOMETRY_FORWARD_OFFSET_IN", "-3");
+        assertEquals(12.5, snapshot.get(ConfigKey.ARM_P), 0);
+        assertTrue(snapshot.isOverridden(ConfigKey.ARM_P));
+        assertEquals(7, snapshot.getInt(ConfigKey.BATTERY_ID));
+        assertEquals(-3, snapshot.get(ConfigKey.ODOMETRY_FORWARD_OFFSET_IN), 0);
+        assertFalse(snapshot.isOverridden(ConfigKey.ARM_I));
+        assertTrue(snapshot.getErrors().isEmpty());
+    }
+
+    @Test
+    public void unknownKeysAreIgnored() {
+        ConfigSnapshot snapshot = parse("NOT_A_KEY", "banana");
+        assertTrue(snapshot.getErrors().isEmpty());
+    }
+
+    @Test
+    public void nonNumbersAreRejected() {
+        ConfigSnapshot snapshot = parse("ARM_P", "1O", "ARM_I", "NaN", "ARM_D", "Infinity");
+        assertEquals(Constants.ARM_P, snapshot.get(ConfigKey.ARM_P), 0);
+        assertFalse(snapshot.isOverridden(ConfigKey.ARM_P));
+        assertEquals(3, snapshot.getErrors().size());
+        assertEquals("ARM_P: \"1O\" is not a number, using 10.0", snapshot.getErrors().get(0));
+        assertEquals("ARM_I: \"NaN\" is not a number, using 0.0", snapshot.getErrors().get(1));
+        assertTrue(snapshot.getErrors().get(2).startsWith("ARM_D: \"Infinity\" is not a number"));
+    }
+
+    @Test
+    public void fractionsAreRejectedForWholeNumberKeys() {
+        ConfigSnapshot snapshot = parse("BATTERY_ID", "2.5");
+        assertEquals(Constants.BATTERY_ID, snapshot.getInt(ConfigKey.BATTERY_ID));
+        assertEquals(1, snapshot.getErrors().size());
+        assertEquals("BATTERY_ID: 2.5 is not a whole number, using 0", snapshot.getErrors().get(0));
+    }
+
+    @Test
+    public void wholeNumbersWrittenAsDecimalsAreAccepted() {
+        ConfigSnapshot snapshot = parse("BATTERY_ID", "3.0");
+        assertEquals(3, snapshot.getInt(ConfigKey.BATTERY_ID));
+        assertTrue(snapshot.getErrors().isEmpty());
+    }
+
+    @Test
+    public void outOfRangeValuesAreRejected() {
+        ConfigSnapshot snapshot = parse("DRIVE_POWER_MULTIPLIER", "1.5", "BATTERY_ID", "1000");
+        assertEquals(Constants.DRIVE_POWER_MULTIPLIER, snapshot.get(ConfigKey.DRIVE_POWER_MULTIPLIER), 0);
+        assertEquals(2, snapshot.getErrors().size());
+        assertEquals("DRIVE_POWER_MULTIPLIER: 1.5 is outside 0.0 to 1.0, using 1.0", snapshot.getErrors().get(0));
+        assertEquals("BATTERY_ID: 1000 is outside 0 to 999, using 0", snapshot.getErrors().get(1));
+    }
+
+    @Test
+    public void rangeLimitsThemselvesAreAccepted() {
+        ConfigSnapshot snapshot = parse("DRIVE_POWER_MULTIPLIER", "0", "BATTERY_ID", "999");
+        assertEquals(0, snapshot.get(ConfigKey.DRIVE_POWER_MULTIPLIER), 0);
+        assertEquals(999, snapshot.getInt(ConfigKey.BATTERY_ID));
+        assertTrue(snapshot.getErrors().isEmpty());
+    }
+
+    @Test
+    public void oneBadValueDoesNotAffectTheOthers() {
+        ConfigSnapshot snapshot = parse("ARM_P", "oops", "ARM_I", "0.25");
+        assertEquals(Constants.ARM_P, snapshot.get(ConfigKey.ARM_P), 0);
+        assertEquals(0.25, snapshot.get(ConfigKey.ARM_I), 0);
+        assertEquals(1, snapshot.getErrors().size());
+    }
+
+    @Test
+    public void sameValuesGiveSameSnapshots() {
+        assertTrue(parse("ARM_P", "12").isSameAs(parse("ARM_P", "12.0")));
+        assertFalse(parse("ARM_P", "12").isSameAs(parse("ARM_P", "13")));
+        assertFalse(parse("ARM_P", "12").isSameAs(parse("ARM_P", "bad")));
+        assertFalse(parse().isSameAs(null));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void errorsCannotBeChanged() {
+        parse("ARM_P", "bad").getErrors().clear();
+    }
+}
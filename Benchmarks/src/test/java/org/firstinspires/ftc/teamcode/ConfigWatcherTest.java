@@ -0,0 +1,227 @@
+// Filename: ConfigWatcherTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Tests for ConfigWatcher against a real properties file in a temporary folder.
+ *
+ * Reloads run on an executor the test controls, so every step is deterministic. The file's
+ * modification time is set by hand, because two writes in a row can land in the same
+ * file-system tick.
+ *
+ * @author Team 13353
+ */
+public class ConfigWatcherTest {
+
+    private File folder;
+    private File file;
+    private long modified = 1_600_000_000_000L;
+
+    private final Queue<Runnable> pendingReloads = new ArrayDeque<>();
+    private final List<ConfigSnapshot> received = new ArrayList<>();
+    private ConfigWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("ConfigWatcherTest").toFile();
+        file = new File(folder, "robot_config.properties");
+        writeFile("ARM_P=12.0\nARM_I=0.5\n");
+        ConfigSnapshot initial = ConfigSnapshot.parse(ConfigKey.class, ConfigFile.read(file));
+        watcher = new ConfigWatcher(file, ConfigKey.class, initial, pendingReloads::add);
+        watcher.addListener(received::add);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        folder.delete();
+    }
+
+    /** Replaces the file's contents and gives it a new modification time. */
+    private void writeFile(String contents) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(contents);
+        }
+        modified += 1000;
+        file.setLastModified(modified);
+    }
+
+    /** Runs every reload the watcher has asked for. */
+    private void runReloads() {
+        while (!pendingReloads.isEmpty()) {
+            pendingReloads.remove().run();
+        }
+    }
+
+    @Test
+    public void unchangedFileIsNeverRead() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(watcher.update());
+        }
+        assertTrue(pendingReloads.isEmpty());
+        assertEquals(0, watcher.getReloadCount());
+    }
+
+    @Test
+    public void changeIsReadOnceSettledAndPassedOnNextUpdate() throws IOException {
+        writeFile("ARM_P=20.0\nARM_I=0.5\n");
+
+        // First look: the file changed since the previous update, so it may still be written.
+        assertFalse(watcher.update());
+        assertTrue(pendingReloads.isEmpty());
+
+        // Second look: unchanged since the first, so it is read.
+        assertFalse(watcher.update());
+        assertEquals(1, pendingReloads.size());
+        runReloads();
+        assertEquals(1, watcher.getReloadCount());
+        assertTrue(received.isEmpty());
+
+        // The listeners hear about it on the next update, on the caller's thread.
+        assertTrue(watcher.update());
+        assertEquals(1, received.size());
+        assertEquals(20.0, received.get(0).get(ConfigKey.ARM_P), 0);
+        assertEquals(1, watcher.getChangeCount());
+
+        // Nothing more happens until the file changes again.
+        assertFalse(watcher.update());
+        assertTrue(pendingReloads.isEmpty());
+    }
+
+    @Test
+    public void fileStillBeingWrittenIsNotRead() throws IOException {
+        // The file grows over three updates, like a slow copy.
+        writeFile("ARM_P=20.0\n");
+        watcher.update();
+        writeFile("ARM_P=20.0\nARM_I=1.5\n");
+        watcher.update();
+        writeFile("ARM_P=20.0\nARM_I=1.5\nARM_D=0.25\n");
+        watcher.update();
+        assertTrue(pendingReloads.isEmpty());
+
+        // Once it stops changing, only the finished file is read.
+        watcher.update();
+        assertEquals(1, pendingReloads.size());
+        runReloads();
+        watcher.update();
+        assertEquals(1, received.size());
+        ConfigSnapshot snapshot = received.get(0);
+        assertEquals(20.0, snapshot.get(ConfigKey.ARM_P), 0);
+        assertEquals(1.5, snapshot.get(ConfigKey.ARM_I), 0);
+        assertEquals(0.25, snapshot.get(ConfigKey.ARM_D), 0);
+    }
+
+    @Test
+    public void snapshotIsSwappedWhole() throws IOException {
+        ConfigSnapshot before = watcher.getSnapshot();
+        writeFile("ARM_P=30.0\nARM_I=2.0\n");
+        watcher.update();
+        watcher.update();
+
+        // Until the reload finishes, readers keep the whole old snapshot.
+        assertSame(before, watcher.getSnapshot());
+        runReloads();
+
+        // Afterwards they get a new snapshot with every new value, and the old one is untouched.
+        ConfigSnapshot after = watcher.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals(30.0, after.get(ConfigKey.ARM_P), 0);
+        assertEquals(2.0, after.get(ConfigKey.ARM_I), 0);
+        assertEquals(12.0, before.get(ConfigKey.ARM_P), 0);
+        assertEquals(0.5, before.get(ConfigKey.ARM_I), 0);
+    }
+
+    @Test
+    public void reloadWithSameValuesIsNotPassedOn() throws IOException {
+        ConfigSnapshot before = watcher.getSnapshot();
+        // Different text and length, same values.
+        writeFile("# re-saved\nARM_I = 0.50\nARM_P = 12\n");
+        watcher.update();
+        watcher.update();
+        runReloads();
+        assertEquals(1, watcher.getReloadCount());
+
+        assertFalse(watcher.update());
+        assertTrue(received.isEmpty());
+        assertSame(before, watcher.getSnapshot());
+        assertEquals(0, watcher.getChangeCount());
+    }
+
+    @Test
+    public void unreadableFileKeepsCurrentValuesAndIsRetried() throws IOException {
+        ConfigSnapshot before = watcher.getSnapshot();
+        assertTrue(file.delete());
+        watcher.update();
+        watcher.update();
+        runReloads();
+        assertEquals(1, watcher.getFailedReloadCount());
+        assertEquals(0, watcher.getReloadCount());
+        assertFalse(watcher.update());
+        assertSame(before, watcher.getSnapshot());
+
+        // The file comes back: it is read again.
+        writeFile("ARM_P=15.0\n");
+        watcher.update();
+        watcher.update();
+        runReloads();
+        assertTrue(watcher.update());
+        assertEquals(15.0, watcher.getSnapshot().get(ConfigKey.ARM_P), 0);
+        assertEquals(1, watcher.getReloadCount());
+    }
+
+    @Test
+    public void badValueStillLoadsWithItsDefault() throws IOException {
+        writeFile("ARM_P=1O\nARM_I=0.75\n");
+        watcher.update();
+        watcher.update();
+        runReloads();
+        assertTrue(watcher.update());
+        ConfigSnapshot snapshot = watcher.getSnapshot();
+        assertEquals(Constants.ARM_P, snapshot.get(ConfigKey.ARM_P), 0);
+        assertEquals(0.75, snapshot.get(ConfigKey.ARM_I), 0);
+        assertEquals(1, snapshot.getErrors().size());
+    }
+
+    @Test
+    public void onlyOneReloadRunsAtATime() throws IOException {
+        writeFile("ARM_P=20.0\n");
+        watcher.update();
+        watcher.update();
+        assertEquals(1, pendingReloads.size());
+
+        // A second change while the first reload has not finished is not read yet.
+        writeFile("ARM_P=25.0\n");
+        watcher.update();
+        watcher.update();
+        assertEquals(1, pendingReloads.size());
+
+        // After the first reload finishes, the second change is picked up.
+        runReloads();
+        watcher.update();
+        runReloads();
+        watcher.update();
+        assertEquals(25.0, watcher.getSnapshot().get(ConfigKey.ARM_P), 0);
+    }
+}
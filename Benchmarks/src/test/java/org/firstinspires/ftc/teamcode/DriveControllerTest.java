@@ -0,0 +1,49 @@
+// Filename: DriveControllerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for DriveController's mode handling, including the fallback when the heading is stale.
+ *
+ * @author Team 13353
+ */
+public class DriveControllerTest {
+
+    private final DriveController controller = new DriveController();
+    private final double[] expected = new double[4];
+
+    @Test
+    public void fieldCentricRotatesByTheHeading() {
+        controller.update(0, -1, 0, 0, false, Math.PI / 2);
+        MecanumKinematics.fieldCentric(1, 0, 0, Math.PI / 2, expected);
+        assertArrayEquals(expected, controller.getWheelPowers(), 1e-12);
+        assertFalse(controller.isHeadingFallback());
+    }
+
+    @Test
+    public void staleHeadingDrivesRobotCentricWithoutChangingTheMode() {
+        controller.update(0.3, -0.5, 0.2, 0, false, Double.NaN);
+        MecanumKinematics.robotCentric(0.5, 0.3, 0.2, expected);
+        assertArrayEquals(expected, controller.getWheelPowers(), 1e-12);
+        assertTrue(controller.isFieldCentric());
+        assertTrue(controller.isHeadingFallback());
+
+        // Back to field-centric as soon as there is a heading again.
+        controller.update(0.3, -0.5, 0.2, 0, false, 1.0);
+        MecanumKinematics.fieldCentric(0.5, 0.3, 0.2, 1.0, expected);
+        assertArrayEquals(expected, controller.getWheelPowers(), 1e-12);
+        assertFalse(controller.isHeadingFallback());
+    }
+
+    @Test
+    public void robotCentricModeIsNotAFallback() {
+        controller.update(0, 0, 0, 0, true, Double.NaN); // Toggle to robot-centric
+        assertFalse(controller.isFieldCentric());
+        assertFalse(controller.isHeadingFallback());
+    }
+}
@@ -0,0 +1,141 @@
+// Filename: EnergyAccountantTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for EnergyAccountant's coulomb counting, driven by a fake clock.
+ *
+ * @author Team 13353
+ */
+public class EnergyAccountantTest {
+
+    private final FakeClock clock = new FakeClock();
+    private EnergyAccountant energy;
+    private int hub, leftWheel, arm;
+
+    @Before
+    public void setUp() {
+        energy = new EnergyAccountant(4, 2.0, clock);
+        hub = energy.addChannel("controlHub", EnergyAccountant.Group.HUB);
+        leftWheel = energy.addChannel("leftFront", EnergyAccountant.Group.DRIVETRAIN);
+        arm = energy.addChannel("arm", EnergyAccountant.Group.MECHANISM);
+        energy.setBusVoltage(12.0);
+    }
+
+    @Test
+    public void steadyCurrentGivesCurrentTimesTime() {
+        // 10 A for 36 s is 0.1 Ah, 1.2 Wh at 12 V.
+        for (int i = 0; i <= 360; i++) {
+            energy.record(hub, 10.0);
+            clock.advanceMs(100);
+        }
+        assertEquals(0.1, energy.getAmpHours(hub), 1e-9);
+        assertEquals(0.1, energy.getTotalAmpHours(), 1e-9);
+        assertEquals(1.2, energy.getTotalWattHours(), 1e-9);
+    }
+
+    @Test
+    public void rampIsIntegratedExactlyByTrapezoids() {
+        // 0 A rising to 20 A over 36 s: 10 A on average, 0.1 Ah, even at an uneven rate.
+        double t = 0;
+        double[] steps = {0.05, 0.3, 0.15};
+        int i = 0;
+        while (t < 36 - 1e-9) {
+            energy.record(arm, 20 * t / 36);
+            double dt = Math.min(steps[i++ % steps.length], 36 - t);
+            clock.advanceMs(dt * 1000);
+            t += dt;
+        }
+        energy.record(arm, 20);
+        assertEquals(0.1, energy.getAmpHours(arm), 1e-6);
+    }
+
+    @Test
+    public void firstReadingOnlyStartsTheChannel() {
+        energy.record(hub, 50);
+        assertEquals(0, energy.getAmpHours(hub), 0);
+        clock.advanceMs(3600);
+        energy.record(hub, 50);
+        assertEquals(0.05, energy.getAmpHours(hub), 1e-9);
+    }
+
+    @Test
+    public void signAndNanAreHandled() {
+        energy.record(leftWheel, -4);
+        clock.advanceMs(900);
+        energy.record(leftWheel, Double.NaN);
+        clock.advanceMs(900);
+        energy.record(leftWheel, -4);
+        // 4 A for 1.8 s, with the NaN skipped.
+        assertEquals(4 * 1.8 / 3600, energy.getAmpHours(leftWheel), 1e-12);
+    }
+
+    @Test
+    public void unattributedIsHubChargeNotCoveredByMotors() {
+        for (int i = 0; i <= 100; i++) {
+            energy.record(hub, 12);
+            energy.record(leftWheel, 6);
+            energy.record(arm, 4);
+            clock.advanceMs(36);
+        }
+        // 3.6 s: hub 12 mAh, wheel 6 mAh, arm 4 mAh, so 2 mAh is unattributed.
+        assertEquals(0.012, energy.getTotalAmpHours(), 1e-9);
+        assertEquals(0.006, energy.getGroupAmpHours(EnergyAccountant.Group.DRIVETRAIN), 1e-9);
+        assertEquals(0.004, energy.getGroupAmpHours(EnergyAccountant.Group.MECHANISM), 1e-9);
+        assertEquals(0.002, energy.getUnattributedAmpHours(), 1e-9);
+        assertEquals(leftWheel, energy.getLargestConsumer());
+
+        List<String> lines = new ArrayList<>();
+        energy.appendSummary(lines);
+        assertTrue(lines.contains("Energy - Unattributed: 2 mAh (17%)"));
+        assertTrue(lines.contains("Energy - Largest Consumer: leftFront"));
+    }
+
+    @Test
+    public void burnRateProjectsTheRestOfTheMatch() {
+        energy.record(hub, 18);
+        energy.updateBurnRate();
+        for (int i = 0; i < 50; i++) {
+            clock.advanceMs(200);
+            energy.record(hub, 18);
+            energy.updateBurnRate();
+        }
+        assertEquals(18, energy.getBurnRateAmps(), 1e-9);
+        // 10 s used so far (50 mAh), and 100 s more at 18 A is another 500 mAh.
+        assertEquals(0.55, energy.projectAmpHours(100), 1e-9);
+        assertEquals(0.05, energy.projectAmpHours(-5), 1e-9);
+    }
+
+    @Test
+    public void burnRateSmoothsChanges() {
+        energy.record(hub, 10);
+        energy.updateBurnRate();
+        for (int i = 0; i < 20; i++) {
+            clock.advanceMs(100);
+            energy.record(hub, 10);
+            energy.updateBurnRate();
+        }
+        // The current steps up to 30 A; one smoothing time constant later the rate is most of the way.
+        for (int i = 0; i < 20; i++) {
+            clock.advanceMs(100);
+            energy.record(hub, 30);
+            energy.updateBurnRate();
+        }
+        double expected = 30 - 20 * Math.exp(-2.0 / 2.0);
+        assertEquals(expected, energy.getBurnRateAmps(), 0.5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fullAccountantRejectsAnotherChannel() {
+        energy.addChannel("spare", EnergyAccountant.Group.MECHANISM);
+        energy.addChannel("one too many", EnergyAccountant.Group.MECHANISM);
+    }
+}
@@ -0,0 +1,45 @@
+// Filename: FakeClock.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * A NanoClock for tests. Time only moves when a test advances it, and "sleeping" just moves the
+ * time forward, so timing logic can be checked deterministically.
+ *
+ * @author Team 13353
+ */
+public class FakeClock implements NanoClock {
+
+    private long nanos;
+
+    /** Total time spent in sleepNanos(), so tests can check how long the code asked to wait. */
+    public long sleptNanos = 0;
+
+    public FakeClock() {
+        this(0);
+    }
+
+    public FakeClock(long startNanos) {
+        this.nanos = startNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public void sleepNanos(long nanos) {
+        if (nanos > 0) {
+            this.nanos += nanos;
+            sleptNanos += nanos;
+        }
+    }
+
+    public void advanceNanos(long nanos) {
+        this.nanos += nanos;
+    }
+
+    public void advanceMs(double ms) {
+        this.nanos += (long) (ms * 1e6);
+    }
+}
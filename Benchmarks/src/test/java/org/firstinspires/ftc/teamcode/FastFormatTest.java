@@ -0,0 +1,183 @@
+// Filename: FastFormatTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Tests that FastFormat writes exactly what String.format(Locale.US, ...) would.
+ *
+ * @author Team 13353
+ */
+public class FastFormatTest {
+
+    private final StringBuilder sb = new StringBuilder();
+
+    private void assertFixed(double value, int decimals, int width) {
+        String expected = String.format(Locale.US, "%" + (width > 0 ? width : "") + "." + decimals + "f", value);
+        sb.setLength(0);
+        assertEquals(value + " to " + decimals + " places", expected,
+                FastFormat.appendFixed(sb, value, decimals, width).toString());
+    }
+
+    private void assertFixed(double value, int decimals) {
+        assertFixed(value, decimals, 0);
+    }
+
+    private void assertInt(long value, int width) {
+        String expected = String.format(Locale.US, "%" + (width > 0 ? width : "") + "d", value);
+        sb.setLength(0);
+        assertEquals(expected, FastFormat.appendInt(sb, value, width).toString());
+    }
+
+    private void assertPattern(String pattern, double... values) {
+        Object[] args = new Object[values.length];
+        FastFormat.Pattern compiled = FastFormat.compile(pattern);
+        for (int i = 0; i < values.length; i++) {
+            args[i] = values[i];
+        }
+        // String.format needs a long for %d; FastFormat rounds the double.
+        int spec = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) != '%') continue;
+            if (pattern.charAt(i + 1) == '%') {
+                i++;
+                continue;
+            }
+            int end = i + 1;
+            while ("fd".indexOf(pattern.charAt(end)) < 0) end++;
+            if (pattern.charAt(end) == 'd') args[spec] = Math.round(values[spec]);
+            spec++;
+        }
+        sb.setLength(0);
+        assertEquals(String.format(Locale.US, pattern, args), compiled.appendTo(sb, values).toString());
+    }
+
+    @Test
+    public void plainValues() {
+        assertFixed(0, 2);
+        assertFixed(12.5, 1);
+        assertFixed(1.0 / 3, 4);
+        assertFixed(1234567.891, 0);
+        assertFixed(42, 0);
+        assertFixed(0.000001, 6);
+        assertFixed(1e-7, 3);
+    }
+
+    @Test
+    public void negativesAndNegativeZero() {
+        assertFixed(-1.25, 2);
+        assertFixed(-0.004, 2); // Rounds to zero but keeps its sign: "-0.00"
+        assertFixed(-0.0, 2);
+        assertFixed(-0.0, 0);
+        assertFixed(-987.654, 1);
+    }
+
+    @Test
+    public void roundingCarries() {
+        assertFixed(9.995, 2);   // "10.00"
+        assertFixed(0.995, 2);
+        assertFixed(99.95, 1);
+        assertFixed(-9.9999, 3);
+        assertFixed(0.5, 0);
+        assertFixed(1.5, 0);
+        assertFixed(2.5, 0);
+    }
+
+    @Test
+    public void decimalHalfWayValuesRoundUp() {
+        assertFixed(1.005, 2);   // "1.01", though the double is just below 1.005
+        assertFixed(2.675, 2);
+        assertFixed(0.125, 2);
+        assertFixed(0.045, 2);
+        assertFixed(1.45, 1);
+    }
+
+    @Test
+    public void fractionsWithLeadingZeros() {
+        assertFixed(3.05, 2);
+        assertFixed(3.005, 3);
+        assertFixed(7.0001, 4);
+        assertFixed(3.0, 3);
+    }
+
+    @Test
+    public void widths() {
+        assertFixed(3.14159, 2, 8);
+        assertFixed(-3.14159, 1, 8);
+        assertFixed(123456.7, 1, 3); // Wider than the field: not cut
+        assertInt(42, 6);
+        assertInt(-42, 6);
+        assertInt(123456, 2);
+    }
+
+    @Test
+    public void notANumberAndInfinity() {
+        assertFixed(Double.NaN, 2);
+        assertFixed(Double.POSITIVE_INFINITY, 2);
+        assertFixed(Double.NEGATIVE_INFINITY, 1);
+        assertFixed(Double.NaN, 2, 6);
+        assertFixed(Double.NEGATIVE_INFINITY, 2, 12);
+    }
+
+    @Test
+    public void largeValuesFallBackToTheJdk() {
+        assertFixed(1e20, 2);
+        assertFixed(-123456789012345.678, 3);
+        assertFixed(Double.MAX_VALUE, 0);
+        assertFixed(9.0e13, 1, 20);
+    }
+
+    @Test
+    public void integers() {
+        assertInt(0, 0);
+        assertInt(-1, 0);
+        assertInt(Long.MAX_VALUE, 0);
+        assertInt(Long.MIN_VALUE, 0);
+        assertInt(Long.MIN_VALUE, 25);
+    }
+
+    @Test
+    public void patterns() {
+        assertPattern("XYZ %6.1f %6.1f %6.1f  (inch)", 1.25, -40.05, 1000);
+        assertPattern("%-8.2f|%-5d|", 3.14159, 42);
+        assertPattern("%.0f%% of %d", 99.5, 7.6);
+        assertPattern("%f", Math.PI);
+        assertPattern("%5d items", -3);
+        assertPattern("no values");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedSpecifierIsRejected() {
+        FastFormat.compile("name %s");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unfinishedSpecifierIsRejected() {
+        FastFormat.compile("value %.2");
+    }
+
+    @Test
+    public void matchesStringFormatOnRandomValues() {
+        Random random = new Random(13353);
+        for (int i = 0; i < 20000; i++) {
+            int decimals = random.nextInt(7);
+            double value;
+            switch (i % 3) {
+                case 0: // Short decimals, like sensor readings
+                    value = (random.nextInt(2_000_000) - 1_000_000) / Math.pow(10, random.nextInt(7));
+                    break;
+                case 1: // Exactly half-way in decimal at the printed precision
+                    value = (random.nextInt(200_001) - 100_000 + 0.5) / Math.pow(10, decimals);
+                    break;
+                default:
+                    value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            }
+            assertFixed(value, decimals);
+        }
+    }
+}
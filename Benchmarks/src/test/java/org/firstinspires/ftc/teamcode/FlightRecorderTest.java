@@ -0,0 +1,193 @@
+// Filename: FlightRecorderTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.file.Files;
+
+/**
+ * Round-trip tests for the binary flight recording: FlightRecorder writes it and
+ * FlightLogDecoder reads it back, in a temporary folder.
+ *
+ * @author Team 13353
+ */
+public class FlightRecorderTest {
+
+    private File folder;
+    private File file;
+    private final FakeClock clock = new FakeClock();
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("FlightRecorderTest").toFile();
+        file = new File(folder, "test.flight");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        folder.delete();
+    }
+
+    /** Records one channel of every type, for the given number of loops, 10 ms apart. */
+    private FlightRecorder record(int maxRecords, int loops) throws IOException {
+        FlightRecorder recorder = new FlightRecorder(file, maxRecords, clock);
+        int int32 = recorder.addChannel("ticks", FlightRecorder.Type.INT32, "ticks");
+        int int64 = recorder.addChannel("big", FlightRecorder.Type.INT64, "");
+        int float32 = recorder.addChannel("power", FlightRecorder.Type.FLOAT32, "");
+        int float64 = recorder.addChannel("yaw", FlightRecorder.Type.FLOAT64, "rad");
+        recorder.open();
+        for (int i = 0; i < loops; i++) {
+            clock.advanceMs(10);
+            if (recorder.beginRecord()) {
+                recorder.putLong(int32, -1000 * i);
+                recorder.putLong(int64, 5_000_000_000L + i);
+                recorder.putDouble(float32, 0.25 * i);
+                recorder.putDouble(float64, Math.PI / (i + 1));
+                recorder.endRecord();
+            }
+        }
+        recorder.close();
+        return recorder;
+    }
+
+    @Test
+    public void everyTypeRoundTrips() throws IOException {
+        FlightRecorder recorder = record(100, 20);
+        assertEquals(20, recorder.getRecordCount());
+        assertEquals(4 + 8 + 4 + 8 + 8, recorder.getRecordBytes());
+
+        FlightLogDecoder decoder = new FlightLogDecoder(file);
+        assertEquals(20, decoder.getRecordCount());
+        assertEquals(0, decoder.getDroppedCount());
+        assertEquals(5, decoder.getChannelCount());
+        assertEquals("time_s", decoder.getChannelName(0));
+        assertEquals("rad", decoder.getChannelUnit(4));
+        assertEquals(FlightRecorder.Type.INT32, decoder.getChannelType(1));
+        assertEquals(FlightRecorder.Type.INT64, decoder.getChannelType(2));
+        assertEquals(FlightRecorder.Type.FLOAT32, decoder.getChannelType(3));
+        assertEquals(FlightRecorder.Type.FLOAT64, decoder.getChannelType(4));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0.01 * (i + 1), decoder.get(i, 0), 1e-9);
+            assertEquals(-1000 * i, decoder.get(i, 1), 0);
+            assertEquals(5_000_000_000L + i, (long) decoder.get(i, 2));
+            assertEquals(0.25 * i, decoder.get(i, 3), 0); // Exact in a float
+            assertEquals(Math.PI / (i + 1), decoder.get(i, 4), 0);
+        }
+    }
+
+    @Test
+    public void recordsBeyondTheFileAreDroppedAndCounted() throws IOException {
+        FlightRecorder recorder = record(5, 8);
+        assertEquals(5, recorder.getRecordCount());
+        assertEquals(3, recorder.getDroppedCount());
+
+        FlightLogDecoder decoder = new FlightLogDecoder(file);
+        assertEquals(5, decoder.getRecordCount());
+        assertEquals(3, decoder.getDroppedCount());
+        assertEquals(-4000, decoder.get(4, 1), 0);
+    }
+
+    @Test
+    public void fileTruncatedMidRecordKeepsOnlyWholeRecords() throws IOException {
+        FlightRecorder recorder = record(100, 10);
+        long headerBytes = file.length() - 100L * recorder.getRecordBytes();
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(headerBytes + 3 * recorder.getRecordBytes() + 7);
+        }
+
+        FlightLogDecoder decoder = new FlightLogDecoder(file);
+        assertEquals(3, decoder.getRecordCount());
+        assertEquals(-2000, decoder.get(2, 1), 0);
+    }
+
+    @Test
+    public void fileTruncatedInTheHeaderIsRejected() throws IOException {
+        record(100, 1);
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(20);
+        }
+        try {
+            new FlightLogDecoder(file);
+            fail("A 20-byte file was accepted");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("too short"));
+        }
+    }
+
+    @Test
+    public void decoderFindsItsChannelsAmongExtraOnes() throws IOException {
+        // A newer robot records channels an older reader does not know about.
+        FlightRecorder recorder = new FlightRecorder(file, 10, clock);
+        int before = recorder.addChannel("new_sensor", FlightRecorder.Type.FLOAT32, "mm");
+        int yaw = recorder.addChannel(FlightChannels.IMU_YAW, FlightRecorder.Type.FLOAT64, "rad");
+        int after = recorder.addChannel("another_new_one", FlightRecorder.Type.INT64, "");
+        int loop = recorder.addChannel(FlightChannels.LOOP_TIME, FlightRecorder.Type.FLOAT32, "ms");
+        recorder.open();
+        assertTrue(recorder.beginRecord());
+        recorder.putDouble(before, 123);
+        recorder.putDouble(yaw, 1.5);
+        recorder.putLong(after, 99);
+        recorder.putDouble(loop, 10.5);
+        recorder.endRecord();
+        recorder.close();
+
+        FlightLogDecoder decoder = new FlightLogDecoder(file);
+        int yawIndex = decoder.getChannelIndex(FlightChannels.IMU_YAW);
+        int loopIndex = decoder.getChannelIndex(FlightChannels.LOOP_TIME);
+        assertEquals(1.5, decoder.get(0, yawIndex), 0);
+        assertEquals(10.5, decoder.get(0, loopIndex), 0);
+        assertEquals(-1, decoder.getChannelIndex(FlightChannels.BATTERY_VOLTAGE));
+    }
+
+    @Test
+    public void notARecordingIsRejected() throws IOException {
+        Files.write(file.toPath(), new byte[64]);
+        try {
+            new FlightLogDecoder(file);
+            fail("A file of zeros was accepted");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("not a flight recording"));
+        }
+    }
+
+    @Test
+    public void csvHasOneRowPerRecord() throws IOException {
+        record(100, 2);
+        StringWriter csv = new StringWriter();
+        new FlightLogDecoder(file).writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("time_s (s),ticks (ticks),big,power,yaw (rad)", lines[0]);
+        assertEquals("0.0200,-1000,5000000001,0.250000,1.570796", lines[2]);
+    }
+
+    @Test
+    public void channelsCannotBeAddedAfterOpen() throws IOException {
+        FlightRecorder recorder = new FlightRecorder(file, 10, clock);
+        recorder.open();
+        try {
+            recorder.addChannel("late", FlightRecorder.Type.INT32, "");
+            fail("A channel was added after open()");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        recorder.close();
+        assertFalse(recorder.isOpen());
+    }
+}
@@ -0,0 +1,149 @@
+// Filename: ImuSamplerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for ImuSampler with a fake IMU. The sampler runs its real background thread.
+ *
+ * @author Team 13353
+ */
+public class ImuSamplerTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private ImuSampler sampler;
+
+    /** The fake IMU's yaw. Written by the test, read on the sampler thread. */
+    private volatile double fakeYaw = 1.0;
+
+    @After
+    public void tearDown() {
+        if (sampler != null) sampler.stop();
+    }
+
+    /** Waits until getLatest() returns a sample, or fails the test. */
+    private static void awaitSample(ImuSampler sampler, ImuSampler.Sample out) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!sampler.getLatest(out)) {
+            assertTrue("no sample published", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void noSampleBeforeFirstRead() {
+        sampler = new ImuSampler(out -> out.yaw = 1, 100, NanoClock.SYSTEM);
+        ImuSampler.Sample sample = new ImuSampler.Sample();
+        assertFalse(sampler.getLatest(sample));
+        assertEquals(0, sample.sequence);
+    }
+
+    @Test
+    public void discardedSampleIsNotHandedOutAgain() throws InterruptedException {
+        sampler = new ImuSampler(out -> out.yaw = fakeYaw, 1000, NanoClock.SYSTEM);
+        sampler.start();
+        ImuSampler.Sample sample = new ImuSampler.Sample();
+        awaitSample(sampler, sample);
+        assertEquals(1.0, sample.yaw, 0);
+
+        // Re-zero the fake IMU, then drop everything read before.
+        fakeYaw = 0.0;
+        sampler.discardSamples();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!sampler.getLatest(sample)) {
+            assertTrue(System.currentTimeMillis() < deadline);
+        }
+        assertEquals(0.0, sample.yaw, 0);
+    }
+
+    @Test
+    public void readInProgressAtDiscardIsDropped() throws InterruptedException {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+        int[] reads = {0};
+        sampler = new ImuSampler(out -> {
+            reads[0]++;
+            if (reads[0] == 1) {
+                // The first read starts before the re-zero and finishes after it.
+                readStarted.countDown();
+                try {
+                    releaseRead.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.yaw = 1.0;
+            } else {
+                out.yaw = 0.0;
+            }
+        }, 1000, NanoClock.SYSTEM);
+        sampler.start();
+        assertTrue(readStarted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        Thread.sleep(2); // Make sure the discard time is after the read started.
+        sampler.discardSamples();
+        releaseRead.countDown();
+
+        ImuSampler.Sample sample = new ImuSampler.Sample();
+        awaitSample(sampler, sample);
+        assertEquals(0.0, sample.yaw, 0);
+        assertTrue(sample.sequence >= 2);
+    }
+
+    @Test
+    public void readsNeverMixTwoSamples() throws InterruptedException {
+        // Every field of read n is n, so a reader that mixed two samples would see fields differ.
+        long[] reads = {0};
+        ImuSampler.Source source = out -> {
+            double n = ++reads[0];
+            out.yaw = n;
+            out.pitch = n;
+            out.roll = n;
+            out.yawRate = n;
+        };
+        // A clock that never really sleeps, so the sampler publishes as fast as it can.
+        NanoClock busyClock = new NanoClock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public void sleepNanos(long nanos) {
+                Thread.yield();
+            }
+        };
+        sampler = new ImuSampler(source, 1e6, busyClock);
+        sampler.start();
+
+        ImuSampler.Sample sample = new ImuSampler.Sample();
+        awaitSample(sampler, sample);
+        long checked = 0;
+        long lastSequence = 0;
+        long distinct = 0;
+        long end = System.nanoTime() + 300_000_000L;
+        while (System.nanoTime() < end) {
+            assertTrue(sampler.getLatest(sample));
+            double n = sample.yaw;
+            assertEquals(n, sample.pitch, 0);
+            assertEquals(n, sample.roll, 0);
+            assertEquals(n, sample.yawRate, 0);
+            // The n-th read is the n-th published sample.
+            assertEquals((long) n, sample.sequence);
+            assertTrue("sequence went backwards", sample.sequence >= lastSequence);
+            if (sample.sequence != lastSequence) distinct++;
+            lastSequence = sample.sequence;
+            checked++;
+        }
+        // The check is only meaningful if the writer really published while we were reading.
+        assertTrue("only " + distinct + " samples seen", distinct > 10);
+        assertTrue(checked > distinct);
+    }
+}
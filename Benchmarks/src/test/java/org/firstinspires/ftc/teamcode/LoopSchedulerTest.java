@@ -0,0 +1,153 @@
+// Filename: LoopSchedulerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for LoopScheduler, driven by a fake clock. Each phase "takes" time by advancing the clock.
+ *
+ * @author Team 13353
+ */
+public class LoopSchedulerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final FakeClock clock = new FakeClock(5_000 * MS);
+
+    /** How long the drive phase takes on each cycle, in ms. Tests change it between cycles. */
+    private double driveMs = 3;
+
+    private LoopScheduler scheduler;
+    private int drive, telemetry;
+
+    private void createScheduler() {
+        scheduler = new LoopScheduler(10, clock);
+        drive = scheduler.addPhase("drive", 4000, LoopScheduler.Priority.CRITICAL, () -> clock.advanceMs(driveMs));
+        telemetry = scheduler.addPhase("telemetry", 2000, LoopScheduler.Priority.DEFERRABLE, () -> clock.advanceMs(1.5));
+    }
+
+    @Test
+    public void cyclesStartOnAFixedPeriod() throws InterruptedException {
+        createScheduler();
+        long first = clock.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            scheduler.runCycle();
+        }
+        // Ten cycles of 4.5 ms each: nine sleeps of 5.5 ms fill up each period.
+        assertEquals(9 * 5.5 * MS, clock.sleptNanos, 1);
+        assertEquals(first + 9 * 10 * MS + (long) (4.5 * MS), clock.nanoTime());
+        assertEquals(10, scheduler.getCycleCount());
+        assertEquals(0, scheduler.getCycleOverruns());
+        assertEquals(0, scheduler.getPhaseSkips(telemetry));
+        assertEquals(0, scheduler.getMaxStartLatenessMs(), 0);
+    }
+
+    @Test
+    public void deferrablePhaseIsSkippedWhenItNoLongerFits() throws InterruptedException {
+        createScheduler();
+        driveMs = 9; // Leaves 1 ms, less than telemetry's 2 ms budget.
+        scheduler.runCycle();
+        assertEquals(1, scheduler.getPhaseRuns(drive));
+        assertEquals(1, scheduler.getPhaseOverruns(drive));
+        assertEquals(0, scheduler.getPhaseRuns(telemetry));
+        assertEquals(1, scheduler.getPhaseSkips(telemetry));
+        assertEquals(0, scheduler.getCycleOverruns());
+
+        // When the cycle is on time again, the phase runs.
+        driveMs = 3;
+        scheduler.runCycle();
+        assertEquals(1, scheduler.getPhaseRuns(telemetry));
+    }
+
+    @Test
+    public void deferrablePhaseIsForcedAfterTheSkipLimit() throws InterruptedException {
+        createScheduler();
+        scheduler.setMaxConsecutiveSkips(3);
+        driveMs = 9;
+        for (int i = 0; i < 3; i++) {
+            scheduler.runCycle();
+        }
+        assertEquals(3, scheduler.getPhaseSkips(telemetry));
+        assertEquals(0, scheduler.getPhaseRuns(telemetry));
+
+        // The fourth late cycle runs it anyway, and the count starts again.
+        scheduler.runCycle();
+        assertEquals(1, scheduler.getPhaseRuns(telemetry));
+        assertEquals(1, scheduler.getCycleOverruns());
+        for (int i = 0; i < 3; i++) {
+            scheduler.runCycle();
+        }
+        assertEquals(6, scheduler.getPhaseSkips(telemetry));
+        assertEquals(1, scheduler.getPhaseRuns(telemetry));
+    }
+
+    @Test
+    public void criticalPhaseIsNeverSkipped() throws InterruptedException {
+        createScheduler();
+        driveMs = 25;
+        for (int i = 0; i < 5; i++) {
+            scheduler.runCycle();
+        }
+        assertEquals(5, scheduler.getPhaseRuns(drive));
+        assertEquals(0, scheduler.getPhaseSkips(drive));
+    }
+
+    @Test
+    public void veryLateCycleResyncsInsteadOfBursting() throws InterruptedException {
+        createScheduler();
+        scheduler.runCycle();
+
+        // One cycle runs 35 ms, far past the next period's start.
+        driveMs = 35;
+        scheduler.runCycle();
+        assertEquals(1, scheduler.getResyncCount());
+        assertEquals(1, scheduler.getCycleOverruns());
+
+        // The next cycle starts right away, on the new schedule, and does not count as late.
+        driveMs = 3;
+        long resyncedStart = clock.nanoTime();
+        long sleptBefore = clock.sleptNanos;
+        scheduler.runCycle();
+        assertEquals(sleptBefore, clock.sleptNanos);
+        assertEquals(0, scheduler.getLastStartLatenessMs(), 0);
+
+        // After that, cycles are spaced one period from the resync point again.
+        scheduler.runCycle();
+        assertEquals(resyncedStart + 10 * MS + (long) (4.5 * MS), clock.nanoTime());
+        assertEquals(1, scheduler.getResyncCount());
+    }
+
+    @Test
+    public void slightlyLateCycleCatchesUpWithoutResync() throws InterruptedException {
+        createScheduler();
+        long first = clock.nanoTime();
+        scheduler.runCycle();
+
+        // 12.5 ms (telemetry is skipped): late, but the next period has not fully passed, so the
+        // schedule is kept and the next cycle starts 2.5 ms late, with no sleep.
+        driveMs = 12.5;
+        scheduler.runCycle();
+        assertEquals(0, scheduler.getResyncCount());
+        assertEquals(1, scheduler.getCycleOverruns());
+
+        driveMs = 3;
+        scheduler.runCycle();
+        assertEquals(2.5, scheduler.getLastStartLatenessMs(), 1e-9);
+        scheduler.runCycle();
+        assertEquals(first + 30 * MS + (long) (4.5 * MS), clock.nanoTime());
+    }
+
+    @Test
+    public void resetStatisticsKeepsPhases() throws InterruptedException {
+        createScheduler();
+        driveMs = 9;
+        scheduler.runCycle();
+        scheduler.resetStatistics();
+        assertEquals(0, scheduler.getCycleCount());
+        assertEquals(0, scheduler.getPhaseSkips(telemetry));
+        assertEquals(2, scheduler.getPhaseCount());
+        assertEquals("telemetry", scheduler.getPhaseName(telemetry));
+    }
+}
@@ -0,0 +1,70 @@
+// Filename: LoopTimerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tests for LoopTimer's statistics and its report lines.
+ *
+ * @author Team 13353
+ */
+public class LoopTimerTest {
+
+    private final FakeClock clock = new FakeClock();
+    private final LoopTimer timer = new LoopTimer(15, 1.0, clock);
+
+    /** Runs loops of 10 ms with a 40 ms spike every 50th loop, for 1.5 s. */
+    private void runLoops() {
+        timer.start();
+        for (int i = 1; i <= 150; i++) {
+            clock.advanceMs(i % 50 == 0 ? 40 : 10);
+            timer.update();
+        }
+    }
+
+    /** The line as String.format wrote it before the switch to FastFormat. */
+    private static String formatted(LatencyHistogram histogram, long overBudget) {
+        return String.format(Locale.US, "p50 %.1f p90 %.1f p99 %.1f p99.9 %.1f max %.1f ms | over %d",
+                histogram.getPercentileMs(50), histogram.getPercentileMs(90),
+                histogram.getPercentileMs(99), histogram.getPercentileMs(99.9),
+                histogram.getMaxMs(), overBudget);
+    }
+
+    @Test
+    public void countsLoopsAndSpikes() {
+        runLoops();
+        assertEquals(150, timer.getMatchHistogram().getCount());
+        assertEquals(3, timer.getOverBudgetCount());
+        assertEquals(40.0, timer.getPeakLoopTime(), 1e-9);
+        assertEquals(40.0, timer.getMatchHistogram().getMaxMs(), 0.5);
+    }
+
+    @Test
+    public void telemetryLineMatchesTheOldFormat() {
+        runLoops();
+        assertEquals(formatted(timer.getWindowHistogram(), timer.getWindowOverBudgetCount()),
+                timer.getTelemetryLine());
+        // The builder is reused: a second call gives the same line, not a longer one.
+        assertEquals(formatted(timer.getWindowHistogram(), timer.getWindowOverBudgetCount()),
+                timer.getTelemetryLine());
+    }
+
+    @Test
+    public void summaryMatchesTheOldFormat() {
+        runLoops();
+        List<String> lines = new ArrayList<>();
+        timer.appendSummary(lines);
+        assertEquals(2, lines.size());
+        assertEquals(String.format(Locale.US, "Loop Time - Match (%d loops, budget %.1f ms): %s",
+                150L, 15.0, formatted(timer.getMatchHistogram(), 3)), lines.get(0));
+        assertEquals(String.format(Locale.US, "Loop Time - Last Window (%d loops): %s",
+                timer.getWindowHistogram().getCount(),
+                formatted(timer.getWindowHistogram(), timer.getWindowOverBudgetCount())), lines.get(1));
+    }
+}
@@ -0,0 +1,200 @@
+// Filename: MacroPlayerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Tests for MacroPlayer, playing macros recorded by MacroRecorder against a FakeClock.
+ *
+ * The test macro has four samples, 100 ms apart, with forward = 0, 1, 0.5, 0.5 and
+ * strafe = -forward. Turn stays at 0.25.
+ *
+ * @author Team 13353
+ */
+public class MacroPlayerTest {
+
+    private static final double TOLERANCE = 1e-6;
+
+    private File folder;
+    private File file;
+    private final FakeClock clock = new FakeClock(5_000_000_000L);
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("MacroPlayerTest").toFile();
+        file = new File(folder, "test.macro");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        folder.delete();
+    }
+
+    /** Records the given forward commands, 100 ms apart, and opens the macro for playback. */
+    private MacroPlayer record(double... forwardCommands) throws IOException {
+        MacroRecorder recorder = new MacroRecorder(file, clock);
+        recorder.open();
+        for (int i = 0; i < forwardCommands.length; i++) {
+            if (i > 0) clock.advanceMs(100);
+            recorder.record(forwardCommands[i], -forwardCommands[i], 0.25);
+        }
+        recorder.close();
+        // The driver waits a while before starting playback; only the relative times matter.
+        clock.advanceMs(1234);
+        return new MacroPlayer(new FlightLogDecoder(file), clock);
+    }
+
+    private MacroPlayer standardMacro() throws IOException {
+        return record(0, 1, 0.5, 0.5);
+    }
+
+    @Test
+    public void startPlaysTheFirstSample() throws IOException {
+        MacroPlayer player = standardMacro();
+        assertEquals(4, player.getSampleCount());
+        assertEquals(0.3, player.getDurationSeconds(), TOLERANCE);
+        player.start();
+        assertEquals(0, player.getForward(), TOLERANCE);
+        assertEquals(0.25, player.getTurn(), TOLERANCE);
+        assertFalse(player.isFinished());
+    }
+
+    @Test
+    public void commandsAreInterpolatedBetweenSamples() throws IOException {
+        MacroPlayer player = standardMacro();
+        player.start();
+
+        clock.advanceMs(25);
+        assertTrue(player.update());
+        assertEquals(0.25, player.getForward(), TOLERANCE);
+        assertEquals(-0.25, player.getStrafe(), TOLERANCE);
+        assertEquals(0.25, player.getTurn(), TOLERANCE);
+
+        clock.advanceMs(75); // Exactly on the second sample
+        assertTrue(player.update());
+        assertEquals(1, player.getForward(), TOLERANCE);
+
+        clock.advanceMs(50); // Half-way down from 1 to 0.5
+        assertTrue(player.update());
+        assertEquals(0.75, player.getForward(), TOLERANCE);
+        assertEquals(0.15, player.getPlaybackSeconds(), TOLERANCE);
+    }
+
+    @Test
+    public void lateUpdateCatchesUpWithTheClock() throws IOException {
+        MacroPlayer player = standardMacro();
+        player.start();
+        clock.advanceMs(20);
+        player.update();
+
+        // One very late loop: playback jumps to the real time instead of one step along.
+        clock.advanceMs(230);
+        assertTrue(player.update());
+        assertEquals(0.25, player.getPlaybackSeconds(), TOLERANCE);
+        assertEquals(0.5, player.getForward(), TOLERANCE);
+        assertEquals(0.23, player.getMaxStepSeconds(), TOLERANCE);
+        assertEquals(2, player.getUpdateCount());
+    }
+
+    @Test
+    public void playbackFinishesAtTheRecordedDuration() throws IOException {
+        MacroPlayer player = standardMacro();
+        player.start();
+        clock.advanceMs(300); // The last sample is still played
+        assertTrue(player.update());
+        assertEquals(0.5, player.getForward(), TOLERANCE);
+
+        clock.advanceMs(1);
+        assertFalse(player.update());
+        assertTrue(player.isFinished());
+        assertEquals(0, player.getForward(), 0);
+        assertEquals(0, player.getStrafe(), 0);
+        assertEquals(0, player.getTurn(), 0);
+
+        clock.advanceMs(100);
+        assertFalse(player.update());
+        assertEquals(2, player.getUpdateCount());
+    }
+
+    @Test
+    public void steadyLoopsPlayEverySample() throws IOException {
+        MacroPlayer player = standardMacro();
+        player.start();
+        int playing = 0;
+        while (player.update()) {
+            playing++;
+            clock.advanceMs(10);
+        }
+        // Updates at 0 ms to 300 ms play; the one at 310 ms finishes.
+        assertEquals(31, playing);
+        assertEquals(0.01, player.getMaxStepSeconds(), TOLERANCE);
+    }
+
+    @Test
+    public void startAgainRewinds() throws IOException {
+        MacroPlayer player = standardMacro();
+        player.start();
+        clock.advanceMs(500);
+        assertFalse(player.update());
+
+        player.start();
+        assertFalse(player.isFinished());
+        clock.advanceMs(50);
+        assertTrue(player.update());
+        assertEquals(0.5, player.getForward(), TOLERANCE);
+        assertEquals(1, player.getUpdateCount());
+    }
+
+    @Test
+    public void updateBeforeStartDoesNothing() throws IOException {
+        MacroPlayer player = standardMacro();
+        clock.advanceMs(50);
+        assertFalse(player.update());
+        assertEquals(0, player.getForward(), 0);
+    }
+
+    @Test
+    public void emptyMacroFinishesAtOnce() throws IOException {
+        MacroPlayer player = record();
+        assertEquals(0, player.getSampleCount());
+        assertEquals(0, player.getDurationSeconds(), 0);
+        player.start();
+        assertTrue(player.isFinished());
+        clock.advanceMs(10);
+        assertFalse(player.update());
+        assertEquals(0, player.getForward(), 0);
+    }
+
+    @Test
+    public void singleSampleMacroHoldsThatSample() throws IOException {
+        MacroPlayer player = record(0.5);
+        player.start();
+        assertEquals(0.5, player.getForward(), TOLERANCE);
+        assertTrue(player.update()); // Same instant as the sample
+        clock.advanceMs(1);
+        assertFalse(player.update());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordingWithoutDriveChannelsIsRejected() throws IOException {
+        FlightRecorder recorder = new FlightRecorder(file, 10, clock);
+        recorder.addChannel(MacroRecorder.FORWARD, FlightRecorder.Type.FLOAT32, "");
+        recorder.open();
+        recorder.close();
+        new MacroPlayer(new FlightLogDecoder(file), clock);
+    }
+}
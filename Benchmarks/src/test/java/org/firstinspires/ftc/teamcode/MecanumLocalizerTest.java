@@ -0,0 +1,126 @@
+// Filename: MecanumLocalizerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for MecanumLocalizer. The wheel positions come from {@link MecanumKinematics}, so the
+ * forward kinematics must give back the motion that was commanded.
+ *
+ * @author Team 13353
+ */
+public class MecanumLocalizerTest {
+
+    private static final double INCHES_PER_TICK = 0.01;
+    private static final double TICKS_PER_POWER = 1000; // Each step, a wheel rolls 10 in per unit of power
+    private static final double TRACK_WIDTH = 14;
+    private static final double WHEEL_BASE = 12;
+    private static final double TURN_RADIUS = (TRACK_WIDTH + WHEEL_BASE) / 2;
+
+    private final int[] ticks = new int[4];
+    private final double[] powers = new double[4];
+
+    private MecanumLocalizer localizer(double lateralMultiplier) {
+        MecanumLocalizer localizer = new MecanumLocalizer(() -> 0, () -> 0, () -> 0, () -> 0, null,
+                INCHES_PER_TICK, TRACK_WIDTH, WHEEL_BASE, lateralMultiplier);
+        localizer.update(0, 0, 0, 0, Double.NaN);
+        return localizer;
+    }
+
+    /** Rolls each wheel as far as MecanumKinematics would drive it for one step, then updates. */
+    private void drive(MecanumLocalizer localizer, double forward, double strafe, double turn, double heading) {
+        MecanumKinematics.robotCentric(forward, strafe, turn, powers);
+        for (int i = 0; i < 4; i++) {
+            ticks[i] += (int) Math.round(powers[i] * TICKS_PER_POWER);
+        }
+        localizer.update(ticks[MecanumKinematics.LEFT_FRONT], ticks[MecanumKinematics.RIGHT_FRONT],
+                ticks[MecanumKinematics.LEFT_REAR], ticks[MecanumKinematics.RIGHT_REAR], heading);
+    }
+
+    @Test
+    public void forwardKinematicsReverseMecanumKinematics() {
+        MecanumLocalizer localizer = localizer(1.0);
+        // Small enough that robotCentric does not normalize: 4 in forward, 2 in right, a right turn.
+        drive(localizer, 0.4, 0.2, 0.1, Double.NaN);
+
+        PoseTracker expected = new PoseTracker();
+        // A positive strafe is to the right (-left); a positive turn is clockwise.
+        expected.applyTwist(4.0, -2.0, -1.0 / TURN_RADIUS);
+        assertEquals(expected.getX(), localizer.getX(), 1e-9);
+        assertEquals(expected.getY(), localizer.getY(), 1e-9);
+        assertEquals(expected.getHeading(), localizer.getHeading(), 1e-9);
+        assertEquals(1, localizer.getWheelHeadingCount());
+    }
+
+    @Test
+    public void lateralMultiplierScalesOnlyTheStrafe() {
+        MecanumLocalizer localizer = localizer(1.25);
+        drive(localizer, 0, -0.8, 0, Double.NaN); // 8 in left, as the wheels measure it
+        drive(localizer, 0.5, 0, 0, Double.NaN);
+        assertEquals(5.0, localizer.getX(), 1e-9);
+        assertEquals(10.0, localizer.getY(), 1e-9);
+        assertEquals(0, localizer.getHeading(), 1e-12);
+    }
+
+    @Test
+    public void imuHeadingReplacesTheWheelsTurn() {
+        MecanumLocalizer localizer = localizer(1.0);
+        drive(localizer, 0, 0, 0, 0.2); // First heading: only the reference
+        // The wheels report a clockwise turn, but the robot slipped: the IMU saw 0.1 rad counter-clockwise.
+        drive(localizer, 0, 0, 0.3, 0.3);
+        assertEquals(0.1, localizer.getHeading(), 1e-9);
+        drive(localizer, 0, 0, 0, 0.25);
+        assertEquals(0.05, localizer.getHeading(), 1e-9);
+        assertEquals(1, localizer.getWheelHeadingCount());
+    }
+
+    @Test
+    public void missingHeadingFallsBackToTheWheels() {
+        MecanumLocalizer localizer = localizer(1.0);
+        drive(localizer, 0, 0, 0, 0.0);
+        drive(localizer, 0, 0, -0.26, Double.NaN); // 2.6 in counter-clockwise roll: 0.2 rad
+        assertEquals(0.2, localizer.getHeading(), 1e-9);
+        // The next reading is only a new reference, not a turn from the last one.
+        drive(localizer, 0, 0, 0, 1.0);
+        assertEquals(0.2, localizer.getHeading(), 1e-9);
+        assertEquals(3, localizer.getWheelHeadingCount());
+    }
+
+    @Test
+    public void rebaseHeadingDoesNotTurnThePose() {
+        MecanumLocalizer localizer = localizer(1.0);
+        drive(localizer, 0, 0, 0, 0.0);
+        drive(localizer, 0, 0, 0, 0.3);
+        assertEquals(0.3, localizer.getHeading(), 1e-9);
+
+        // The IMU is re-zeroed: 0.3 -> 0.0 is within one step's limit, so without the rebase it
+        // would be taken as a real 0.3 rad turn.
+        localizer.rebaseHeading();
+        drive(localizer, 0, 0, 0, 0.0);
+        assertEquals(0.3, localizer.getHeading(), 1e-9);
+        drive(localizer, 0, 0, 0, 0.1);
+        assertEquals(0.4, localizer.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void largeHeadingJumpIsTakenAsAReZero() {
+        MecanumLocalizer localizer = localizer(1.0);
+        drive(localizer, 0, 0, 0, 2.0);
+        drive(localizer, 0, 0, 0, 0.0);
+        assertEquals(0, localizer.getHeading(), 1e-9);
+        assertEquals(2, localizer.getWheelHeadingCount());
+    }
+
+    @Test
+    public void resetStartsAgainFromTheNextPositions() {
+        MecanumLocalizer localizer = localizer(1.0);
+        drive(localizer, 1.0, 0, 0, Double.NaN);
+        assertEquals(10.0, localizer.getX(), 1e-9);
+        localizer.reset();
+        localizer.update(0, 0, 0, 0, Double.NaN); // Encoders were reset to 0
+        assertEquals(0, localizer.getX(), 0);
+        assertEquals(1, localizer.getUpdateCount());
+    }
+}
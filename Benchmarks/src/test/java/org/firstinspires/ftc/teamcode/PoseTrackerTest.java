@@ -0,0 +1,94 @@
+// Filename: PoseTrackerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests that PoseTracker moves the pose along the exact arc of each step.
+ *
+ * @author Team 13353
+ */
+public class PoseTrackerTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void straightDriveFollowsTheHeading() {
+        PoseTracker pose = new PoseTracker();
+        pose.setPose(5, -3, Math.PI / 2);
+        for (int i = 0; i < 10; i++) {
+            pose.applyTwist(1.5, 0, 0);
+        }
+        assertEquals(5, pose.getX(), EPSILON);
+        assertEquals(12, pose.getY(), EPSILON);
+        assertEquals(Math.PI / 2, pose.getHeading(), EPSILON);
+    }
+
+    @Test
+    public void constantTurnRateArcEndsOnTheCircle() {
+        // Drive a quarter circle of radius 40 in, counter-clockwise, in only 8 steps.
+        double radius = 40;
+        int steps = 8;
+        double dTheta = (Math.PI / 2) / steps;
+        PoseTracker pose = new PoseTracker();
+        for (int i = 0; i < steps; i++) {
+            pose.applyTwist(radius * dTheta, 0, dTheta);
+            double theta = (i + 1) * dTheta;
+            // Every step lands exactly on the circle, however coarse the steps are.
+            assertEquals(radius * Math.sin(theta), pose.getX(), EPSILON);
+            assertEquals(radius * (1 - Math.cos(theta)), pose.getY(), EPSILON);
+            assertEquals(theta, pose.getHeading(), EPSILON);
+        }
+    }
+
+    @Test
+    public void arcResultDoesNotDependOnStepCount() {
+        PoseTracker coarse = new PoseTracker();
+        PoseTracker fine = new PoseTracker();
+        // Clockwise, forward and strafing left at the same time.
+        coarse.applyTwist(30, 6, -1.2);
+        for (int i = 0; i < 1000; i++) {
+            fine.applyTwist(0.03, 0.006, -0.0012);
+        }
+        assertEquals(fine.getX(), coarse.getX(), 1e-9);
+        assertEquals(fine.getY(), coarse.getY(), 1e-9);
+        assertEquals(fine.getHeading(), coarse.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void fullCircleReturnsToTheStart() {
+        PoseTracker pose = new PoseTracker();
+        pose.setPose(10, 20, 0.3);
+        for (int i = 0; i < 12; i++) {
+            pose.applyTwist(Math.PI / 6 * 25, 0, Math.PI / 6);
+        }
+        assertEquals(10, pose.getX(), EPSILON);
+        assertEquals(20, pose.getY(), EPSILON);
+        assertEquals(0.3, pose.getHeading(), EPSILON);
+    }
+
+    @Test
+    public void smallAngleSeriesMatchesTheExactFormula() {
+        // Just below and just above the switch to the Taylor series.
+        PoseTracker series = new PoseTracker();
+        PoseTracker exact = new PoseTracker();
+        series.applyTwist(12, -4, 0.00099999);
+        exact.applyTwist(12, -4, 0.00100001);
+        assertEquals(exact.getX(), series.getX(), 1e-6);
+        assertEquals(exact.getY(), series.getY(), 1e-6);
+    }
+
+    @Test
+    public void headingIsWrapped() {
+        assertEquals(-Math.PI + 0.1, PoseTracker.normalizeRadians(Math.PI + 0.1), EPSILON);
+        assertEquals(Math.PI, PoseTracker.normalizeRadians(-Math.PI), EPSILON);
+        assertEquals(0.5, PoseTracker.normalizeRadians(0.5 + 6 * Math.PI), EPSILON);
+
+        PoseTracker pose = new PoseTracker();
+        pose.setPose(0, 0, 3.0);
+        pose.applyTwist(0, 0, 0.5);
+        assertEquals(3.5 - 2 * Math.PI, pose.getHeading(), EPSILON);
+    }
+}
@@ -0,0 +1,97 @@
+// Filename: PowerGovernorTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for PowerGovernor against a simulated battery: volts = ocv - r * amps, with the current
+ * set by the commanded power. As on the robot, every measurement feeds the BatteryEstimator the
+ * governor takes its battery model from.
+ *
+ * @author Team 13353
+ */
+public class PowerGovernorTest {
+
+    private static final double FLOOR = 9.0;
+    private static final double IDLE = 1.0;
+
+    private final Random random = new Random(13353);
+    private final BatteryEstimator battery = new BatteryEstimator(0.995, 0.08, 0.20, 3.0);
+    private final PowerGovernor governor = new PowerGovernor(battery, FLOOR, IDLE, 5.0);
+
+    /** Feeds measurements from a battery with a random load between 0 and 4 units of power. */
+    private void simulate(double ocv, double ohms, double ampsPerPower, int samples) {
+        for (int i = 0; i < samples; i++) {
+            double power = 4 * random.nextDouble();
+            double amps = IDLE + ampsPerPower * power;
+            battery.addSample(ocv - ohms * amps, amps);
+            governor.addMeasurement(amps, power);
+        }
+    }
+
+    @Test
+    public void usesTheEstimatorsBatteryModel() {
+        simulate(12.8, 0.12, 8.0, 1000);
+        assertEquals(battery.getResistanceOhms(), governor.getResistanceOhms(), 0);
+        assertEquals(0.12, governor.getResistanceOhms(), 0.005);
+    }
+
+    @Test
+    public void learnsAmpsPerPower() {
+        simulate(12.8, 0.12, 8.0, 1000);
+        assertEquals(8.0, governor.getAmpsPerPower(), 0.05);
+        assertEquals(1000, governor.getMeasurementCount());
+    }
+
+    @Test
+    public void noLimitBeforeAnyMeasurement() {
+        governor.govern(4.0, 1.0);
+        assertEquals(1.0, governor.getDriveScale(), 0);
+        assertEquals(1.0, governor.getMechanismScale(), 0);
+        assertFalse(governor.isLimiting());
+    }
+
+    @Test
+    public void lightLoadIsNotLimited() {
+        simulate(12.8, 0.12, 8.0, 1000);
+        governor.govern(1.0, 0.5);
+        assertFalse(governor.isLimiting());
+        double expected = 12.8 - 0.12 * (IDLE + 8.0 * 1.5);
+        assertEquals(expected, governor.getPredictedVolts(), 0.05);
+    }
+
+    @Test
+    public void heavyLoadIsHeldAtTheFloorWithDrivetrainFirst() {
+        simulate(12.8, 0.12, 8.0, 1000);
+
+        // Budget: (12.8 - 9) / 0.12 - 1 = 30.7 A. Drive wants 4 * 8 = 32 A: already too much.
+        governor.govern(4.0, 1.0);
+        assertTrue(governor.isLimiting());
+        assertEquals(0.0, governor.getMechanismScale(), 1e-9);
+        assertEquals(30.67 / 32.0, governor.getDriveScale(), 0.02);
+        assertEquals(FLOOR, governor.getPredictedVolts(), 1e-6);
+
+        // Drive fits with 14.7 A to spare; the mechanism wants 16 A and gets the rest.
+        governor.govern(2.0, 2.0);
+        assertEquals(1.0, governor.getDriveScale(), 0);
+        assertEquals(14.67 / 16.0, governor.getMechanismScale(), 0.02);
+        assertEquals(FLOOR, governor.getPredictedVolts(), 1e-6);
+        assertEquals(2, governor.getLimitedCount());
+        assertEquals(FLOOR, governor.getMinPredictedVolts(), 1e-6);
+    }
+
+    @Test
+    public void lowPowerAndInvalidMeasurementsDoNotTeachAmpsPerPower() {
+        governor.addMeasurement(Double.NaN, 2);
+        assertEquals(0, governor.getMeasurementCount());
+        governor.addMeasurement(3.0, 0.1); // Too little power to learn from
+        assertEquals(5.0, governor.getAmpsPerPower(), 0);
+        assertEquals(1, governor.getMeasurementCount());
+    }
+}
@@ -0,0 +1,136 @@
+// Filename: StallDetectorBankTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for StallDetectorBank, driven by a fake clock.
+ *
+ * @author Team 13353
+ */
+public class StallDetectorBankTest {
+
+    private final FakeClock clock = new FakeClock();
+    private final double[] currents = new double[3];
+    private StallDetectorBank bank;
+    private int arm, intake, drive;
+
+    @Before
+    public void setUp() {
+        bank = new StallDetectorBank(3, clock);
+        arm = bank.addChannel("arm", 9.0, 7.0, 500, 250);
+        intake = bank.addChannel("intake", 5.0, 4.0, 200, 200);
+        drive = bank.addChannel("drive", 8.0, 8.0, 0, 0);
+    }
+
+    /** Updates the bank every 20 ms for the given time with the same currents. */
+    private long hold(double armAmps, double intakeAmps, double driveAmps, long ms) {
+        currents[arm] = armAmps;
+        currents[intake] = intakeAmps;
+        currents[drive] = driveAmps;
+        long mask = bank.update(currents);
+        for (long t = 20; t <= ms; t += 20) {
+            clock.advanceMs(20);
+            mask = bank.update(currents);
+        }
+        return mask;
+    }
+
+    @Test
+    public void stallsOnlyAfterTheStallTime() {
+        hold(10, 0, 0, 480);
+        assertFalse(bank.isStalled(arm));
+        clock.advanceMs(20);
+        long mask = bank.update(currents);
+        assertTrue(bank.isStalled(arm));
+        assertEquals(1L << arm, mask);
+        assertEquals(1L << arm, bank.getNewlyStalledMask());
+        assertEquals(1, bank.getStallCount(arm));
+
+        // Still stalled, but no longer newly stalled.
+        clock.advanceMs(20);
+        bank.update(currents);
+        assertEquals(0, bank.getNewlyStalledMask());
+    }
+
+    @Test
+    public void shortSpikeDoesNotStall() {
+        hold(12, 0, 0, 300);
+        hold(3, 0, 0, 100);
+        hold(12, 0, 0, 300);
+        assertFalse(bank.isStalled(arm));
+        assertEquals(0, bank.getStallCount(arm));
+    }
+
+    @Test
+    public void hysteresisKeepsStallUntilCurrentDropsBelowClearThreshold() {
+        hold(10, 0, 0, 500);
+        assertTrue(bank.isStalled(arm));
+
+        // Between the thresholds: stays stalled however long it lasts.
+        hold(8, 0, 0, 2000);
+        assertTrue(bank.isStalled(arm));
+
+        // Below the clear threshold, but not for long enough.
+        hold(6, 0, 0, 200);
+        assertTrue(bank.isStalled(arm));
+        clock.advanceMs(60);
+        bank.update(currents);
+        assertFalse(bank.isStalled(arm));
+
+        // Back between the thresholds: not stalled again.
+        hold(8, 0, 0, 2000);
+        assertFalse(bank.isStalled(arm));
+        assertEquals(1, bank.getStallCount(arm));
+    }
+
+    @Test
+    public void channelsAreIndependent() {
+        long mask = hold(10, 6, 0, 500);
+        assertEquals((1L << arm) | (1L << intake), mask);
+        mask = hold(0, 6, 0, 300);
+        assertEquals(1L << intake, mask);
+    }
+
+    @Test
+    public void notReadChannelKeepsItsState() {
+        hold(10, 0, 0, 500);
+        assertTrue(bank.isStalled(arm));
+        hold(Double.NaN, 0, 0, 1000);
+        assertTrue(bank.isStalled(arm));
+    }
+
+    @Test
+    public void zeroStallTimeStallsOnSecondReading() {
+        currents[drive] = 9;
+        bank.update(currents);
+        assertFalse(bank.isStalled(drive));
+        bank.update(currents);
+        assertTrue(bank.isStalled(drive));
+    }
+
+    @Test
+    public void resetClearsEveryChannel() {
+        hold(10, 6, 0, 500);
+        bank.reset();
+        assertEquals(0, bank.getStalledMask());
+        // The stall time starts over.
+        hold(10, 0, 0, 480);
+        assertFalse(bank.isStalled(arm));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void clearThresholdAboveStallThresholdIsRejected() {
+        bank.setThresholds(arm, 5.0, 6.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fullBankRejectsAnotherChannel() {
+        bank.addChannel("extra", 5, 4, 100, 100);
+    }
+}
@@ -0,0 +1,128 @@
+// Filename: TaskSchedulerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for TaskScheduler, driven by a fake clock.
+ *
+ * @author Team 13353
+ */
+public class TaskSchedulerTest {
+
+    private final FakeClock clock = new FakeClock(1_000_000_000L);
+    private final int[] counts = new int[4];
+
+    /** Ticks the scheduler once per loop for the given simulated time. */
+    private void runFor(TaskScheduler tasks, double loopMs, double seconds) {
+        int loops = (int) Math.round(seconds * 1000 / loopMs);
+        for (int i = 0; i < loops; i++) {
+            tasks.tick();
+            clock.advanceMs(loopMs);
+        }
+    }
+
+    /** The draft Robot's task set: stall 50 Hz prio 2, health 5 Hz prio 1, config 2 Hz prio 0. */
+    private TaskScheduler draftRobotTasks() {
+        TaskScheduler tasks = new TaskScheduler(clock);
+        tasks.addTask("stall", 50, 2, () -> counts[0]++);
+        tasks.addTask("health", 5, 1, () -> counts[1]++);
+        tasks.addTask("config", 2, 0, () -> counts[2]++);
+        return tasks;
+    }
+
+    @Test
+    public void fullRateTasksRunEveryTick() {
+        TaskScheduler tasks = new TaskScheduler(clock);
+        tasks.addTask("drive", 0, 0, () -> counts[0]++);
+        tasks.addTask("stall", 50, 2, () -> counts[1]++);
+        runFor(tasks, 10, 1.0);
+        assertEquals(100, counts[0]);
+        assertEquals(100, tasks.getTickCount());
+        assertEquals(50, counts[1], 1);
+    }
+
+    @Test
+    public void tasksRunAtTheirOwnRatesWhenLoopIsFast() {
+        TaskScheduler tasks = draftRobotTasks();
+        runFor(tasks, 10, 10.0);
+        assertEquals(500, counts[0], 10);
+        assertEquals(50, counts[1], 2);
+        assertEquals(20, counts[2], 2);
+    }
+
+    @Test
+    public void lowPriorityTasksDoNotStarveWhenHighPriorityIsAlwaysDue() {
+        // With 20 ms and 25 ms loops the 50 Hz stall task is due on every tick.
+        for (double loopMs : new double[] {20, 25}) {
+            java.util.Arrays.fill(counts, 0);
+            TaskScheduler tasks = draftRobotTasks();
+            runFor(tasks, loopMs, 10.0);
+            assertTrue("health ran " + counts[1] + " times at " + loopMs + " ms", counts[1] >= 40);
+            assertTrue("config ran " + counts[2] + " times at " + loopMs + " ms", counts[2] >= 16);
+            assertTrue("stall ran " + counts[0] + " times at " + loopMs + " ms",
+                    counts[0] >= 0.8 * tasks.getTickCount());
+        }
+    }
+
+    @Test
+    public void starvingTaskWaitsAtMostTheDeferralLimit() {
+        TaskScheduler tasks = new TaskScheduler(clock);
+        tasks.setMaxConsecutiveDeferrals(3);
+        tasks.addTask("fast", 1000, 5, () -> counts[0]++);
+        int slow = tasks.addTask("slow", 1, 0, () -> counts[1]++);
+
+        // The slow task comes due 10 ms after start; the fast task is due on every tick.
+        int tick = 0;
+        while (counts[1] == 0) {
+            tasks.tick();
+            clock.advanceMs(10);
+            tick++;
+        }
+        assertEquals(1 + 1 + 3, tick);
+        assertEquals(3, tasks.getDeferrals(slow));
+    }
+
+    @Test
+    public void mostOverdueStarvingTaskRunsFirst() {
+        TaskScheduler tasks = new TaskScheduler(clock);
+        tasks.setMaxConsecutiveDeferrals(0);
+        tasks.addTask("a", 1, 9, () -> counts[0]++);
+        tasks.addTask("b", 1, 0, () -> counts[1]++);
+
+        // Only "a" runs on the first tick, so "b" has been due far longer when both are due after
+        // a long stall. With no deferrals allowed both are starving, so "b" runs first even
+        // though "a" has the higher priority.
+        tasks.tick();
+        clock.advanceMs(2000);
+        tasks.tick();
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        tasks.tick();
+        assertEquals(2, counts[0]);
+    }
+
+    @Test
+    public void priorityOrdersTasksThatAreNotStarving() {
+        TaskScheduler tasks = new TaskScheduler(clock);
+        tasks.addTask("low", 1, 0, () -> counts[0]++);
+        tasks.addTask("high", 1, 3, () -> counts[1]++);
+        tasks.tick();
+        clock.advanceMs(2000);
+        tasks.tick();
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+    }
+
+    @Test
+    public void measuredRateTracksRealRuns() {
+        TaskScheduler tasks = new TaskScheduler(clock);
+        int health = tasks.addTask("health", 5, 1, () -> { });
+        runFor(tasks, 10, 5.0);
+        assertEquals(5.0, tasks.getTargetHz(health), 1e-9);
+        assertEquals(5.0, tasks.getMeasuredHz(health), 0.1);
+    }
+}
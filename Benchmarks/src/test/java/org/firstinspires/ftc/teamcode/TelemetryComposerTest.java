@@ -0,0 +1,229 @@
+// Filename: TelemetryComposerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for TelemetryComposer's dirty tracking, rate limiting and statistics, with a fake
+ * Driver Station screen and a FakeClock.
+ *
+ * @author Team 13353
+ */
+public class TelemetryComposerTest {
+
+    /** Records the lines of every push, as "caption: text" or plain text. */
+    private static class FakeDisplay implements TelemetryComposer.Display {
+        int intervalMs = -1;
+        int updates = 0;
+        final List<String> pending = new ArrayList<>();
+        List<String> screen = new ArrayList<>();
+
+        @Override public void setMsTransmissionInterval(int ms) { intervalMs = ms; }
+        @Override public void addLine(String text) { pending.add(text); }
+        @Override public void addData(String caption, String text) { pending.add(caption + ": " + text); }
+
+        @Override
+        public void update() {
+            screen = new ArrayList<>(pending);
+            pending.clear();
+            updates++;
+        }
+    }
+
+    /** A FakeClock where every reading moves time on a little, so formatting has a cost. */
+    private static class TickingClock extends FakeClock {
+        private final long tickNanos;
+
+        TickingClock(long tickNanos) {
+            this.tickNanos = tickNanos;
+        }
+
+        @Override
+        public long nanoTime() {
+            advanceNanos(tickNanos);
+            return super.nanoTime();
+        }
+    }
+
+    private final FakeDisplay display = new FakeDisplay();
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    public void rateSetsTheTransmissionInterval() {
+        new TelemetryComposer(display, 4, clock);
+        assertEquals(250, display.intervalMs);
+        new TelemetryComposer(new FakeDisplay(), clock);
+        assertEquals(250, display.intervalMs); // render()-only composers leave it alone
+    }
+
+    @Test
+    public void slotsAreShownInOrder() {
+        TelemetryComposer composer = new TelemetryComposer(display, 4, clock);
+        composer.addLine("--- Drive ---");
+        int heading = composer.addNumber("Heading", "%.2f deg", 0.01, 1);
+        int pose = composer.addNumber(null, "XY %5.1f %5.1f", 0.1, 2);
+        int mode = composer.addText("Mode");
+        composer.set(heading, 12.345);
+        composer.set(pose, 1, -2.25);
+        composer.setText(mode, "FIELD");
+        assertTrue(composer.update());
+        assertEquals("[--- Drive ---, Heading: 12.35 deg, XY   1.0  -2.3, Mode: FIELD]", display.screen.toString());
+    }
+
+    @Test
+    public void changesBelowThePrecisionDoNotReformat() {
+        TelemetryComposer composer = new TelemetryComposer(display, 1000, clock);
+        int heading = composer.addNumber("Heading", "%.2f", 0.01, 1);
+        composer.set(heading, 1.001);
+        composer.update();
+        assertEquals(1, composer.getFormatCount());
+
+        clock.advanceMs(1);
+        composer.set(heading, 1.004); // Still shows "1.00"
+        composer.update();
+        assertEquals(1, composer.getFormatCount());
+        assertEquals(1, composer.getSkippedFormatCount());
+        assertEquals("Heading: 1.00", display.screen.get(0));
+
+        clock.advanceMs(1);
+        composer.set(heading, 1.006); // Now "1.01"
+        composer.update();
+        assertEquals(2, composer.getFormatCount());
+        assertEquals("Heading: 1.01", display.screen.get(0));
+    }
+
+    @Test
+    public void changeToAndFromNanIsShown() {
+        TelemetryComposer composer = new TelemetryComposer(display, 1000, clock);
+        int value = composer.addNumber("Value", "%.1f", 0.1, 1);
+        composer.set(value, 0);
+        composer.update();
+        assertEquals("Value: 0.0", display.screen.get(0));
+
+        // NaN rounds to the same 0 units as 0.0, but must still mark the slot dirty.
+        clock.advanceMs(1);
+        composer.set(value, Double.NaN);
+        composer.update();
+        assertEquals("Value: NaN", display.screen.get(0));
+
+        clock.advanceMs(1);
+        composer.set(value, Double.NaN);
+        composer.update();
+        assertEquals(2, composer.getFormatCount());
+
+        clock.advanceMs(1);
+        composer.set(value, 0);
+        composer.update();
+        assertEquals("Value: 0.0", display.screen.get(0));
+        assertEquals(3, composer.getFormatCount());
+    }
+
+    @Test
+    public void anyValueOfAMultiValueSlotMarksItDirty() {
+        TelemetryComposer composer = new TelemetryComposer(display, 1000, clock);
+        int xyz = composer.addNumber("XYZ", "%.0f %.0f %.0f", 1, 3);
+        composer.set(xyz, 1, 2, 3);
+        composer.update();
+        clock.advanceMs(1);
+        composer.set(xyz, 1, 2, 4);
+        composer.update();
+        assertEquals("XYZ: 1 2 4", display.screen.get(0));
+        assertEquals(2, composer.getFormatCount());
+    }
+
+    @Test
+    public void pushesAreRateLimited() {
+        TelemetryComposer composer = new TelemetryComposer(display, 4, clock);
+        int value = composer.addNumber("Value", "%.0f", 1, 1);
+        List<Long> pushMs = new ArrayList<>();
+        // Two seconds of a 50 Hz loop, with a value that changes every loop.
+        for (int loop = 0; loop < 100; loop++) {
+            long ms = loop * 20L;
+            boolean isDue = composer.isDue();
+            composer.set(value, loop);
+            assertEquals(isDue, composer.update());
+            if (isDue) pushMs.add(ms);
+            clock.advanceMs(20);
+        }
+        // Due every 250 ms on a steady schedule; each push waits for the next whole loop.
+        assertEquals("[0, 260, 500, 760, 1000, 1260, 1500, 1760]", pushMs.toString());
+        assertEquals(8, composer.getPushCount());
+        assertEquals(8, display.updates);
+        assertEquals(8, composer.getFormatCount());
+        assertEquals(92, composer.getSkippedFormatCount());
+    }
+
+    @Test
+    public void lateLoopDoesNotCauseABurst() {
+        TelemetryComposer composer = new TelemetryComposer(display, 4, clock);
+        composer.update();
+        clock.advanceMs(1000); // A long stall
+        assertTrue(composer.update());
+        clock.advanceMs(20);
+        assertFalse(composer.update());
+        clock.advanceMs(230);
+        assertTrue(composer.update());
+    }
+
+    @Test
+    public void hiddenSlotsAreNotSentOrFormatted() {
+        TelemetryComposer composer = new TelemetryComposer(display, 4, clock);
+        int shown = composer.addNumber("Shown", "%.0f", 1, 1);
+        int hidden = composer.addNumber("Hidden", "%.0f", 1, 1);
+        composer.set(shown, 1);
+        composer.set(hidden, 2);
+        composer.setVisible(hidden, false);
+        composer.update();
+        assertEquals("[Shown: 1]", display.screen.toString());
+        assertEquals(1, composer.getFormatCount());
+
+        composer.setVisible(hidden, true);
+        clock.advanceMs(250);
+        composer.update();
+        assertEquals("[Shown: 1, Hidden: 2]", display.screen.toString());
+    }
+
+    @Test
+    public void renderAddsLinesWithoutUpdating() {
+        TelemetryComposer composer = new TelemetryComposer(display, clock);
+        int value = composer.addNumber("Value", "%.1f", 0.1, 1);
+        composer.set(value, 2.5);
+        composer.render();
+        composer.render();
+        assertEquals(0, display.updates);
+        assertEquals(2, display.pending.size());
+        assertEquals(1, composer.getFormatCount());
+        assertEquals(1, composer.getSkippedFormatCount());
+    }
+
+    @Test
+    public void timeSavedIsEstimatedFromTheFormatCost() {
+        // Every clock reading costs 1 us, so every format is measured at exactly 1 us.
+        TickingClock ticking = new TickingClock(1_000);
+        TelemetryComposer composer = new TelemetryComposer(display, 4, ticking);
+        int a = composer.addNumber("A", "%.0f", 1, 1);
+        int b = composer.addNumber("B", "%.0f", 1, 1);
+        for (int loop = 0; loop < 60; loop++) {
+            composer.set(a, loop);
+            composer.set(b, loop);
+            composer.update();
+            ticking.advanceMs(20);
+        }
+        assertEquals(0.001, composer.getAverageFormatMs(), 1e-12);
+        // Two slots that every-loop telemetry would format: 100 formats per second at a 50 Hz
+        // loop, of which the 4 Hz pushes still do 8.
+        assertEquals(0.092, composer.getFormatTimeSavedMsPerSecond(), 0.002);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void patternMustTakeTheGivenNumberOfValues() {
+        new TelemetryComposer(display, 4, clock).addNumber("XY", "%.1f %.1f", 0.1, 1);
+    }
+}
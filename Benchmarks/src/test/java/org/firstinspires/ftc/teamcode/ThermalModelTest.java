@@ -0,0 +1,140 @@
+// Filename: ThermalModelTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests that ThermalModel follows the I^2*t model: exponential heating towards
+ * ambient + rise * I^2, and exponential cooling back to ambient.
+ *
+ * @author Team 13353
+ */
+public class ThermalModelTest {
+
+    private static final double AMBIENT = 25;
+    private static final double RISE = 1.5;      // deg C per A^2
+    private static final double HEAT_TAU = 90;   // s
+    private static final double COOL_TAU = 180;  // s
+
+    private final FakeClock clock = new FakeClock();
+
+    private ThermalModel createModel() {
+        return new ThermalModel(AMBIENT, RISE, HEAT_TAU, COOL_TAU, 70, 100, 0.3, clock);
+    }
+
+    /** Runs a steady current for a time, in steps of dt. */
+    private static void run(ThermalModel model, double amps, double seconds, double dt) {
+        int steps = (int) Math.round(seconds / dt);
+        for (int i = 0; i < steps; i++) {
+            model.update(amps, dt);
+        }
+    }
+
+    @Test
+    public void heatingFollowsTheExponentialTowardsIsquaredTarget() {
+        ThermalModel model = createModel();
+        double amps = 5;
+        run(model, amps, 60, 0.05);
+        double target = AMBIENT + RISE * amps * amps;
+        double expected = target - (target - AMBIENT) * Math.exp(-60 / HEAT_TAU);
+        assertEquals(expected, model.getTemperatureC(), 1e-6);
+
+        // After many time constants it settles at the target.
+        run(model, amps, 20 * HEAT_TAU, 1);
+        assertEquals(target, model.getTemperatureC(), 1e-6);
+    }
+
+    @Test
+    public void heatGrowsWithCurrentSquared() {
+        ThermalModel low = createModel();
+        ThermalModel high = createModel();
+        run(low, 2, 30, 0.1);
+        run(high, 4, 30, 0.1);
+        double lowRise = low.getTemperatureC() - AMBIENT;
+        double highRise = high.getTemperatureC() - AMBIENT;
+        assertEquals(4.0, highRise / lowRise, 1e-9);
+    }
+
+    @Test
+    public void coolingUsesTheCoolingTimeConstant() {
+        ThermalModel model = createModel();
+        run(model, 6, 20 * HEAT_TAU, 1);
+        double hot = model.getTemperatureC();
+        run(model, 0, 120, 0.02);
+        double expected = AMBIENT + (hot - AMBIENT) * Math.exp(-120 / COOL_TAU);
+        assertEquals(expected, model.getTemperatureC(), 1e-6);
+        assertEquals(hot, model.getPeakTemperatureC(), 1e-9);
+    }
+
+    @Test
+    public void resultDoesNotDependOnTheUpdateRate() {
+        ThermalModel fast = createModel();
+        ThermalModel slow = createModel();
+        ThermalModel uneven = createModel();
+        run(fast, 7, 45, 0.01);
+        run(slow, 7, 45, 0.5);
+        for (int i = 0; i < 150; i++) {
+            // Alternating short and long steps, 0.3 s per pair.
+            uneven.update(7, 0.01);
+            uneven.update(7, 0.29);
+        }
+        assertEquals(fast.getTemperatureC(), slow.getTemperatureC(), 1e-9);
+        assertEquals(fast.getTemperatureC(), uneven.getTemperatureC(), 1e-9);
+    }
+
+    @Test
+    public void powerScaleDropsLinearlyFromDerateToMaxTemperature() {
+        // 85 deg C steady state: halfway between 70 and 100, so the scale is halfway to 0.3.
+        ThermalModel model = createModel();
+        double amps = Math.sqrt((85 - AMBIENT) / RISE);
+        run(model, amps, 30 * HEAT_TAU, 1);
+        assertEquals(85, model.getTemperatureC(), 1e-6);
+        assertEquals(0.65, model.getPowerScale(), 1e-6);
+        assertTrue(model.isDerating());
+
+        // Far past the maximum: clamped at the minimum scale.
+        run(model, 20, 30 * HEAT_TAU, 1);
+        assertEquals(0.3, model.getPowerScale(), 0);
+
+        // Cooled below the derate temperature: full power again.
+        run(model, 0, 30 * COOL_TAU, 1);
+        assertEquals(1.0, model.getPowerScale(), 0);
+        assertFalse(model.isDerating());
+    }
+
+    @Test
+    public void clockDrivenUpdateMeasuresTheTimeStep() {
+        ThermalModel timed = createModel();
+        ThermalModel stepped = createModel();
+        timed.update(5); // Only starts the clock.
+        assertEquals(AMBIENT, timed.getTemperatureC(), 0);
+        for (int i = 0; i < 100; i++) {
+            clock.advanceMs(50);
+            timed.update(5);
+            stepped.update(5, 0.05);
+        }
+        assertEquals(stepped.getTemperatureC(), timed.getTemperatureC(), 1e-9);
+    }
+
+    @Test
+    public void nanReadingIsIgnored() {
+        ThermalModel model = createModel();
+        run(model, 5, 10, 0.1);
+        double before = model.getTemperatureC();
+        model.update(Double.NaN, 10);
+        assertEquals(before, model.getTemperatureC(), 0);
+    }
+
+    @Test
+    public void resetReturnsToAmbient() {
+        ThermalModel model = createModel();
+        run(model, 20, 30 * HEAT_TAU, 1);
+        model.reset();
+        assertEquals(AMBIENT, model.getTemperatureC(), 0);
+        assertEquals(1.0, model.getPowerScale(), 0);
+    }
+}
@@ -0,0 +1,105 @@
+// Filename: ThreeWheelLocalizerTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for ThreeWheelLocalizer, fed with the pod positions a known motion would produce.
+ *
+ * @author Team 13353
+ */
+public class ThreeWheelLocalizerTest {
+
+    private static final double INCHES_PER_TICK = 0.01;
+    private static final double TRACK_WIDTH = 10;
+    private static final double FORWARD_OFFSET = 2;
+
+    private final ThreeWheelLocalizer localizer = new ThreeWheelLocalizer(() -> 0, () -> 0, () -> 0,
+            INCHES_PER_TICK, TRACK_WIDTH, FORWARD_OFFSET);
+    private int left, right, perpendicular;
+
+    /** Moves the simulated pods by one step of robot motion, given in ticks of travel. */
+    private void step(int forwardTicks, int leftTicks, int turnTicks) {
+        // turnTicks is how far each parallel pod rolls from the turn (half the track width arc).
+        double dTheta = 2 * turnTicks * INCHES_PER_TICK / TRACK_WIDTH;
+        left += forwardTicks - turnTicks;
+        right += forwardTicks + turnTicks;
+        perpendicular += leftTicks + (int) Math.round(FORWARD_OFFSET * dTheta / INCHES_PER_TICK);
+        localizer.update(left, right, perpendicular);
+    }
+
+    @Test
+    public void firstUpdateOnlySetsTheStartingPoint() {
+        localizer.update(5000, -300, 1200);
+        assertEquals(0, localizer.getX(), 0);
+        assertEquals(0, localizer.getY(), 0);
+        assertEquals(0, localizer.getUpdateCount());
+    }
+
+    @Test
+    public void driveForwardAndStrafe() {
+        localizer.update(0, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            step(30, 0, 0);
+        }
+        assertEquals(30, localizer.getX(), 1e-9);
+        for (int i = 0; i < 100; i++) {
+            step(0, -20, 0);
+        }
+        assertEquals(30, localizer.getX(), 1e-9);
+        assertEquals(-20, localizer.getY(), 1e-9);
+        assertEquals(0, localizer.getHeading(), 1e-12);
+    }
+
+    @Test
+    public void turningInPlaceDoesNotMoveTheRobot() {
+        localizer.update(0, 0, 0);
+        // 5 ticks per pod per step: 0.01 rad; the perpendicular pod rolls 2 ticks with the turn.
+        for (int i = 0; i < 157; i++) {
+            step(0, 0, 5);
+        }
+        assertEquals(1.57, localizer.getHeading(), 1e-9);
+        assertEquals(0, localizer.getX(), 1e-9);
+        assertEquals(0, localizer.getY(), 1e-9);
+    }
+
+    @Test
+    public void constantArcEndsOnTheCircle() {
+        localizer.update(0, 0, 0);
+        // 0.5 in forward and 0.01 rad per step: a 50 in radius arc.
+        for (int i = 0; i < 100; i++) {
+            step(50, 0, 5);
+        }
+        assertEquals(1.0, localizer.getHeading(), 1e-9);
+        assertEquals(50 * Math.sin(1.0), localizer.getX(), 1e-9);
+        assertEquals(50 * (1 - Math.cos(1.0)), localizer.getY(), 1e-9);
+    }
+
+    @Test
+    public void resetStartsAgainFromTheNextPositions() {
+        localizer.update(0, 0, 0);
+        step(100, 0, 0);
+        localizer.reset();
+        localizer.update(0, 0, 0); // Encoders were reset to 0
+        assertEquals(0, localizer.getX(), 0);
+        left = right = perpendicular = 0;
+        step(100, 0, 0);
+        assertEquals(1.0, localizer.getX(), 1e-9);
+    }
+
+    @Test
+    public void setPoseMovesFromTheNewPose() {
+        localizer.update(0, 0, 0);
+        localizer.setPose(10, 10, Math.PI / 2);
+        step(100, 0, 0);
+        assertEquals(10, localizer.getX(), 1e-9);
+        assertEquals(11, localizer.getY(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveTrackWidthIsRejected() {
+        localizer.setGeometry(0, 1);
+    }
+}
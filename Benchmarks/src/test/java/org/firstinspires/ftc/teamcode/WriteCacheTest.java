@@ -0,0 +1,170 @@
+// Filename: WriteCacheTest.java
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for WriteCache, the write-suppression rules behind CachedMotor and CachedServo.
+ *
+ * The wrappers themselves need the FTC SDK's DcMotor and Servo, which this module does not have,
+ * and only add the hardware call on top of these decisions. The motor tests use the motor
+ * defaults from Constants and the servo tests the servo defaults, with time from a FakeClock.
+ *
+ * @author Team 13353
+ */
+public class WriteCacheTest {
+
+    private final FakeClock clock = new FakeClock(1_000_000_000L);
+
+    private WriteCache motorCache() {
+        return new WriteCache(Constants.OUTPUT_CACHE_POWER_EPSILON, Constants.OUTPUT_CACHE_REFRESH_MS);
+    }
+
+    private WriteCache servoCache() {
+        return new WriteCache(Constants.OUTPUT_CACHE_SERVO_EPSILON, Constants.OUTPUT_CACHE_REFRESH_MS);
+    }
+
+    @Test
+    public void firstCommandIsAlwaysWritten() {
+        WriteCache cache = motorCache();
+        assertTrue(cache.shouldWrite(0, clock.nanoTime()));
+        assertEquals(1, cache.getWrites());
+        assertEquals(0, cache.getSuppressedWrites());
+    }
+
+    @Test
+    public void changesWithinEpsilonAreSuppressed() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        clock.advanceMs(20);
+        assertFalse(cache.shouldWrite(0.5, clock.nanoTime()));
+        clock.advanceMs(20);
+        assertFalse(cache.shouldWrite(0.504, clock.nanoTime()));
+        clock.advanceMs(20);
+        assertFalse(cache.shouldWrite(0.496, clock.nanoTime()));
+        assertEquals(0.5, cache.getLastWrittenValue(), 0);
+        assertEquals(1, cache.getWrites());
+        assertEquals(3, cache.getSuppressedWrites());
+    }
+
+    @Test
+    public void changesBeyondEpsilonAreWritten() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        clock.advanceMs(20);
+        assertTrue(cache.shouldWrite(0.51, clock.nanoTime()));
+        assertEquals(0.51, cache.getLastWrittenValue(), 0);
+        clock.advanceMs(20);
+        assertTrue(cache.shouldWrite(-0.51, clock.nanoTime()));
+        assertEquals(3, cache.getWrites());
+        assertEquals(0, cache.getRefreshWrites());
+    }
+
+    @Test
+    public void slowDriftIsMeasuredFromTheLastWrite() {
+        // Each step is under the epsilon, but they add up against the value really written.
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        assertFalse(cache.shouldWrite(0.503, clock.nanoTime()));
+        assertTrue(cache.shouldWrite(0.506, clock.nanoTime()));
+        assertEquals(0.506, cache.getLastWrittenValue(), 0);
+    }
+
+    @Test
+    public void stopIsWrittenEvenWithinEpsilon() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.003, clock.nanoTime());
+        clock.advanceMs(20);
+        assertTrue(cache.shouldWrite(0, clock.nanoTime()));
+        assertEquals(0, cache.getLastWrittenValue(), 0);
+        // A repeated stop is redundant, though.
+        clock.advanceMs(20);
+        assertFalse(cache.shouldWrite(0, clock.nanoTime()));
+        assertEquals(2, cache.getWrites());
+        assertEquals(1, cache.getSuppressedWrites());
+    }
+
+    @Test
+    public void negativeZeroIsAStopToo() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(-0.002, clock.nanoTime());
+        assertTrue(cache.shouldWrite(-0.0, clock.nanoTime()));
+    }
+
+    @Test
+    public void unchangedValueIsRewrittenAfterTheRefreshPeriod() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        clock.advanceMs(Constants.OUTPUT_CACHE_REFRESH_MS - 1);
+        assertFalse(cache.shouldWrite(0.5, clock.nanoTime()));
+        clock.advanceMs(1);
+        assertTrue(cache.shouldWrite(0.5, clock.nanoTime()));
+        assertEquals(1, cache.getRefreshWrites());
+
+        // The refresh restarts the period.
+        clock.advanceMs(Constants.OUTPUT_CACHE_REFRESH_MS - 1);
+        assertFalse(cache.shouldWrite(0.5, clock.nanoTime()));
+        assertEquals(2, cache.getWrites());
+        assertEquals(2, cache.getSuppressedWrites());
+    }
+
+    @Test
+    public void realChangeRestartsTheRefreshPeriod() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        clock.advanceMs(200);
+        assertTrue(cache.shouldWrite(0.6, clock.nanoTime()));
+        clock.advanceMs(200);
+        assertFalse(cache.shouldWrite(0.6, clock.nanoTime()));
+        assertEquals(0, cache.getRefreshWrites());
+    }
+
+    @Test
+    public void invalidateForcesTheNextWrite() {
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        cache.invalidate();
+        assertTrue(cache.shouldWrite(0.5, clock.nanoTime()));
+        assertFalse(cache.shouldWrite(0.5, clock.nanoTime()));
+    }
+
+    @Test
+    public void forcedWriteKeepsTheCacheInSync() {
+        // What CachedMotor.forcePower does: write, then tell the cache.
+        WriteCache cache = motorCache();
+        cache.shouldWrite(0.8, clock.nanoTime());
+        cache.markWritten(0, clock.nanoTime());
+        assertEquals(0, cache.getLastWrittenValue(), 0);
+        assertFalse(cache.shouldWrite(0, clock.nanoTime()));
+        assertTrue(cache.shouldWrite(0.8, clock.nanoTime()));
+        assertEquals(3, cache.getWrites());
+        assertEquals(1, cache.getSuppressedWrites());
+    }
+
+    @Test
+    public void servoEpsilonIsFiner() {
+        WriteCache cache = servoCache();
+        cache.shouldWrite(0.5, clock.nanoTime());
+        assertFalse(cache.shouldWrite(0.5005, clock.nanoTime()));
+        assertTrue(cache.shouldWrite(0.502, clock.nanoTime()));
+    }
+
+    @Test
+    public void steadyDrivingSuppressesAlmostEveryWrite() {
+        // One second of a 50 Hz loop holding the same power: only the refreshes get through.
+        WriteCache cache = motorCache();
+        int written = 0;
+        for (int loop = 0; loop < 50; loop++) {
+            if (cache.shouldWrite(0.7, clock.nanoTime())) written++;
+            clock.advanceMs(20);
+        }
+        assertEquals(4, written); // The first write, then one refresh per 260 ms (13 loops)
+        assertEquals(written, cache.getWrites());
+        assertEquals(50 - written, cache.getSuppressedWrites());
+        assertEquals(3, cache.getRefreshWrites());
+    }
+}
@@ -0,0 +1,122 @@
+// Filename: BenchmarkHarnessTest.java
+package org.firstinspires.ftc.teamcode.draft;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs BenchmarkHarness against SimulatedHardwareBackend and checks that each caching mode costs
+ * the number of hub transactions (and the latencies) it should.
+ *
+ * Warmup is turned off, so every transaction counted comes from the measured repetitions.
+ *
+ * @author Team 13353
+ */
+public class BenchmarkHarnessTest {
+
+    private static final int REPETITIONS = 20;
+    private static final int CALLS = 4;
+
+    private SimulatedHardwareBackend backend;
+    private BenchmarkHarness harness;
+
+    @Before
+    public void setUp() {
+        backend = new SimulatedHardwareBackend();
+        harness = new BenchmarkHarness(backend, backend.getClock());
+        harness.setWarmupCalls(0);
+        harness.setRepetitions(REPETITIONS);
+        harness.setCallsPerRepetition(CALLS);
+    }
+
+    /** Runs one primitive and returns the transactions it made. */
+    private long transactions(BenchmarkHarness.Primitive primitive, BenchmarkHarness.CachingMode mode) {
+        long before = backend.getTransactionCount();
+        BenchmarkHarness.Result result = harness.run(primitive, mode);
+        assertEquals(REPETITIONS * CALLS, result.nanos.getCount());
+        return backend.getTransactionCount() - before;
+    }
+
+    @Test
+    public void offModeReadsEveryValueSeparately() {
+        assertEquals(REPETITIONS * CALLS, transactions(BenchmarkHarness.Primitive.ENCODER, BenchmarkHarness.CachingMode.OFF));
+    }
+
+    @Test
+    public void manualModeMakesOneBulkReadPerRepetition() {
+        assertEquals(REPETITIONS, transactions(BenchmarkHarness.Primitive.ENCODER, BenchmarkHarness.CachingMode.MANUAL));
+        assertEquals(REPETITIONS, transactions(BenchmarkHarness.Primitive.VELOCITY, BenchmarkHarness.CachingMode.MANUAL));
+    }
+
+    @Test
+    public void autoModeRereadsWhenTheSameValueIsReadTwice() {
+        // Reading one value several times per loop is AUTO mode's worst case: a bulk read every call.
+        assertEquals(REPETITIONS * CALLS, transactions(BenchmarkHarness.Primitive.ENCODER, BenchmarkHarness.CachingMode.AUTO));
+    }
+
+    @Test
+    public void cachingDoesNotHelpHubCommandsI2cOrWrites() {
+        for (BenchmarkHarness.CachingMode mode : BenchmarkHarness.CachingMode.values()) {
+            assertEquals(REPETITIONS * CALLS, transactions(BenchmarkHarness.Primitive.MOTOR_CURRENT, mode));
+            assertEquals(REPETITIONS * CALLS, transactions(BenchmarkHarness.Primitive.IMU_ANGLES, mode));
+            assertEquals(REPETITIONS * CALLS, transactions(BenchmarkHarness.Primitive.SET_POWER, mode));
+        }
+    }
+
+    @Test
+    public void baselineMakesNoTransactions() {
+        assertEquals(0, transactions(BenchmarkHarness.Primitive.BASELINE, BenchmarkHarness.CachingMode.OFF));
+        BenchmarkHarness.Result result = harness.run(BenchmarkHarness.Primitive.BASELINE, BenchmarkHarness.CachingMode.OFF);
+        assertEquals(0, result.nanos.getMaxMicros());
+    }
+
+    @Test
+    public void latenciesFollowTheSimulatedCosts() {
+        backend.setLatenciesMicros(2000, 1500, 1500, 3000, 1200, 2);
+
+        BenchmarkHarness.Result off = harness.run(BenchmarkHarness.Primitive.ENCODER, BenchmarkHarness.CachingMode.OFF);
+        assertEquals(1_500_000, off.nanos.getMinMicros());
+        assertEquals(1_500_000, off.nanos.getMaxMicros());
+
+        // One full bulk read per loop, then three reads from the cache.
+        BenchmarkHarness.Result manual = harness.run(BenchmarkHarness.Primitive.ENCODER, BenchmarkHarness.CachingMode.MANUAL);
+        assertEquals(2_000, manual.nanos.getMinMicros());
+        assertEquals(2_000_000, manual.nanos.getMaxMicros());
+        assertEquals(REPETITIONS, manual.nanos.getCountAbove(1_000_000));
+    }
+
+    @Test
+    public void writesAlternateSoTheyAreNeverUnchanged() {
+        harness.setCallsPerRepetition(3);
+        harness.run(BenchmarkHarness.Primitive.SET_POWER, BenchmarkHarness.CachingMode.OFF);
+        // 60 calls alternating 0.0 / 0.01: the last (index 59) is odd.
+        assertEquals(0.01, backend.getLastPower(), 0);
+    }
+
+    @Test
+    public void warmupCallsAreNotMeasured() {
+        harness.setWarmupCalls(10);
+        long before = backend.getTransactionCount();
+        BenchmarkHarness.Result result = harness.run(BenchmarkHarness.Primitive.ENCODER, BenchmarkHarness.CachingMode.MANUAL);
+        assertEquals(REPETITIONS * CALLS, result.nanos.getCount());
+        // Warmup clears the cache every CALLS calls too: 3 bulk reads for 10 calls.
+        assertEquals(3 + REPETITIONS, backend.getTransactionCount() - before);
+    }
+
+    @Test
+    public void runAllCoversEveryPrimitiveInEveryMode() {
+        List<BenchmarkHarness.Result> results = new ArrayList<>();
+        harness.runAll(results);
+        assertEquals(BenchmarkHarness.CachingMode.values().length * BenchmarkHarness.Primitive.values().length,
+                results.size());
+        for (BenchmarkHarness.Result result : results) {
+            assertTrue(result.toReportLine().startsWith(result.mode.name()));
+        }
+    }
+}
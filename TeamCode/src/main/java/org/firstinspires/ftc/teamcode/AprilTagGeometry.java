@@ -0,0 +1,40 @@
+// Filename: AprilTagGeometry.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * Pure math helpers for turning an AprilTag detection into distances we can drive with.
+ *
+ * The AprilTag processor reports a SLANT range: the straight-line distance from the camera lens
+ * to the tag, which is usually higher or lower than the camera. What we want for driving is the
+ * GROUND distance: how far the tag is across the floor. The two are related by the elevation
+ * angle: ground = slant * cos(elevation).
+ *
+ * Kept free of any vision or hardware classes so it can be benchmarked on a desktop JVM.
+ *
+ * @author Team 13353
+ */
+public final class AprilTagGeometry {
+
+    private AprilTagGeometry() {}
+
+    /**
+     * Computes the distance along the floor to a tag.
+     * @param slantRange The straight-line range to the tag (ftcPose.range), in any unit.
+     * @param elevationDegrees The elevation angle to the tag (ftcPose.elevation), in degrees.
+     * @return The ground distance, in the same unit as slantRange.
+     */
+    public static double groundDistance(double slantRange, double elevationDegrees) {
+        return slantRange * Math.cos(Math.toRadians(elevationDegrees));
+    }
+
+    /**
+     * Computes the ground distance and applies an empirical correction factor.
+     * @param slantRange The straight-line range to the tag, in any unit.
+     * @param elevationDegrees The elevation angle to the tag, in degrees.
+     * @param correctionFactor A multiplier found by measuring real distances (e.g. 0.975).
+     * @return The corrected ground distance, in the same unit as slantRange.
+     */
+    public static double correctedGroundDistance(double slantRange, double elevationDegrees, double correctionFactor) {
+        return groundDistance(slantRange, elevationDegrees) * correctionFactor;
+    }
+}
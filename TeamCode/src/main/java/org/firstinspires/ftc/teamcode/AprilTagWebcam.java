@@ -36,6 +36,11 @@ public class AprilTagWebcam {
     /** The telemetry object for displaying data on the Driver Station. */
     private Telemetry telemetry;
 
+    /** Caches the formatted detection lines, so they are only re-formatted when the values change. */
+    private TelemetryComposer composer;
+    private int tagCountSlot, notDetectedSlot, headerSlot, xyzSlot, prySlot, rbeSlot, unknownHeaderSlot, centerSlot;
+    private int headerTagId = -1; // The tag ID the cached header line was built for
+
     /**
      * Initializes the AprilTag detector and the camera with specified parameters.
      * This method is designed to be flexible, allowing for different webcam names and resolutions.
@@ -48,6 +53,7 @@ public class AprilTagWebcam {
      */
     public void init(HardwareMap hwMap, Telemetry telemetry, String webcamName, Size resolution) {
         this.telemetry = telemetry;
+        setupTelemetry();
 
         try {
             // Create the AprilTag processor with desired settings.
@@ -112,25 +118,52 @@ public class AprilTagWebcam {
      */
     public void displayDetectionTelemetry(AprilTagDetection detection) {
         // Provide a summary of how many tags are currently detected.
-        telemetry.addData("Detected Tags", detectedTags.size());
+        composer.set(tagCountSlot, detectedTags.size());
 
         // Robustly handle the case where the requested tag was not found.
-        if (detection == null) {
-            telemetry.addLine("The requested AprilTag was not detected.");
-            return; // Exit the method early
-        }
+        boolean isDetected = detection != null;
+        boolean hasMetadata = isDetected && detection.metadata != null;
+        composer.setVisible(notDetectedSlot, !isDetected);
+        composer.setVisible(headerSlot, hasMetadata);
+        composer.setVisible(xyzSlot, hasMetadata);
+        composer.setVisible(prySlot, hasMetadata);
+        composer.setVisible(rbeSlot, hasMetadata);
+        composer.setVisible(unknownHeaderSlot, isDetected && !hasMetadata);
+        composer.setVisible(centerSlot, isDetected && !hasMetadata);
 
         // Check if the tag's metadata (name, etc.) is available.
-        if (detection.metadata != null) {
-            telemetry.addLine(String.format("\n==== (ID %d) %s", detection.id, detection.metadata.name));
-            telemetry.addLine(String.format("XYZ %6.1f %6.1f %6.1f  (inch)", detection.ftcPose.x, detection.ftcPose.y, detection.ftcPose.z));
-            telemetry.addLine(String.format("PRY %6.1f %6.1f %6.1f  (deg)", detection.ftcPose.pitch, detection.ftcPose.roll, detection.ftcPose.yaw));
-            telemetry.addLine(String.format("RBE %6.1f %6.1f %6.1f  (inch, deg, deg)", detection.ftcPose.range, detection.ftcPose.bearing, detection.ftcPose.elevation));
-        } else {
+        if (hasMetadata) {
+            // The header only changes when a different tag is shown.
+            if (detection.id != headerTagId) {
+                composer.setText(headerSlot, String.format("\n==== (ID %d) %s", detection.id, detection.metadata.name));
+                headerTagId = detection.id;
+            }
+            composer.set(xyzSlot, detection.ftcPose.x, detection.ftcPose.y, detection.ftcPose.z);
+            composer.set(prySlot, detection.ftcPose.pitch, detection.ftcPose.roll, detection.ftcPose.yaw);
+            composer.set(rbeSlot, detection.ftcPose.range, detection.ftcPose.bearing, detection.ftcPose.elevation);
+        } else if (isDetected) {
             // Display basic information if metadata is not available.
-            telemetry.addLine(String.format("\n==== (ID %d) Unknown", detection.id));
-            telemetry.addLine(String.format("Center %6.0f %6.0f   (pixels)", detection.center.x, detection.center.y));
+            composer.set(unknownHeaderSlot, detection.id);
+            composer.set(centerSlot, detection.center.x, detection.center.y);
         }
+
+        // Add the (cached) lines. The OpMode still owns telemetry.update().
+        composer.render();
+    }
+
+    /**
+     * Lays out the detection telemetry lines. Each line is only re-formatted when its values change.
+     */
+    private void setupTelemetry() {
+        composer = new TelemetryComposer(new SdkTelemetry(telemetry), NanoClock.SYSTEM);
+        tagCountSlot = composer.addNumber("Detected Tags", "%.0f", 1, 1);
+        notDetectedSlot = composer.addLine("The requested AprilTag was not detected.");
+        headerSlot = composer.addText(null);
+        xyzSlot = composer.addNumber(null, "XYZ %6.1f %6.1f %6.1f  (inch)", 0.1, 3);
+        prySlot = composer.addNumber(null, "PRY %6.1f %6.1f %6.1f  (deg)", 0.1, 3);
+        rbeSlot = composer.addNumber(null, "RBE %6.1f %6.1f %6.1f  (inch, deg, deg)", 0.1, 3);
+        unknownHeaderSlot = composer.addNumber(null, "\n==== (ID %.0f) Unknown", 1, 1);
+        centerSlot = composer.addNumber(null, "Center %6.0f %6.0f   (pixels)", 1, 2);
     }
 
     /**
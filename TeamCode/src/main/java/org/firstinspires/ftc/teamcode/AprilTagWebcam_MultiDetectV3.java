@@ -51,6 +51,9 @@ public class AprilTagWebcam_MultiDetectV3 extends LinearOpMode {
      */
     final double GROUND_DISTANCE_CORRECTION_FACTOR = 0.975;
 
+    // Reused for every telemetry line, so the detection loop does not allocate a Formatter per line.
+    private final StringBuilder line = new StringBuilder(64);
+
     @Override
     public void runOpMode() throws InterruptedException {
         initAprilTag();
@@ -106,23 +109,34 @@ public class AprilTagWebcam_MultiDetectV3 extends LinearOpMode {
                 double bearing = detection.ftcPose.bearing;
 
                 // Perform the trigonometric calculation to get the uncorrected ground distance
-                double elevationRadians = Math.toRadians(elevation);
-                double groundDistance = slantRange * Math.cos(elevationRadians);
+                double groundDistance = AprilTagGeometry.groundDistance(slantRange, elevation);
 
                 // Apply the empirical correction factor
-                double correctedGroundDistance = groundDistance * GROUND_DISTANCE_CORRECTION_FACTOR;
+                double correctedGroundDistance = AprilTagGeometry.correctedGroundDistance(
+                        slantRange, elevation, GROUND_DISTANCE_CORRECTION_FACTOR);
 
                 // Display all the relevant information
-                telemetry.addLine(String.format(">> ID %d (%s)", detection.id, detection.metadata.name));
-                telemetry.addLine(String.format("   Slant Range: %5.1f in", slantRange));
-                telemetry.addLine(String.format("   Ground Distance (Calc): %5.1f in", groundDistance));
-                telemetry.addLine(String.format("   Ground Distance (Corrected): %5.1f in", correctedGroundDistance));
-                telemetry.addLine(String.format("   Bearing: %3.0f deg", bearing));
-                telemetry.addLine(String.format("   Elevation: %3.0f deg", elevation));
+                line.setLength(0);
+                line.append(">> ID ");
+                FastFormat.appendInt(line, detection.id);
+                telemetry.addLine(line.append(" (").append(detection.metadata.name).append(')').toString());
+                addMeasurement("   Slant Range: ", slantRange, 1, 5, " in");
+                addMeasurement("   Ground Distance (Calc): ", groundDistance, 1, 5, " in");
+                addMeasurement("   Ground Distance (Corrected): ", correctedGroundDistance, 1, 5, " in");
+                addMeasurement("   Bearing: ", bearing, 0, 3, " deg");
+                addMeasurement("   Elevation: ", elevation, 0, 3, " deg");
             }
         }
     }
 
+    /** Adds one "label value unit" line, formatted like "%5.1f" without String.format. */
+    private void addMeasurement(String label, double value, int decimals, int width, String unit) {
+        line.setLength(0);
+        line.append(label);
+        FastFormat.appendFixed(line, value, decimals, width);
+        telemetry.addLine(line.append(unit).toString());
+    }
+
     private void displayTuningTelemetry() {
         telemetry.addLine("--- Camera Tuning Mode ---");
         telemetry.addLine("Use D-Pad and Bumpers to adjust settings.");
@@ -0,0 +1,330 @@
+// Filename: AsyncLogWriter.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * =================================================================================================
+ * ASYNCHRONOUS LOG WRITER
+ * =================================================================================================
+ *
+ * This helper class writes lines of text to a file on a background thread, so the control loop
+ * never waits for the robot's flash storage.
+ *
+ * Writing to flash is usually quick, but every so often a single write takes tens of
+ * milliseconds (the storage is busy erasing a block). If that happens on the OpMode thread, the
+ * robot stops responding for that long.
+ *
+ * HOW IT WORKS:
+ * 1.  {@link #write(CharSequence)} copies the line's characters into a free slot of a fixed-size
+ *     QUEUE and returns straight away. It never blocks and never allocates.
+ * 2.  A background thread takes lines out of the queue, collects them in a large buffer, and
+ *     writes the buffer to the file through a FileChannel when it fills up or the queue is
+ *     empty. ONE writer thread serves every open AsyncLogWriter (the live log, the match log,
+ *     a macro recording...), so opening another file does not start another thread. The thread
+ *     starts with the first open writer and ends when the last one is closed.
+ * 3.  {@link #close()} stops accepting lines, waits until everything already queued is in the
+ *     file, forces it to storage and closes it. Nothing that was accepted is ever lost.
+ *
+ * BACK-PRESSURE: If lines arrive faster than the storage can take them, the queue fills up. Then
+ * write() DROPS the line (and returns false) rather than make the control loop wait. The dropped
+ * count and the queue's HIGH-WATER MARK (the fullest it has ever been) show whether the queue is
+ * big enough.
+ *
+ * The queue is a bounded lock-free queue for many producers and one consumer: producers claim a
+ * slot with a single compare-and-set, and each slot has a sequence number that tells the writer
+ * thread when its line is complete. Any thread may call write(). A producer checks for close()
+ * again after claiming its slot, so a line is either written or refused, never accepted and lost.
+ *
+ * Text is written as ASCII; any other character is written as '?'. A line longer than the slot
+ * size is cut short.
+ *
+ * @author Team 13353
+ */
+public class AsyncLogWriter implements Closeable {
+
+    /** How many lines the queue holds by default. */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /** The longest line (in bytes, including the newline) kept whole by default. */
+    public static final int DEFAULT_MAX_LINE_BYTES = 256;
+
+    /** How long the writer thread sleeps when there is nothing to write. */
+    private static final long IDLE_NANOS = 2_000_000L;
+    /** The size of each writer's output buffer. */
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    // --- THE SHARED WRITER THREAD ---
+    private static final Object THREAD_LOCK = new Object();
+    private static final List<AsyncLogWriter> OPEN_WRITERS = new CopyOnWriteArrayList<>();
+    private static volatile Thread writerThread; // Changed only while holding THREAD_LOCK
+
+    // --- THE QUEUE ---
+    private final int capacity;
+    private final int mask;
+    private final int maxLineBytes;
+    private final byte[][] slots;
+    private final int[] slotLengths;
+    private final AtomicLongArray slotSequence; // == position: free; == position + 1: full
+    private final AtomicLong tail = new AtomicLong(0); // Next position to claim (producers)
+    private volatile long head = 0;                    // Next position to take (writer thread)
+
+    // --- THE FILE ---
+    private final FileOutputStream stream;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CountDownLatch closedLatch = new CountDownLatch(1);
+    private volatile boolean isClosing = false;
+    private volatile boolean isClosed = false;
+
+    // --- STATISTICS ---
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong truncated = new AtomicLong(0);
+    private final AtomicLong highWaterMark = new AtomicLong(0);
+    private volatile long linesWritten = 0;
+    private volatile long bytesWritten = 0;
+    private volatile long writeErrors = 0;
+
+    /**
+     * Opens a file with the default queue size and hands it to the writer thread.
+     * @param file The file to write.
+     * @param append True to add to the end of an existing file, false to replace it.
+     * @throws IOException If the file cannot be opened.
+     */
+    public AsyncLogWriter(File file, boolean append) throws IOException {
+        this(file, append, DEFAULT_CAPACITY, DEFAULT_MAX_LINE_BYTES);
+    }
+
+    /**
+     * Opens a file and hands it to the writer thread.
+     * @param file The file to write.
+     * @param append True to add to the end of an existing file, false to replace it.
+     * @param capacity How many lines the queue can hold. Rounded up to a power of two.
+     * @param maxLineBytes The longest line kept whole, in bytes, including the newline.
+     * @throws IOException If the file cannot be opened.
+     */
+    public AsyncLogWriter(File file, boolean append, int capacity, int maxLineBytes) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxLineBytes = Math.max(2, maxLineBytes);
+        this.slots = new byte[size][this.maxLineBytes];
+        this.slotLengths = new int[size];
+        this.slotSequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slotSequence.set(i, i);
+        }
+
+        // A FileOutputStream's channel, rather than FileChannel.open(), which needs java.nio.file
+        // (not available on the Control Hub's older Android versions).
+        this.stream = new FileOutputStream(file, append);
+        this.channel = stream.getChannel();
+
+        synchronized (THREAD_LOCK) {
+            OPEN_WRITERS.add(this);
+            if (writerThread == null) {
+                Thread thread = new Thread(AsyncLogWriter::runWriters, "AsyncLogWriter");
+                thread.setDaemon(true);
+                writerThread = thread;
+                thread.start();
+            }
+        }
+    }
+
+    // --- PRODUCER SIDE ---
+
+    /**
+     * Queues one line to be written, followed by a newline. Never blocks.
+     * @param line The text of the line, without the newline.
+     * @return True if the line was queued; false if the queue was full or the writer is closed.
+     */
+    public boolean write(CharSequence line) {
+        if (isClosing) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long difference = slotSequence.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) break; // Slot claimed
+            } else if (difference < 0) {
+                dropped.incrementAndGet(); // The writer has not emptied this slot yet: queue full
+                return false;
+            }
+            // Otherwise another producer claimed this position first; try the next one.
+        }
+
+        if (isClosing) {
+            // close() started while the slot was being claimed, and the writer may already have
+            // finished. Publish the slot empty so it is skipped, and refuse the line.
+            slotLengths[index] = 0;
+            slotSequence.lazySet(index, position + 1);
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        byte[] slot = slots[index];
+        int length = Math.min(line.length(), maxLineBytes - 1);
+        if (length < line.length()) truncated.incrementAndGet();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            slot[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        slot[length] = '\n';
+        slotLengths[index] = length + 1;
+        slotSequence.lazySet(index, position + 1); // Publish the line to the writer thread.
+
+        long depth = position + 1 - head;
+        long mark;
+        while (depth > (mark = highWaterMark.get()) && !highWaterMark.compareAndSet(mark, depth)) {
+            // Another producer raised the mark at the same moment; check again.
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting lines and returns immediately. Everything already queued is still written,
+     * then the file is forced to storage and closed on the writer thread.
+     */
+    public void closeAsync() {
+        isClosing = true;
+        LockSupport.unpark(writerThread);
+    }
+
+    /**
+     * Stops accepting lines and waits until everything already queued is written, forced to
+     * storage, and the file is closed.
+     */
+    @Override
+    public void close() {
+        closeAsync();
+        boolean interrupted = false;
+        while (!isClosed) {
+            try {
+                closedLatch.await();
+            } catch (InterruptedException e) {
+                interrupted = true; // Finish waiting, so the flush guarantee holds, then re-flag.
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // --- WRITER THREAD ---
+
+    /** The shared writer thread: serves every open writer until none is left. */
+    private static void runWriters() {
+        while (true) {
+            boolean isIdle = true;
+            for (AsyncLogWriter writer : OPEN_WRITERS) {
+                if (writer.service()) isIdle = false;
+            }
+            if (OPEN_WRITERS.isEmpty()) {
+                synchronized (THREAD_LOCK) {
+                    // A writer opened just now is served by this thread; otherwise it is done.
+                    if (OPEN_WRITERS.isEmpty()) {
+                        writerThread = null;
+                        return;
+                    }
+                }
+            }
+            if (isIdle) LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    /**
+     * Moves this writer's queued lines towards the file, and closes the file once it is closing
+     * and everything is written. @return True if there was anything to do.
+     */
+    private boolean service() {
+        // Read before draining: a line claimed before close() started is then either drained
+        // now or still counted in tail below.
+        boolean closing = isClosing;
+        if (drain() > 0) return true;
+        flushBuffer();
+        if (!closing || head != tail.get()) return false;
+
+        // Every claimed slot has been published and drained: nothing can still arrive.
+        OPEN_WRITERS.remove(this);
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            writeErrors++;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            writeErrors++;
+        }
+        isClosed = true;
+        closedLatch.countDown();
+        return true;
+    }
+
+    /** Moves every complete line from the queue into the buffer. @return How many lines. */
+    private int drain() {
+        int count = 0;
+        long position = head;
+        while (true) {
+            int index = (int) (position & mask);
+            if (slotSequence.get(index) != position + 1) break; // Empty, or still being written
+            int length = slotLengths[index];
+            if (length > 0) { // 0: refused during close()
+                if (buffer.remaining() < length) flushBuffer();
+                buffer.put(slots[index], 0, length);
+                count++;
+            }
+            slotSequence.lazySet(index, position + capacity); // Free the slot for the next lap.
+            position++;
+            head = position;
+        }
+        linesWritten += count;
+        return count;
+    }
+
+    private void flushBuffer() {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            writeErrors++; // The buffered lines are lost, but keep draining so write() never fills up.
+        }
+        buffer.clear();
+    }
+
+    // --- STATISTICS ---
+    /** @return How many lines were refused because the queue was full or the writer was closed. */
+    public long getDroppedCount() { return dropped.get(); }
+    /** @return How many lines were cut short because they were longer than a slot. */
+    public long getTruncatedCount() { return truncated.get(); }
+    /** @return The most lines that have ever been waiting in the queue at once. */
+    public long getHighWaterMark() { return highWaterMark.get(); }
+    /** @return How many lines are waiting in the queue right now. */
+    public long getQueueDepth() { return tail.get() - head; }
+    /** @return How many lines the queue can hold. */
+    public int getCapacity() { return capacity; }
+    /** @return How many lines the writer thread has taken from the queue. */
+    public long getLinesWritten() { return linesWritten; }
+    /** @return How many bytes have reached the file. */
+    public long getBytesWritten() { return bytesWritten; }
+    /** @return How many file writes failed. */
+    public long getWriteErrors() { return writeErrors; }
+    /** @return True once the file has been flushed and closed. */
+    public boolean isClosed() { return isClosed; }
+}
@@ -0,0 +1,189 @@
+// Filename: BatteryEstimator.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * ONLINE BATTERY ESTIMATOR
+ * =================================================================================================
+ *
+ * Estimates the battery's OPEN-CIRCUIT VOLTAGE (its voltage with no load) and INTERNAL RESISTANCE
+ * while the robot runs, from the voltage and total current the hubs already report. From those it
+ * publishes the battery's HEALTH and its remaining CHARGE.
+ *
+ * Under load, a battery behaves like a fixed voltage behind a resistance:
+ *         volts = openCircuitVolts - resistanceOhms * amps
+ * Every (volts, amps) sample is one point on that line. A RECURSIVE LEAST SQUARES filter fits
+ * the line one sample at a time, with a handful of multiplications and no history kept:
+ * 1.  The two unknowns are theta = [openCircuitVolts, resistanceOhms], and each sample gives
+ *     volts = phi . theta with phi = [1, -amps].
+ * 2.  A 2x2 matrix P tracks how uncertain theta still is. Each sample corrects theta by its
+ *     prediction error, weighted by the gain P*phi / (lambda + phi.P.phi), then shrinks P.
+ * 3.  The FORGETTING FACTOR lambda (just under 1) inflates P a little at each sample, so old
+ *     samples count less and the fit follows the battery as it drains. While the current is not
+ *     changing, the samples say nothing about the resistance; P is then kept from growing
+ *     without bound (wind-up) by not forgetting while it is already large.
+ *
+ * HEALTH compares the resistance with that of a new pack and a pack worth retiring: a worn pack's
+ * resistance rises, and with it the sag that causes brownouts. The CHARGE is read off the
+ * open-circuit voltage with a typical 12 V NiMH discharge curve; it is an estimate, good enough
+ * to tell a fresh pack from a flat one.
+ *
+ * The estimator has no hardware dependencies; {@link SystemHealthMonitor} feeds it every sample.
+ *
+ * @author Team 13353
+ */
+public class BatteryEstimator {
+
+    // A typical 12 V NiMH pack's open-circuit voltage at 0%, 10%, ... 100% charge.
+    private static final double[] CHARGE_CURVE_VOLTS =
+            {11.0, 11.8, 12.0, 12.15, 12.3, 12.45, 12.6, 12.75, 12.9, 13.1, 13.4};
+
+    // Starting uncertainty of the two estimates (variances, in V^2 and ohm^2).
+    private static final double INITIAL_VOLTS_VARIANCE = 1.0;
+    private static final double INITIAL_RESISTANCE_VARIANCE = 0.01;
+    // Above this uncertainty, the filter stops forgetting (anti wind-up).
+    private static final double MAX_COVARIANCE_TRACE = 10.0;
+    // The current must have varied this much (amps) before the resistance is trusted.
+    private static final double MIN_CURRENT_SPAN_AMPS = 2.0;
+
+    // --- CONFIGURATION ---
+    private final double forgetting;
+    private final double newResistanceOhms;
+    private final double retireResistanceOhms;
+    private final double capacityAmpHours;
+
+    // --- STATE VARIABLES ---
+    private double openCircuitVolts = 0;
+    private double resistanceOhms;
+    private double p00, p01, p11; // The symmetric covariance matrix P
+    private double minAmps = Double.MAX_VALUE, maxAmps = -Double.MAX_VALUE;
+
+    // --- STATISTICS ---
+    private long samples = 0;
+    private double lastErrorVolts = 0;
+
+    /**
+     * Constructor for the BatteryEstimator.
+     * @param forgetting How much weight old samples keep at each new one (e.g. 0.995). Lower
+     *                   values follow the battery faster but are noisier.
+     * @param newResistanceOhms The resistance of a new, healthy pack and its wiring: 100% health.
+     * @param retireResistanceOhms The resistance at which a pack should be retired: 0% health.
+     * @param capacityAmpHours The pack's rated capacity, for the remaining-capacity estimate.
+     */
+    public BatteryEstimator(double forgetting, double newResistanceOhms, double retireResistanceOhms,
+                            double capacityAmpHours) {
+        if (forgetting <= 0 || forgetting > 1) {
+            throw new IllegalArgumentException("forgetting must be above 0 and at most 1");
+        }
+        if (retireResistanceOhms <= newResistanceOhms) {
+            throw new IllegalArgumentException("The retire resistance must be above the new resistance");
+        }
+        this.forgetting = forgetting;
+        this.newResistanceOhms = newResistanceOhms;
+        this.retireResistanceOhms = retireResistanceOhms;
+        this.capacityAmpHours = capacityAmpHours;
+        reset();
+    }
+
+    /**
+     * Forgets everything, e.g. after the battery was swapped.
+     */
+    public void reset() {
+        openCircuitVolts = 0;
+        resistanceOhms = newResistanceOhms;
+        p00 = INITIAL_VOLTS_VARIANCE;
+        p01 = 0;
+        p11 = INITIAL_RESISTANCE_VARIANCE;
+        minAmps = Double.MAX_VALUE;
+        maxAmps = -Double.MAX_VALUE;
+        samples = 0;
+        lastErrorVolts = 0;
+    }
+
+    /**
+     * Adds one paired sample. Constant time, no allocation.
+     * @param volts The battery voltage measured by a hub.
+     * @param amps The total current of every hub, measured at the same time.
+     */
+    public void addSample(double volts, double amps) {
+        if (volts != volts || amps != amps || volts <= 0) return; // NaN, or a disconnected hub
+        if (samples == 0) {
+            // Start from the first sample, with the resistance of a new pack.
+            openCircuitVolts = volts + resistanceOhms * amps;
+        }
+        samples++;
+        if (amps < minAmps) minAmps = amps;
+        if (amps > maxAmps) maxAmps = amps;
+
+        // phi = [1, -amps]. P*phi:
+        double pPhi0 = p00 - p01 * amps;
+        double pPhi1 = p01 - p11 * amps;
+        double denominator = forgetting + pPhi0 - amps * pPhi1;
+        double gain0 = pPhi0 / denominator;
+        double gain1 = pPhi1 / denominator;
+
+        lastErrorVolts = volts - (openCircuitVolts - resistanceOhms * amps);
+        openCircuitVolts += gain0 * lastErrorVolts;
+        resistanceOhms += gain1 * lastErrorVolts;
+
+        // P = (P - gain * (P*phi)^T) / lambda, but without forgetting while P is already large.
+        p00 -= gain0 * pPhi0;
+        p01 -= gain0 * pPhi1;
+        p11 -= gain1 * pPhi1;
+        if (p00 + p11 < MAX_COVARIANCE_TRACE) {
+            p00 /= forgetting;
+            p01 /= forgetting;
+            p11 /= forgetting;
+        }
+    }
+
+    // --- ESTIMATES ---
+    /** @return True once the current has varied enough for the resistance to be meaningful. */
+    public boolean hasEstimate() { return samples > 0 && maxAmps - minAmps >= MIN_CURRENT_SPAN_AMPS; }
+    /** @return The estimated voltage with no load (0 before the first sample). */
+    public double getOpenCircuitVolts() { return openCircuitVolts; }
+    /** @return The estimated resistance of the battery and its wiring, in ohms (never negative). */
+    public double getResistanceOhms() { return Math.max(0, resistanceOhms); }
+
+    /**
+     * @return The battery's health from its resistance: 1.0 for a new pack, 0.0 for one that
+     *         should be retired.
+     */
+    public double getHealth() {
+        double health = (retireResistanceOhms - getResistanceOhms()) / (retireResistanceOhms - newResistanceOhms);
+        return Math.max(0, Math.min(1, health));
+    }
+
+    /** @return The estimated state of charge, 0.0 (flat) to 1.0 (full). */
+    public double getStateOfCharge() {
+        return chargeAtVolts(openCircuitVolts);
+    }
+
+    /** @return The estimated remaining capacity, in amp-hours. */
+    public double getRemainingAmpHours() {
+        return getStateOfCharge() * capacityAmpHours;
+    }
+
+    /**
+     * Looks a charge up on the NiMH discharge curve.
+     * @param volts An open-circuit voltage.
+     * @return The state of charge, 0.0 to 1.0.
+     */
+    public static double chargeAtVolts(double volts) {
+        int last = CHARGE_CURVE_VOLTS.length - 1;
+        if (volts <= CHARGE_CURVE_VOLTS[0]) return 0;
+        if (volts >= CHARGE_CURVE_VOLTS[last]) return 1;
+        int i = 1;
+        while (CHARGE_CURVE_VOLTS[i] < volts) i++;
+        double fraction = (volts - CHARGE_CURVE_VOLTS[i - 1]) / (CHARGE_CURVE_VOLTS[i] - CHARGE_CURVE_VOLTS[i - 1]);
+        return (i - 1 + fraction) / last;
+    }
+
+    // --- STATISTICS ---
+    /** @return How many samples have been added since the last reset. */
+    public long getSampleCount() { return samples; }
+    /** @return The newest sample's voltage minus the voltage the model predicted for it. */
+    public double getLastErrorVolts() { return lastErrorVolts; }
+    /** @return The spread of the currents seen since the last reset, in amps. */
+    public double getCurrentSpanAmps() { return samples == 0 ? 0 : maxAmps - minAmps; }
+}
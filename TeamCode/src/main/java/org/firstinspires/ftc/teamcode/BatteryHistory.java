@@ -0,0 +1,100 @@
+// Filename: BatteryHistory.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The history of every battery pack the robot has run on: one CSV line per OpMode, with the
+ * {@link BatteryEstimator}'s results at the end of it.
+ *
+ * Number each pack (write it on the label) and set BATTERY_ID in robot_config.properties to the
+ * number of the pack in the robot. The lines of one pack then show its resistance creeping up
+ * and its health going down over the season, so a weak pack can be retired BEFORE a match.
+ *
+ * @author Team 13353
+ */
+public final class BatteryHistory {
+
+    /** The file's first line. */
+    public static final String HEADER = "time,battery_id,open_circuit_v,resistance_ohms,health,charge,min_v,samples";
+
+    /** One OpMode's results for one pack. */
+    public static final class Record {
+        public final String time;
+        public final int batteryId;
+        public final double openCircuitVolts;
+        public final double resistanceOhms;
+        public final double health;
+        public final double charge;
+        public final double minVolts;
+        public final long samples;
+
+        public Record(String time, int batteryId, double openCircuitVolts, double resistanceOhms,
+                      double health, double charge, double minVolts, long samples) {
+            this.time = time;
+            this.batteryId = batteryId;
+            this.openCircuitVolts = openCircuitVolts;
+            this.resistanceOhms = resistanceOhms;
+            this.health = health;
+            this.charge = charge;
+            this.minVolts = minVolts;
+            this.samples = samples;
+        }
+    }
+
+    private BatteryHistory() {
+    }
+
+    /**
+     * Formats a record as a line of the history file.
+     * @param record The record.
+     * @return The CSV line, without a newline.
+     */
+    public static String format(Record record) {
+        StringBuilder line = new StringBuilder(80);
+        line.append(record.time).append(',').append(record.batteryId).append(',');
+        FastFormat.appendFixed(line, record.openCircuitVolts, 3).append(',');
+        FastFormat.appendFixed(line, record.resistanceOhms, 4).append(',');
+        FastFormat.appendFixed(line, record.health, 3).append(',');
+        FastFormat.appendFixed(line, record.charge, 3).append(',');
+        FastFormat.appendFixed(line, record.minVolts, 3).append(',');
+        line.append(record.samples);
+        return line.toString();
+    }
+
+    /**
+     * Reads one pack's records from a history file.
+     * @param file The history file. A missing file has no records.
+     * @param batteryId The pack's number.
+     * @return The pack's records, oldest first. Lines that cannot be read are skipped.
+     * @throws IOException If the file exists but cannot be read.
+     */
+    public static List<Record> read(File file, int batteryId) throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length != 8) continue;
+                try {
+                    if (Integer.parseInt(fields[1].trim()) != batteryId) continue;
+                    records.add(new Record(fields[0], batteryId, Double.parseDouble(fields[2]),
+                            Double.parseDouble(fields[3]), Double.parseDouble(fields[4]),
+                            Double.parseDouble(fields[5]), Double.parseDouble(fields[6]),
+                            Long.parseLong(fields[7].trim())));
+                } catch (NumberFormatException e) {
+                    // The header, or a damaged line.
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // No history yet.
+        }
+        return records;
+    }
+}
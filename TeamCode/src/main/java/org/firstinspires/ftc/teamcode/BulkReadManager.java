@@ -0,0 +1,171 @@
+// Filename: BulkReadManager.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * BULK READ MANAGER
+ * =================================================================================================
+ *
+ * This helper class puts every REV hub on the robot into MANUAL bulk caching mode and refreshes
+ * the bulk cache exactly once per control loop.
+ *
+ * Without bulk caching, every encoder read, `isBusy()` check and velocity query is its own
+ * transaction on the hub's serial bus, and each one costs a couple of milliseconds. In MANUAL
+ * mode, ALL of the hub's motor data is fetched in a single "bulk read", and every read in the
+ * same loop is answered from that cached copy for free. See the `ConceptMotorBulkRead` sample
+ * for a full explanation of the technique.
+ *
+ * The catch with MANUAL mode is that somebody has to refresh the cache at the top of every loop,
+ * or the robot will keep reading the same stale values forever. That is this class's job: it
+ * clears each hub's cache and fetches the new bulk data straight away, so every sensor value in
+ * a loop comes from the same moment. To stay safe for tools that never call update(), the hubs
+ * start out in AUTO mode and are only switched to MANUAL by the first call to {@link #update()}.
+ *
+ * It also measures how many hub transactions each loop issued:
+ * - Every transaction a {@link Hub} counts itself (at least the bulk read).
+ * - Any other transaction (motor power writes, current and voltage queries, which are NOT part
+ *   of the bulk data) reported by the code that makes it through {@link #recordTransaction()}.
+ *
+ * This class does not touch the FTC SDK. Real hubs are wrapped with {@link LynxHub}; on a desktop
+ * JVM a fake hub can be used, so the per-loop transaction count can be checked without a robot.
+ *
+ * USAGE:
+ * 1. In your Robot class: `bulkReads = new BulkReadManager(); bulkReads.init(LynxHub.wrap(allHubs));`
+ * 2. Call `bulkReads.update()` as the FIRST thing in your robot's update() method.
+ * 3. Read `getLastLoopTransactions()` for telemetry.
+ *
+ * @author Team 13353
+ */
+public class BulkReadManager {
+
+    /**
+     * The minimal view of a hub needed by this manager. Real hubs are wrapped by {@link LynxHub};
+     * tests can pass a fake.
+     */
+    public interface Hub {
+        /**
+         * Switches the hub's bulk caching mode.
+         * @param manual True for MANUAL mode, false for AUTO mode.
+         */
+        void setManualCaching(boolean manual);
+
+        /** Throws away the cached bulk data and fetches fresh bulk data from the hub. */
+        void refreshBulkData();
+
+        /** @return How many transactions this hub has counted since it was created. */
+        long getTransactionCount();
+    }
+
+    // --- STATE VARIABLES ---
+    private Hub[] hubs = new Hub[0];
+
+    /** The hubs' combined transaction count when the current loop started. */
+    private long hubTransactionsAtLoopStart = 0;
+
+    /** Transactions reported through recordTransaction() in the current loop. */
+    private int reportedThisLoop = 0;
+
+    /** Transactions issued by the most recently completed loop. */
+    private int lastLoopTransactions = 0;
+
+    /** The largest number of transactions any single loop has issued. */
+    private int peakLoopTransactions = 0;
+
+    private long totalTransactions = 0;
+    private long completedLoops = 0;
+    private boolean isFirstUpdate = true;
+
+    /**
+     * Initializes the manager with the robot's hubs and puts them all into AUTO mode.
+     * @param hubs The hubs to manage, e.g. `LynxHub.wrap(hardwareMap.getAll(LynxModule.class))`.
+     */
+    public void init(Hub... hubs) {
+        this.hubs = hubs.clone();
+        for (Hub hub : this.hubs) {
+            hub.setManualCaching(false);
+        }
+        hubTransactionsAtLoopStart = hubTransactions();
+        reportedThisLoop = 0;
+        lastLoopTransactions = 0;
+        peakLoopTransactions = 0;
+        totalTransactions = 0;
+        completedLoops = 0;
+        isFirstUpdate = true;
+    }
+
+    /**
+     * Closes out the previous loop's statistics and refreshes the bulk data on every hub.
+     * This must be called exactly once, at the very top of every control loop.
+     * The first call switches every hub into MANUAL mode.
+     */
+    public void update() {
+        long hubTransactionsNow = hubTransactions();
+        if (isFirstUpdate) {
+            for (Hub hub : hubs) {
+                hub.setManualCaching(true);
+            }
+        } else {
+            lastLoopTransactions = (int) (hubTransactionsNow - hubTransactionsAtLoopStart) + reportedThisLoop;
+            if (lastLoopTransactions > peakLoopTransactions) {
+                peakLoopTransactions = lastLoopTransactions;
+            }
+            totalTransactions += lastLoopTransactions;
+            completedLoops++;
+        }
+        isFirstUpdate = false;
+
+        // The new loop starts here, so its bulk reads count towards it.
+        hubTransactionsAtLoopStart = hubTransactionsNow;
+        reportedThisLoop = 0;
+        for (Hub hub : hubs) {
+            hub.refreshBulkData();
+        }
+    }
+
+    /**
+     * Records one hub transaction that the hub itself cannot see, such as a `setPower` call or a
+     * `getCurrent` query.
+     */
+    public void recordTransaction() {
+        reportedThisLoop++;
+    }
+
+    /**
+     * Records several hub transactions at once.
+     * @param count The number of transactions to add to the current loop.
+     */
+    public void recordTransactions(int count) {
+        reportedThisLoop += count;
+    }
+
+    /** @return The hubs' combined transaction count. */
+    private long hubTransactions() {
+        long total = 0;
+        for (Hub hub : hubs) {
+            total += hub.getTransactionCount();
+        }
+        return total;
+    }
+
+    /** @return The number of hubs under management. */
+    public int getHubCount() { return hubs.length; }
+
+    /** @return The number of transactions issued by the most recently completed loop. */
+    public int getLastLoopTransactions() { return lastLoopTransactions; }
+
+    /** @return The number of transactions counted so far in the loop that is currently running. */
+    public int getTransactionsThisLoop() {
+        return (int) (hubTransactions() - hubTransactionsAtLoopStart) + reportedThisLoop;
+    }
+
+    /** @return The largest number of transactions issued by any single loop. */
+    public int getPeakLoopTransactions() { return peakLoopTransactions; }
+
+    /** @return The average number of transactions per completed loop. */
+    public double getAverageLoopTransactions() {
+        return completedLoops == 0 ? 0 : (double) totalTransactions / completedLoops;
+    }
+
+    /** @return The number of loops that have been completed since init. */
+    public long getCompletedLoops() { return completedLoops; }
+}
@@ -0,0 +1,84 @@
+// Filename: CachedMotor.java
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+
+/**
+ * A thin wrapper around a {@link DcMotor} that only sends `setPower` commands that actually
+ * change something. See {@link WriteCache} for the exact rules.
+ *
+ * USAGE:
+ * 1. Wrap the motor once after mapping it: `leftFrontOut = new CachedMotor(leftFront, bulkReads);`
+ * 2. Command power through the wrapper every loop: `leftFrontOut.setPower(power);`
+ * 3. Use `forcePower(0)` for stops and other commands that must never be skipped.
+ *
+ * @author Team 13353
+ */
+public class CachedMotor {
+
+    private final DcMotor motor;
+    private final WriteCache cache;
+
+    /** Optional ledger that is told about every write that reaches the hub. May be null. */
+    private final BulkReadManager ledger;
+
+    /**
+     * Creates a cached motor using the default epsilon and refresh period from Constants.
+     * @param motor The motor to wrap.
+     * @param ledger The robot's BulkReadManager, used to count real writes. May be null.
+     */
+    public CachedMotor(DcMotor motor, BulkReadManager ledger) {
+        this(motor, ledger, Constants.OUTPUT_CACHE_POWER_EPSILON, Constants.OUTPUT_CACHE_REFRESH_MS);
+    }
+
+    /**
+     * Creates a cached motor.
+     * @param motor The motor to wrap.
+     * @param ledger The robot's BulkReadManager, used to count real writes. May be null.
+     * @param epsilon The smallest change in power that is worth a write.
+     * @param refreshMs The longest time, in milliseconds, an unchanged power goes without a write.
+     */
+    public CachedMotor(DcMotor motor, BulkReadManager ledger, double epsilon, long refreshMs) {
+        this.motor = motor;
+        this.ledger = ledger;
+        this.cache = new WriteCache(epsilon, refreshMs);
+    }
+
+    /**
+     * Commands a new power, skipping the hardware write if it would not change anything.
+     * @param power The motor power (-1.0 to 1.0).
+     */
+    public void setPower(double power) {
+        if (cache.shouldWrite(power, System.nanoTime())) {
+            write(power);
+        }
+    }
+
+    /**
+     * Commands a new power and always writes it, bypassing the cache.
+     * @param power The motor power (-1.0 to 1.0).
+     */
+    public void forcePower(double power) {
+        cache.markWritten(power, System.nanoTime());
+        write(power);
+    }
+
+    private void write(double power) {
+        motor.setPower(power);
+        if (ledger != null) {
+            ledger.recordTransaction();
+        }
+    }
+
+    /** Forgets the cached power, so the next command is always written. */
+    public void invalidate() { cache.invalidate(); }
+
+    /** @return The last power that was actually written to the motor. */
+    public double getPower() { return cache.getLastWrittenValue(); }
+
+    /** @return The wrapped motor. */
+    public DcMotor getMotor() { return motor; }
+
+    /** @return The write statistics for this motor. */
+    public WriteCache getCache() { return cache; }
+}
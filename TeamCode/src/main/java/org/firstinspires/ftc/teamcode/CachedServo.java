@@ -0,0 +1,70 @@
+// Filename: CachedServo.java
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.Servo;
+
+/**
+ * A thin wrapper around a {@link Servo} that only sends `setPosition` commands that actually
+ * change something. See {@link WriteCache} for the exact rules.
+ *
+ * USAGE:
+ * 1. Wrap the servo once after mapping it: `clawOut = new CachedServo(clawServo, bulkReads);`
+ * 2. Command positions through the wrapper: `clawOut.setPosition(position);`
+ *
+ * @author Team 13353
+ */
+public class CachedServo {
+
+    private final Servo servo;
+    private final WriteCache cache;
+
+    /** Optional ledger that is told about every write that reaches the hub. May be null. */
+    private final BulkReadManager ledger;
+
+    /**
+     * Creates a cached servo using the default epsilon and refresh period from Constants.
+     * @param servo The servo to wrap.
+     * @param ledger The robot's BulkReadManager, used to count real writes. May be null.
+     */
+    public CachedServo(Servo servo, BulkReadManager ledger) {
+        this(servo, ledger, Constants.OUTPUT_CACHE_SERVO_EPSILON, Constants.OUTPUT_CACHE_REFRESH_MS);
+    }
+
+    /**
+     * Creates a cached servo.
+     * @param servo The servo to wrap.
+     * @param ledger The robot's BulkReadManager, used to count real writes. May be null.
+     * @param epsilon The smallest change in position that is worth a write.
+     * @param refreshMs The longest time, in milliseconds, an unchanged position goes without a write.
+     */
+    public CachedServo(Servo servo, BulkReadManager ledger, double epsilon, long refreshMs) {
+        this.servo = servo;
+        this.ledger = ledger;
+        this.cache = new WriteCache(epsilon, refreshMs);
+    }
+
+    /**
+     * Commands a new position, skipping the hardware write if it would not change anything.
+     * @param position The servo position (0.0 to 1.0).
+     */
+    public void setPosition(double position) {
+        if (cache.shouldWrite(position, System.nanoTime())) {
+            servo.setPosition(position);
+            if (ledger != null) {
+                ledger.recordTransaction();
+            }
+        }
+    }
+
+    /** Forgets the cached position, so the next command is always written. */
+    public void invalidate() { cache.invalidate(); }
+
+    /** @return The last position that was actually written to the servo. */
+    public double getPosition() { return cache.getLastWrittenValue(); }
+
+    /** @return The wrapped servo. */
+    public Servo getServo() { return servo; }
+
+    /** @return The write statistics for this servo. */
+    public WriteCache getCache() { return cache; }
+}
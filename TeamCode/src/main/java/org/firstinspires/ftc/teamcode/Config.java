@@ -3,10 +3,13 @@ package org.firstinspires.ftc.teamcode;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This is the Configuration Manager class.
@@ -15,23 +18,51 @@ import java.util.Properties;
  * constants and tuning values. This allows for quick adjustments without recompiling code.
  *
  * To use, call Config.load() once at the beginning of an OpMode.
- * Then, access values using the static getter methods, which provide a default
- * value as a fallback from the Constants.java class.
+ * load() parses every ConfigKey once into a typed ConfigSnapshot, with the defaults from
+ * Constants.java as the fallback. Read tunables from snapshot() (a plain array read, safe
+ * in a loop), and show getLoadErrors() at init so a typo in the file does not go unnoticed.
+ * The string getters parse on every call, so keep them out of the loop.
+ *
+ * To change values, batch them with edit()...commitAsync(): they are applied in memory at once
+ * and the file is written ONCE, on a background thread, so a slow flash write never stalls the
+ * OpMode. The returned Future says when the write is done. Writes are crash-safe (see ConfigFile):
+ * a power cut during a save leaves the old file intact. save() is a batch of one.
  *
  * @author Team 13353
  */
 public class Config {
     private static Properties properties = new Properties();
+    // The parsed values. Replaced (never changed) by load() and save().
+    private static volatile ConfigSnapshot snapshot = ConfigSnapshot.parse(ConfigKey.class, properties);
+
+    // Writes the file off the OpMode thread. One thread, so writes can never overlap.
+    private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ConfigSaver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Set when values change, cleared when a write takes its copy of them, set again if that write fails.
+    private static final AtomicBoolean isDirty = new AtomicBoolean(false);
+    private static final Object WRITE_LOCK = new Object();
 
     public static void load() {
         try {
             File file = AppUtil.getInstance().getSettingsFile("robot_config.properties");
-            FileReader reader = new FileReader(file);
-            properties.load(reader);
-            reader.close();
+            properties.putAll(ConfigFile.read(file));
         } catch (IOException e) {
             // File not found or unreadable, defaults will be used.
         }
+        snapshot = ConfigSnapshot.parse(ConfigKey.class, properties);
+    }
+
+    /** @return The current parsed values. Keep the returned snapshot for the whole loop. */
+    public static ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /** @return One message per value in the file that was rejected at the last load. */
+    public static List<String> getLoadErrors() {
+        return snapshot.getErrors();
     }
 
     public static String getString(String key, String defaultValue) {
@@ -54,15 +85,90 @@ public class Config {
         }
     }
 
+    /**
+     * Saves one value. Several values are better saved together with edit().
+     */
+    public static void save(ConfigSnapshot.Key key, Object value) {
+        edit().set(key, value).commitAsync();
+    }
+
+    /**
+     * Saves one value. Several values are better saved together with edit().
+     */
     public static void save(String key, Object value) {
-        properties.setProperty(key, String.valueOf(value));
-        try {
+        edit().set(key, value).commitAsync();
+    }
+
+    /**
+     * Starts a batch of changes, which are applied and written to the file together:
+     * `Config.edit().set(ConfigKey.ARM_P, p).set(ConfigKey.ARM_I, i).commitAsync();`
+     * @return A new, empty batch.
+     */
+    public static Editor edit() {
+        return new Editor();
+    }
+
+    /** A batch of changes, written to the file as one crash-safe write. */
+    public static class Editor {
+        private final Properties changes = new Properties();
+
+        private Editor() {
+        }
+
+        /** Adds a change to the batch. */
+        public Editor set(ConfigSnapshot.Key key, Object value) {
+            return set(key.name(), value);
+        }
+
+        /** Adds a change to the batch. */
+        public Editor set(String key, Object value) {
+            changes.setProperty(key, String.valueOf(value));
+            return this;
+        }
+
+        /**
+         * Applies the changes in memory, then writes the file on this thread. Slow: not for the loop.
+         * @throws IOException If the file cannot be written. The changes stay applied in memory.
+         */
+        public void commit() throws IOException {
+            apply();
+            writeFile();
+        }
+
+        /**
+         * Applies the changes in memory now, and writes the file on a background thread.
+         * @return Completes once the file holds these changes, or fails with the write's IOException.
+         */
+        public Future<Void> commitAsync() {
+            apply();
+            isDirty.set(true);
+            return saveExecutor.submit(() -> {
+                // An earlier write may already have included these changes. If that write failed,
+                // it set isDirty again, so this one tries again and reports its own result.
+                if (isDirty.getAndSet(false)) {
+                    try {
+                        writeFile();
+                    } catch (IOException | RuntimeException e) {
+                        isDirty.set(true);
+                        throw e;
+                    }
+                }
+                return null;
+            });
+        }
+
+        private void apply() {
+            properties.putAll(changes);
+            snapshot = ConfigSnapshot.parse(ConfigKey.class, properties);
+        }
+    }
+
+    /** Writes a copy of every value to the file, crash-safely. Never runs twice at once. */
+    private static void writeFile() throws IOException {
+        synchronized (WRITE_LOCK) {
+            Properties copy = (Properties) properties.clone();
             File file = AppUtil.getInstance().getSettingsFile("robot_config.properties");
-            FileWriter writer = new FileWriter(file, false);
-            properties.store(writer, "Robot Configuration - Updated by an Ultimate Tool");
-            writer.close();
-        } catch (IOException e) {
-            // Handle error
+            ConfigFile.write(file, copy, "Robot Configuration - Updated by an Ultimate Tool");
         }
     }
-}
\ No newline at end of file
+}
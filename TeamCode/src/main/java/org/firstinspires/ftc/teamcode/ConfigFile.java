@@ -0,0 +1,67 @@
+// Filename: ConfigFile.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Properties;
+
+/**
+ * Reads and writes a .properties file such as robot_config.properties.
+ *
+ * {@link #write} is CRASH-SAFE: the new contents go to a temporary file next to the real one,
+ * which is forced to storage (fsync) and then renamed over the real file. A rename replaces the
+ * file in one step, so if the robot loses power part-way through, the file is either the old
+ * version or the new one, never a half-written mix.
+ *
+ * @author Team 13353
+ */
+public final class ConfigFile {
+
+    private ConfigFile() {
+    }
+
+    /**
+     * Reads a properties file.
+     * @param file The file.
+     * @return Its properties.
+     * @throws IOException If the file cannot be read.
+     */
+    public static Properties read(File file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = new FileReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    /**
+     * Replaces a properties file with new contents, crash-safely.
+     * @param file The file to replace.
+     * @param properties The complete new contents.
+     * @param comment The comment written at the top of the file.
+     * @throws IOException If the file cannot be written. The old file is then left as it was.
+     */
+    public static void write(File file, Properties properties, String comment) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            Writer writer = new OutputStreamWriter(out);
+            properties.store(writer, comment);
+            writer.flush();
+            // Make sure the data is really on the flash before the rename makes it the real file.
+            out.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            // Don't leave a half-written temporary file behind.
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not replace " + file);
+        }
+    }
+}
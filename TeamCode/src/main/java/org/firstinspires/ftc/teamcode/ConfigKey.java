@@ -0,0 +1,54 @@
+// Filename: ConfigKey.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * The tunable values that robot_config.properties can override, with their defaults from
+ * {@link Constants} and the range a value must be in to be accepted.
+ *
+ * Read them from the current snapshot: `Config.snapshot().get(ConfigKey.ARM_P)`.
+ * To make a new constant tunable, add it here; the name must match the key in the file.
+ *
+ * @author Team 13353
+ */
+public enum ConfigKey implements ConfigSnapshot.Key {
+    // DRIVETRAIN
+    DRIVE_POWER_MULTIPLIER(Constants.DRIVE_POWER_MULTIPLIER, 0.0, 1.0),
+    DRIVE_SLOW_MODE_MULTIPLIER(Constants.DRIVE_SLOW_MODE_MULTIPLIER, 0.0, 1.0),
+    // MECHANISMS - ARM PIDF
+    ARM_P(Constants.ARM_P, 0.0, 100.0),
+    ARM_I(Constants.ARM_I, 0.0, 100.0),
+    ARM_D(Constants.ARM_D, 0.0, 100.0),
+    ARM_F(Constants.ARM_F, 0.0, 100.0),
+    // ODOMETRY
+    ODOMETRY_TRACK_WIDTH_IN(Constants.ODOMETRY_TRACK_WIDTH_IN, 1.0, 36.0),
+    ODOMETRY_FORWARD_OFFSET_IN(Constants.ODOMETRY_FORWARD_OFFSET_IN, -18.0, 18.0),
+    MECANUM_LATERAL_MULTIPLIER(Constants.MECANUM_LATERAL_MULTIPLIER, 0.5, 2.0),
+    // POWER & BATTERY
+    VOLTAGE_WARNING_THRESHOLD(Constants.VOLTAGE_WARNING_THRESHOLD, 0.0, 20.0),
+    BATTERY_ID(Constants.BATTERY_ID, 0, 999);
+
+    private final double defaultValue;
+    private final double min;
+    private final double max;
+    private final boolean isInteger;
+
+    ConfigKey(double defaultValue, double min, double max) {
+        this(defaultValue, min, max, false);
+    }
+
+    ConfigKey(int defaultValue, int min, int max) {
+        this(defaultValue, min, max, true);
+    }
+
+    ConfigKey(double defaultValue, double min, double max, boolean isInteger) {
+        this.defaultValue = defaultValue;
+        this.min = min;
+        this.max = max;
+        this.isInteger = isInteger;
+    }
+
+    @Override public double getDefault() { return defaultValue; }
+    @Override public double getMin() { return min; }
+    @Override public double getMax() { return max; }
+    @Override public boolean isInteger() { return isInteger; }
+}
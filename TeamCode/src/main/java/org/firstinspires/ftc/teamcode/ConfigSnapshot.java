@@ -0,0 +1,148 @@
+// Filename: ConfigSnapshot.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * =================================================================================================
+ * TYPED CONFIGURATION SNAPSHOT
+ * =================================================================================================
+ *
+ * An immutable copy of the robot's tunable values, parsed ONCE from robot_config.properties.
+ *
+ * Looking a value up with Config.getDouble("ARM_P", ...) hashes the key, finds the string in the
+ * Properties table and parses it, on every call. That is fine in init, but not in a loop. A
+ * snapshot does all of that once, when the file is loaded:
+ * 1.  The tunable values are listed in an enum that implements {@link Key} (see ConfigKey). Each
+ *     key knows its default (from Constants), its allowed range, and whether it is a whole number.
+ * 2.  {@link #parse} reads every key from the properties, checks it, and stores it in an array
+ *     slot indexed by the key's ordinal. A missing value uses the default. A value that is not a
+ *     number, not whole, or out of range also uses the default, and the problem is added to
+ *     {@link #getErrors()}, so it can be shown once at init instead of failing silently.
+ * 3.  Reading a value is then just an array read: `config.get(ConfigKey.ARM_P)`.
+ *
+ * A snapshot never changes. When the file changes, a new snapshot is parsed and swapped in, so a
+ * loop holding one always sees a consistent set of values.
+ *
+ * @author Team 13353
+ */
+public final class ConfigSnapshot {
+
+    /**
+     * A tunable value. Implemented by enums, which supply name() and ordinal().
+     */
+    public interface Key {
+        /** @return The key as written in the properties file. */
+        String name();
+        /** @return The key's index in its enum. */
+        int ordinal();
+        /** @return The value used when the file does not set a valid one. */
+        double getDefault();
+        /** @return The smallest allowed value. */
+        double getMin();
+        /** @return The largest allowed value. */
+        double getMax();
+        /** @return True if the value must be a whole number. */
+        boolean isInteger();
+    }
+
+    private final Class<?> keyType;
+    private final double[] values;
+    private final boolean[] isOverridden;
+    private final List<String> errors;
+
+    private ConfigSnapshot(Class<?> keyType, double[] values, boolean[] isOverridden, List<String> errors) {
+        this.keyType = keyType;
+        this.values = values;
+        this.isOverridden = isOverridden;
+        this.errors = errors;
+    }
+
+    /**
+     * Parses and checks every key of an enum.
+     * @param keyType The enum listing the keys, e.g. ConfigKey.class.
+     * @param properties The loaded properties file.
+     * @return The snapshot. Invalid values are replaced by their defaults and listed in getErrors().
+     */
+    public static <K extends Enum<K> & Key> ConfigSnapshot parse(Class<K> keyType, Properties properties) {
+        K[] keys = keyType.getEnumConstants();
+        double[] values = new double[keys.length];
+        boolean[] isOverridden = new boolean[keys.length];
+        List<String> errors = new ArrayList<>();
+        for (K key : keys) {
+            values[key.ordinal()] = key.getDefault();
+            String text = properties.getProperty(key.name());
+            if (text == null) continue;
+            String problem = null;
+            double value = 0;
+            try {
+                value = Double.parseDouble(text.trim());
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    problem = "\"" + text + "\" is not a number";
+                } else if (key.isInteger() && value != Math.rint(value)) {
+                    problem = text + " is not a whole number";
+                } else if (value < key.getMin() || value > key.getMax()) {
+                    problem = text + " is outside " + format(key, key.getMin()) + " to " + format(key, key.getMax());
+                }
+            } catch (NumberFormatException e) {
+                problem = "\"" + text + "\" is not a number";
+            }
+            if (problem == null) {
+                values[key.ordinal()] = value;
+                isOverridden[key.ordinal()] = true;
+            } else {
+                errors.add(key.name() + ": " + problem + ", using " + format(key, key.getDefault()));
+            }
+        }
+        return new ConfigSnapshot(keyType, values, isOverridden, Collections.unmodifiableList(errors));
+    }
+
+    private static String format(Key key, double value) {
+        return key.isInteger() ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    // --- VALUES ---
+
+    /**
+     * @param key A key of the enum this snapshot was parsed from.
+     * @return The key's value.
+     */
+    public double get(Key key) {
+        return values[key.ordinal()];
+    }
+
+    /**
+     * @param key A whole-number key of the enum this snapshot was parsed from.
+     * @return The key's value.
+     */
+    public int getInt(Key key) {
+        return (int) values[key.ordinal()];
+    }
+
+    /**
+     * @param key A key of the enum this snapshot was parsed from.
+     * @return True if the value came from the file; false if it is the default.
+     */
+    public boolean isOverridden(Key key) {
+        return isOverridden[key.ordinal()];
+    }
+
+    /**
+     * @param other Another snapshot, or null.
+     * @return True if both were parsed from the same keys and have the same values and errors.
+     */
+    public boolean isSameAs(ConfigSnapshot other) {
+        return other != null && other.keyType == keyType && Arrays.equals(other.values, values)
+                && Arrays.equals(other.isOverridden, isOverridden) && other.errors.equals(errors);
+    }
+
+    // --- STATISTICS ---
+    /** @return One message per value that was rejected, e.g. "ARM_P: "1O" is not a number, using 10.0". */
+    public List<String> getErrors() { return errors; }
+    /** @return The enum this snapshot was parsed from. */
+    public Class<?> getKeyType() { return keyType; }
+}
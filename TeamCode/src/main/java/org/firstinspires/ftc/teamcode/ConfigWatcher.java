@@ -0,0 +1,179 @@
+// Filename: ConfigWatcher.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * =================================================================================================
+ * CONFIGURATION HOT RELOAD
+ * =================================================================================================
+ *
+ * Watches robot_config.properties while an OpMode runs, so a value can be tuned by editing the
+ * file (e.g. over adb or the REV Hardware Client) without restarting the OpMode.
+ *
+ * HOW IT WORKS:
+ * 1.  The OpMode calls {@link #update()} a few times per second, e.g. as a TaskScheduler task.
+ *     It only asks the file system for the file's modification time and length: cheap.
+ * 2.  When they change, the watcher waits until they stay the same for one more update(), so a
+ *     file that is still being written is never read half-way.
+ * 3.  The file is then read and parsed into a new {@link ConfigSnapshot} on a BACKGROUND thread,
+ *     so the loop never waits for storage.
+ * 4.  The new snapshot is published with a single AtomicReference swap. A reader gets either the
+ *     whole old set of values or the whole new set, never a mix.
+ * 5.  On the next update(), the loop thread hands the new snapshot to every {@link Listener}. The
+ *     listeners therefore run on the loop thread, between loops, and can update the robot (e.g.
+ *     arm limits and PID gains) without any locking.
+ *
+ * A file with a bad value still loads: that value keeps its default, and the problem is in the
+ * snapshot's getErrors(). A reload that leaves every value the same is not passed on.
+ *
+ * @author Team 13353
+ */
+public class ConfigWatcher {
+
+    /** Told about each new set of values. Runs on the thread that calls update(). */
+    public interface Listener {
+        void onConfigChanged(ConfigSnapshot snapshot);
+    }
+
+    /** Parses the file's properties into a snapshot of one key enum. */
+    private interface Parser {
+        ConfigSnapshot parse(Properties properties);
+    }
+
+    // Reads and parses the file off the loop thread. Shared by every watcher and kept for the
+    // life of the app, so OpModes that forget to clean up never leave threads behind.
+    private static final ExecutorService RELOAD_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ConfigReloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // --- CONFIGURATION ---
+    private final File file;
+    private final Parser parser;
+    private final Executor executor;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    // --- STATE VARIABLES ---
+    private final AtomicReference<ConfigSnapshot> published;
+    private final AtomicBoolean isReloading = new AtomicBoolean(false);
+    private ConfigSnapshot delivered;   // Loop thread only
+    private long loadedModified, loadedLength;   // The file as it was last read
+    private long seenModified, seenLength;       // The file at the previous update()
+
+    // --- STATISTICS ---
+    private volatile long reloads = 0;
+    private volatile long failedReloads = 0;
+    private long changes = 0;
+
+    /**
+     * Constructor for the ConfigWatcher, reloading on a shared background thread.
+     * @param file The properties file to watch.
+     * @param keyType The enum listing the keys, e.g. ConfigKey.class.
+     * @param initial The snapshot already loaded from the file. Listeners are told about changes
+     *                from this one onwards.
+     */
+    public <K extends Enum<K> & ConfigSnapshot.Key> ConfigWatcher(File file, Class<K> keyType, ConfigSnapshot initial) {
+        this(file, keyType, initial, RELOAD_EXECUTOR);
+    }
+
+    /**
+     * Constructor for the ConfigWatcher with a specific executor for the reloads.
+     * @param file The properties file to watch.
+     * @param keyType The enum listing the keys, e.g. ConfigKey.class.
+     * @param initial The snapshot already loaded from the file.
+     * @param executor Where the file is read and parsed. A desktop test can pass Runnable::run.
+     */
+    public <K extends Enum<K> & ConfigSnapshot.Key> ConfigWatcher(File file, Class<K> keyType, ConfigSnapshot initial,
+                                                                  Executor executor) {
+        this.file = file;
+        this.parser = properties -> ConfigSnapshot.parse(keyType, properties);
+        this.executor = executor;
+        this.published = new AtomicReference<>(initial);
+        this.delivered = initial;
+        // The initial snapshot is assumed to match the file as it is now.
+        loadedModified = seenModified = file.lastModified();
+        loadedLength = seenLength = file.length();
+    }
+
+    /**
+     * Adds a listener. It is called on the next update() after the values change.
+     * @param listener The listener.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Passes on a finished reload, then checks the file for changes. Call it from the loop thread
+     * at a low rate, e.g. 2 Hz.
+     * @return True if the listeners were given a new snapshot.
+     */
+    public boolean update() {
+        boolean isChanged = dispatch();
+
+        long modified = file.lastModified();
+        long length = file.length();
+        boolean isSameAsLoaded = modified == loadedModified && length == loadedLength;
+        boolean isSettled = modified == seenModified && length == seenLength;
+        seenModified = modified;
+        seenLength = length;
+        if (!isSameAsLoaded && isSettled && isReloading.compareAndSet(false, true)) {
+            loadedModified = modified;
+            loadedLength = length;
+            executor.execute(this::reload);
+        }
+        return isChanged;
+    }
+
+    /**
+     * Hands the newest snapshot to the listeners, if it is new.
+     * @return True if the listeners were given a new snapshot.
+     */
+    private boolean dispatch() {
+        ConfigSnapshot latest = published.get();
+        if (latest == delivered) return false;
+        delivered = latest;
+        changes++;
+        for (Listener listener : listeners) {
+            listener.onConfigChanged(latest);
+        }
+        return true;
+    }
+
+    /** Runs on the reload thread: reads and parses the file, then publishes the result. */
+    private void reload() {
+        try {
+            ConfigSnapshot snapshot = parser.parse(ConfigFile.read(file));
+            if (!snapshot.isSameAs(published.get())) {
+                published.set(snapshot);
+            }
+            reloads++;
+        } catch (IOException e) {
+            // Keep the current values. The next change to the file is tried again.
+            failedReloads++;
+        } finally {
+            isReloading.set(false);
+        }
+    }
+
+    // --- STATISTICS ---
+    /** @return The newest snapshot, whether or not the listeners have seen it yet. */
+    public ConfigSnapshot getSnapshot() { return published.get(); }
+    /** @return How many times the file was read after a change. */
+    public long getReloadCount() { return reloads; }
+    /** @return How many times the file could not be read. */
+    public long getFailedReloadCount() { return failedReloads; }
+    /** @return How many new snapshots were passed to the listeners. */
+    public long getChangeCount() { return changes; }
+}
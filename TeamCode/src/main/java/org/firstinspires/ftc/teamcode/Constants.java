@@ -44,9 +44,134 @@ public class Constants {
     // indicates a poor battery or bad wiring. 1.0V is a reasonable starting point.
     public static final double VOLTAGE_DROP_CRITICAL_THRESHOLD = 1.0;
 
+    // The predictive power governor (see PowerGovernor) turns motor power down so the battery
+    // is never pulled below this voltage. The hubs reset somewhere under 7 V; this leaves margin.
+    public static final double POWER_GOVERNOR_FLOOR_VOLTS = 9.0;
+    // The robot's current draw with every motor stopped.
+    public static final double POWER_GOVERNOR_IDLE_AMPS = 1.0;
+    // Starting guess, refined while the robot runs: the current drawn per unit of commanded motor
+    // power. The battery's resistance comes from the battery estimator below.
+    public static final double POWER_GOVERNOR_AMPS_PER_POWER = 5.0;
+
+    // The battery estimator (see BatteryEstimator) fits each pack's open-circuit voltage and
+    // internal resistance from the health monitor's samples. At 5 Hz, 0.995 remembers about the
+    // last 40 seconds.
+    public static final double BATTERY_ESTIMATOR_FORGETTING = 0.995;
+    // The resistance of a new pack with the robot's wiring (100% health), and the resistance at
+    // which a pack should be retired (0% health).
+    public static final double BATTERY_NEW_RESISTANCE_OHMS = 0.08;
+    public static final double BATTERY_RETIRE_RESISTANCE_OHMS = 0.20;
+    // The rated capacity of a standard FTC 12 V NiMH pack.
+    public static final double BATTERY_CAPACITY_AH = 3.0;
+    // The number written on the pack in the robot; set it in robot_config.properties before each
+    // match. 0 means "not numbered", and nothing is added to the battery history.
+    public static final int BATTERY_ID = 0;
+    public static final String BATTERY_HISTORY_FILENAME = "battery_history.csv";
+
+    // The energy accountant (see EnergyAccountant) adds up the charge each hub and motor uses.
+    // The burn rate used for projections is smoothed over this many seconds.
+    public static final double ENERGY_BURN_RATE_TAU_S = 20;
+    // How many motor channels the accountant has room for, besides one per hub.
+    public static final int ENERGY_MAX_MOTOR_CHANNELS = 16;
+    // How long the period timed by the OpMode's match timer lasts, for end-of-match projections.
+    // The TeleOp timer starts with the 2:00 driver-controlled period.
+    public static final double MATCH_DURATION_SECONDS = 120;
+
     // The power to apply to the drivetrain motors during the stress test.
     // 50% is a significant, sustained load.
     public static final double STRESS_TEST_POWER = 0.5;
 
+    // =============================================================================================
+    //                                     MOTOR THERMAL CONSTANTS
+    // =============================================================================================
+
+    // The estimated winding temperature of each motor (see ThermalModel). A steady current I heats
+    // a motor MOTOR_RISE_C_PER_AMP2 * I^2 above ambient: a 9 A stall would settle 120 deg C above it,
+    // a motor run at 70% of that current about 60 deg C above it.
+    public static final double MOTOR_AMBIENT_C = 25;
+    public static final double MOTOR_RISE_C_PER_AMP2 = 1.5;
+    // How quickly the windings heat up under load and cool down again, in seconds.
+    public static final double MOTOR_HEATING_TAU_S = 90;
+    public static final double MOTOR_COOLING_TAU_S = 180;
+    // Above MOTOR_DERATE_START_C a motor's power is turned down, reaching MOTOR_MIN_POWER_SCALE
+    // at MOTOR_MAX_C.
+    public static final double MOTOR_DERATE_START_C = 70;
+    public static final double MOTOR_MAX_C = 100;
+    public static final double MOTOR_MIN_POWER_SCALE = 0.3;
+
+    // =============================================================================================
+    //                                     ODOMETRY CONSTANTS
+    // =============================================================================================
+
+    // The distance an odometry pod rolls per encoder tick: a 48 mm goBILDA pod wheel with a
+    // 2000-tick encoder. Change it if your pods are different.
+    public static final double ODOMETRY_INCHES_PER_TICK = Math.PI * 48 / 25.4 / 2000;
+    // Where the pods are (see ThreeWheelLocalizer): the distance between the two parallel pods,
+    // and how far the perpendicular pod is in front of the center of rotation (negative if it is
+    // behind). Measure them first, then tune them in robot_config.properties: spin the robot
+    // ten turns in place and adjust the track width until the heading comes back to zero.
+    public static final double ODOMETRY_TRACK_WIDTH_IN = 12.0;
+    public static final double ODOMETRY_FORWARD_OFFSET_IN = -6.0;
+
+    // The drive-wheel localizer (see MecanumLocalizer), for robots without pods: the distance a
+    // 104 mm mecanum wheel rolls per tick of a 537.7-tick goBILDA 312 RPM motor, the distance
+    // between the left and right wheels and between the front and rear wheels.
+    public static final double DRIVE_INCHES_PER_TICK = Math.PI * 104 / 25.4 / 537.7;
+    public static final double DRIVE_TRACK_WIDTH_IN = 14.0;
+    public static final double DRIVE_WHEEL_BASE_IN = 12.0;
+    // Mecanum rollers slip when strafing, so the wheels over-count sideways motion. Strafe the
+    // robot a known distance and set this to the real distance divided by the measured one.
+    public static final double MECANUM_LATERAL_MULTIPLIER = 1.0;
+
+    // =============================================================================================
+    //                                     LOOP PERFORMANCE CONSTANTS
+    // =============================================================================================
+
+    // The target period of the TeleOp control loop, in milliseconds (10 ms = 100 Hz).
+    public static final long LOOP_PERIOD_MS = 10;
+
+    // How often the slow background tasks run, in Hz. Driving always runs every loop.
+    public static final double HEALTH_MONITOR_RATE_HZ = 5;
+    // Each run reads ONE drive motor's current for its thermal model, so each motor is read at a
+    // quarter of this rate. That is plenty for time constants of over a minute.
+    public static final double THERMAL_MODEL_RATE_HZ = 20;
+
+    // How many seconds of health samples the monitor keeps. A full match (30 s auto, the 8 s
+    // transition and 2:00 of TeleOp) plus some margin, so nothing from the match is overwritten.
+    public static final double HEALTH_HISTORY_SECONDS = 180;
+
+    // How many health events (brownouts, disconnects, ...) the monitor keeps.
+    public static final int HEALTH_EVENT_CAPACITY = 256;
+
+    // How often the health monitor's new samples are streamed to the live log file, in Hz. The
+    // file itself is written on a background thread; this only sets how often lines are queued.
+    public static final double FILE_LOGGING_RATE_HZ = 1;
+
+    // How many seconds of loops the flight recorder's file has room for. At a 10 ms loop this is
+    // 18,000 records, a few megabytes.
+    public static final double FLIGHT_RECORDER_SECONDS = 180;
+
+    // How many seconds a recorded macro can last: the whole autonomous period.
+    public static final double MACRO_MAX_SECONDS = 30;
+
+    // How often the background thread reads the IMU, in Hz.
+    public static final double IMU_SAMPLE_RATE_HZ = 100;
+
+    // An IMU sample older than this (ms) is stale: field-centric driving falls back to
+    // robot-centric, the drive localizer turns with the wheels, and the Driver Station shows it.
+    public static final double IMU_MAX_SAMPLE_AGE_MS = 50;
+
+    // How many times per second telemetry is pushed to the Driver Station. The SDK's default
+    // transmission interval is 250 ms, so anything faster than 4 Hz would never be seen.
+    public static final double TELEMETRY_UPDATE_RATE_HZ = 4;
+
+    // Motor power commands closer than this to the last written power are not re-sent to the hub.
+    public static final double OUTPUT_CACHE_POWER_EPSILON = 0.005;
+
+    // Servo position commands closer than this to the last written position are not re-sent.
+    public static final double OUTPUT_CACHE_SERVO_EPSILON = 0.001;
+
+    // An unchanged output is still re-sent this often (ms), in case a write was lost.
+    public static final long OUTPUT_CACHE_REFRESH_MS = 250;
 
 }
@@ -0,0 +1,84 @@
+// Filename: DriveController.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * DRIVE CONTROLLER - THE TELEOP DRIVING LOGIC
+ * =================================================================================================
+ *
+ * This class turns the driver's inputs into wheel powers. It holds the decisions the TeleOp
+ * makes every loop: the Field-Centric / Robot-Centric toggle on (X), slow mode on the right
+ * trigger, and the mecanum math.
+ *
+ * It does not touch any hardware: the OpMode reads the gamepad and the heading, calls
+ * {@link #update}, and sends the resulting wheel powers to the robot. Because of that, exactly
+ * the same logic can be run on a desktop computer against a flight recording (see
+ * {@link ReplayEngine}) to check that a change does not alter how the robot drives.
+ *
+ * @author Team 13353
+ */
+public class DriveController {
+
+    /** Trigger values above this turn slow mode on. */
+    public static final double SLOW_MODE_TRIGGER_THRESHOLD = 0.1;
+
+    // --- STATE VARIABLES ---
+    // Field-Centric by default.
+    private boolean isFieldCentric = true;
+    // Ensures the drive mode toggles only once per press of (X).
+    private boolean xWasPressed = false;
+    private double headingUsed = 0;
+    private boolean isHeadingFallback = false;
+    private final double[] wheelPowers = new double[4];
+
+    /**
+     * Runs the driving logic for one loop.
+     * @param leftStickX The driver's left stick X, as read from the gamepad.
+     * @param leftStickY The driver's left stick Y, as read from the gamepad (up is negative).
+     * @param rightStickX The driver's right stick X.
+     * @param rightTrigger The driver's right trigger (0.0 to 1.0).
+     * @param xButton True while (X) is held.
+     * @param headingRadians The robot's heading, used in Field-Centric mode. NaN if there is no
+     *                       trustworthy heading: that loop is then driven Robot-Centric.
+     */
+    public void update(double leftStickX, double leftStickY, double rightStickX, double rightTrigger,
+                       boolean xButton, double headingRadians) {
+        // --- DRIVE MODE TOGGLE LOGIC ---
+        if (xButton && !xWasPressed) {
+            isFieldCentric = !isFieldCentric;
+        }
+        xWasPressed = xButton;
+
+        // Read joystick values. The Y-axis is inverted.
+        double forward = -leftStickY;
+        double strafe = leftStickX;
+        double turn = rightStickX;
+
+        // "Slow mode" for precision driving.
+        double powerMultiplier = 1.0;
+        if (rightTrigger > SLOW_MODE_TRIGGER_THRESHOLD) {
+            powerMultiplier = Constants.DRIVE_SLOW_MODE_MULTIPLIER;
+        }
+
+        headingUsed = headingRadians;
+        // A stale heading would turn the driver's "forward" in a random direction. Without one,
+        // drive Robot-Centric until it is back, without changing the selected mode.
+        isHeadingFallback = isFieldCentric && headingRadians != headingRadians;
+        if (isFieldCentric && !isHeadingFallback) {
+            MecanumKinematics.fieldCentric(forward * powerMultiplier, strafe * powerMultiplier,
+                    turn * powerMultiplier, headingRadians, wheelPowers);
+        } else {
+            MecanumKinematics.robotCentric(forward * powerMultiplier, strafe * powerMultiplier,
+                    turn * powerMultiplier, wheelPowers);
+        }
+    }
+
+    /** @return True if the last update() drove Field-Centric. */
+    public boolean isFieldCentric() { return isFieldCentric; }
+    /** @return True if the last update() had to drive Robot-Centric because there was no heading. */
+    public boolean isHeadingFallback() { return isHeadingFallback; }
+    /** @return The heading passed to the last update(), in radians (NaN if there was none). */
+    public double getHeadingUsed() { return headingUsed; }
+    /** @return The wheel powers from the last update(), indexed by MecanumKinematics.LEFT_FRONT etc. */
+    public double[] getWheelPowers() { return wheelPowers; }
+}
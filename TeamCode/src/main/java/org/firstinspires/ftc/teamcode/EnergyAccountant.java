@@ -0,0 +1,236 @@
+// Filename: EnergyAccountant.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.List;
+
+/**
+ * =================================================================================================
+ * ENERGY ACCOUNTANT (COULOMB COUNTING)
+ * =================================================================================================
+ *
+ * Adds up how much charge (amp-hours) and energy (watt-hours) the robot uses during a match, and
+ * WHERE it goes, so we can find the subsystem that wastes the most of the battery.
+ *
+ * Each current that is measured is a CHANNEL in a {@link Group}:
+ * - HUB: a hub's total input current. The hubs together are everything the battery supplies.
+ * - DRIVETRAIN and MECHANISM: one motor's current.
+ * Whatever the hubs supply that no motor channel accounts for (servos, sensors, the hubs
+ * themselves, motors that are not measured) is reported as UNATTRIBUTED.
+ *
+ * HOW IT WORKS:
+ * 1.  Whenever a channel's current is read (by a task that reads it anyway), {@link #record}
+ *     adds the charge since that channel's previous reading: the average of the two currents
+ *     times the time between them (trapezoidal integration). Channels can be read at different
+ *     rates, e.g. round-robin.
+ * 2.  The charge times the latest bus voltage gives the energy.
+ * 3.  {@link #updateBurnRate()} smooths the hubs' total current over the last few seconds.
+ *     Multiplied by the time left in the match, it PROJECTS how much more charge the match will
+ *     use at the current pace.
+ *
+ * Every call is a fixed amount of arithmetic on preallocated arrays.
+ *
+ * @author Team 13353
+ */
+public class EnergyAccountant {
+
+    /** What a channel measures. */
+    public enum Group {
+        HUB("Hubs"),
+        DRIVETRAIN("Drivetrain"),
+        MECHANISM("Mechanisms");
+
+        final String label;
+
+        Group(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final double SECONDS_PER_HOUR = 3600;
+
+    private final NanoClock clock;
+    private final double burnRateTauSeconds;
+
+    // --- CONFIGURATION (per channel) ---
+    private final String[] names;
+    private final Group[] groups;
+    private int channelCount = 0;
+
+    // --- STATE VARIABLES ---
+    private final double[] ampSeconds;
+    private final double[] wattSeconds;
+    private final double[] lastAmps;
+    private final long[] lastNanos;
+    private final boolean[] hasSample;
+    private final double[] groupAmpSeconds = new double[Group.values().length];
+    private double busVolts = 0;
+    private double burnRateAmps = 0;
+    private double burnRateLastAmpSeconds = 0;
+    private long burnRateLastNanos = 0;
+    private long burnRateUpdates = 0;
+
+    /**
+     * Constructor for the EnergyAccountant.
+     * @param capacity The most channels that will be added.
+     * @param burnRateTauSeconds How many seconds the burn rate is smoothed over.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public EnergyAccountant(int capacity, double burnRateTauSeconds, NanoClock clock) {
+        this.clock = clock;
+        this.burnRateTauSeconds = burnRateTauSeconds;
+        names = new String[capacity];
+        groups = new Group[capacity];
+        ampSeconds = new double[capacity];
+        wattSeconds = new double[capacity];
+        lastAmps = new double[capacity];
+        lastNanos = new long[capacity];
+        hasSample = new boolean[capacity];
+    }
+
+    /**
+     * Adds a current to account for.
+     * @param name A short name, for the match log (e.g. "arm").
+     * @param group What the current belongs to.
+     * @return The channel's index, to pass to record().
+     */
+    public int addChannel(String name, Group group) {
+        if (channelCount == names.length) {
+            throw new IllegalStateException("The accountant is full (" + names.length + " channels)");
+        }
+        int channel = channelCount++;
+        names[channel] = name;
+        groups[channel] = group;
+        return channel;
+    }
+
+    /**
+     * Sets the battery voltage used to turn charge into energy. Call it whenever the voltage is read.
+     * @param volts The bus voltage.
+     */
+    public void setBusVoltage(double volts) {
+        if (volts > 0) busVolts = volts;
+    }
+
+    /**
+     * Accounts for a channel's current, read just now.
+     * @param channel The channel.
+     * @param amps The current, in amps. NaN is ignored. The sign is ignored.
+     */
+    public void record(int channel, double amps) {
+        if (amps != amps) return; // NaN: not read
+        amps = Math.abs(amps);
+        long now = clock.nanoTime();
+        if (hasSample[channel]) {
+            double charge = 0.5 * (lastAmps[channel] + amps) * ((now - lastNanos[channel]) * 1e-9);
+            ampSeconds[channel] += charge;
+            wattSeconds[channel] += charge * busVolts;
+            groupAmpSeconds[groups[channel].ordinal()] += charge;
+        }
+        lastAmps[channel] = amps;
+        lastNanos[channel] = now;
+        hasSample[channel] = true;
+    }
+
+    /**
+     * Updates the smoothed burn rate from the charge the hubs have supplied. Call it after
+     * recording every hub.
+     */
+    public void updateBurnRate() {
+        long now = clock.nanoTime();
+        double total = groupAmpSeconds[Group.HUB.ordinal()];
+        if (burnRateUpdates > 0) {
+            double dt = (now - burnRateLastNanos) * 1e-9;
+            if (dt <= 0) return;
+            double amps = (total - burnRateLastAmpSeconds) / dt;
+            // The first rate is taken as it is, so early projections do not start from zero.
+            burnRateAmps = burnRateUpdates == 1 ? amps
+                    : burnRateAmps + (amps - burnRateAmps) * (1 - Math.exp(-dt / burnRateTauSeconds));
+        }
+        burnRateLastAmpSeconds = total;
+        burnRateLastNanos = now;
+        burnRateUpdates++;
+    }
+
+    // --- TOTALS ---
+    /** @return The charge the hubs have supplied, in amp-hours. */
+    public double getTotalAmpHours() { return getGroupAmpHours(Group.HUB); }
+    /** @return The charge a group of channels has used, in amp-hours. */
+    public double getGroupAmpHours(Group group) { return groupAmpSeconds[group.ordinal()] / SECONDS_PER_HOUR; }
+
+    /** @return The charge the hubs supplied that no motor channel accounts for, in amp-hours. */
+    public double getUnattributedAmpHours() {
+        return Math.max(0, getTotalAmpHours() - getGroupAmpHours(Group.DRIVETRAIN) - getGroupAmpHours(Group.MECHANISM));
+    }
+
+    /** @return The energy the hubs have supplied, in watt-hours. */
+    public double getTotalWattHours() {
+        double total = 0;
+        for (int i = 0; i < channelCount; i++) {
+            if (groups[i] == Group.HUB) total += wattSeconds[i];
+        }
+        return total / SECONDS_PER_HOUR;
+    }
+
+    /** @return The smoothed total current of the hubs, in amps. */
+    public double getBurnRateAmps() { return burnRateAmps; }
+
+    /**
+     * Projects the charge the match will have used by its end, at the current burn rate.
+     * @param secondsLeft The time left in the match.
+     * @return The projected total, in amp-hours.
+     */
+    public double projectAmpHours(double secondsLeft) {
+        return getTotalAmpHours() + burnRateAmps * Math.max(0, secondsLeft) / SECONDS_PER_HOUR;
+    }
+
+    // --- CHANNELS ---
+    /** @return How many channels have been added. */
+    public int getChannelCount() { return channelCount; }
+    /** @return A channel's name. */
+    public String getName(int channel) { return names[channel]; }
+    /** @return A channel's group. */
+    public Group getGroup(int channel) { return groups[channel]; }
+    /** @return The charge a channel has used, in amp-hours. */
+    public double getAmpHours(int channel) { return ampSeconds[channel] / SECONDS_PER_HOUR; }
+    /** @return The energy a channel has used, in watt-hours. */
+    public double getWattHours(int channel) { return wattSeconds[channel] / SECONDS_PER_HOUR; }
+
+    /** @return The motor channel that has used the most charge, or -1 if there is none. */
+    public int getLargestConsumer() {
+        int largest = -1;
+        for (int i = 0; i < channelCount; i++) {
+            if (groups[i] != Group.HUB && (largest < 0 || ampSeconds[i] > ampSeconds[largest])) {
+                largest = i;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Adds the totals, the share of each group and each channel's use to a summary, e.g. the
+     * match log's.
+     * @param lines The list to add the lines to.
+     */
+    public void appendSummary(List<String> lines) {
+        double total = getTotalAmpHours();
+        lines.add("Energy Used: " + FastFormat.toFixed(total * 1000, 0) + " mAh, "
+                + FastFormat.toFixed(getTotalWattHours(), 2) + " Wh");
+        for (Group group : Group.values()) {
+            if (group == Group.HUB) continue;
+            lines.add("Energy - " + group.label + ": " + formatShare(getGroupAmpHours(group), total));
+        }
+        lines.add("Energy - Unattributed: " + formatShare(getUnattributedAmpHours(), total));
+        for (int i = 0; i < channelCount; i++) {
+            lines.add("Energy - " + names[i] + ": " + FastFormat.toFixed(getAmpHours(i) * 1000, 0) + " mAh");
+        }
+        int largest = getLargestConsumer();
+        if (largest >= 0) {
+            lines.add("Energy - Largest Consumer: " + names[largest]);
+        }
+    }
+
+    private static String formatShare(double ampHours, double total) {
+        String text = FastFormat.toFixed(ampHours * 1000, 0) + " mAh";
+        return total > 0 ? text + " (" + FastFormat.toFixed(100 * ampHours / total, 0) + "%)" : text;
+    }
+}
@@ -0,0 +1,319 @@
+// Filename: FastFormat.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * =================================================================================================
+ * ALLOCATION-FREE NUMBER FORMATTER
+ * =================================================================================================
+ *
+ * A small replacement for `String.format("%.2f", value)` in code that runs every loop.
+ *
+ * Every String.format call creates a Formatter, a StringBuilder, a varargs array and a boxed
+ * Double for each number. On the Control Hub that garbage adds up quickly and leads to garbage
+ * collection pauses in the middle of a match.
+ *
+ * FastFormat writes numbers straight into a StringBuilder the caller keeps and re-uses, digit by
+ * digit, with no boxing and no temporary objects:
+ * ```java
+ * private final StringBuilder line = new StringBuilder(64); // created once
+ * ...
+ * line.setLength(0);
+ * line.append("Heading: ");
+ * FastFormat.appendFixed(line, heading, 2);  // same as "%.2f"
+ * ```
+ * Only the final `line.toString()` (if you need a String at all) allocates.
+ *
+ * For code that already uses printf-style patterns, {@link #compile(String)} turns a pattern like
+ * "%.1f ms (max %.1f)" into a {@link Pattern} once, which can then be applied many times.
+ *
+ * ROUNDING: Like String.format, numbers are rounded half-up from the decimal number the double
+ * stands for, so 1.005 gives "1.01" and 9.995 gives "10.00", even though the nearest doubles
+ * are a hair below those decimals.
+ *
+ * @author Team 13353
+ */
+public final class FastFormat {
+
+    /** Every power of ten that fits in a long: 10^0 to 10^18. */
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    /** The most decimal places supported. */
+    public static final int MAX_DECIMALS = 12;
+
+    /**
+     * Scaled values at or above this are too close to the 15-16 significant digits a double
+     * holds for the last digit to be rounded reliably here. They fall back to the slow path,
+     * which prints them like String.format does.
+     */
+    private static final double MAX_SCALED = 1.0e14;
+
+    /**
+     * A scaled value whose fraction is this close to 0.5 (or within two of its ulps, if that is
+     * more) is checked as a decimal half-way case.
+     */
+    private static final double HALF_WAY_TOLERANCE = 1e-6;
+
+    private FastFormat() {}
+
+    // --- INTEGERS ---
+
+    /**
+     * Appends an integer, like "%d".
+     * @param sb The builder to append to.
+     * @param value The value.
+     * @return The builder, for chaining.
+     */
+    public static StringBuilder appendInt(StringBuilder sb, long value) {
+        return appendInt(sb, value, 0);
+    }
+
+    /**
+     * Appends an integer right-aligned in a field, like "%5d".
+     * @param sb The builder to append to.
+     * @param value The value.
+     * @param width The minimum number of characters; shorter numbers are padded with spaces.
+     * @return The builder, for chaining.
+     */
+    public static StringBuilder appendInt(StringBuilder sb, long value, int width) {
+        if (value == Long.MIN_VALUE) {
+            // The one long whose magnitude does not fit in a long. Never seen in practice.
+            pad(sb, width - 20);
+            return sb.append("-9223372036854775808");
+        }
+        boolean negative = value < 0;
+        long magnitude = negative ? -value : value;
+        int length = digitCount(magnitude) + (negative ? 1 : 0);
+        pad(sb, width - length);
+        if (negative) sb.append('-');
+        appendDigits(sb, magnitude);
+        return sb;
+    }
+
+    // --- FIXED-POINT DOUBLES ---
+
+    /**
+     * Appends a number with a fixed number of decimal places, like "%.2f".
+     * @param sb The builder to append to.
+     * @param value The value.
+     * @param decimals How many digits after the decimal point (0 to MAX_DECIMALS).
+     * @return The builder, for chaining.
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        return appendFixed(sb, value, decimals, 0);
+    }
+
+    /**
+     * Appends a number with a fixed number of decimal places, right-aligned in a field, like "%6.1f".
+     * @param sb The builder to append to.
+     * @param value The value.
+     * @param decimals How many digits after the decimal point (0 to MAX_DECIMALS).
+     * @param width The minimum number of characters; shorter numbers are padded with spaces.
+     * @return The builder, for chaining.
+     */
+    public static StringBuilder appendFixed(StringBuilder sb, double value, int decimals, int width) {
+        if (decimals < 0) decimals = 0;
+        if (decimals > MAX_DECIMALS) decimals = MAX_DECIMALS;
+
+        if (Double.isNaN(value)) {
+            pad(sb, width - 3);
+            return sb.append("NaN");
+        }
+        if (Double.isInfinite(value)) {
+            pad(sb, width - (value > 0 ? 8 : 9));
+            return sb.append(value > 0 ? "Infinity" : "-Infinity");
+        }
+
+        boolean negative = value < 0 || (value == 0 && 1 / value < 0);
+        double magnitude = Math.abs(value);
+        long scale = POWERS_OF_TEN[decimals];
+        double scaledDouble = magnitude * scale;
+        if (scaledDouble + 0.5 >= MAX_SCALED) {
+            // Too many digits to round exactly here. Fall back to the JDK (this allocates).
+            return sb.append(String.format(Locale.US, "%" + (width > 0 ? width : "") + "." + decimals + "f", value));
+        }
+        long scaled = (long) scaledDouble;
+        double fraction = scaledDouble - scaled;
+        if (Math.abs(fraction - 0.5) < Math.max(HALF_WAY_TOLERANCE, 2 * Math.ulp(scaledDouble))) {
+            // Near half-way, the multiplication's rounding error decides. Compare with the double
+            // nearest the decimal half-way point instead: round up if the value is not below it.
+            if (magnitude >= (scaled + 0.5) / scale) scaled++;
+        } else if (fraction > 0.5) {
+            scaled++;
+        }
+        long integerPart = scaled / scale;
+        long fractionPart = scaled % scale;
+
+        int length = (negative ? 1 : 0) + digitCount(integerPart) + (decimals > 0 ? decimals + 1 : 0);
+        pad(sb, width - length);
+        if (negative) sb.append('-');
+        appendDigits(sb, integerPart);
+        if (decimals > 0) {
+            sb.append('.');
+            // Leading zeros of the fraction, e.g. the "0" in "3.05", or all of "3.00".
+            for (int i = fractionPart == 0 ? 0 : digitCount(fractionPart); i < decimals; i++) {
+                sb.append('0');
+            }
+            if (fractionPart > 0) {
+                appendDigits(sb, fractionPart);
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Convenience for code that is not on the hot path: formats a number to a new String.
+     * @param value The value.
+     * @param decimals How many digits after the decimal point.
+     * @return The formatted number.
+     */
+    public static String toFixed(double value, int decimals) {
+        return appendFixed(new StringBuilder(24), value, decimals).toString();
+    }
+
+    // --- HELPERS ---
+
+    private static void pad(StringBuilder sb, int spaces) {
+        for (int i = 0; i < spaces; i++) {
+            sb.append(' ');
+        }
+    }
+
+    /** @return How many decimal digits a non-negative number has (at least 1). */
+    private static int digitCount(long magnitude) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && magnitude >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /** Appends the digits of a non-negative number, most significant first. */
+    private static void appendDigits(StringBuilder sb, long magnitude) {
+        for (int d = digitCount(magnitude) - 1; d >= 0; d--) {
+            long power = POWERS_OF_TEN[d];
+            sb.append((char) ('0' + (magnitude / power) % 10));
+        }
+    }
+
+    // --- PATTERNS ---
+
+    /**
+     * Compiles a printf-style pattern once, so it can be applied many times without parsing or
+     * allocation. Supported: plain text, "%%", and "%[-][width][.precision]f" / "%[-][width]d".
+     * @param pattern The pattern, e.g. "XYZ %6.1f %6.1f %6.1f  (inch)".
+     * @return The compiled pattern.
+     * @throws IllegalArgumentException If the pattern uses anything else (e.g. "%s").
+     */
+    public static Pattern compile(String pattern) {
+        return new Pattern(pattern);
+    }
+
+    /**
+     * A compiled printf-style pattern. Each specifier takes the next value from a double array.
+     */
+    public static final class Pattern {
+        private final String[] literals;   // literals[i] comes before specifier i; one extra at the end
+        private final boolean[] isInteger;
+        private final int[] widths;
+        private final int[] decimals;
+        private final boolean[] leftAlign;
+
+        private Pattern(String pattern) {
+            List<String> literalList = new ArrayList<>();
+            List<int[]> specs = new ArrayList<>(); // {isInteger, width, decimals, leftAlign}
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i++);
+                if (c != '%') {
+                    literal.append(c);
+                    continue;
+                }
+                if (i < pattern.length() && pattern.charAt(i) == '%') {
+                    literal.append('%');
+                    i++;
+                    continue;
+                }
+                boolean left = false;
+                if (i < pattern.length() && pattern.charAt(i) == '-') {
+                    left = true;
+                    i++;
+                }
+                int width = 0;
+                while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                    width = width * 10 + (pattern.charAt(i++) - '0');
+                }
+                int precision = 6; // The printf default for %f
+                if (i < pattern.length() && pattern.charAt(i) == '.') {
+                    i++;
+                    precision = 0;
+                    while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                        precision = precision * 10 + (pattern.charAt(i++) - '0');
+                    }
+                }
+                if (i >= pattern.length()) {
+                    throw new IllegalArgumentException("Unfinished format specifier in: " + pattern);
+                }
+                char conversion = pattern.charAt(i++);
+                if (conversion != 'f' && conversion != 'd') {
+                    throw new IllegalArgumentException("Unsupported format specifier %" + conversion + " in: " + pattern);
+                }
+                literalList.add(literal.toString());
+                literal.setLength(0);
+                specs.add(new int[]{conversion == 'd' ? 1 : 0, width, precision, left ? 1 : 0});
+            }
+            literalList.add(literal.toString());
+
+            int count = specs.size();
+            literals = literalList.toArray(new String[0]);
+            isInteger = new boolean[count];
+            widths = new int[count];
+            decimals = new int[count];
+            leftAlign = new boolean[count];
+            for (int s = 0; s < count; s++) {
+                int[] spec = specs.get(s);
+                isInteger[s] = spec[0] == 1;
+                widths[s] = spec[1];
+                decimals[s] = spec[2];
+                leftAlign[s] = spec[3] == 1;
+            }
+        }
+
+        /** @return How many values the pattern takes. */
+        public int getValueCount() { return widths.length; }
+
+        /**
+         * Appends the pattern with the given values filled in.
+         * @param sb The builder to append to.
+         * @param values One value per specifier. %d values are rounded to the nearest whole number.
+         * @return The builder, for chaining.
+         */
+        public StringBuilder appendTo(StringBuilder sb, double[] values) {
+            for (int s = 0; s < widths.length; s++) {
+                sb.append(literals[s]);
+                int start = sb.length();
+                int width = leftAlign[s] ? 0 : widths[s];
+                if (isInteger[s]) {
+                    appendInt(sb, Math.round(values[s]), width);
+                } else {
+                    appendFixed(sb, values[s], decimals[s], width);
+                }
+                if (leftAlign[s]) {
+                    pad(sb, widths[s] - (sb.length() - start));
+                }
+            }
+            return sb.append(literals[widths.length]);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+// Filename: FlightChannels.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * The channel names used in TeleOp flight recordings, shared by the code that writes them
+ * ({@link MatchRecorder}, on the robot) and the code that reads them ({@link ReplayEngine}, on a
+ * computer). This class has no FTC SDK imports, so it can be used in both places.
+ *
+ * Gamepad channels are named with a prefix, e.g. "gp1_left_stick_y". The buttons of each
+ * gamepad are packed into one number, one bit per button (see the BUTTON_ constants).
+ *
+ * @author Team 13353
+ */
+public final class FlightChannels {
+
+    // --- CHANNEL NAMES ---
+    public static final String GAMEPAD1_PREFIX = "gp1_";
+    public static final String GAMEPAD2_PREFIX = "gp2_";
+    public static final String LEFT_STICK_X = "left_stick_x";
+    public static final String LEFT_STICK_Y = "left_stick_y";
+    public static final String RIGHT_STICK_X = "right_stick_x";
+    public static final String RIGHT_STICK_Y = "right_stick_y";
+    public static final String LEFT_TRIGGER = "left_trigger";
+    public static final String RIGHT_TRIGGER = "right_trigger";
+    public static final String BUTTONS = "buttons";
+    public static final String FIELD_CENTRIC = "field_centric";
+    public static final String[] WHEEL_NAMES = {"lf", "rf", "lr", "rr"}; // In MecanumKinematics order
+    public static final String POWER_PREFIX = "power_";
+    public static final String ENCODER_PREFIX = "encoder_";
+    /** The heading the drive logic used in that loop. */
+    public static final String IMU_YAW = "imu_yaw";
+    public static final String BATTERY_VOLTAGE = "battery_voltage";
+    public static final String HUB_CURRENT_PREFIX = "hub_current_";
+    public static final String LOOP_TIME = "loop_time";
+
+    // --- BUTTON BITS ---
+    public static final int BUTTON_A = 1;
+    public static final int BUTTON_B = 1 << 1;
+    public static final int BUTTON_X = 1 << 2;
+    public static final int BUTTON_Y = 1 << 3;
+    public static final int BUTTON_BACK = 1 << 4;
+    public static final int BUTTON_START = 1 << 5;
+    public static final int BUTTON_LEFT_BUMPER = 1 << 6;
+    public static final int BUTTON_RIGHT_BUMPER = 1 << 7;
+    public static final int BUTTON_DPAD_UP = 1 << 8;
+    public static final int BUTTON_DPAD_DOWN = 1 << 9;
+    public static final int BUTTON_DPAD_LEFT = 1 << 10;
+    public static final int BUTTON_DPAD_RIGHT = 1 << 11;
+
+    private FlightChannels() {}
+}
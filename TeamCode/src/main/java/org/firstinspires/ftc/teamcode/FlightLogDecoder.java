@@ -0,0 +1,201 @@
+// Filename: FlightLogDecoder.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * =================================================================================================
+ * FLIGHT LOG DECODER
+ * =================================================================================================
+ *
+ * Reads a recording made by {@link FlightRecorder}. The channel names, types and units come from
+ * the file's own header, so any recording can be read, whatever channels it has.
+ *
+ * It can be used two ways:
+ * 1.  As a DESKTOP TOOL that converts recordings to CSV. Copy the .flight files off the robot
+ *     (they are in the FIRST/settings folder), then run:
+ *     `./gradlew :Benchmarks:decodeFlightLog -PflightLog=path/to/Flight_xxx.flight`
+ *     Each file is written next to the recording, with ".csv" on the end.
+ * 2.  From code, e.g. to replay a recording: look channels up by name with
+ *     {@link #getChannelIndex(String)} and read values with {@link #get(int, int)}.
+ *
+ * @author Team 13353
+ */
+public class FlightLogDecoder {
+
+    private static final FlightRecorder.Type[] TYPES = FlightRecorder.Type.values();
+
+    private final ByteBuffer data;
+    private final long startMillis;
+    private final int headerBytes;
+    private final int recordBytes;
+    private final int recordCount;
+    private final long droppedCount;
+    private final String[] names;
+    private final String[] units;
+    private final FlightRecorder.Type[] types;
+    private final int[] offsets;
+
+    /**
+     * Opens and parses a recording.
+     * @param file The recording.
+     * @throws IOException If the file cannot be read or is not a flight recording.
+     */
+    public FlightLogDecoder(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            data = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+        }
+        if (data.capacity() < FlightRecorder.OFFSET_CHANNELS) {
+            throw new IOException(file + " is too short to be a flight recording");
+        }
+        byte[] magic = new byte[FlightRecorder.MAGIC.length()];
+        data.get(magic);
+        if (!FlightRecorder.MAGIC.equals(new String(magic, "US-ASCII"))) {
+            throw new IOException(file + " is not a flight recording");
+        }
+        int version = data.getInt(FlightRecorder.OFFSET_VERSION);
+        if (version > FlightRecorder.FORMAT_VERSION) {
+            throw new IOException(file + " uses format version " + version + ", newer than this decoder");
+        }
+        headerBytes = data.getInt(FlightRecorder.OFFSET_HEADER_BYTES);
+        recordBytes = data.getInt(FlightRecorder.OFFSET_RECORD_BYTES);
+        int channelCount = data.getInt(FlightRecorder.OFFSET_CHANNEL_COUNT);
+        startMillis = data.getLong(FlightRecorder.OFFSET_START_MILLIS);
+        droppedCount = data.getLong(FlightRecorder.OFFSET_DROPPED);
+        // Never trust the count further than the file actually goes (e.g. a truncated copy).
+        long fitting = recordBytes == 0 ? 0 : (data.capacity() - headerBytes) / recordBytes;
+        recordCount = (int) Math.min(data.getLong(FlightRecorder.OFFSET_RECORD_COUNT), fitting);
+
+        names = new String[channelCount];
+        units = new String[channelCount];
+        types = new FlightRecorder.Type[channelCount];
+        offsets = new int[channelCount];
+        data.position(FlightRecorder.OFFSET_CHANNELS);
+        int offset = 0;
+        for (int i = 0; i < channelCount; i++) {
+            int type = data.get();
+            if (type < 0 || type >= TYPES.length) {
+                throw new IOException(file + ": channel " + i + " has unknown type " + type);
+            }
+            types[i] = TYPES[type];
+            names[i] = readString();
+            units[i] = readString();
+            offsets[i] = offset;
+            offset += types[i].bytes;
+        }
+        if (offset != recordBytes) {
+            throw new IOException(file + ": channel sizes do not add up to the record size");
+        }
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[data.get() & 0xFF];
+        data.get(bytes);
+        return new String(bytes, "US-ASCII");
+    }
+
+    // --- READING ---
+
+    /** @return How many complete records the file holds. */
+    public int getRecordCount() { return recordCount; }
+    /** @return How many records the robot dropped because the file was full. */
+    public long getDroppedCount() { return droppedCount; }
+    /** @return When recording started, as System.currentTimeMillis() on the robot. */
+    public long getStartMillis() { return startMillis; }
+    /** @return How many channels each record has. */
+    public int getChannelCount() { return names.length; }
+    /** @return A channel's name. */
+    public String getChannelName(int channel) { return names[channel]; }
+    /** @return A channel's unit, or "" if it has none. */
+    public String getChannelUnit(int channel) { return units[channel]; }
+    /** @return A channel's storage type. */
+    public FlightRecorder.Type getChannelType(int channel) { return types[channel]; }
+
+    /**
+     * Finds a channel by name.
+     * @param name The channel name.
+     * @return The channel's index, or -1 if this recording does not have it.
+     */
+    public int getChannelIndex(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads one value.
+     * @param record The record (0 = the first loop).
+     * @param channel The channel.
+     * @return The value, as a double.
+     */
+    public double get(int record, int channel) {
+        int position = headerBytes + record * recordBytes + offsets[channel];
+        switch (types[channel]) {
+            case INT32: return data.getInt(position);
+            case INT64: return data.getLong(position);
+            case FLOAT32: return data.getFloat(position);
+            default: return data.getDouble(position);
+        }
+    }
+
+    // --- CSV ---
+
+    /**
+     * Writes the whole recording as CSV: a heading row of "name (unit)", then one row per record.
+     * @param out Where to write.
+     * @throws IOException If writing fails.
+     */
+    public void writeCsv(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        for (int c = 0; c < names.length; c++) {
+            if (c > 0) line.append(',');
+            line.append(names[c]);
+            if (!units[c].isEmpty()) line.append(" (").append(units[c]).append(')');
+        }
+        out.append(line).append('\n');
+        for (int r = 0; r < recordCount; r++) {
+            line.setLength(0);
+            for (int c = 0; c < names.length; c++) {
+                if (c > 0) line.append(',');
+                double value = get(r, c);
+                if (types[c] == FlightRecorder.Type.INT32 || types[c] == FlightRecorder.Type.INT64) {
+                    FastFormat.appendInt(line, (long) value);
+                } else {
+                    FastFormat.appendFixed(line, value, c == 0 ? 4 : 6);
+                }
+            }
+            out.append(line).append('\n');
+        }
+    }
+
+    /**
+     * Converts each recording named on the command line to a CSV file next to it.
+     * @param args The recordings to convert.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: FlightLogDecoder <recording.flight> [more recordings...]");
+            System.exit(1);
+        }
+        for (String path : args) {
+            File in = new File(path);
+            FlightLogDecoder decoder = new FlightLogDecoder(in);
+            File out = new File(path + ".csv");
+            try (Writer writer = new BufferedWriter(new FileWriter(out))) {
+                decoder.writeCsv(writer);
+            }
+            System.out.println(in.getName() + ": " + decoder.getRecordCount() + " records, "
+                    + decoder.getChannelCount() + " channels"
+                    + (decoder.getDroppedCount() > 0 ? ", " + decoder.getDroppedCount() + " dropped" : "")
+                    + " -> " + out.getPath());
+        }
+    }
+}
@@ -0,0 +1,297 @@
+// Filename: FlightRecorder.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * =================================================================================================
+ * BINARY FLIGHT-DATA RECORDER
+ * =================================================================================================
+ *
+ * This helper class records a set of numbers ("CHANNELS") once per loop into a binary file, like
+ * an aircraft's black box. After the match, {@link FlightLogDecoder} turns the file into a CSV
+ * that can be opened in a spreadsheet or plotted.
+ *
+ * WHY BINARY AND MEMORY-MAPPED:
+ * Formatting dozens of numbers into text every loop is slow and allocates. Instead, each loop's
+ * values are written as raw numbers into one fixed-size RECORD. The whole file is created at its
+ * full size when the recorder is opened, then MEMORY-MAPPED: writing a number is just a store
+ * into memory, and Android copies the changed pages to storage in the background. Nothing is
+ * allocated and nothing blocks while recording.
+ *
+ * FILE LAYOUT (all numbers big-endian):
+ * ```
+ * HEADER   "FLIGHTRC"            8 bytes  magic
+ *          format version        int
+ *          header size           int      records start at this offset
+ *          record size           int
+ *          channel count         int
+ *          start time            long     System.currentTimeMillis() at open()
+ *          record count          long     updated after every record
+ *          dropped records       long     records that did not fit in the file
+ *          then, per channel:    byte type, byte name length, name, byte unit length, unit
+ * RECORDS  one per loop, each channel's value in order, packed by type
+ * ```
+ * Because the header lists every channel by name, type and unit, a decoder reads whatever
+ * channels a file has. Adding channels later does not break reading older (or newer) files.
+ *
+ * Channel 0 is always "time_s", the seconds since open(), filled in by beginRecord().
+ *
+ * USAGE:
+ * ```java
+ * FlightRecorder recorder = new FlightRecorder(file, 18000, NanoClock.SYSTEM);
+ * int yaw = recorder.addChannel("imu_yaw", FlightRecorder.Type.FLOAT64, "rad");
+ * recorder.open();
+ * // every loop:
+ * if (recorder.beginRecord()) {
+ *     recorder.putDouble(yaw, heading);
+ *     recorder.endRecord();
+ * }
+ * // at the end:
+ * recorder.close();
+ * ```
+ *
+ * @author Team 13353
+ */
+public class FlightRecorder {
+
+    /** How a channel's values are stored. Smaller types make smaller files. */
+    public enum Type {
+        INT32(4), INT64(8), FLOAT32(4), FLOAT64(8);
+
+        public final int bytes;
+
+        Type(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /** The first 8 bytes of every recording. */
+    public static final String MAGIC = "FLIGHTRC";
+    /** The version of the header layout described above. */
+    public static final int FORMAT_VERSION = 1;
+
+    // Offsets of the fixed header fields.
+    static final int OFFSET_VERSION = 8;
+    static final int OFFSET_HEADER_BYTES = 12;
+    static final int OFFSET_RECORD_BYTES = 16;
+    static final int OFFSET_CHANNEL_COUNT = 20;
+    static final int OFFSET_START_MILLIS = 24;
+    static final int OFFSET_RECORD_COUNT = 32;
+    static final int OFFSET_DROPPED = 40;
+    static final int OFFSET_CHANNELS = 48;
+
+    // --- CONFIGURATION ---
+    private final File file;
+    private final int maxRecords;
+    private final NanoClock clock;
+    private final List<String> names = new ArrayList<>();
+    private final List<String> units = new ArrayList<>();
+    private final List<Type> typeList = new ArrayList<>();
+
+    // --- LAYOUT (fixed by open()) ---
+    private Type[] types;
+    private int[] offsets;     // Each channel's offset inside a record
+    private int headerBytes;
+    private int recordBytes;
+
+    // --- STATE VARIABLES ---
+    private RandomAccessFile randomAccessFile;
+    private MappedByteBuffer buffer;
+    private long startNanos;
+    private int recordCount = 0;
+    private long droppedCount = 0;
+    private int recordStart = -1; // Byte offset of the record being written, or -1 if none
+
+    /**
+     * Constructor for the FlightRecorder. Add channels, then call open().
+     * @param file The file to record to. It is replaced if it exists.
+     * @param maxRecords How many records the file has room for. Later records are dropped.
+     * @param clock The clock for the time channel. Pass NanoClock.SYSTEM on the robot.
+     */
+    public FlightRecorder(File file, int maxRecords, NanoClock clock) {
+        this.file = file;
+        this.maxRecords = maxRecords;
+        this.clock = clock;
+        addChannel("time_s", Type.FLOAT64, "s");
+    }
+
+    /**
+     * Adds a channel. Channels can only be added before open().
+     * @param name A short name, used as the CSV column heading (ASCII, at most 255 characters).
+     * @param type How the values are stored.
+     * @param unit The unit, for the reader (e.g. "V", "ticks"), or "" for none.
+     * @return The channel's index, for the put methods.
+     */
+    public int addChannel(String name, Type type, String unit) {
+        if (buffer != null) {
+            throw new IllegalStateException("Channels must be added before open()");
+        }
+        names.add(name);
+        units.add(unit);
+        typeList.add(type);
+        return names.size() - 1;
+    }
+
+    /**
+     * Creates the file at its full size, writes the header and maps it into memory.
+     * This is slow (it writes the whole file once), so call it during init.
+     * @throws IOException If the file cannot be created.
+     */
+    public void open() throws IOException {
+        int count = names.size();
+        types = typeList.toArray(new Type[0]);
+        offsets = new int[count];
+        recordBytes = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = recordBytes;
+            recordBytes += types[i].bytes;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(OFFSET_CHANNELS + count * (3 + 2 * 255));
+        header.put(ascii(MAGIC));
+        header.putInt(FORMAT_VERSION);
+        header.putInt(0); // Header size, filled in below
+        header.putInt(recordBytes);
+        header.putInt(count);
+        header.putLong(System.currentTimeMillis());
+        header.putLong(0); // Record count
+        header.putLong(0); // Dropped records
+        for (int i = 0; i < count; i++) {
+            byte[] name = ascii(names.get(i));
+            byte[] unit = ascii(units.get(i));
+            header.put((byte) types[i].ordinal());
+            header.put((byte) name.length).put(name);
+            header.put((byte) unit.length).put(unit);
+        }
+        headerBytes = (header.position() + 7) & ~7; // Keep records 8-byte aligned
+        header.putInt(OFFSET_HEADER_BYTES, headerBytes);
+        header.limit(headerBytes);
+        header.position(0);
+
+        long fileBytes = headerBytes + (long) maxRecords * recordBytes;
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.setLength(0);
+        FileChannel channel = randomAccessFile.getChannel();
+        // Write every byte once now, so the storage is really allocated before the match and
+        // recording never has to wait for the file system to find space.
+        ByteBuffer zeros = ByteBuffer.allocate(64 * 1024);
+        for (long written = 0; written < fileBytes; ) {
+            zeros.clear();
+            zeros.limit((int) Math.min(zeros.capacity(), fileBytes - written));
+            written += channel.write(zeros, written);
+        }
+        channel.write(header, 0);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+
+        startNanos = clock.nanoTime();
+        recordCount = 0;
+        droppedCount = 0;
+    }
+
+    private static byte[] ascii(String text) {
+        int length = Math.min(text.length(), 255);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            bytes[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        return bytes;
+    }
+
+    // --- RECORDING ---
+
+    /**
+     * Starts a new record and fills in its time. Channels not set before endRecord() are 0.
+     * @return False if the recorder is not open or the file is full (the record is dropped).
+     */
+    public boolean beginRecord() {
+        if (buffer == null) return false;
+        if (recordCount >= maxRecords) {
+            droppedCount++;
+            buffer.putLong(OFFSET_DROPPED, droppedCount);
+            recordStart = -1;
+            return false;
+        }
+        recordStart = headerBytes + recordCount * recordBytes;
+        putDouble(0, (clock.nanoTime() - startNanos) / 1e9);
+        return true;
+    }
+
+    /**
+     * Sets a channel's value in the current record, converted to the channel's type.
+     * @param channel The index from addChannel().
+     * @param value The value.
+     */
+    public void putDouble(int channel, double value) {
+        if (recordStart < 0) return;
+        int position = recordStart + offsets[channel];
+        switch (types[channel]) {
+            case FLOAT32: buffer.putFloat(position, (float) value); break;
+            case FLOAT64: buffer.putDouble(position, value); break;
+            case INT32: buffer.putInt(position, (int) Math.round(value)); break;
+            case INT64: buffer.putLong(position, Math.round(value)); break;
+        }
+    }
+
+    /**
+     * Sets a channel's value in the current record, converted to the channel's type.
+     * @param channel The index from addChannel().
+     * @param value The value.
+     */
+    public void putLong(int channel, long value) {
+        if (recordStart < 0) return;
+        int position = recordStart + offsets[channel];
+        switch (types[channel]) {
+            case FLOAT32: buffer.putFloat(position, value); break;
+            case FLOAT64: buffer.putDouble(position, value); break;
+            case INT32: buffer.putInt(position, (int) value); break;
+            case INT64: buffer.putLong(position, value); break;
+        }
+    }
+
+    /**
+     * Finishes the current record. It is counted in the header, so a decoder sees it even if the
+     * recorder is never closed.
+     */
+    public void endRecord() {
+        if (recordStart < 0) return;
+        recordCount++;
+        buffer.putLong(OFFSET_RECORD_COUNT, recordCount);
+        recordStart = -1;
+    }
+
+    /**
+     * Forces the recording to storage and closes the file. The file keeps its full size; the
+     * header's record count says how much of it is used.
+     */
+    public void close() {
+        if (buffer == null) return;
+        buffer.force();
+        buffer = null;
+        try {
+            randomAccessFile.close();
+        } catch (IOException e) {
+            // The data is already forced to storage; nothing more to do.
+        }
+    }
+
+    // --- STATISTICS ---
+    /** @return True between open() and close(). */
+    public boolean isOpen() { return buffer != null; }
+    /** @return How many records have been written. */
+    public int getRecordCount() { return recordCount; }
+    /** @return How many records were dropped because the file was full. */
+    public long getDroppedCount() { return droppedCount; }
+    /** @return How many records the file has room for. */
+    public int getMaxRecords() { return maxRecords; }
+    /** @return The size of one record, in bytes (valid after open()). */
+    public int getRecordBytes() { return recordBytes; }
+}
@@ -0,0 +1,223 @@
+// Filename: ImuSampler.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * BACKGROUND IMU SAMPLER
+ * =================================================================================================
+ *
+ * This helper class reads the IMU on its own background thread, so the main control loop never
+ * has to wait for it.
+ *
+ * The IMU is an I2C device. Every `getRobotYawPitchRollAngles()` call is a slow, blocking bus
+ * transaction, and calling it from the main loop (once for field-centric driving and again for
+ * telemetry) adds that delay to every single loop.
+ *
+ * Instead, a dedicated thread polls the IMU at a fixed rate and publishes each result as a
+ * timestamped SAMPLE (yaw, pitch, roll and yaw rate). The main loop simply copies the newest
+ * sample, which takes nanoseconds and never blocks.
+ *
+ * HOW THE HAND-OFF WORKS (for the curious):
+ * The newest sample lives in a single "slot" protected by a sequence number (a "seqlock").
+ * The sampler thread bumps the number to odd, writes the values, then bumps it back to even.
+ * A reader notes the number, copies the values, and checks that the number did not change and
+ * was even. If it did change, the writer was busy, so the reader simply tries again. No locks
+ * are ever taken, so neither thread can make the other wait.
+ *
+ * Every sample has a timestamp, so consumers can check its AGE and decide whether it is too
+ * stale to trust. After the IMU's yaw is re-zeroed, {@link #discardSamples()} makes sure no
+ * reading taken before the re-zero is handed out again.
+ *
+ * The IMU itself is reached through the small {@link Source} interface, so a fake IMU can be
+ * used to test this class on a desktop JVM.
+ *
+ * @author Team 13353
+ */
+public class ImuSampler {
+
+    /** Something that can be read like an IMU. The read may block; it runs on the sampler thread. */
+    public interface Source {
+        /**
+         * Performs one blocking read of the IMU and fills in the angle fields of the sample.
+         * @param out The sample to fill in: yaw, pitch, roll (radians) and yawRate (radians/sec).
+         */
+        void read(Sample out);
+    }
+
+    /** A plain holder for one IMU reading. Reuse one instance per consumer to avoid allocation. */
+    public static class Sample {
+        /** Heading, in radians. Positive is counter-clockwise. */
+        public double yaw;
+        /** Pitch, in radians. */
+        public double pitch;
+        /** Roll, in radians. */
+        public double roll;
+        /** Rate of change of heading, in radians per second. */
+        public double yawRate;
+        /** When the reading was taken, in the sampler clock's nanoseconds. */
+        public long timestampNanos;
+        /** Increases by one for each published sample. 0 means "no sample yet". */
+        public long sequence;
+    }
+
+    // --- CONFIGURATION ---
+    private final Source source;
+    private final NanoClock clock;
+    private final long periodNanos;
+
+    // --- THE PUBLISHED SLOT ---
+    // Written only by the sampler thread. All fields are volatile so their order is guaranteed.
+    private volatile long slotVersion = 0; // Odd while a write is in progress.
+    private volatile double slotYaw, slotPitch, slotRoll, slotYawRate;
+    private volatile long slotTimestampNanos;
+    private volatile long slotReadStartNanos;
+    private volatile long slotSequence = 0;
+
+    /** Samples whose read started before this time are not handed out. */
+    private volatile long discardBeforeNanos = Long.MIN_VALUE;
+
+    // --- THREAD STATE ---
+    private volatile boolean isRunning = false;
+    private Thread thread;
+    private volatile long readErrors = 0;
+    private volatile long lastReadNanos = 0;
+
+    /**
+     * Constructor for the ImuSampler. The thread is not started until {@link #start()}.
+     * @param source The IMU to read.
+     * @param rateHz How many times per second to read it.
+     * @param clock The clock to use for timestamps and pacing. Pass NanoClock.SYSTEM on the robot.
+     */
+    public ImuSampler(Source source, double rateHz, NanoClock clock) {
+        this.source = source;
+        this.clock = clock;
+        this.periodNanos = (long) (1e9 / rateHz);
+    }
+
+    /**
+     * Starts the sampler thread. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (isRunning) return;
+        isRunning = true;
+        thread = new Thread(this::run, "ImuSampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the sampler thread and waits briefly for it to finish. Safe to call more than once.
+     */
+    public synchronized void stop() {
+        isRunning = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /** @return True if the sampler thread is running. */
+    public boolean isRunning() { return isRunning; }
+
+    /**
+     * The sampler thread's main loop: read, publish, sleep until the next period.
+     */
+    private void run() {
+        Sample scratch = new Sample();
+        long nextRead = clock.nanoTime();
+        while (isRunning) {
+            long start = clock.nanoTime();
+            try {
+                source.read(scratch);
+                long end = clock.nanoTime();
+                lastReadNanos = end - start;
+                // Stamp the sample with the middle of the read, the best guess of when it was taken.
+                publish(scratch, start, start + (end - start) / 2);
+            } catch (RuntimeException e) {
+                readErrors++;
+            }
+
+            nextRead += periodNanos;
+            long now = clock.nanoTime();
+            if (nextRead < now) {
+                nextRead = now; // We fell behind; do not try to catch up with a burst of reads.
+            }
+            try {
+                clock.sleepNanos(nextRead - now);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        isRunning = false;
+    }
+
+    /**
+     * Publishes a sample into the slot. Only ever called from the sampler thread.
+     */
+    private void publish(Sample sample, long readStartNanos, long timestampNanos) {
+        long version = slotVersion;
+        slotVersion = version + 1; // Odd: write in progress.
+        slotYaw = sample.yaw;
+        slotPitch = sample.pitch;
+        slotRoll = sample.roll;
+        slotYawRate = sample.yawRate;
+        slotTimestampNanos = timestampNanos;
+        slotReadStartNanos = readStartNanos;
+        slotSequence = slotSequence + 1;
+        slotVersion = version + 2; // Even: write complete.
+    }
+
+    /**
+     * Copies the newest sample into the given holder without blocking.
+     * @param out The holder to fill in.
+     * @return True if a sample was available, false if the sampler has not published one yet (or
+     *         not one taken since the last {@link #discardSamples()}).
+     */
+    public boolean getLatest(Sample out) {
+        while (true) {
+            long before = slotVersion;
+            if ((before & 1L) != 0) {
+                continue; // The writer is mid-update; try again.
+            }
+            out.yaw = slotYaw;
+            out.pitch = slotPitch;
+            out.roll = slotRoll;
+            out.yawRate = slotYawRate;
+            out.timestampNanos = slotTimestampNanos;
+            long readStart = slotReadStartNanos;
+            out.sequence = slotSequence;
+            if (slotVersion == before) {
+                return out.sequence != 0 && readStart >= discardBeforeNanos;
+            }
+        }
+    }
+
+    /**
+     * Throws away the current sample and any read already in progress: getLatest() returns false
+     * until a read that started after this call is published. Call it right after re-zeroing the
+     * IMU's yaw, so no consumer sees a heading from before the re-zero.
+     */
+    public void discardSamples() {
+        discardBeforeNanos = clock.nanoTime();
+    }
+
+    /**
+     * Gets the age of a sample, measured with this sampler's clock.
+     * @param sample A sample previously filled in by {@link #getLatest(Sample)}.
+     * @return How long ago the sample was taken, in milliseconds.
+     */
+    public double getAgeMs(Sample sample) {
+        return (clock.nanoTime() - sample.timestampNanos) / 1e6;
+    }
+
+    /** @return The number of IMU reads that threw an exception. */
+    public long getReadErrors() { return readErrors; }
+
+    /** @return How long the most recent IMU read took on the sampler thread, in milliseconds. */
+    public double getLastReadMs() { return lastReadNanos / 1e6; }
+}
@@ -0,0 +1,187 @@
+// Filename: LatencyHistogram.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.Arrays;
+
+/**
+ * =================================================================================================
+ * FIXED-MEMORY LATENCY HISTOGRAM
+ * =================================================================================================
+ *
+ * This helper class records how long things take (e.g. loop times) and answers questions like
+ * "what was the 99th percentile?" without storing every single sample.
+ *
+ * An average or a single "peak" value hides the shape of the data: a steady 12 ms loop and a loop
+ * that sits at 8 ms with the occasional 60 ms spike can have the same average. Percentiles tell
+ * them apart.
+ *
+ * HOW IT WORKS:
+ * Values are recorded in whole MICROSECONDS into a fixed array of counters ("buckets").
+ * - Values below 64 us each get their own bucket (exact).
+ * - Above that, every power of two (64-127, 128-255, 256-511, ...) is split into 32 equal
+ *   buckets. So every value is stored with an error of about 3% or less, no matter how big it is.
+ * - Values above the largest trackable value (about 134 seconds) are clamped into the top bucket.
+ * This is the same idea used by HdrHistogram, shrunk down to what a robot needs.
+ *
+ * Recording a value is just a few bit operations and one array increment. Nothing is ever
+ * allocated after construction, so it is safe to call in every loop.
+ *
+ * @author Team 13353
+ */
+public class LatencyHistogram {
+
+    /** Values below this are stored exactly, one bucket each. Must be a power of two. */
+    private static final int LINEAR_BUCKETS = 64;
+    /** log2(LINEAR_BUCKETS). */
+    private static final int LINEAR_BITS = 6;
+    /** How many buckets each power of two above the linear range is split into. */
+    private static final int SUB_BUCKETS = LINEAR_BUCKETS / 2;
+    /** The largest value that can be told apart from bigger ones, in microseconds. */
+    public static final long MAX_TRACKABLE_MICROS = (1L << 27) - 1;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1;
+
+    // --- STATE VARIABLES ---
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long totalMicros = 0;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros = 0;
+
+    /**
+     * Records one value.
+     * @param micros The value, in microseconds. Negative values are recorded as 0.
+     */
+    public void record(long micros) {
+        if (micros < 0) micros = 0;
+        counts[bucketIndex(Math.min(micros, MAX_TRACKABLE_MICROS))]++;
+        totalCount++;
+        totalMicros += micros;
+        if (micros < minMicros) minMicros = micros;
+        if (micros > maxMicros) maxMicros = micros;
+    }
+
+    /**
+     * Records one value given in milliseconds.
+     * @param ms The value, in milliseconds.
+     */
+    public void recordMs(double ms) {
+        record((long) (ms * 1000.0));
+    }
+
+    /** Clears all recorded values. */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalMicros = 0;
+        minMicros = Long.MAX_VALUE;
+        maxMicros = 0;
+    }
+
+    /**
+     * Replaces the contents of this histogram with a copy of another one. No allocation.
+     * @param other The histogram to copy.
+     */
+    public void copyFrom(LatencyHistogram other) {
+        System.arraycopy(other.counts, 0, counts, 0, BUCKET_COUNT);
+        totalCount = other.totalCount;
+        totalMicros = other.totalMicros;
+        minMicros = other.minMicros;
+        maxMicros = other.maxMicros;
+    }
+
+    /**
+     * Adds all the values of another histogram into this one.
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalMicros += other.totalMicros;
+        if (other.minMicros < minMicros) minMicros = other.minMicros;
+        if (other.maxMicros > maxMicros) maxMicros = other.maxMicros;
+    }
+
+    /**
+     * Gets the value below which the given percentage of recorded values fall.
+     * The answer is the top of the bucket the percentile lands in (never more than the maximum),
+     * so it errs on the side of "slower".
+     * @param percentile The percentile to look up, from 0 to 100 (e.g. 99.9).
+     * @return The value in microseconds, or 0 if nothing has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        if (percentile >= 100.0) return maxMicros;
+
+        // The rank (1-based) of the sample we are looking for.
+        long rank = (long) Math.ceil(percentile / 100.0 * totalCount);
+        if (rank < 1) rank = 1;
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(minMicros, Math.min(bucketUpperBound(i), maxMicros));
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * Same as {@link #getPercentile(double)}, in milliseconds.
+     * @param percentile The percentile to look up, from 0 to 100.
+     * @return The value in milliseconds.
+     */
+    public double getPercentileMs(double percentile) {
+        return getPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Counts how many recorded values were above a limit. Values within the same bucket as the
+     * limit are counted as not above it, so the answer may be slightly low (by at most ~3%).
+     * @param micros The limit, in microseconds.
+     * @return The number of values above the limit.
+     */
+    public long getCountAbove(long micros) {
+        if (micros >= MAX_TRACKABLE_MICROS) return 0;
+        long above = 0;
+        for (int i = bucketIndex(Math.max(0, micros)) + 1; i < BUCKET_COUNT; i++) {
+            above += counts[i];
+        }
+        return above;
+    }
+
+    // --- STATISTICS ---
+    public long getCount() { return totalCount; }
+    public long getMaxMicros() { return maxMicros; }
+    public long getMinMicros() { return totalCount == 0 ? 0 : minMicros; }
+    public double getMaxMs() { return maxMicros / 1000.0; }
+    public double getMeanMs() { return totalCount == 0 ? 0 : totalMicros / 1000.0 / totalCount; }
+
+    // --- BUCKET MATH ---
+
+    /** Maps a value (0 to MAX_TRACKABLE_MICROS) to its bucket. */
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value); // floor(log2(value)), at least 6
+        int shift = magnitude - (LINEAR_BITS - 1);
+        int sub = (int) (value >> shift); // Always in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return LINEAR_BUCKETS + (magnitude - LINEAR_BITS) * SUB_BUCKETS + (sub - SUB_BUCKETS);
+    }
+
+    /** The largest value that falls into the given bucket. */
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int offset = index - LINEAR_BUCKETS;
+        int magnitude = offset / SUB_BUCKETS + LINEAR_BITS;
+        long sub = offset % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = magnitude - (LINEAR_BITS - 1);
+        return ((sub + 1) << shift) - 1;
+    }
+}
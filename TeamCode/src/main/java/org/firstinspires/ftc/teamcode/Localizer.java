@@ -0,0 +1,50 @@
+// Filename: Localizer.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * Anything that tracks the robot's position and heading on the field.
+ *
+ * Autonomous code should only talk to this interface, so it works the same whichever way the
+ * pose is measured (dead-wheel odometry pods, drive-wheel encoders, ...), and a robot can switch
+ * between them by constructing a different localizer.
+ *
+ * The pose is in inches and radians: x forward and y to the LEFT of where the robot started (or
+ * of the pose given to setPose()), heading counter-clockwise, from -PI to PI.
+ *
+ * @author Team 13353
+ */
+public interface Localizer {
+
+    /**
+     * One encoder count, as the localizer sees it. On the robot, pass a DcMotor's
+     * `getCurrentPosition` (e.g. `leftPod::getCurrentPosition`); with bulk caching in MANUAL
+     * mode, every read in a loop comes from the same bulk read. On a desktop, pass a simulated
+     * encoder. Negate the count here if an encoder counts backwards.
+     */
+    interface Encoder {
+        /** @return The encoder's position, in ticks. */
+        int getPosition();
+    }
+
+    /**
+     * Reads the sensors and moves the pose by however far the robot went since the last call.
+     * Call it once per loop, AFTER the bulk cache has been cleared. The first call only reads
+     * the starting positions.
+     */
+    void update();
+
+    /**
+     * Moves the pose to a known position, e.g. the starting position of an autonomous.
+     * @param x The x position, in inches.
+     * @param y The y position, in inches.
+     * @param headingRadians The heading, in radians.
+     */
+    void setPose(double x, double y, double headingRadians);
+
+    /** @return The x position (forward), in inches. */
+    double getX();
+    /** @return The y position (left), in inches. */
+    double getY();
+    /** @return The heading, in radians (-PI to PI, counter-clockwise positive). */
+    double getHeading();
+}
@@ -0,0 +1,240 @@
+// Filename: LoopScheduler.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * =================================================================================================
+ * FIXED-RATE LOOP SCHEDULER
+ * =================================================================================================
+ *
+ * This helper class runs an OpMode's main loop at a fixed target period (e.g. every 10 ms)
+ * instead of "as fast as possible".
+ *
+ * A free-running `while (opModeIsActive())` loop has a period that jitters with every hub
+ * transaction, every telemetry packet and every garbage collection. That jitter makes the robot
+ * feel inconsistent and makes any time-based control (PID, ramps, macros) harder to tune.
+ *
+ * The loop is split into named PHASES (e.g. "update", "drive", "mechanisms", "telemetry"), and
+ * each phase gets a time BUDGET. Every cycle, the scheduler:
+ * 1.  Sleeps until the start of the next period, so cycles begin at a steady rate.
+ * 2.  Runs each phase in the order it was added, timing it against its budget.
+ * 3.  Skips a DEFERRABLE phase (like telemetry) when the cycle is already running late and the
+ *     phase's budget no longer fits. A deferrable phase is never skipped more than a set number
+ *     of times in a row, so it cannot starve.
+ * 4.  Records overruns: phases that took longer than their budget, and whole cycles that took
+ *     longer than the period.
+ * 5.  If a cycle ran so late that the next one is already overdue, the schedule is re-synced to
+ *     "now" instead of running a burst of back-to-back catch-up cycles.
+ *
+ * All timing goes through a {@link NanoClock}, so the whole scheduler can be tested on a desktop
+ * JVM with a fake clock.
+ *
+ * USAGE:
+ * ```java
+ * LoopScheduler scheduler = new LoopScheduler(10, NanoClock.SYSTEM);
+ * scheduler.addPhase("drive", 3000, LoopScheduler.Priority.CRITICAL, this::handleDriving);
+ * scheduler.addPhase("telemetry", 2000, LoopScheduler.Priority.DEFERRABLE, this::displayTelemetry);
+ * while (opModeIsActive()) {
+ *     scheduler.runCycle();
+ * }
+ * ```
+ *
+ * @author Team 13353
+ */
+public class LoopScheduler {
+
+    /** How a phase is treated when the cycle is running late. */
+    public enum Priority {
+        /** Always runs, every cycle. */
+        CRITICAL,
+        /** May be skipped when its budget no longer fits in the current cycle. */
+        DEFERRABLE
+    }
+
+    /** One named piece of work in the loop, with its budget and statistics. */
+    private static class Phase {
+        final String name;
+        final long budgetNanos;
+        final Priority priority;
+        final Runnable action;
+
+        long runs = 0;
+        long overruns = 0;
+        long skips = 0;
+        int consecutiveSkips = 0;
+        long lastNanos = 0;
+        long maxNanos = 0;
+        long totalNanos = 0;
+
+        Phase(String name, long budgetNanos, Priority priority, Runnable action) {
+            this.name = name;
+            this.budgetNanos = budgetNanos;
+            this.priority = priority;
+            this.action = action;
+        }
+    }
+
+    // --- CONFIGURATION ---
+    private final long periodNanos;
+    private final NanoClock clock;
+    private final List<Phase> phases = new ArrayList<>();
+
+    /** A deferrable phase is forced to run after being skipped this many cycles in a row. */
+    private int maxConsecutiveSkips = 10;
+
+    // --- STATE VARIABLES ---
+    private boolean isStarted = false;
+    private long scheduledStartNanos = 0;
+
+    // --- STATISTICS ---
+    private long cycles = 0;
+    private long cycleOverruns = 0;
+    private long resyncs = 0;
+    private long lastCycleNanos = 0;
+    private long maxCycleNanos = 0;
+    private long lastStartLatenessNanos = 0;
+    private long maxStartLatenessNanos = 0;
+
+    /**
+     * Constructor for the LoopScheduler.
+     * @param periodMs The target period of one loop cycle, in milliseconds.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public LoopScheduler(long periodMs, NanoClock clock) {
+        this.periodNanos = periodMs * 1_000_000L;
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a phase to the end of the loop. Phases run in the order they are added.
+     * @param name A short name for telemetry.
+     * @param budgetMicros The time this phase is expected to take, in microseconds.
+     * @param priority Whether the phase may be skipped when the cycle is late.
+     * @param action The code to run.
+     * @return The index of the new phase, for use with the statistics getters.
+     */
+    public int addPhase(String name, long budgetMicros, Priority priority, Runnable action) {
+        phases.add(new Phase(name, budgetMicros * 1_000L, priority, action));
+        return phases.size() - 1;
+    }
+
+    /**
+     * Sets how many cycles in a row a deferrable phase may be skipped before it is forced to run.
+     * @param maxSkips The maximum number of consecutive skips.
+     */
+    public void setMaxConsecutiveSkips(int maxSkips) {
+        this.maxConsecutiveSkips = maxSkips;
+    }
+
+    /**
+     * Waits for the start of the next period and then runs one full cycle of all phases.
+     * Call this once per iteration of the OpMode's main loop.
+     * @throws InterruptedException If the OpMode is stopped while the scheduler is sleeping.
+     */
+    public void runCycle() throws InterruptedException {
+        long now = clock.nanoTime();
+        if (!isStarted) {
+            scheduledStartNanos = now;
+            isStarted = true;
+        } else if (now < scheduledStartNanos) {
+            clock.sleepNanos(scheduledStartNanos - now);
+            now = clock.nanoTime();
+        }
+
+        // How late did this cycle actually start? This is the loop's jitter.
+        long cycleStart = now;
+        lastStartLatenessNanos = cycleStart - scheduledStartNanos;
+        if (lastStartLatenessNanos > maxStartLatenessNanos) {
+            maxStartLatenessNanos = lastStartLatenessNanos;
+        }
+        long deadline = scheduledStartNanos + periodNanos;
+
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            long phaseStart = clock.nanoTime();
+
+            // Skip a deferrable phase if it no longer fits in what is left of the cycle.
+            if (phase.priority == Priority.DEFERRABLE
+                    && deadline - phaseStart < phase.budgetNanos
+                    && phase.consecutiveSkips < maxConsecutiveSkips) {
+                phase.skips++;
+                phase.consecutiveSkips++;
+                continue;
+            }
+
+            phase.action.run();
+
+            long duration = clock.nanoTime() - phaseStart;
+            phase.runs++;
+            phase.consecutiveSkips = 0;
+            phase.lastNanos = duration;
+            phase.totalNanos += duration;
+            if (duration > phase.maxNanos) phase.maxNanos = duration;
+            if (duration > phase.budgetNanos) phase.overruns++;
+        }
+
+        now = clock.nanoTime();
+        lastCycleNanos = now - cycleStart;
+        if (lastCycleNanos > maxCycleNanos) maxCycleNanos = lastCycleNanos;
+        if (now > deadline) cycleOverruns++;
+        cycles++;
+
+        // Schedule the next cycle. If we are already past its start, re-sync to "now" rather
+        // than running a burst of catch-up cycles with no sleep in between.
+        scheduledStartNanos = deadline;
+        if (now > scheduledStartNanos + periodNanos) {
+            scheduledStartNanos = now;
+            resyncs++;
+        }
+    }
+
+    /** Clears all statistics. The phases themselves are kept. */
+    public void resetStatistics() {
+        cycles = 0;
+        cycleOverruns = 0;
+        resyncs = 0;
+        lastCycleNanos = 0;
+        maxCycleNanos = 0;
+        lastStartLatenessNanos = 0;
+        maxStartLatenessNanos = 0;
+        for (Phase phase : phases) {
+            phase.runs = 0;
+            phase.overruns = 0;
+            phase.skips = 0;
+            phase.consecutiveSkips = 0;
+            phase.lastNanos = 0;
+            phase.maxNanos = 0;
+            phase.totalNanos = 0;
+        }
+    }
+
+    // --- CYCLE STATISTICS ---
+    public long getPeriodNanos() { return periodNanos; }
+    public long getCycleCount() { return cycles; }
+    /** @return The number of cycles that finished after their deadline. */
+    public long getCycleOverruns() { return cycleOverruns; }
+    /** @return The number of times the schedule had to be re-synced after a very late cycle. */
+    public long getResyncCount() { return resyncs; }
+    public double getLastCycleMs() { return lastCycleNanos / 1e6; }
+    public double getMaxCycleMs() { return maxCycleNanos / 1e6; }
+    /** @return How late the most recent cycle started compared to its schedule, in ms. */
+    public double getLastStartLatenessMs() { return lastStartLatenessNanos / 1e6; }
+    public double getMaxStartLatenessMs() { return maxStartLatenessNanos / 1e6; }
+
+    // --- PHASE STATISTICS ---
+    public int getPhaseCount() { return phases.size(); }
+    public String getPhaseName(int index) { return phases.get(index).name; }
+    public long getPhaseRuns(int index) { return phases.get(index).runs; }
+    /** @return The number of times the phase took longer than its budget. */
+    public long getPhaseOverruns(int index) { return phases.get(index).overruns; }
+    /** @return The number of times the (deferrable) phase was skipped because the cycle was late. */
+    public long getPhaseSkips(int index) { return phases.get(index).skips; }
+    public double getPhaseLastMs(int index) { return phases.get(index).lastNanos / 1e6; }
+    public double getPhaseMaxMs(int index) { return phases.get(index).maxNanos / 1e6; }
+    public double getPhaseAverageMs(int index) {
+        Phase phase = phases.get(index);
+        return phase.runs == 0 ? 0 : phase.totalNanos / 1e6 / phase.runs;
+    }
+}
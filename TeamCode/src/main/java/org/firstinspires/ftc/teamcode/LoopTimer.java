@@ -0,0 +1,222 @@
+// Filename: LoopTimer.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.List;
+
+/**
+ * A utility class to measure and display the performance of an OpMode's main loop.
+ *
+ * V2 FEATURES:
+ * - Tracks not only the average loop rate (Hz) but also the PEAK loop time (ms),
+ *   which is essential for identifying performance "spikes" that cause robot lag.
+ *
+ * V3 FEATURES:
+ * - Every loop time is recorded into a {@link LatencyHistogram}, so we can report percentiles
+ *   (p50/p90/p99/p99.9) and not just the average and the peak. A steady 12 ms loop and an 8 ms
+ *   loop with 60 ms spikes now look different.
+ * - Two views are kept: the last completed rolling WINDOW (a few seconds, for live telemetry)
+ *   and the whole MATCH (for the match log).
+ * - Loops longer than a time BUDGET are counted.
+ * - Recording allocates nothing, so the timer does not add garbage-collection pauses of its own.
+ *
+ * USAGE:
+ * 1. Create instance: `LoopTimer loopTimer = new LoopTimer();`
+ * 2. Call `loopTimer.start()` before the main `while` loop.
+ * 3. Call `loopTimer.update()` at the end of the `while` loop.
+ * 4. Add telemetry data using `getLoopRate()`, `getPeakLoopTime()` or `getTelemetryLine()`.
+ * 5. Optionally, call `loopTimer.resetPeakTimer()` with a gamepad button to
+ *    measure the peak time of specific actions.
+ * 6. To add the percentiles to the match log, register the timer with the health monitor:
+ *    `robot.healthMonitor.addSummarySource(loopTimer::appendSummary);`
+ *
+ * @author Team 13353
+ */
+public class LoopTimer {
+    private final NanoClock clock;
+    private final long budgetMicros;
+    private final long windowNanos;
+
+    private final LatencyHistogram currentWindow = new LatencyHistogram();
+    private final LatencyHistogram lastWindow = new LatencyHistogram();
+    private final LatencyHistogram match = new LatencyHistogram();
+    private final StringBuilder telemetryLine = new StringBuilder(64);
+
+    private long lastLoopNanos = 0;
+    private long windowStartNanos = 0;
+    private long rateStartNanos = 0;
+
+    private int loopCount = 0;
+    private double loopsPerSecond = 0;
+    private double peakLoopTimeMs = 0;
+    private long overBudgetLoops = 0;
+    private long windowOverBudgetLoops = 0;
+    private long currentWindowOverBudgetLoops = 0;
+
+    /**
+     * Creates a loop timer with a budget of 1.5 loop periods and a 5 second window.
+     */
+    public LoopTimer() {
+        this(Constants.LOOP_PERIOD_MS * 1.5, 5.0, NanoClock.SYSTEM);
+    }
+
+    /**
+     * Creates a loop timer.
+     * @param budgetMs A loop that takes longer than this, in milliseconds, is counted as over budget.
+     * @param windowSeconds The length of the rolling window used for live percentiles.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public LoopTimer(double budgetMs, double windowSeconds, NanoClock clock) {
+        this.clock = clock;
+        this.budgetMicros = (long) (budgetMs * 1000.0);
+        this.windowNanos = (long) (windowSeconds * 1e9);
+    }
+
+    /**
+     * Resets all timers and counters. Call once before the main loop.
+     */
+    public void start() {
+        long now = clock.nanoTime();
+        lastLoopNanos = now;
+        windowStartNanos = now;
+        rateStartNanos = now;
+        loopCount = 0;
+        loopsPerSecond = 0;
+        peakLoopTimeMs = 0;
+        overBudgetLoops = 0;
+        windowOverBudgetLoops = 0;
+        currentWindowOverBudgetLoops = 0;
+        currentWindow.reset();
+        lastWindow.reset();
+        match.reset();
+    }
+
+    /**
+     * Updates timers and calculations. Call this at the END of every loop iteration.
+     */
+    public void update() {
+        // Track the duration of the current loop cycle
+        long now = clock.nanoTime();
+        long loopMicros = (now - lastLoopNanos) / 1000L;
+        lastLoopNanos = now;
+
+        currentWindow.record(loopMicros);
+        match.record(loopMicros);
+        if (loopMicros > budgetMicros) {
+            overBudgetLoops++;
+            currentWindowOverBudgetLoops++;
+        }
+
+        // Check if this loop is the new slowest loop we've seen
+        double currentLoopTimeMs = loopMicros / 1000.0;
+        if (currentLoopTimeMs > peakLoopTimeMs) {
+            peakLoopTimeMs = currentLoopTimeMs;
+        }
+
+        loopCount++;
+
+        // Update the average Hz display once per second
+        long rateElapsed = now - rateStartNanos;
+        if (rateElapsed >= 1_000_000_000L) {
+            loopsPerSecond = loopCount / (rateElapsed / 1e9);
+            loopCount = 0;
+            rateStartNanos = now;
+        }
+
+        // Roll the window over. The last completed window is what gets reported.
+        if (now - windowStartNanos >= windowNanos) {
+            lastWindow.copyFrom(currentWindow);
+            windowOverBudgetLoops = currentWindowOverBudgetLoops;
+            currentWindow.reset();
+            currentWindowOverBudgetLoops = 0;
+            windowStartNanos = now;
+        }
+    }
+
+    /**
+     * Resets the peak loop time measurement.
+     * Useful for isolating the performance impact of a specific action.
+     */
+    public void resetPeakTimer() {
+        peakLoopTimeMs = 0;
+    }
+
+    /**
+     * @return The average loop rate over the last second, in Hertz.
+     */
+    public double getLoopRate() {
+        return loopsPerSecond;
+    }
+
+    /**
+     * @return The slowest single loop cycle time since the last reset, in milliseconds.
+     */
+    public double getPeakLoopTime() {
+        return peakLoopTimeMs;
+    }
+
+    /**
+     * @return The loop times of the last completed rolling window.
+     */
+    public LatencyHistogram getWindowHistogram() {
+        return lastWindow;
+    }
+
+    /**
+     * @return The loop times of the whole match (since start()).
+     */
+    public LatencyHistogram getMatchHistogram() {
+        return match;
+    }
+
+    /**
+     * @return The number of loops over budget in the whole match.
+     */
+    public long getOverBudgetCount() {
+        return overBudgetLoops;
+    }
+
+    /**
+     * @return The number of loops over budget in the last completed window.
+     */
+    public long getWindowOverBudgetCount() {
+        return windowOverBudgetLoops;
+    }
+
+    /**
+     * Builds a compact one-line summary of the last window for telemetry, e.g.
+     * "p50 10.0 p90 10.4 p99 12.1 p99.9 31.0 max 31.0 ms | over 2".
+     * @return The summary line.
+     */
+    public String getTelemetryLine() {
+        telemetryLine.setLength(0);
+        return appendLine(telemetryLine, lastWindow, windowOverBudgetLoops).toString();
+    }
+
+    /**
+     * Adds a loop-time report for the whole match and the last window to a list of lines.
+     * Matches the shape of SystemHealthMonitor.SummarySource, so it can be written to the match log.
+     * @param lines The list to add the report lines to.
+     */
+    public void appendSummary(List<String> lines) {
+        StringBuilder line = new StringBuilder(96);
+        line.append("Loop Time - Match (");
+        FastFormat.appendInt(line, match.getCount()).append(" loops, budget ");
+        FastFormat.appendFixed(line, budgetMicros / 1000.0, 1).append(" ms): ");
+        lines.add(appendLine(line, match, overBudgetLoops).toString());
+
+        line.setLength(0);
+        line.append("Loop Time - Last Window (");
+        FastFormat.appendInt(line, lastWindow.getCount()).append(" loops): ");
+        lines.add(appendLine(line, lastWindow, windowOverBudgetLoops).toString());
+    }
+
+    private static StringBuilder appendLine(StringBuilder sb, LatencyHistogram histogram, long overBudget) {
+        sb.append("p50 ");
+        FastFormat.appendFixed(sb, histogram.getPercentileMs(50), 1).append(" p90 ");
+        FastFormat.appendFixed(sb, histogram.getPercentileMs(90), 1).append(" p99 ");
+        FastFormat.appendFixed(sb, histogram.getPercentileMs(99), 1).append(" p99.9 ");
+        FastFormat.appendFixed(sb, histogram.getPercentileMs(99.9), 1).append(" max ");
+        FastFormat.appendFixed(sb, histogram.getMaxMs(), 1).append(" ms | over ");
+        return FastFormat.appendInt(sb, overBudget);
+    }
+}
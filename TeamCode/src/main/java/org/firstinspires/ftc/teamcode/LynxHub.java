@@ -0,0 +1,66 @@
+// Filename: LynxHub.java
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+
+import java.util.List;
+
+/**
+ * Connects a real REV hub ({@link LynxModule}) to the {@link BulkReadManager}.
+ *
+ * The SDK does not count a hub's transactions, so this wrapper counts the ones it makes: one
+ * bulk read per refresh. Fetching the bulk data right after clearing the cache (instead of on the
+ * first encoder read) makes that read happen at a known point, so it can be counted.
+ *
+ * USAGE: `bulkReads.init(LynxHub.wrap(hardwareMap.getAll(LynxModule.class)));`
+ *
+ * @author Team 13353
+ */
+public class LynxHub implements BulkReadManager.Hub {
+
+    private final LynxModule module;
+    private long transactions = 0;
+
+    /**
+     * Constructor for the LynxHub.
+     * @param module The hub to wrap.
+     */
+    public LynxHub(LynxModule module) {
+        this.module = module;
+    }
+
+    /**
+     * Wraps every hub in a list.
+     * @param modules A list of all LynxModules (hubs) on the robot.
+     * @return One LynxHub per module, in the same order.
+     */
+    public static LynxHub[] wrap(List<LynxModule> modules) {
+        LynxHub[] hubs = new LynxHub[modules.size()];
+        for (int i = 0; i < hubs.length; i++) {
+            hubs[i] = new LynxHub(modules.get(i));
+        }
+        return hubs;
+    }
+
+    @Override
+    public void setManualCaching(boolean manual) {
+        module.setBulkCachingMode(manual
+                ? LynxModule.BulkCachingMode.MANUAL
+                : LynxModule.BulkCachingMode.AUTO);
+    }
+
+    @Override
+    public void refreshBulkData() {
+        // getBulkData() clears the cache, sends one bulk read, and keeps the result as the cache.
+        module.getBulkData();
+        transactions++;
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return transactions;
+    }
+
+    /** @return The wrapped hub. */
+    public LynxModule getModule() { return module; }
+}
@@ -0,0 +1,161 @@
+// Filename: MacroPlayer.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * MACRO PLAYER
+ * =================================================================================================
+ *
+ * Plays back a macro recorded by {@link MacroRecorder}: it tells the OpMode which drive commands
+ * to send at each moment, so the robot repeats the driver's run.
+ *
+ * HOW PLAYBACK STAYS ON TIME:
+ * The OpMode calls {@link #update()} from a fixed-rate {@link LoopScheduler}, so commands go out
+ * at a steady timestep. The player does NOT assume each loop is exactly one period long, though:
+ * every update() reads the clock and plays the macro at the real time since start(). A loop that
+ * starts late simply plays a little further along, so timing errors never add up over the run
+ * and the macro finishes when the recording did.
+ *
+ * The recorded samples were taken whenever the driver's loop happened to run, not on the
+ * playback loop's ticks. Between two samples, the commands are INTERPOLATED linearly, so the
+ * robot gets a smooth command at whatever moment a playback loop lands on.
+ *
+ * The whole macro is loaded into arrays by the constructor (call it during init). update() only
+ * walks forward through them, so it costs the same on every loop and allocates nothing.
+ *
+ * @author Team 13353
+ */
+public class MacroPlayer {
+
+    private final NanoClock clock;
+
+    // --- THE MACRO ---
+    private final float[] times;   // Seconds since the first sample
+    private final float[] forward;
+    private final float[] strafe;
+    private final float[] turn;
+
+    // --- STATE VARIABLES ---
+    private long startNanos = 0;
+    private boolean isStarted = false;
+    private boolean isFinished = false;
+    private int cursor = 0;        // Index of the sample at or before the playback time
+    private double playbackSeconds = 0;
+    private double forwardCommand = 0;
+    private double strafeCommand = 0;
+    private double turnCommand = 0;
+
+    // --- STATISTICS ---
+    private long updates = 0;
+    private double maxStepSeconds = 0;
+
+    /**
+     * Constructor for the MacroPlayer. Loads the whole macro into memory.
+     * @param macro The macro, opened with FlightLogDecoder.
+     * @param clock The clock to play against. Pass NanoClock.SYSTEM on the robot.
+     * @throws IllegalArgumentException If the file is not a macro.
+     */
+    public MacroPlayer(FlightLogDecoder macro, NanoClock clock) {
+        this.clock = clock;
+        int timeChannel = channel(macro, "time_s");
+        int forwardChannel = channel(macro, MacroRecorder.FORWARD);
+        int strafeChannel = channel(macro, MacroRecorder.STRAFE);
+        int turnChannel = channel(macro, MacroRecorder.TURN);
+
+        int count = macro.getRecordCount();
+        times = new float[count];
+        forward = new float[count];
+        strafe = new float[count];
+        turn = new float[count];
+        double firstTime = count == 0 ? 0 : macro.get(0, timeChannel);
+        for (int i = 0; i < count; i++) {
+            times[i] = (float) (macro.get(i, timeChannel) - firstTime);
+            forward[i] = (float) macro.get(i, forwardChannel);
+            strafe[i] = (float) macro.get(i, strafeChannel);
+            turn[i] = (float) macro.get(i, turnChannel);
+        }
+    }
+
+    private static int channel(FlightLogDecoder macro, String name) {
+        int index = macro.getChannelIndex(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a macro: there is no \"" + name + "\" channel");
+        }
+        return index;
+    }
+
+    /**
+     * Starts playback from the beginning of the macro. Call it once, when the OpMode starts.
+     */
+    public void start() {
+        startNanos = clock.nanoTime();
+        isStarted = true;
+        isFinished = times.length == 0;
+        cursor = 0;
+        playbackSeconds = 0;
+        updates = 0;
+        maxStepSeconds = 0;
+        sampleAt(0);
+    }
+
+    /**
+     * Moves playback to the current time. Read the commands with getForward() etc. afterwards.
+     * @return True while the macro is playing; false once it has finished (the commands are then 0).
+     */
+    public boolean update() {
+        if (!isStarted || isFinished) return false;
+        double now = (clock.nanoTime() - startNanos) / 1e9;
+        maxStepSeconds = Math.max(maxStepSeconds, now - playbackSeconds);
+        playbackSeconds = now;
+        updates++;
+        if (now > times[times.length - 1]) {
+            isFinished = true;
+            forwardCommand = 0;
+            strafeCommand = 0;
+            turnCommand = 0;
+            return false;
+        }
+        sampleAt(now);
+        return true;
+    }
+
+    /**
+     * Sets the commands to the macro's value at a time, interpolating between samples.
+     * @param seconds The time since the start of the macro.
+     */
+    private void sampleAt(double seconds) {
+        if (times.length == 0) return;
+        if (seconds < times[cursor]) cursor = 0;
+        while (cursor + 1 < times.length && times[cursor + 1] <= seconds) {
+            cursor++;
+        }
+        int next = Math.min(cursor + 1, times.length - 1);
+        double span = times[next] - times[cursor];
+        double fraction = span > 0 ? Math.min(Math.max((seconds - times[cursor]) / span, 0), 1) : 0;
+        forwardCommand = forward[cursor] + (forward[next] - forward[cursor]) * fraction;
+        strafeCommand = strafe[cursor] + (strafe[next] - strafe[cursor]) * fraction;
+        turnCommand = turn[cursor] + (turn[next] - turn[cursor]) * fraction;
+    }
+
+    // --- COMMANDS ---
+    /** @return The forward command for this loop. */
+    public double getForward() { return forwardCommand; }
+    /** @return The strafe command for this loop. */
+    public double getStrafe() { return strafeCommand; }
+    /** @return The turn command for this loop. */
+    public double getTurn() { return turnCommand; }
+
+    // --- STATISTICS ---
+    /** @return True once playback has passed the end of the macro. */
+    public boolean isFinished() { return isFinished; }
+    /** @return How many samples the macro has. */
+    public int getSampleCount() { return times.length; }
+    /** @return How long the macro lasts, in seconds. */
+    public double getDurationSeconds() { return times.length == 0 ? 0 : times[times.length - 1]; }
+    /** @return The playback time at the last update(), in seconds. */
+    public double getPlaybackSeconds() { return playbackSeconds; }
+    /** @return How many times update() has moved playback. */
+    public long getUpdateCount() { return updates; }
+    /** @return The longest time between two update() calls, in seconds: the worst loop jitter. */
+    public double getMaxStepSeconds() { return maxStepSeconds; }
+}
@@ -0,0 +1,83 @@
+// Filename: MacroRecorder.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * =================================================================================================
+ * MACRO RECORDER
+ * =================================================================================================
+ *
+ * Records a driver's drive commands (forward, strafe, turn) once per loop, so the run can be
+ * played back later as an autonomous path by {@link MacroPlayer}.
+ *
+ * A macro is an ordinary {@link FlightRecorder} file with three FLOAT32 channels next to the
+ * time channel: 20 bytes per loop, written straight into the memory-mapped file as the driver
+ * drives. Nothing is kept in a list and nothing is formatted, so recording costs the same on the
+ * last loop as on the first. The file is sized for Constants.MACRO_MAX_SECONDS; anything longer
+ * is dropped (and counted). Because it is a flight recording, the decodeFlightLog desktop tool
+ * turns a macro into a CSV for plotting.
+ *
+ * @author Team 13353
+ */
+public class MacroRecorder {
+
+    // Channel names, shared with MacroPlayer.
+    public static final String FORWARD = "forward";
+    public static final String STRAFE = "strafe";
+    public static final String TURN = "turn";
+
+    private final FlightRecorder recorder;
+    private final int forwardChannel;
+    private final int strafeChannel;
+    private final int turnChannel;
+
+    /**
+     * Constructor for the MacroRecorder. Call open() to start recording.
+     * @param file The file to record to. It is replaced if it exists.
+     * @param clock The clock for the sample times. Pass NanoClock.SYSTEM on the robot.
+     */
+    public MacroRecorder(File file, NanoClock clock) {
+        int maxSamples = (int) Math.ceil(Constants.MACRO_MAX_SECONDS * 1000.0 / Constants.LOOP_PERIOD_MS);
+        // Room for a loop running twice as fast as its target period.
+        recorder = new FlightRecorder(file, 2 * maxSamples, clock);
+        forwardChannel = recorder.addChannel(FORWARD, FlightRecorder.Type.FLOAT32, "");
+        strafeChannel = recorder.addChannel(STRAFE, FlightRecorder.Type.FLOAT32, "");
+        turnChannel = recorder.addChannel(TURN, FlightRecorder.Type.FLOAT32, "");
+    }
+
+    /**
+     * Creates the file and starts the macro's clock.
+     * @throws IOException If the file cannot be created.
+     */
+    public void open() throws IOException {
+        recorder.open();
+    }
+
+    /**
+     * Records one loop's drive commands.
+     * @param forward The forward command (-1.0 to 1.0).
+     * @param strafe The strafe command (-1.0 to 1.0).
+     * @param turn The turn command (-1.0 to 1.0).
+     */
+    public void record(double forward, double strafe, double turn) {
+        if (!recorder.beginRecord()) return;
+        recorder.putDouble(forwardChannel, forward);
+        recorder.putDouble(strafeChannel, strafe);
+        recorder.putDouble(turnChannel, turn);
+        recorder.endRecord();
+    }
+
+    /**
+     * Forces the macro to storage and closes the file.
+     */
+    public void close() {
+        recorder.close();
+    }
+
+    /** @return How many samples have been recorded. */
+    public int getSampleCount() { return recorder.getRecordCount(); }
+    /** @return How many samples were dropped because the macro was too long. */
+    public long getDroppedCount() { return recorder.getDroppedCount(); }
+}
@@ -0,0 +1,175 @@
+// Filename: MatchRecorder.java
+package org.firstinspires.ftc.teamcode;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * =================================================================================================
+ * MATCH RECORDER
+ * =================================================================================================
+ *
+ * Records every loop of a TeleOp match with a {@link FlightRecorder}: the raw gamepad inputs, the
+ * drive mode, the wheel powers RobotMecanum commanded, the wheel encoders, the heading used for
+ * driving, the battery voltage, each hub's current and the loop time.
+ *
+ * Recordings are saved in the FIRST/settings folder as "Flight_<date>_<time>.flight". Convert
+ * them to CSV on a computer with {@link FlightLogDecoder}.
+ *
+ * The channel names are in {@link FlightChannels}, so tools that read recordings (e.g. the
+ * {@link ReplayEngine}) can find the channels they need.
+ *
+ * @author Team 13353
+ */
+public class MatchRecorder {
+
+    private final RobotMecanum robot;
+    private final FlightRecorder recorder;
+    private final String filename;
+
+    // --- CHANNELS ---
+    private final int[] gamepad1Channels;
+    private final int[] gamepad2Channels;
+    private final int fieldCentricChannel;
+    private final int[] powerChannels = new int[4];
+    private final int[] encoderChannels = new int[4];
+    private final int yawChannel;
+    private final int voltageChannel;
+    private final int[] hubCurrentChannels;
+    private final int loopTimeChannel;
+
+    /**
+     * Constructor for the MatchRecorder. Call open() during init.
+     * @param robot The initialized robot.
+     */
+    public MatchRecorder(RobotMecanum robot) {
+        this.robot = robot;
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss", Locale.US).format(new Date());
+        filename = "Flight_" + timestamp + ".flight";
+        File file = AppUtil.getInstance().getSettingsFile(filename);
+        int maxRecords = (int) Math.ceil(Constants.FLIGHT_RECORDER_SECONDS * 1000.0 / Constants.LOOP_PERIOD_MS);
+        recorder = new FlightRecorder(file, maxRecords, NanoClock.SYSTEM);
+
+        gamepad1Channels = addGamepadChannels(FlightChannels.GAMEPAD1_PREFIX);
+        gamepad2Channels = addGamepadChannels(FlightChannels.GAMEPAD2_PREFIX);
+        fieldCentricChannel = recorder.addChannel(FlightChannels.FIELD_CENTRIC, FlightRecorder.Type.INT32, "");
+        for (int w = 0; w < 4; w++) {
+            powerChannels[w] = recorder.addChannel(FlightChannels.POWER_PREFIX + FlightChannels.WHEEL_NAMES[w], FlightRecorder.Type.FLOAT32, "");
+        }
+        for (int w = 0; w < 4; w++) {
+            encoderChannels[w] = recorder.addChannel(FlightChannels.ENCODER_PREFIX + FlightChannels.WHEEL_NAMES[w], FlightRecorder.Type.INT32, "ticks");
+        }
+        yawChannel = recorder.addChannel(FlightChannels.IMU_YAW, FlightRecorder.Type.FLOAT64, "rad");
+        voltageChannel = recorder.addChannel(FlightChannels.BATTERY_VOLTAGE, FlightRecorder.Type.FLOAT32, "V");
+        int hubCount = robot.healthMonitor == null ? 0 : robot.healthMonitor.getHubCount();
+        hubCurrentChannels = new int[hubCount];
+        for (int h = 0; h < hubCount; h++) {
+            hubCurrentChannels[h] = recorder.addChannel(FlightChannels.HUB_CURRENT_PREFIX + h, FlightRecorder.Type.FLOAT32, "A");
+        }
+        loopTimeChannel = recorder.addChannel(FlightChannels.LOOP_TIME, FlightRecorder.Type.FLOAT32, "ms");
+    }
+
+    private int[] addGamepadChannels(String prefix) {
+        return new int[]{
+                recorder.addChannel(prefix + FlightChannels.LEFT_STICK_X, FlightRecorder.Type.FLOAT32, ""),
+                recorder.addChannel(prefix + FlightChannels.LEFT_STICK_Y, FlightRecorder.Type.FLOAT32, ""),
+                recorder.addChannel(prefix + FlightChannels.RIGHT_STICK_X, FlightRecorder.Type.FLOAT32, ""),
+                recorder.addChannel(prefix + FlightChannels.RIGHT_STICK_Y, FlightRecorder.Type.FLOAT32, ""),
+                recorder.addChannel(prefix + FlightChannels.LEFT_TRIGGER, FlightRecorder.Type.FLOAT32, ""),
+                recorder.addChannel(prefix + FlightChannels.RIGHT_TRIGGER, FlightRecorder.Type.FLOAT32, ""),
+                recorder.addChannel(prefix + FlightChannels.BUTTONS, FlightRecorder.Type.INT32, "")
+        };
+    }
+
+    /**
+     * Creates the recording file at its full size. This takes a moment, so call it during init.
+     * @return True if the recorder is ready; false if the file could not be created.
+     */
+    public boolean open() {
+        try {
+            recorder.open();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records one loop. Call it once per loop, after the drive commands have been sent.
+     * @param gamepad1 The driver's gamepad.
+     * @param gamepad2 The operator's gamepad.
+     * @param drive The drive logic, after this loop's update().
+     * @param loopMs The duration of the previous loop, in milliseconds.
+     */
+    public void record(Gamepad gamepad1, Gamepad gamepad2, DriveController drive, double loopMs) {
+        if (!recorder.beginRecord()) return;
+        putGamepad(gamepad1Channels, gamepad1);
+        putGamepad(gamepad2Channels, gamepad2);
+        recorder.putLong(fieldCentricChannel, drive.isFieldCentric() ? 1 : 0);
+        for (int w = 0; w < 4; w++) {
+            recorder.putDouble(powerChannels[w], robot.getCommandedPower(w));
+            recorder.putLong(encoderChannels[w], robot.getWheelPosition(w));
+        }
+        // The heading the drive logic actually used, so a replay sees exactly the same input.
+        recorder.putDouble(yawChannel, drive.getHeadingUsed());
+        // Voltage and current come from the health monitor's newest sample: no extra hub reads.
+        if (robot.healthMonitor != null) {
+            recorder.putDouble(voltageChannel, robot.healthMonitor.getLatestVoltage());
+            for (int h = 0; h < hubCurrentChannels.length; h++) {
+                recorder.putDouble(hubCurrentChannels[h], robot.healthMonitor.getLatestHubCurrent(h));
+            }
+        }
+        recorder.putDouble(loopTimeChannel, loopMs);
+        recorder.endRecord();
+    }
+
+    private void putGamepad(int[] channels, Gamepad gamepad) {
+        recorder.putDouble(channels[0], gamepad.left_stick_x);
+        recorder.putDouble(channels[1], gamepad.left_stick_y);
+        recorder.putDouble(channels[2], gamepad.right_stick_x);
+        recorder.putDouble(channels[3], gamepad.right_stick_y);
+        recorder.putDouble(channels[4], gamepad.left_trigger);
+        recorder.putDouble(channels[5], gamepad.right_trigger);
+        recorder.putLong(channels[6], packButtons(gamepad));
+    }
+
+    /**
+     * Packs a gamepad's buttons into one number, one bit per button (see FlightChannels.BUTTON_*).
+     * @param gamepad The gamepad.
+     * @return The packed buttons.
+     */
+    public static int packButtons(Gamepad gamepad) {
+        int bits = 0;
+        if (gamepad.a) bits |= FlightChannels.BUTTON_A;
+        if (gamepad.b) bits |= FlightChannels.BUTTON_B;
+        if (gamepad.x) bits |= FlightChannels.BUTTON_X;
+        if (gamepad.y) bits |= FlightChannels.BUTTON_Y;
+        if (gamepad.back) bits |= FlightChannels.BUTTON_BACK;
+        if (gamepad.start) bits |= FlightChannels.BUTTON_START;
+        if (gamepad.left_bumper) bits |= FlightChannels.BUTTON_LEFT_BUMPER;
+        if (gamepad.right_bumper) bits |= FlightChannels.BUTTON_RIGHT_BUMPER;
+        if (gamepad.dpad_up) bits |= FlightChannels.BUTTON_DPAD_UP;
+        if (gamepad.dpad_down) bits |= FlightChannels.BUTTON_DPAD_DOWN;
+        if (gamepad.dpad_left) bits |= FlightChannels.BUTTON_DPAD_LEFT;
+        if (gamepad.dpad_right) bits |= FlightChannels.BUTTON_DPAD_RIGHT;
+        return bits;
+    }
+
+    /**
+     * Forces the recording to storage and closes it. Call this at the end of the OpMode.
+     */
+    public void close() {
+        recorder.close();
+    }
+
+    /** @return The recording's file name, in the settings folder. */
+    public String getFilename() { return filename; }
+    /** @return The flight recorder, for its record counts. */
+    public FlightRecorder getRecorder() { return recorder; }
+}
@@ -0,0 +1,71 @@
+// Filename: MecanumKinematics.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * MECANUM DRIVE KINEMATICS
+ * =================================================================================================
+ *
+ * The pure math behind mecanum driving: turning joystick commands (forward, strafe, turn) into
+ * the four wheel powers. It has no hardware in it, so the exact same code that drives the robot
+ * can be benchmarked and checked on a desktop JVM.
+ *
+ * The wheel powers are written into an array the caller owns, in this order:
+ * {@link #LEFT_FRONT}, {@link #RIGHT_FRONT}, {@link #LEFT_REAR}, {@link #RIGHT_REAR}.
+ * Reusing one array every loop means no garbage is created.
+ *
+ * @author Team 13353
+ */
+public final class MecanumKinematics {
+
+    /** Index of each wheel in the output array. */
+    public static final int LEFT_FRONT = 0;
+    public static final int RIGHT_FRONT = 1;
+    public static final int LEFT_REAR = 2;
+    public static final int RIGHT_REAR = 3;
+
+    private MecanumKinematics() {}
+
+    /**
+     * Computes wheel powers for robot-centric driving.
+     * @param forward The power for moving forward and backward (-1.0 to 1.0).
+     * @param strafe The power for moving left and right (-1.0 to 1.0).
+     * @param turn The power for turning left and right (-1.0 to 1.0).
+     * @param out An array of at least 4 elements that receives the wheel powers.
+     */
+    public static void robotCentric(double forward, double strafe, double turn, double[] out) {
+        // Standard mecanum drive formulas
+        double leftFrontPower = forward + strafe + turn;
+        double rightFrontPower = forward - strafe - turn;
+        double leftRearPower = forward - strafe + turn;
+        double rightRearPower = forward + strafe - turn;
+
+        // Normalize the motor powers to ensure no value exceeds 1.0 while maintaining proportions.
+        double denominator = Math.max(Math.abs(forward) + Math.abs(strafe) + Math.abs(turn), 1.0);
+        out[LEFT_FRONT] = leftFrontPower / denominator;
+        out[RIGHT_FRONT] = rightFrontPower / denominator;
+        out[LEFT_REAR] = leftRearPower / denominator;
+        out[RIGHT_REAR] = rightRearPower / denominator;
+    }
+
+    /**
+     * Computes wheel powers for field-centric driving.
+     * @param forward The power for moving away from the driver (-1.0 to 1.0).
+     * @param strafe The power for moving left and right relative to the driver (-1.0 to 1.0).
+     * @param turn The power for turning left and right (-1.0 to 1.0).
+     * @param headingRadians The robot's current heading (yaw), in radians.
+     * @param out An array of at least 4 elements that receives the wheel powers.
+     */
+    public static void fieldCentric(double forward, double strafe, double turn, double headingRadians, double[] out) {
+        // This is the core of field-centric driving. It rotates the joystick inputs
+        // by the negative of the robot's heading, effectively making the controls
+        // relative to the field instead of the robot.
+        double cos = Math.cos(-headingRadians);
+        double sin = Math.sin(-headingRadians);
+        double rotX = strafe * cos - forward * sin;
+        double rotY = strafe * sin + forward * cos;
+
+        // Use the rotated values in the standard mecanum drive formulas.
+        robotCentric(rotY, rotX, turn, out);
+    }
+}
@@ -0,0 +1,192 @@
+// Filename: MecanumLocalizer.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * MECANUM DRIVE-ENCODER LOCALIZER
+ * =================================================================================================
+ *
+ * Tracks the robot's pose from the encoders of the four mecanum drive motors and the IMU's
+ * heading. It needs no extra hardware, so it is the pose source for a robot without odometry
+ * pods, and a fallback for one with them. It is less accurate than a {@link ThreeWheelLocalizer}:
+ * driven wheels slip, especially sideways.
+ *
+ * HOW IT WORKS:
+ * 1.  Every loop, each wheel's change in ticks since the last loop is turned into inches.
+ * 2.  MECANUM FORWARD KINEMATICS (the reverse of {@link MecanumKinematics}) turns the four wheel
+ *     distances into the robot's motion in its own frame:
+ *         forward = ( lf + rf + lr + rr) / 4
+ *         left    = (-lf + rf + lr - rr) / 4 * lateralMultiplier
+ *         turn    = (-lf + rf - lr + rr) / 4 / ((trackWidth + wheelBase) / 2)
+ *     The rollers slip when the robot strafes, so the sideways distance is scaled by a tuned
+ *     LATERAL MULTIPLIER: strafe a known distance and set it to real / measured.
+ * 3.  HEADING FUSION. The turn worked out from the wheels is the least trustworthy part, so the
+ *     change in the IMU's heading is used instead whenever there is one. The wheels' turn is only
+ *     used while the IMU has no reading, or for the one step after its heading was re-zeroed.
+ * 4.  The motion is handed to a {@link PoseTracker}, which moves the pose along the arc the robot
+ *     drove.
+ *
+ * The encoders are read through {@link Localizer.Encoder}, so with bulk caching in MANUAL mode all
+ * four come from the bulk read the robot does every loop anyway, and the heading comes from the
+ * background {@link ImuSampler}: the localizer adds no hub transactions. The state is a handful of
+ * primitives, so update() allocates nothing.
+ *
+ * @author Team 13353
+ */
+public class MecanumLocalizer implements Localizer {
+
+    /** Something that can be read like the IMU's heading. */
+    public interface HeadingSource {
+        /** @return The heading, in radians, counter-clockwise positive. NaN if there is no reading. */
+        double getHeadingRadians();
+    }
+
+    // A heading change larger than this in one update cannot be real motion at any loop rate we
+    // run at (it is over 50 rad/s at 100 Hz), so it is taken as the IMU's yaw being re-zeroed.
+    private static final double MAX_HEADING_STEP_RADIANS = 0.5;
+
+    // --- CONFIGURATION ---
+    private final Encoder leftFront, rightFront, leftRear, rightRear;
+    private final HeadingSource headingSource;
+    private final double inchesPerTick;
+    private double turnRadiusInches;   // Half of trackWidth + wheelBase
+    private double lateralMultiplier;
+
+    // --- STATE VARIABLES ---
+    private final PoseTracker pose = new PoseTracker();
+    private int lastLeftFront, lastRightFront, lastLeftRear, lastRightRear;
+    private boolean hasPositions = false;
+    private double lastHeading = 0;
+    private boolean hasHeading = false;
+
+    // --- STATISTICS ---
+    private long updates = 0;
+    private long wheelHeadingUpdates = 0;
+
+    /**
+     * Constructor for the MecanumLocalizer. The pose starts at (0, 0), heading 0.
+     * @param leftFront The left front wheel's encoder. All four must count UP when the robot drives forward.
+     * @param rightFront The right front wheel's encoder.
+     * @param leftRear The left rear wheel's encoder.
+     * @param rightRear The right rear wheel's encoder.
+     * @param headingSource The IMU's heading, or null to use the wheels' turn alone.
+     * @param inchesPerTick The distance a wheel rolls per tick (wheel circumference / ticks per rev).
+     * @param trackWidthInches The distance between the left and right wheels.
+     * @param wheelBaseInches The distance between the front and rear wheels.
+     * @param lateralMultiplier The real sideways distance divided by the one the wheels measure.
+     */
+    public MecanumLocalizer(Encoder leftFront, Encoder rightFront, Encoder leftRear, Encoder rightRear,
+                            HeadingSource headingSource, double inchesPerTick,
+                            double trackWidthInches, double wheelBaseInches, double lateralMultiplier) {
+        this.leftFront = leftFront;
+        this.rightFront = rightFront;
+        this.leftRear = leftRear;
+        this.rightRear = rightRear;
+        this.headingSource = headingSource;
+        this.inchesPerTick = inchesPerTick;
+        setGeometry(trackWidthInches, wheelBaseInches, lateralMultiplier);
+    }
+
+    /**
+     * Changes the drivetrain's dimensions, e.g. after they were re-tuned in robot_config.properties.
+     * @param trackWidthInches The distance between the left and right wheels.
+     * @param wheelBaseInches The distance between the front and rear wheels.
+     * @param lateralMultiplier The real sideways distance divided by the one the wheels measure.
+     */
+    public void setGeometry(double trackWidthInches, double wheelBaseInches, double lateralMultiplier) {
+        if (trackWidthInches + wheelBaseInches <= 0) {
+            throw new IllegalArgumentException("The track width and wheel base must be positive");
+        }
+        this.turnRadiusInches = (trackWidthInches + wheelBaseInches) / 2;
+        this.lateralMultiplier = lateralMultiplier;
+    }
+
+    @Override
+    public void update() {
+        double heading = headingSource == null ? Double.NaN : headingSource.getHeadingRadians();
+        update(leftFront.getPosition(), rightFront.getPosition(), leftRear.getPosition(),
+                rightRear.getPosition(), heading);
+    }
+
+    /**
+     * Moves the pose by the wheels' and the heading's changes since the last update. Use this to
+     * feed readings that were taken elsewhere (or simulated) instead of reading the sensors.
+     * @param leftFrontTicks The left front wheel's position.
+     * @param rightFrontTicks The right front wheel's position.
+     * @param leftRearTicks The left rear wheel's position.
+     * @param rightRearTicks The right rear wheel's position.
+     * @param headingRadians The IMU's heading, or NaN if there is no reading.
+     */
+    public void update(int leftFrontTicks, int rightFrontTicks, int leftRearTicks, int rightRearTicks,
+                       double headingRadians) {
+        if (hasPositions) {
+            // Integer subtraction first, so a large position never loses precision as a double.
+            double lf = (leftFrontTicks - lastLeftFront) * inchesPerTick;
+            double rf = (rightFrontTicks - lastRightFront) * inchesPerTick;
+            double lr = (leftRearTicks - lastLeftRear) * inchesPerTick;
+            double rr = (rightRearTicks - lastRightRear) * inchesPerTick;
+
+            double dx = (lf + rf + lr + rr) / 4;
+            double dy = (-lf + rf + lr - rr) / 4 * lateralMultiplier;
+            double dTheta = (-lf + rf - lr + rr) / 4 / turnRadiusInches;
+
+            boolean hasReading = headingRadians == headingRadians; // not NaN
+            if (hasReading && hasHeading) {
+                double imuTurn = PoseTracker.normalizeRadians(headingRadians - lastHeading);
+                if (Math.abs(imuTurn) <= MAX_HEADING_STEP_RADIANS) {
+                    dTheta = imuTurn;
+                } else {
+                    wheelHeadingUpdates++; // The IMU was re-zeroed
+                }
+            } else {
+                wheelHeadingUpdates++;
+            }
+            pose.applyTwist(dx, dy, dTheta);
+            updates++;
+        }
+        lastLeftFront = leftFrontTicks;
+        lastRightFront = rightFrontTicks;
+        lastLeftRear = leftRearTicks;
+        lastRightRear = rightRearTicks;
+        hasPositions = true;
+        if (headingRadians == headingRadians) {
+            lastHeading = headingRadians;
+            hasHeading = true;
+        } else {
+            hasHeading = false;
+        }
+    }
+
+    /**
+     * Takes the next IMU reading as the new heading reference, keeping the pose's heading. Call it
+     * after the IMU's yaw was re-zeroed.
+     */
+    public void rebaseHeading() {
+        hasHeading = false;
+    }
+
+    /**
+     * Starts again from (0, 0), heading 0, and takes the next readings as the new starting point.
+     * Call it after the encoders were reset.
+     */
+    public void reset() {
+        pose.setPose(0, 0, 0);
+        hasPositions = false;
+        hasHeading = false;
+    }
+
+    @Override
+    public void setPose(double x, double y, double headingRadians) {
+        pose.setPose(x, y, headingRadians);
+    }
+
+    @Override public double getX() { return pose.getX(); }
+    @Override public double getY() { return pose.getY(); }
+    @Override public double getHeading() { return pose.getHeading(); }
+
+    // --- STATISTICS ---
+    /** @return How many updates have moved the pose. */
+    public long getUpdateCount() { return updates; }
+    /** @return How many of those updates had to take the turn from the wheels instead of the IMU. */
+    public long getWheelHeadingCount() { return wheelHeadingUpdates; }
+}
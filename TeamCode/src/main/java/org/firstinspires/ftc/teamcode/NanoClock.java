@@ -0,0 +1,41 @@
+// Filename: NanoClock.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * A pluggable source of time for our loop and timing utilities.
+ *
+ * On the robot, {@link #SYSTEM} is used, which reads System.nanoTime() and really sleeps.
+ * On a desktop JVM, a fake clock can be swapped in that advances time by hand and "sleeps"
+ * instantly, so that jitter and overrun handling can be checked deterministically.
+ *
+ * @author Team 13353
+ */
+public interface NanoClock {
+
+    /**
+     * @return The current time in nanoseconds. Only differences between two values are meaningful.
+     */
+    long nanoTime();
+
+    /**
+     * Blocks the calling thread for (about) the given amount of time.
+     * @param nanos How long to sleep, in nanoseconds. Values of zero or less return immediately.
+     * @throws InterruptedException If the thread is interrupted while sleeping (e.g. OpMode stop).
+     */
+    void sleepNanos(long nanos) throws InterruptedException;
+
+    /** The real clock, backed by System.nanoTime() and Thread.sleep(). */
+    NanoClock SYSTEM = new NanoClock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepNanos(long nanos) throws InterruptedException {
+            if (nanos > 0) {
+                Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+            }
+        }
+    };
+}
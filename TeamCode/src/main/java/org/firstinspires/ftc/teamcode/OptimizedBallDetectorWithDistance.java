@@ -57,6 +57,13 @@ public class OptimizedBallDetectorWithDistance extends LinearOpMode {
     private static final double MIN_CONTOUR_AREA = 1000;
     private static final double MIN_CIRCULARITY = 0.7;
 
+    //********** TELEMETRY **********
+    // Telemetry is pushed 20 times a second, and each line is only re-formatted when its values change.
+    private static final double TELEMETRY_RATE_HZ = 20;
+    private TelemetryComposer composer;
+    private int purpleAcquiredSlot, purpleMissingSlot, greenAcquiredSlot, greenMissingSlot;
+    private int purpleDiameterSlot, greenDiameterSlot;
+
     private ColorBlobLocatorProcessor colorLocatorPurple;
     private ColorBlobLocatorProcessor colorLocatorGreen;
     private VisionPortal portal;
@@ -97,8 +104,8 @@ public class OptimizedBallDetectorWithDistance extends LinearOpMode {
                 .setCameraResolution(new Size(320, 240))
                 .build();
 
-        telemetry.setMsTransmissionInterval(50);
         telemetry.setDisplayFormat(Telemetry.DisplayFormat.MONOSPACE);
+        setupTelemetry();
 
         waitForStart();
 
@@ -137,37 +144,49 @@ public class OptimizedBallDetectorWithDistance extends LinearOpMode {
             }
 
             // --- TELEMETRY ---
-            telemetry.addLine("--- Ball Detector w/ Distance ---");
-
+            composer.setVisible(purpleAcquiredSlot, purpleTarget != null);
+            composer.setVisible(purpleMissingSlot, purpleTarget == null);
             if (purpleTarget != null) {
                 RotatedRect boxFit = purpleTarget.getBoxFit();
-                telemetry.addLine(String.format("PURPLE Target: Acquired at (%3.0f, %3.0f) - Distance: %4.1f in",
-                        boxFit.center.x, boxFit.center.y, purpleDistance));
-            } else {
-                telemetry.addLine("PURPLE Target: Not Visible");
+                composer.set(purpleAcquiredSlot, boxFit.center.x, boxFit.center.y, purpleDistance);
             }
 
+            composer.setVisible(greenAcquiredSlot, greenTarget != null);
+            composer.setVisible(greenMissingSlot, greenTarget == null);
             if (greenTarget != null) {
                 RotatedRect boxFit = greenTarget.getBoxFit();
-                telemetry.addLine(String.format("GREEN  Target: Acquired at (%3.0f, %3.0f) - Distance: %4.1f in",
-                        boxFit.center.x, boxFit.center.y, greenDistance));
-            } else {
-                telemetry.addLine("GREEN  Target: Not Visible");
+                composer.set(greenAcquiredSlot, boxFit.center.x, boxFit.center.y, greenDistance);
             }
 
             // Optional: Add detailed data for calibration purposes
-            telemetry.addLine("\n--- Detailed Data for Calibration ---");
+            composer.setVisible(purpleDiameterSlot, !blobsPurple.isEmpty());
             if (!blobsPurple.isEmpty()) {
                 Circle c = blobsPurple.get(0).getCircle();
-                telemetry.addLine(String.format("Largest PURPLE blob pixel diameter: %.1f", c.getRadius() * 2));
+                composer.set(purpleDiameterSlot, c.getRadius() * 2);
             }
+            composer.setVisible(greenDiameterSlot, !blobsGreen.isEmpty());
             if (!blobsGreen.isEmpty()) {
                 Circle c = blobsGreen.get(0).getCircle();
-                telemetry.addLine(String.format("Largest GREEN blob pixel diameter: %.1f", c.getRadius() * 2));
+                composer.set(greenDiameterSlot, c.getRadius() * 2);
             }
 
-            telemetry.update();
+            composer.update();
             sleep(20);
         }
     }
+
+    /**
+     * Lays out the telemetry screen. Each line is a slot in the telemetry composer.
+     */
+    private void setupTelemetry() {
+        composer = new TelemetryComposer(new SdkTelemetry(telemetry), TELEMETRY_RATE_HZ, NanoClock.SYSTEM);
+        composer.addLine("--- Ball Detector w/ Distance ---");
+        purpleAcquiredSlot = composer.addNumber(null, "PURPLE Target: Acquired at (%3.0f, %3.0f) - Distance: %4.1f in", 0.1, 3);
+        purpleMissingSlot = composer.addLine("PURPLE Target: Not Visible");
+        greenAcquiredSlot = composer.addNumber(null, "GREEN  Target: Acquired at (%3.0f, %3.0f) - Distance: %4.1f in", 0.1, 3);
+        greenMissingSlot = composer.addLine("GREEN  Target: Not Visible");
+        composer.addLine("\n--- Detailed Data for Calibration ---");
+        purpleDiameterSlot = composer.addNumber(null, "Largest PURPLE blob pixel diameter: %.1f", 0.1, 1);
+        greenDiameterSlot = composer.addNumber(null, "Largest GREEN blob pixel diameter: %.1f", 0.1, 1);
+    }
 }
\ No newline at end of file
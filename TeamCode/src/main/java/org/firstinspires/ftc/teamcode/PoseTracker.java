@@ -0,0 +1,95 @@
+// Filename: PoseTracker.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * POSE TRACKER (POSE EXPONENTIAL)
+ * =================================================================================================
+ *
+ * Keeps a field pose (x, y, heading) and moves it by each small motion a {@link Localizer}
+ * measures in the ROBOT's frame: how far it went forward, how far to the left, and how far it
+ * turned since the last loop.
+ *
+ * Adding those distances as straight lines ("Euler" integration) is wrong whenever the robot
+ * turns while it drives: it really moved along an ARC, and the error grows with every loop that
+ * is slow. This class assumes the robot moved at a constant velocity during the step, which is
+ * exactly an arc, and moves the pose along it (the "pose exponential"):
+ * 1.  With dTheta the turn, the motion in the robot's frame at the START of the step is
+ *         forward = sin(dTheta)/dTheta * dx - (1 - cos(dTheta))/dTheta * dy
+ *         left    = (1 - cos(dTheta))/dTheta * dx + sin(dTheta)/dTheta * dy
+ * 2.  For a tiny dTheta those fractions are computed from their Taylor series instead, so driving
+ *     straight never divides by zero.
+ * 3.  That motion is rotated into the field by the starting heading and added to the pose.
+ *
+ * Every call is a fixed amount of arithmetic on primitive fields: no allocation.
+ *
+ * @author Team 13353
+ */
+public class PoseTracker {
+
+    // Below this turn (radians), the Taylor series are used. Their error is far below a double's.
+    private static final double SMALL_ANGLE = 1e-3;
+    private static final double TWO_PI = 2 * Math.PI;
+
+    // --- STATE VARIABLES ---
+    private double x = 0;
+    private double y = 0;
+    private double heading = 0;
+
+    /**
+     * Moves the pose along the arc of one step.
+     * @param dx How far the robot went forward, in its own frame, in inches.
+     * @param dy How far the robot went to its left, in its own frame, in inches.
+     * @param dTheta How far the robot turned counter-clockwise, in radians.
+     */
+    public void applyTwist(double dx, double dy, double dTheta) {
+        double sinTerm; // sin(dTheta) / dTheta
+        double cosTerm; // (1 - cos(dTheta)) / dTheta
+        if (Math.abs(dTheta) < SMALL_ANGLE) {
+            double theta2 = dTheta * dTheta;
+            sinTerm = 1 - theta2 / 6 + theta2 * theta2 / 120;
+            cosTerm = dTheta / 2 - dTheta * theta2 / 24;
+        } else {
+            sinTerm = Math.sin(dTheta) / dTheta;
+            cosTerm = (1 - Math.cos(dTheta)) / dTheta;
+        }
+        double forward = sinTerm * dx - cosTerm * dy;
+        double left = cosTerm * dx + sinTerm * dy;
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        x += forward * cos - left * sin;
+        y += forward * sin + left * cos;
+        heading = normalizeRadians(heading + dTheta);
+    }
+
+    /**
+     * Moves the pose to a known position.
+     * @param x The x position, in inches.
+     * @param y The y position, in inches.
+     * @param headingRadians The heading, in radians.
+     */
+    public void setPose(double x, double y, double headingRadians) {
+        this.x = x;
+        this.y = y;
+        this.heading = normalizeRadians(headingRadians);
+    }
+
+    /** @return The x position, in inches. */
+    public double getX() { return x; }
+    /** @return The y position, in inches. */
+    public double getY() { return y; }
+    /** @return The heading, in radians (-PI to PI). */
+    public double getHeading() { return heading; }
+
+    /**
+     * Wraps an angle into -PI to PI.
+     * @param radians Any angle.
+     * @return The same direction, from -PI to PI.
+     */
+    public static double normalizeRadians(double radians) {
+        while (radians > Math.PI) radians -= TWO_PI;
+        while (radians <= -Math.PI) radians += TWO_PI;
+        return radians;
+    }
+}
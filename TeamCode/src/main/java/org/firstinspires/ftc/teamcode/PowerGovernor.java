@@ -0,0 +1,152 @@
+// Filename: PowerGovernor.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * PREDICTIVE POWER GOVERNOR
+ * =================================================================================================
+ *
+ * This helper class turns the motors' power down BEFORE the battery voltage sags low enough to
+ * reset a hub, instead of reporting a brownout after it happened.
+ *
+ * A battery behaves like a fixed voltage behind a resistance: the harder the motors pull, the
+ * lower the voltage the hubs see.
+ *         volts = openCircuitVolts - resistanceOhms * amps
+ * The governor predicts the current from the motor powers about to be commanded, so it knows the
+ * voltage those powers WOULD cause.
+ *
+ * HOW IT WORKS:
+ * 1.  BATTERY MODEL. The open-circuit voltage and resistance come from the
+ *     {@link BatteryEstimator} that the health monitor already keeps up to date. There is one fit
+ *     of the battery on the robot, so the governor and the match log never disagree about it.
+ * 2.  CURRENT PREDICTION. The current is modelled as an idle draw plus a number of amps per unit
+ *     of commanded motor power (the sum of the absolute powers), learned from measurements.
+ * 3.  BUDGET. The most current the battery can deliver without dropping below the voltage floor is
+ *     (openCircuitVolts - floorVolts) / resistanceOhms. The DRIVETRAIN gets its share of that
+ *     budget first; the MECHANISMS get what is left. {@link #govern} turns that into a power
+ *     scale for each group, to multiply the powers by before setPower().
+ *
+ * Every call does a fixed amount of arithmetic: no loops, no allocation. The class has no hardware
+ * dependencies, so it can be driven by a simulated battery on a desktop.
+ *
+ * USAGE:
+ * ```java
+ * // when the health monitor has a new sample (it has already fed the estimator):
+ * governor.addMeasurement(totalAmps, lastDrivePower + lastArmPower);
+ * // every loop, before setPower():
+ * governor.govern(sumOfAbsWheelPowers, Math.abs(armPower));
+ * wheelPower *= governor.getDriveScale();
+ * armPower *= governor.getMechanismScale();
+ * ```
+ *
+ * @author Team 13353
+ */
+public class PowerGovernor {
+
+    // --- CONFIGURATION ---
+    private final BatteryEstimator battery;
+    private final double floorVolts;
+    private final double idleAmps;
+
+    // The resistance used is kept in this range, however odd the estimate is.
+    private static final double MIN_RESISTANCE_OHMS = 0.01;
+    private static final double MAX_RESISTANCE_OHMS = 1.0;
+    // Commanded powers below this tell too little about amps per power to learn from.
+    private static final double MIN_LEARNING_POWER = 0.5;
+    // How much of each new amps-per-power observation is blended in.
+    private static final double AMPS_PER_POWER_SMOOTHING = 0.02;
+
+    // --- STATE VARIABLES ---
+    private double ampsPerPower;
+    private double driveScale = 1.0;
+    private double mechanismScale = 1.0;
+    private double predictedVolts = 0;
+
+    // --- STATISTICS ---
+    private long measurements = 0;
+    private long limitedCalls = 0;
+    private double minPredictedVolts = Double.MAX_VALUE;
+
+    /**
+     * Constructor for the PowerGovernor.
+     * @param battery The battery model to use, e.g. the health monitor's getBatteryEstimator().
+     * @param floorVolts The lowest voltage the governor lets the motors pull the battery down to.
+     * @param idleAmps The current the robot draws with every motor stopped.
+     * @param ampsPerPower The starting guess for the current per unit of commanded power, e.g.
+     *                     one motor's current at full power. Refined from measurements.
+     */
+    public PowerGovernor(BatteryEstimator battery, double floorVolts, double idleAmps, double ampsPerPower) {
+        this.battery = battery;
+        this.floorVolts = floorVolts;
+        this.idleAmps = idleAmps;
+        this.ampsPerPower = ampsPerPower;
+    }
+
+    /**
+     * Learns the current drawn per unit of commanded power from a measurement.
+     * @param amps The measured total current of every hub.
+     * @param commandedPower The sum of the absolute motor powers being commanded when it was
+     *                       measured (after any scaling).
+     */
+    public void addMeasurement(double amps, double commandedPower) {
+        if (amps != amps) return; // NaN: not read
+        measurements++;
+        if (commandedPower >= MIN_LEARNING_POWER) {
+            double observed = Math.max(0, amps - idleAmps) / commandedPower;
+            ampsPerPower += (observed - ampsPerPower) * AMPS_PER_POWER_SMOOTHING;
+        }
+    }
+
+    /**
+     * Works out the power scales for the next set of motor commands.
+     * @param drivePower The sum of the absolute drivetrain powers about to be commanded.
+     * @param mechanismPower The sum of the absolute mechanism powers about to be commanded.
+     */
+    public void govern(double drivePower, double mechanismPower) {
+        if (battery.getSampleCount() == 0) {
+            driveScale = 1.0;
+            mechanismScale = 1.0;
+            return;
+        }
+        double openCircuitVolts = battery.getOpenCircuitVolts();
+        double resistanceOhms = getResistanceOhms();
+        double driveAmps = ampsPerPower * Math.abs(drivePower);
+        double mechanismAmps = ampsPerPower * Math.abs(mechanismPower);
+        // The most motor current the battery can supply while staying above the floor.
+        double budgetAmps = Math.max(0, (openCircuitVolts - floorVolts) / resistanceOhms - idleAmps);
+
+        driveScale = driveAmps <= budgetAmps ? 1.0 : budgetAmps / driveAmps;
+        double leftAmps = budgetAmps - driveAmps * driveScale;
+        mechanismScale = mechanismAmps <= leftAmps ? 1.0 : leftAmps / mechanismAmps;
+
+        predictedVolts = openCircuitVolts - resistanceOhms
+                * (idleAmps + driveAmps * driveScale + mechanismAmps * mechanismScale);
+        if (predictedVolts < minPredictedVolts) minPredictedVolts = predictedVolts;
+        if (driveScale < 1.0 || mechanismScale < 1.0) limitedCalls++;
+    }
+
+    /** @return The factor to multiply the drivetrain powers by (0.0 to 1.0). */
+    public double getDriveScale() { return driveScale; }
+    /** @return The factor to multiply the mechanism powers by (0.0 to 1.0). */
+    public double getMechanismScale() { return mechanismScale; }
+    /** @return True if the last govern() turned any power down. */
+    public boolean isLimiting() { return driveScale < 1.0 || mechanismScale < 1.0; }
+    /** @return The voltage predicted for the last governed powers (0 before any measurement). */
+    public double getPredictedVolts() { return predictedVolts; }
+
+    // --- MODEL ---
+    /** @return The battery resistance the budget is worked out with, in ohms. */
+    public double getResistanceOhms() {
+        return Math.max(MIN_RESISTANCE_OHMS, Math.min(MAX_RESISTANCE_OHMS, battery.getResistanceOhms()));
+    }
+    /** @return The estimated current per unit of commanded motor power, in amps. */
+    public double getAmpsPerPower() { return ampsPerPower; }
+
+    // --- STATISTICS ---
+    /** @return How many current measurements have been learned from. */
+    public long getMeasurementCount() { return measurements; }
+    /** @return How many govern() calls turned a power down. */
+    public long getLimitedCount() { return limitedCalls; }
+    /** @return The lowest voltage predicted so far (Double.MAX_VALUE before the first). */
+    public double getMinPredictedVolts() { return minPredictedVolts; }
+}
@@ -0,0 +1,189 @@
+// Filename: ReplayEngine.java
+package org.firstinspires.ftc.teamcode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * =================================================================================================
+ * FLIGHT RECORDING REPLAY ENGINE
+ * =================================================================================================
+ *
+ * Replays TeleOp flight recordings (made by {@link MatchRecorder}) through the current
+ * {@link DriveController} on a computer, and checks that it commands the same wheel powers the
+ * robot did.
+ *
+ * For every recorded loop, the recorded gamepad inputs and heading are fed into a fresh
+ * DriveController, exactly as Smart_Mecanum_TeleOp does on the robot. The drive mode and the four
+ * wheel powers it produces are compared with the ones recorded in that loop. No time is waited
+ * between loops, so a whole match replays in milliseconds.
+ *
+ * This answers "did my change to the driving logic change how the robot drives?" across every
+ * recording at once: copy the .flight files off the robot into a folder, then run
+ * `./gradlew :Benchmarks:replayFlightLogs -PflightLogs=path/to/folder`
+ * Every recording gets a report line; the task fails if any recording differs.
+ *
+ * An intended change (e.g. a new slow-mode multiplier) will of course show differences. The
+ * report shows where they start, so they can be checked against what was expected.
+ *
+ * @author Team 13353
+ */
+public class ReplayEngine {
+
+    /** Powers are recorded as 32-bit floats, so allow for their rounding. */
+    public static final double DEFAULT_TOLERANCE = 1e-4;
+
+    /** The outcome of replaying one recording. */
+    public static class Result {
+        public String name = "";
+        public int records = 0;
+        public double recordedSeconds = 0;
+        public double replayMs = 0;
+        /** Loops where any wheel power differed by more than the tolerance. */
+        public int powerMismatches = 0;
+        /** Loops where the drive mode differed. */
+        public int modeMismatches = 0;
+        public double maxPowerError = 0;
+        /** The first loop that differed in any way, or -1 if none did. */
+        public int firstMismatch = -1;
+        public double firstMismatchSeconds = 0;
+
+        /** @return True if every loop matched. */
+        public boolean matches() {
+            return powerMismatches == 0 && modeMismatches == 0;
+        }
+
+        /** @return A one-line summary, e.g. for the console. */
+        public String toReportLine() {
+            StringBuilder line = new StringBuilder(160);
+            line.append(matches() ? "MATCH    " : "DIFFERS  ").append(name).append(": ");
+            FastFormat.appendInt(line, records).append(" loops (");
+            FastFormat.appendFixed(line, recordedSeconds, 1).append(" s) replayed in ");
+            FastFormat.appendFixed(line, replayMs, 1).append(" ms");
+            if (!matches()) {
+                line.append(", ");
+                FastFormat.appendInt(line, powerMismatches).append(" power / ");
+                FastFormat.appendInt(line, modeMismatches).append(" mode mismatches, max error ");
+                FastFormat.appendFixed(line, maxPowerError, 4).append(", first at loop ");
+                FastFormat.appendInt(line, firstMismatch).append(" (t = ");
+                FastFormat.appendFixed(line, firstMismatchSeconds, 2).append(" s)");
+            }
+            return line.toString();
+        }
+    }
+
+    private final double tolerance;
+
+    /**
+     * Constructor for the ReplayEngine.
+     * @param tolerance The largest wheel power difference still counted as the same.
+     */
+    public ReplayEngine(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Replays one recording.
+     * @param log The recording.
+     * @return What was found.
+     * @throws IllegalArgumentException If the recording lacks a channel the replay needs.
+     */
+    public Result replay(FlightLogDecoder log) {
+        int time = channel(log, "time_s");
+        String gp1 = FlightChannels.GAMEPAD1_PREFIX;
+        int leftStickX = channel(log, gp1 + FlightChannels.LEFT_STICK_X);
+        int leftStickY = channel(log, gp1 + FlightChannels.LEFT_STICK_Y);
+        int rightStickX = channel(log, gp1 + FlightChannels.RIGHT_STICK_X);
+        int rightTrigger = channel(log, gp1 + FlightChannels.RIGHT_TRIGGER);
+        int buttons = channel(log, gp1 + FlightChannels.BUTTONS);
+        int yaw = channel(log, FlightChannels.IMU_YAW);
+        int fieldCentric = channel(log, FlightChannels.FIELD_CENTRIC);
+        int[] power = new int[4];
+        for (int w = 0; w < 4; w++) {
+            power[w] = channel(log, FlightChannels.POWER_PREFIX + FlightChannels.WHEEL_NAMES[w]);
+        }
+
+        Result result = new Result();
+        result.records = log.getRecordCount();
+        long start = System.nanoTime();
+        DriveController controller = new DriveController();
+        for (int r = 0; r < result.records; r++) {
+            boolean xButton = ((int) log.get(r, buttons) & FlightChannels.BUTTON_X) != 0;
+            controller.update(log.get(r, leftStickX), log.get(r, leftStickY), log.get(r, rightStickX),
+                    log.get(r, rightTrigger), xButton, log.get(r, yaw));
+
+            boolean isMismatch = false;
+            if (controller.isFieldCentric() != (log.get(r, fieldCentric) != 0)) {
+                result.modeMismatches++;
+                isMismatch = true;
+            }
+            double[] replayed = controller.getWheelPowers();
+            double worst = 0;
+            for (int w = 0; w < 4; w++) {
+                worst = Math.max(worst, Math.abs(replayed[w] - log.get(r, power[w])));
+            }
+            result.maxPowerError = Math.max(result.maxPowerError, worst);
+            if (worst > tolerance) {
+                result.powerMismatches++;
+                isMismatch = true;
+            }
+            if (isMismatch && result.firstMismatch < 0) {
+                result.firstMismatch = r;
+                result.firstMismatchSeconds = log.get(r, time);
+            }
+        }
+        result.replayMs = (System.nanoTime() - start) / 1e6;
+        result.recordedSeconds = result.records == 0 ? 0 : log.get(result.records - 1, time);
+        return result;
+    }
+
+    private static int channel(FlightLogDecoder log, String name) {
+        int index = log.getChannelIndex(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("The recording has no \"" + name + "\" channel");
+        }
+        return index;
+    }
+
+    /**
+     * Replays every recording named on the command line. A folder means every .flight file in it.
+     * Exits with status 1 if any recording differs or cannot be read.
+     * @param args Recordings and/or folders of recordings.
+     */
+    public static void main(String[] args) {
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            File file = new File(arg);
+            File[] inFolder = file.listFiles((folder, name) -> name.endsWith(".flight"));
+            if (inFolder != null) {
+                Arrays.sort(inFolder);
+                files.addAll(Arrays.asList(inFolder));
+            } else {
+                files.add(file);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: ReplayEngine <recording.flight | folder> [more...]");
+            System.exit(1);
+        }
+
+        ReplayEngine engine = new ReplayEngine(DEFAULT_TOLERANCE);
+        int failures = 0;
+        for (File file : files) {
+            try {
+                Result result = engine.replay(new FlightLogDecoder(file));
+                result.name = file.getName();
+                System.out.println(result.toReportLine());
+                if (!result.matches()) failures++;
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("ERROR    " + file.getName() + ": " + e.getMessage());
+                failures++;
+            }
+        }
+        System.out.println((files.size() - failures) + " of " + files.size() + " recordings match.");
+        if (failures > 0) System.exit(1);
+    }
+}
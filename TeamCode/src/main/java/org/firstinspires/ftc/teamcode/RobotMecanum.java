@@ -4,12 +4,16 @@ package org.firstinspires.ftc.teamcode;
 import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
 import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.IMU;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
 import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -30,6 +34,7 @@ import java.util.List;
  * - Initializing all hardware components.
  * - Providing methods to control the robot's movement (e.g., driving, stopping).
  * - Encapsulating sensor logic (e.g., IMU).
+ * - Tracking the robot's field pose through a swappable Localizer.
  * - Running background tasks like the System Health Monitor.
  *
  * @version 2.0 - Renamed drive() to driveRobotCentric() and added comprehensive documentation.
@@ -43,12 +48,38 @@ public class RobotMecanum {
 
     // Sensors
     public IMU imu;
+    public ImuSampler imuSampler; // Reads the IMU on a background thread
+    private final ImuSampler.Sample imuSample = new ImuSampler.Sample(); // Reused every loop
+    private double lastYaw = 0; // The newest usable yaw, in radians
+    private boolean isHeadingStale = true;
 
     // --- STATE & HELPER CLASS DECLARATIONS ---
     private final HardwareMap hardwareMap;
     public SystemHealthMonitor healthMonitor;
+    public PowerGovernor powerGovernor; // Turns the drive power down before the battery sags too far
+    public BulkReadManager bulkReads;
+    public TaskScheduler tasks;
+    private ElapsedTime matchTimer; // The timer passed to the latest update(), used by tasks
     private List<LynxModule> allHubs; // Used for bulk data reads and health monitoring
 
+    // Write-through caches for the drivetrain. All power commands go through these, so a power
+    // that has not changed since the last loop is not sent to the hub again.
+    private CachedMotor leftFrontOut, rightFrontOut, leftRearOut, rightRearOut;
+    private final double[] wheelPowers = new double[4]; // Reused by the drive methods
+
+    // Estimated winding temperature of each drive motor, indexed by MecanumKinematics.LEFT_FRONT
+    // etc. A hot motor's power is scaled down before it is sent, so it can cool.
+    private final ThermalModel[] wheelHeat = new ThermalModel[4];
+    private DcMotor[] wheelMotors; // Same order, for reading currents
+    private int nextThermalWheel = 0;
+    private final int[] wheelEnergy = new int[4]; // Each wheel's channel in the energy accountant
+    private final double[] outputPowers = new double[4]; // The wheel powers after every limit
+    private double appliedDrivePower = 0; // The sum of the absolute powers last sent to the wheels
+
+    // Localization. The drive-wheel localizer is the default; setLocalizer() can swap in another.
+    private MecanumLocalizer driveLocalizer;
+    private Localizer localizer;
+
     /**
      * The constructor for the RobotMecanum class.
      * @param hwMap The HardwareMap from the OpMode, used to map string names to hardware devices.
@@ -75,6 +106,11 @@ public class RobotMecanum {
             // Get all REV hubs for health monitoring and bulk reading.
             allHubs = hardwareMap.getAll(LynxModule.class);
 
+            // Put every hub into MANUAL bulk caching mode. From now on, all encoder, velocity and
+            // isBusy() reads in a loop share ONE bulk read per hub, refreshed at the top of update().
+            bulkReads = new BulkReadManager();
+            bulkReads.init(LynxHub.wrap(allHubs));
+
             // ====================================================================================
             // --- DRIVETRAIN CONFIGURATION ---
             // ====================================================================================
@@ -110,6 +146,24 @@ public class RobotMecanum {
             leftRear.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
             rightRear.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
 
+            // Wrap the motors in output caches. Real writes are reported to the bulk-read ledger.
+            leftFrontOut = new CachedMotor(leftFront, bulkReads);
+            rightFrontOut = new CachedMotor(rightFront, bulkReads);
+            leftRearOut = new CachedMotor(leftRear, bulkReads);
+            rightRearOut = new CachedMotor(rightRear, bulkReads);
+
+            wheelMotors = new DcMotor[4];
+            wheelMotors[MecanumKinematics.LEFT_FRONT] = leftFront;
+            wheelMotors[MecanumKinematics.RIGHT_FRONT] = rightFront;
+            wheelMotors[MecanumKinematics.LEFT_REAR] = leftRear;
+            wheelMotors[MecanumKinematics.RIGHT_REAR] = rightRear;
+            for (int wheel = 0; wheel < wheelHeat.length; wheel++) {
+                wheelHeat[wheel] = new ThermalModel(Constants.MOTOR_AMBIENT_C, Constants.MOTOR_RISE_C_PER_AMP2,
+                        Constants.MOTOR_HEATING_TAU_S, Constants.MOTOR_COOLING_TAU_S,
+                        Constants.MOTOR_DERATE_START_C, Constants.MOTOR_MAX_C, Constants.MOTOR_MIN_POWER_SCALE,
+                        NanoClock.SYSTEM);
+            }
+
             // ====================================================================================
             // --- IMU CONFIGURATION ---
             // ====================================================================================
@@ -127,9 +181,43 @@ public class RobotMecanum {
             RevHubOrientationOnRobot.UsbFacingDirection usbDirection = RevHubOrientationOnRobot.UsbFacingDirection.FORWARD;
             imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(logoDirection, usbDirection)));
 
+            // The IMU is read on its own thread, so the loop never waits on the I2C bus for it.
+            // The thread starts the first time the heading is needed; call shutdown() to stop it.
+            imuSampler = new ImuSampler(out -> {
+                YawPitchRollAngles angles = imu.getRobotYawPitchRollAngles();
+                out.yaw = angles.getYaw(AngleUnit.RADIANS);
+                out.pitch = angles.getPitch(AngleUnit.RADIANS);
+                out.roll = angles.getRoll(AngleUnit.RADIANS);
+                out.yawRate = imu.getRobotAngularVelocity(AngleUnit.RADIANS).zRotationRate;
+            }, Constants.IMU_SAMPLE_RATE_HZ, NanoClock.SYSTEM);
+
             // --- INITIALIZE HELPER CLASSES ---
             healthMonitor = new SystemHealthMonitor();
             healthMonitor.init(allHubs);
+            healthMonitor.setBatteryId(Config.snapshot().getInt(ConfigKey.BATTERY_ID));
+            String[] wheelNames = {"leftFront", "rightFront", "leftRear", "rightRear"};
+            for (int wheel = 0; wheel < wheelEnergy.length; wheel++) {
+                wheelEnergy[wheel] = healthMonitor.getEnergy().addChannel(wheelNames[wheel], EnergyAccountant.Group.DRIVETRAIN);
+            }
+            // The pose from the drive encoders (free, from the bulk read) and the background IMU sample.
+            driveLocalizer = new MecanumLocalizer(leftFront::getCurrentPosition, rightFront::getCurrentPosition,
+                    leftRear::getCurrentPosition, rightRear::getCurrentPosition,
+                    this::getFreshHeadingRadians, Constants.DRIVE_INCHES_PER_TICK,
+                    Constants.DRIVE_TRACK_WIDTH_IN, Constants.DRIVE_WHEEL_BASE_IN,
+                    Config.snapshot().get(ConfigKey.MECANUM_LATERAL_MULTIPLIER));
+            localizer = driveLocalizer;
+            // The governor works from the health monitor's battery fit, not a second one of its own.
+            powerGovernor = new PowerGovernor(healthMonitor.getBatteryEstimator(), Constants.POWER_GOVERNOR_FLOOR_VOLTS,
+                    Constants.POWER_GOVERNOR_IDLE_AMPS, Constants.POWER_GOVERNOR_AMPS_PER_POWER);
+
+            // --- BACKGROUND TASKS ---
+            // Slow work runs at its own rate instead of every loop. Driving is not a task: the
+            // OpMode calls the drive methods directly, at the full loop rate.
+            tasks = new TaskScheduler(NanoClock.SYSTEM);
+            tasks.addTask("health", Constants.HEALTH_MONITOR_RATE_HZ, 1, this::updateHealthMonitor);
+            tasks.addTask("thermal", Constants.THERMAL_MODEL_RATE_HZ, 1, this::updateThermalModels);
+            // Only queues lines; the file itself is written on the log writer's own thread.
+            tasks.addTask("log", Constants.FILE_LOGGING_RATE_HZ, 0, healthMonitor::writeLiveLog);
 
             return true; // Initialization successful
 
@@ -143,11 +231,53 @@ public class RobotMecanum {
     /**
      * The main update loop for the robot.
      * This method should be called in every iteration of the OpMode's main loop. It's used for
-     * running background tasks like updating the health monitor.
+     * running background tasks like updating the health monitor. Each background task runs at
+     * its own rate (see the TaskScheduler), so most loops only do a fraction of this work.
+     *
+     * It also refreshes the bulk-read cache, so it MUST be the first robot call in each loop.
+     * Any sensor read made before it would return the previous loop's data. The localizer is
+     * updated right after, every loop, from that fresh bulk read.
      * @param matchTimer The OpMode's ElapsedTime timer.
      */
     public void update(ElapsedTime matchTimer) {
+        bulkReads.update();
+        localizer.update();
+        this.matchTimer = matchTimer;
+        tasks.tick();
+    }
+
+    /**
+     * Background task: polls hub voltage and current for the health monitor (which updates the
+     * battery estimator), and teaches the power governor the current per unit of power.
+     */
+    private void updateHealthMonitor() {
         healthMonitor.update(matchTimer);
+        // Hub current and voltage are not part of the bulk data: one current read per hub, plus
+        // one voltage read for the whole robot.
+        int hubs = bulkReads.getHubCount();
+        bulkReads.recordTransactions(hubs == 0 ? 0 : hubs + 1);
+
+        double totalAmps = 0;
+        for (int hub = 0; hub < healthMonitor.getHubCount(); hub++) {
+            totalAmps += healthMonitor.getLatestHubCurrent(hub);
+        }
+        powerGovernor.addMeasurement(totalAmps, appliedDrivePower);
+    }
+
+    /**
+     * Background task: feeds one drive motor's current to its thermal model and to the energy
+     * accountant. Motor current is not part of the bulk data, so the wheels take turns: one hub
+     * transaction per run.
+     */
+    private void updateThermalModels() {
+        int wheel = nextThermalWheel;
+        nextThermalWheel = (nextThermalWheel + 1) % wheelMotors.length;
+        if (wheelMotors[wheel] instanceof DcMotorEx) {
+            bulkReads.recordTransaction();
+            double amps = ((DcMotorEx) wheelMotors[wheel]).getCurrent(CurrentUnit.AMPS);
+            wheelHeat[wheel].update(amps);
+            healthMonitor.getEnergy().record(wheelEnergy[wheel], amps);
+        }
     }
 
     // ============================================================================================
@@ -162,18 +292,9 @@ public class RobotMecanum {
      * @param turn The power for turning left and right (-1.0 to 1.0).
      */
     public void driveRobotCentric(double forward, double strafe, double turn) {
-        // Standard mecanum drive formulas
-        double leftFrontPower = forward + strafe + turn;
-        double rightFrontPower = forward - strafe - turn;
-        double leftRearPower = forward - strafe + turn;
-        double rightRearPower = forward + strafe - turn;
-
-        // Normalize the motor powers to ensure no value exceeds 1.0 while maintaining proportions.
-        double denominator = Math.max(Math.abs(forward) + Math.abs(strafe) + Math.abs(turn), 1.0);
-        leftFront.setPower(leftFrontPower / denominator);
-        rightFront.setPower(rightFrontPower / denominator);
-        leftRear.setPower(leftRearPower / denominator);
-        rightRear.setPower(rightRearPower / denominator);
+        // Standard mecanum drive formulas, normalized so no power exceeds 1.0.
+        MecanumKinematics.robotCentric(forward, strafe, turn, wheelPowers);
+        applyWheelPowers();
     }
 
     /**
@@ -185,36 +306,223 @@ public class RobotMecanum {
      */
     public void driveFieldCentric(double forward, double strafe, double turn) {
         // Get the robot's current heading in radians from the IMU.
-        double heading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+        double heading = getFreshHeadingRadians();
+        if (heading != heading) {
+            // No recent IMU sample: the heading cannot be trusted, so drive robot-centric.
+            driveRobotCentric(forward, strafe, turn);
+            return;
+        }
 
-        // This is the core of field-centric driving. It rotates the joystick inputs
-        // by the negative of the robot's heading, effectively making the controls
-        // relative to the field instead of the robot.
-        double rotX = strafe * Math.cos(-heading) - forward * Math.sin(-heading);
-        double rotY = strafe * Math.sin(-heading) + forward * Math.cos(-heading);
+        // Rotate the joystick inputs by the robot's heading, so the controls are relative to
+        // the field instead of the robot, then apply the standard mecanum formulas.
+        MecanumKinematics.fieldCentric(forward, strafe, turn, heading, wheelPowers);
+        applyWheelPowers();
+    }
 
-        // Use the rotated values in the standard mecanum drive formulas.
-        double leftFrontPower = rotY + rotX + turn;
-        double rightFrontPower = rotY - rotX - turn;
-        double leftRearPower = rotY - rotX + turn;
-        double rightRearPower = rotY + rotX - turn;
+    /**
+     * Drives the wheels with powers that were already computed (e.g. by a DriveController).
+     * @param powers The four wheel powers, indexed by MecanumKinematics.LEFT_FRONT etc.
+     */
+    public void driveWheelPowers(double[] powers) {
+        System.arraycopy(powers, 0, wheelPowers, 0, wheelPowers.length);
+        applyWheelPowers();
+    }
 
-        // Normalize the motor powers.
-        double denominator = Math.max(Math.abs(rotY) + Math.abs(rotX) + Math.abs(turn), 1.0);
-        leftFront.setPower(leftFrontPower / denominator);
-        rightFront.setPower(rightFrontPower / denominator);
-        leftRear.setPower(leftRearPower / denominator);
-        rightRear.setPower(rightRearPower / denominator);
+    /**
+     * Sends the wheel powers computed by MecanumKinematics to the (cached) drive motors, each
+     * scaled down by its thermal model if that motor is running hot, then all of them by the
+     * power governor if together they would pull the battery below its floor.
+     */
+    private void applyWheelPowers() {
+        double totalPower = 0;
+        for (int wheel = 0; wheel < outputPowers.length; wheel++) {
+            outputPowers[wheel] = wheelPowers[wheel] * wheelHeat[wheel].getPowerScale();
+            totalPower += Math.abs(outputPowers[wheel]);
+        }
+        powerGovernor.govern(totalPower, 0);
+        double scale = powerGovernor.getDriveScale();
+        appliedDrivePower = totalPower * scale;
+
+        leftFrontOut.setPower(outputPowers[MecanumKinematics.LEFT_FRONT] * scale);
+        rightFrontOut.setPower(outputPowers[MecanumKinematics.RIGHT_FRONT] * scale);
+        leftRearOut.setPower(outputPowers[MecanumKinematics.LEFT_REAR] * scale);
+        rightRearOut.setPower(outputPowers[MecanumKinematics.RIGHT_REAR] * scale);
     }
 
     /**
      * Stops all drivetrain motors.
+     * A stop is always sent to the hub, even if the cache believes the motors are already stopped.
      */
     public void stop() {
-        leftFront.setPower(0);
-        rightFront.setPower(0);
-        leftRear.setPower(0);
-        rightRear.setPower(0);
+        Arrays.fill(wheelPowers, 0);
+        appliedDrivePower = 0;
+        leftFrontOut.forcePower(0);
+        rightFrontOut.forcePower(0);
+        leftRearOut.forcePower(0);
+        rightRearOut.forcePower(0);
+    }
+
+    /**
+     * Gets the power most recently commanded for one wheel, before the thermal and battery limits
+     * and the output cache.
+     * @param wheel The wheel: MecanumKinematics.LEFT_FRONT, RIGHT_FRONT, LEFT_REAR or RIGHT_REAR.
+     * @return The commanded power (-1.0 to 1.0).
+     */
+    public double getCommandedPower(int wheel) {
+        return wheelPowers[wheel];
+    }
+
+    /**
+     * Gets one wheel's encoder position. This comes from the bulk-read cache, so it is free.
+     * @param wheel The wheel: MecanumKinematics.LEFT_FRONT, RIGHT_FRONT, LEFT_REAR or RIGHT_REAR.
+     * @return The encoder position, in ticks.
+     */
+    public int getWheelPosition(int wheel) {
+        switch (wheel) {
+            case MecanumKinematics.LEFT_FRONT: return leftFront.getCurrentPosition();
+            case MecanumKinematics.RIGHT_FRONT: return rightFront.getCurrentPosition();
+            case MecanumKinematics.LEFT_REAR: return leftRear.getCurrentPosition();
+            default: return rightRear.getCurrentPosition();
+        }
+    }
+
+    /**
+     * Gets one drive motor's estimated winding temperature.
+     * @param wheel The wheel: MecanumKinematics.LEFT_FRONT, RIGHT_FRONT, LEFT_REAR or RIGHT_REAR.
+     * @return The temperature, in deg C.
+     */
+    public double getWheelTemperatureC(int wheel) {
+        return wheelHeat[wheel].getTemperatureC();
+    }
+
+    /**
+     * Gets the hottest drive motor's estimated winding temperature.
+     * @return The temperature, in deg C.
+     */
+    public double getMaxWheelTemperatureC() {
+        double max = wheelHeat[0].getTemperatureC();
+        for (int wheel = 1; wheel < wheelHeat.length; wheel++) {
+            max = Math.max(max, wheelHeat[wheel].getTemperatureC());
+        }
+        return max;
+    }
+
+    /**
+     * Gets the smallest thermal power scale of the drive motors.
+     * @return 1.0 while no drive motor is being turned down, less while one is.
+     */
+    public double getDrivePowerScale() {
+        double min = wheelHeat[0].getPowerScale();
+        for (int wheel = 1; wheel < wheelHeat.length; wheel++) {
+            min = Math.min(min, wheelHeat[wheel].getPowerScale());
+        }
+        return min;
+    }
+
+    // ============================================================================================
+    // --- LOCALIZATION METHODS ---
+    // ============================================================================================
+
+    /**
+     * Gets the pose source that update() runs every loop. Autonomous code should read the pose
+     * from here, so it works with whichever localizer the robot uses.
+     * @return The current localizer. A MecanumLocalizer on the drive encoders unless replaced.
+     */
+    public Localizer getLocalizer() {
+        return localizer;
+    }
+
+    /**
+     * Switches the pose source, e.g. to a ThreeWheelLocalizer on a robot with odometry pods.
+     * From the next update() on, only the new localizer is updated. Call setPose() on it if it
+     * should continue from the old localizer's pose.
+     * @param localizer The localizer to use, or null to go back to the drive encoders.
+     */
+    public void setLocalizer(Localizer localizer) {
+        this.localizer = localizer == null ? driveLocalizer : localizer;
+    }
+
+    /**
+     * Gets the localizer that uses the drive encoders and the IMU, whichever localizer is in use.
+     * @return The drive-wheel localizer.
+     */
+    public MecanumLocalizer getDriveLocalizer() {
+        return driveLocalizer;
+    }
+
+    // ============================================================================================
+    // --- IMU METHODS ---
+    // ============================================================================================
+
+    /**
+     * Gets the robot's heading from the newest background IMU sample. This never blocks: the IMU
+     * is only ever read on the sampler's thread. Check {@link #isHeadingStale()} before trusting
+     * the result; while there is no recent sample, this is the last usable heading.
+     * @param unit The angle unit to return.
+     * @return The robot's heading (yaw).
+     */
+    public double getHeading(AngleUnit unit) {
+        if (!imuSampler.isRunning()) {
+            imuSampler.start();
+        }
+        if (imuSampler.getLatest(imuSample)) {
+            lastYaw = imuSample.yaw;
+            isHeadingStale = imuSampler.getAgeMs(imuSample) > Constants.IMU_MAX_SAMPLE_AGE_MS;
+        } else {
+            isHeadingStale = true; // No sample yet, or none since the heading was re-zeroed
+        }
+        return unit == AngleUnit.DEGREES ? Math.toDegrees(lastYaw) : lastYaw;
+    }
+
+    /**
+     * @return True if the most recent call to getHeading() had no sample newer than
+     *         Constants.IMU_MAX_SAMPLE_AGE_MS (e.g. the sampler thread stopped, or the heading
+     *         was just re-zeroed).
+     */
+    public boolean isHeadingStale() {
+        return isHeadingStale;
+    }
+
+    /**
+     * Gets the heading for code that must not act on a stale one, like field-centric driving.
+     * @return The heading in radians, or NaN if there is no recent IMU sample.
+     */
+    public double getFreshHeadingRadians() {
+        double heading = getHeading(AngleUnit.RADIANS);
+        return isHeadingStale ? Double.NaN : heading;
+    }
+
+    /**
+     * Gets the age of the IMU data returned by the most recent call to getHeading().
+     * @return The sample age in milliseconds, or -1 if no background sample was available.
+     */
+    public double getHeadingAgeMs() {
+        return imuSample.sequence == 0 ? -1 : imuSampler.getAgeMs(imuSample);
+    }
+
+    /**
+     * Re-zeroes the robot's heading: the direction it faces now becomes "forward".
+     */
+    public void resetHeading() {
+        imu.resetYaw();
+        // The sampler's newest reading is from before the re-zero. Drop it, so the localizer takes
+        // its new heading reference from a reading taken after it.
+        imuSampler.discardSamples();
+        lastYaw = 0; // What the first sample after the re-zero will say
+        isHeadingStale = true;
+        driveLocalizer.rebaseHeading(); // The pose keeps its heading across the re-zero
+    }
+
+    /**
+     * Stops background threads owned by the robot. Call this at the end of the OpMode.
+     */
+    public void shutdown() {
+        if (imuSampler != null) {
+            imuSampler.stop();
+        }
+        if (healthMonitor != null) {
+            healthMonitor.close();
+        }
     }
 
     // ============================================================================================
@@ -227,6 +535,7 @@ public class RobotMecanum {
      */
     public double getVoltage() {
         if (allHubs != null && !allHubs.isEmpty()) {
+            bulkReads.recordTransaction();
             return allHubs.get(0).getInputVoltage(VoltageUnit.VOLTS);
         }
         return 0;
@@ -243,9 +552,32 @@ public class RobotMecanum {
         leftRear.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         rightRear.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
 
-        leftFront.setPower(power);
-        rightFront.setPower(power);
-        leftRear.setPower(power);
-        rightRear.setPower(power);
+        leftFrontOut.setPower(power);
+        rightFrontOut.setPower(power);
+        leftRearOut.setPower(power);
+        rightRearOut.setPower(power);
+    }
+
+    /**
+     * Gets the total number of drivetrain power writes that were skipped because the commanded
+     * power had not changed.
+     * @return The number of suppressed writes since init.
+     */
+    public long getSuppressedWrites() {
+        return leftFrontOut.getCache().getSuppressedWrites()
+                + rightFrontOut.getCache().getSuppressedWrites()
+                + leftRearOut.getCache().getSuppressedWrites()
+                + rightRearOut.getCache().getSuppressedWrites();
+    }
+
+    /**
+     * Gets the total number of drivetrain power writes that were actually sent to the hub.
+     * @return The number of real writes since init.
+     */
+    public long getActualWrites() {
+        return leftFrontOut.getCache().getWrites()
+                + rightFrontOut.getCache().getWrites()
+                + leftRearOut.getCache().getWrites()
+                + rightRearOut.getCache().getWrites();
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+// Filename: SdkTelemetry.java
+package org.firstinspires.ftc.teamcode;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Connects an OpMode's {@link Telemetry} to a {@link TelemetryComposer}.
+ *
+ * USAGE: `composer = new TelemetryComposer(new SdkTelemetry(telemetry), 4, NanoClock.SYSTEM);`
+ *
+ * @author Team 13353
+ */
+public class SdkTelemetry implements TelemetryComposer.Display {
+
+    private final Telemetry telemetry;
+
+    /**
+     * Constructor for the SdkTelemetry.
+     * @param telemetry The OpMode's telemetry.
+     */
+    public SdkTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    public void setMsTransmissionInterval(int ms) {
+        telemetry.setMsTransmissionInterval(ms);
+    }
+
+    @Override
+    public void addLine(String text) {
+        telemetry.addLine(text);
+    }
+
+    @Override
+    public void addData(String caption, String text) {
+        telemetry.addData(caption, text);
+    }
+
+    @Override
+    public void update() {
+        telemetry.update();
+    }
+
+    /** @return The wrapped telemetry. */
+    public Telemetry getTelemetry() { return telemetry; }
+}
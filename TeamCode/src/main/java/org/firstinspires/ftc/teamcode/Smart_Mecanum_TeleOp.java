@@ -23,8 +23,11 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
  *   - Field-Centric: Intuitive control relative to the field. Best for navigation and scoring.
  *   - Robot-Centric: Direct control relative to the robot. Best for defense and pushing.
  * - Health Monitoring System: Logs important events and saves them for later analysis.
+ * - Flight Recorder: Records every loop's inputs, commands and sensors (see MatchRecorder).
  * - Slow Mode: A precision driving mode for fine-tuned adjustments.
  * - Hardware Abstraction: Uses a `RobotMecanum` class for cleaner, more maintainable code.
+ * - Fixed-Rate Loop: A `LoopScheduler` runs the loop at a steady period and drops telemetry
+ *   first when a cycle runs late.
  *
  * -------------------------------------------------------------------------------------------------
  * INSTRUCTIONS FOR HARDWARE CONFIGURATION
@@ -41,10 +44,10 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
  *     - In `RobotMecanum.java`, ensure the name in `hardwareMap.get(IMU.class, "imu")`
  *       matches your configuration.
  *
- * 3.  **Robot-Centric Drive Method:**
- *     - This code assumes your `RobotMecanum.java` class has a method for robot-centric driving.
- *       Here, it is called `driveRobotCentric()`. If your method is named differently (e.g., `drive()`),
- *       you must change the method call in the `handleDriving()` section below.
+ * 3.  **Driving Logic:**
+ *     - The decisions made from the driver's inputs (drive mode toggle, slow mode, mecanum math)
+ *       live in `DriveController.java`, so they can be replayed against flight recordings on a
+ *       computer. This OpMode only reads the gamepad and IMU and sends the wheel powers.
  *
  * -------------------------------------------------------------------------------------------------
  * CONTROLLER LAYOUT (GAMEPAD 1 - DRIVER)
@@ -67,12 +70,37 @@ public class Smart_Mecanum_TeleOp extends LinearOpMode {
     private RobotMecanum robot;
     private final ElapsedTime matchTimer = new ElapsedTime();
 
-    // --- VARIABLES FOR DUAL-MODE DRIVING ---
-    // State variable to track the current drive mode. Defaults to Field-Centric.
-    private boolean isFieldCentric = true;
+    // --- LOOP TIMING ---
+    // Time budget for each phase of the loop, in microseconds. A phase that takes longer than its
+    // budget is counted as an overrun. Telemetry is the only phase that may be skipped.
+    private static final long UPDATE_BUDGET_US = 4000;
+    private static final long DRIVING_BUDGET_US = 3000;
+    private static final long MECHANISMS_BUDGET_US = 1000;
+    private static final long TELEMETRY_BUDGET_US = 2000;
+    private static final long RECORD_BUDGET_US = 500;
 
-    // State variable to ensure the drive mode toggles only once per button press.
-    private boolean xWasPressed = false;
+    private final LoopScheduler scheduler = new LoopScheduler(Constants.LOOP_PERIOD_MS, NanoClock.SYSTEM);
+
+    // Records every loop time, so we can see percentiles (not just the average) in telemetry and the match log.
+    private final LoopTimer loopTimer = new LoopTimer();
+
+    // Records every loop to a binary file in the settings folder, for analysis after the match.
+    private MatchRecorder matchRecorder;
+
+    // --- TELEMETRY SLOTS ---
+    // The composer only re-formats a line when its value changes in the digits shown, and only
+    // pushes to the Driver Station at Constants.TELEMETRY_UPDATE_RATE_HZ.
+    private static final int HEALTH_LOG_LINES = 10;
+    private TelemetryComposer composer;
+    private int driveModeSlot, headingSlot, poseSlot, imuAgeSlot, imuStaleSlot, speedModeSlot;
+    private int transactionsSlot, writesSkippedSlot, motorTempSlot, governorSlot, energySlot, loopTimeSlot, overrunsSlot, percentilesSlot;
+    private int formattingSavedSlot, flightRecordsSlot;
+    private int[] taskSlots;
+    private final int[] healthLogSlots = new int[HEALTH_LOG_LINES];
+
+    // --- DUAL-MODE DRIVING ---
+    // Holds the drive mode (Field-Centric by default) and turns inputs into wheel powers.
+    private final DriveController driveController = new DriveController();
 
     // State variable that was intended for switching between manual and automatic arm control.
     // It remains here for future implementation.
@@ -92,31 +120,62 @@ public class Smart_Mecanum_TeleOp extends LinearOpMode {
             return;
         }
 
+        // Creating the recording file takes a moment, so do it before the match starts.
+        matchRecorder = new MatchRecorder(robot);
+        boolean isRecorderReady = matchRecorder.open();
+
         // Signal to the drivers that initialization was successful.
         telemetry.addLine("Smart TeleOp Initialized. Ready for battle!");
+        if (!isRecorderReady) {
+            telemetry.addLine("WARNING: Flight recorder could not create its file.");
+        }
+        // Values in robot_config.properties that were rejected, so their defaults are in use.
+        for (String error : Config.getLoadErrors()) {
+            telemetry.addLine("CONFIG: " + error);
+        }
         telemetry.update();
 
-        waitForStart();
-        matchTimer.reset();
+        setupTelemetry();
 
-        // The main OpMode loop.
-        while (opModeIsActive()) {
-            // This critical method call handles background tasks in the RobotMecanum class.
-            robot.update(matchTimer);
+        // Build the loop out of phases. They run in this order, once per cycle.
+        // This critical phase handles background tasks in the RobotMecanum class.
+        scheduler.addPhase("update", UPDATE_BUDGET_US, LoopScheduler.Priority.CRITICAL, () -> robot.update(matchTimer));
+        // Handle all driver-related controls.
+        scheduler.addPhase("driving", DRIVING_BUDGET_US, LoopScheduler.Priority.CRITICAL, this::handleDriving);
+        // Handle all operator-related controls for mechanisms.
+        scheduler.addPhase("mechanisms", MECHANISMS_BUDGET_US, LoopScheduler.Priority.CRITICAL, this::handleMechanisms);
+        // Record this loop's inputs and commands. Never skipped, so the recording has no gaps.
+        scheduler.addPhase("record", RECORD_BUDGET_US, LoopScheduler.Priority.CRITICAL,
+                () -> matchRecorder.record(gamepad1, gamepad2, driveController, scheduler.getLastCycleMs()));
+        // Display relevant information on the Driver Station. Skipped first if the loop is late.
+        scheduler.addPhase("telemetry", TELEMETRY_BUDGET_US, LoopScheduler.Priority.DEFERRABLE, this::displayTelemetry);
 
-            // Handle all driver-related controls.
-            handleDriving();
+        // Write the loop-time percentiles into the match log when it is saved.
+        if (robot.healthMonitor != null) {
+            robot.healthMonitor.addSummarySource(loopTimer::appendSummary);
+        }
 
-            // Handle all operator-related controls for mechanisms.
-            handleMechanisms();
+        waitForStart();
+        matchTimer.reset();
+        loopTimer.start();
 
-            // Display relevant information on the Driver Station.
-            displayTelemetry();
-        }
+        // The main OpMode loop. The scheduler paces it at Constants.LOOP_PERIOD_MS.
+        // Pressing stop usually interrupts the scheduler's sleep, so the clean-up is in a finally
+        // block: it must run whether the loop ends normally or by an InterruptedException.
+        try {
+            while (opModeIsActive()) {
+                scheduler.runCycle();
+                loopTimer.update();
+            }
+        } finally {
+            // Stop the robot's background threads (e.g. the IMU sampler).
+            robot.shutdown();
+            matchRecorder.close();
 
-        // After the match, save the health monitor log.
-        if (robot.healthMonitor != null) {
-            robot.healthMonitor.saveLogToFile();
+            // After the match, save the health monitor log.
+            if (robot.healthMonitor != null) {
+                robot.healthMonitor.saveLogToFile();
+            }
         }
     }
 
@@ -124,40 +183,18 @@ public class Smart_Mecanum_TeleOp extends LinearOpMode {
      * Handles all the drivetrain logic, including the mode-switching functionality.
      */
     private void handleDriving() {
-        // --- DRIVE MODE TOGGLE LOGIC ---
-        // This "debounce" logic ensures that one press of the 'X' button toggles the mode
-        // exactly once, preventing flickering if the button is held down.
-        if (gamepad1.x && !xWasPressed) {
-            isFieldCentric = !isFieldCentric; // Flip the boolean state.
-        }
-        xWasPressed = gamepad1.x; // Update the button's state for the next loop iteration.
-
         // Reset the IMU's yaw angle if the 'back' button is pressed. This is crucial
         // for maintaining an accurate "forward" direction in Field-Centric mode.
         if (gamepad1.back) {
-            robot.imu.resetYaw();
+            robot.resetHeading();
         }
 
-        // Read joystick values. The Y-axis is inverted.
-        double forward = -gamepad1.left_stick_y;
-        double strafe = gamepad1.left_stick_x;
-        double turn = gamepad1.right_stick_x;
-
-        // Implement a "slow mode" for precision driving.
-        double powerMultiplier = 1.0; // Full power by default.
-        if (gamepad1.right_trigger > 0.1) {
-            powerMultiplier = Constants.DRIVE_SLOW_MODE_MULTIPLIER;
-        }
-
-        // --- CONDITIONAL DRIVE METHOD CALL ---
-        // Based on the 'isFieldCentric' variable, call the appropriate drive method from the RobotMecanum class.
-        if (isFieldCentric) {
-            robot.driveFieldCentric(forward * powerMultiplier, strafe * powerMultiplier, turn * powerMultiplier);
-        } else {
-            // Assumes your RobotMecanum class has a method named 'driveRobotCentric'.
-            // If your method has a different name (like 'drive'), change it here.
-            robot.driveRobotCentric(forward * powerMultiplier, strafe * powerMultiplier, turn * powerMultiplier);
-        }
+        // The drive mode toggle (X), slow mode and the mecanum math all happen in the controller.
+        // The heading comes from the background IMU sample, so reading it every loop is free. It
+        // is NaN while the sample is stale, and the controller then drives Robot-Centric.
+        driveController.update(gamepad1.left_stick_x, gamepad1.left_stick_y, gamepad1.right_stick_x,
+                gamepad1.right_trigger, gamepad1.x, robot.getFreshHeadingRadians());
+        robot.driveWheelPowers(driveController.getWheelPowers());
     }
 
     /**
@@ -171,29 +208,104 @@ public class Smart_Mecanum_TeleOp extends LinearOpMode {
         // TODO: Add all controls for Gamepad 2 (the operator controller) here.
     }
 
+    /**
+     * Lays out the Driver Station screen. Every line is a slot in the telemetry composer.
+     */
+    private void setupTelemetry() {
+        composer = new TelemetryComposer(new SdkTelemetry(telemetry), Constants.TELEMETRY_UPDATE_RATE_HZ, NanoClock.SYSTEM);
+
+        driveModeSlot = composer.addText("DRIVE MODE");
+        headingSlot = composer.addNumber("Robot Heading", "%.2f deg", 0.01, 1);
+        poseSlot = composer.addNumber("Field Pose", "x %.1f in, y %.1f in, %.0f deg", 0.1, 3);
+        imuAgeSlot = composer.addNumber("IMU Sample Age", "%.0f ms", 1, 1);
+        imuStaleSlot = composer.addNumber("IMU Sample Age", "%.0f ms (STALE)", 1, 1);
+        speedModeSlot = composer.addText("Speed Mode");
+        transactionsSlot = composer.addNumber("Hub Transactions/Loop", "%.0f", 1, 1);
+        writesSkippedSlot = composer.addNumber("Redundant Writes Skipped", "%.0f", 1, 1);
+        motorTempSlot = composer.addNumber("Hottest Drive Motor", "%.0f C (power %.0f%%)", 1, 2);
+        governorSlot = composer.addNumber("Battery Limit", "power %.0f%%, predicted %.1f V", 0.1, 2);
+        energySlot = composer.addNumber("Energy Used", "%.0f mAh at %.1f A, %.2f Ah left at end", 0.01, 3);
+        loopTimeSlot = composer.addNumber("Loop Time", "%.1f ms (max %.1f, late %.1f)", 0.1, 3);
+        overrunsSlot = composer.addNumber("Loop Overruns", "%.0f of %.0f", 1, 2);
+        percentilesSlot = composer.addText("Loop Percentiles");
+        taskSlots = new int[robot.tasks.getTaskCount()];
+        for (int i = 0; i < taskSlots.length; i++) {
+            taskSlots[i] = composer.addNumber("Task " + robot.tasks.getTaskName(i),
+                    "%.1f Hz, %.2f ms avg, %.2f ms max", 0.01, 3);
+        }
+        formattingSavedSlot = composer.addNumber("Telemetry Formatting Saved", "%.2f ms/s", 0.01, 1);
+        flightRecordsSlot = composer.addNumber("Flight Records", "%.0f of %.0f", 1, 2);
+        composer.addLine("");
+        composer.addLine("--- System Health Log ---");
+        for (int i = 0; i < HEALTH_LOG_LINES; i++) {
+            healthLogSlots[i] = composer.addText(null);
+            composer.setVisible(healthLogSlots[i], false);
+        }
+    }
+
     /**
      * Displays relevant data on the Driver Station's telemetry screen.
+     * Values are only read on loops where the composer is about to push to the Driver Station.
      */
     private void displayTelemetry() {
-        // Display the current drive mode. Crucial feedback for the driver.
-        telemetry.addData("DRIVE MODE", isFieldCentric ? "FIELD-CENTRIC" : "ROBOT-CENTRIC");
+        if (composer.isDue()) {
+            // Display the current drive mode. Crucial feedback for the driver.
+            composer.setText(driveModeSlot, !driveController.isFieldCentric() ? "ROBOT-CENTRIC"
+                    : driveController.isHeadingFallback() ? "FIELD-CENTRIC (NO IMU: ROBOT-CENTRIC)" : "FIELD-CENTRIC");
 
-        // Display the robot's current heading from the IMU.
-        telemetry.addData("Robot Heading", "%.2f deg", robot.imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES));
+            // Display the robot's current heading from the background IMU sample (no extra I2C read).
+            composer.set(headingSlot, robot.getHeading(AngleUnit.DEGREES));
+            // The pose from the robot's localizer, updated every loop from the bulk read.
+            Localizer localizer = robot.getLocalizer();
+            composer.set(poseSlot, localizer.getX(), localizer.getY(), Math.toDegrees(localizer.getHeading()));
+            double imuAgeMs = robot.getHeadingAgeMs();
+            boolean isImuStale = robot.isHeadingStale();
+            composer.set(imuAgeSlot, imuAgeMs);
+            composer.set(imuStaleSlot, imuAgeMs);
+            composer.setVisible(imuAgeSlot, !isImuStale);
+            composer.setVisible(imuStaleSlot, isImuStale);
 
-        // Show the current speed mode (Normal or Slow).
-        telemetry.addData("Speed Mode", gamepad1.right_trigger > 0.1 ? "SLOW" : "NORMAL");
-        telemetry.addLine();
+            // Show the current speed mode (Normal or Slow).
+            composer.setText(speedModeSlot, gamepad1.right_trigger > 0.1 ? "SLOW" : "NORMAL");
 
-        // Display the live log from the health monitor.
-        telemetry.addLine("--- System Health Log ---");
-        if (robot.healthMonitor != null) {
-            for (String logEntry : robot.healthMonitor.getEventLog()) {
-                telemetry.addLine(logEntry);
+            // Show how many hub transactions the last loop cost (lower is faster).
+            composer.set(transactionsSlot, robot.bulkReads.getLastLoopTransactions());
+            composer.set(writesSkippedSlot, robot.getSuppressedWrites());
+            composer.set(motorTempSlot, robot.getMaxWheelTemperatureC(), 100 * robot.getDrivePowerScale());
+            composer.set(governorSlot, 100 * robot.powerGovernor.getDriveScale(), robot.powerGovernor.getPredictedVolts());
+            EnergyAccountant energy = robot.healthMonitor.getEnergy();
+            composer.set(energySlot, 1000 * energy.getTotalAmpHours(), energy.getBurnRateAmps(),
+                    robot.healthMonitor.getProjectedEndAmpHours());
+
+            // Loop timing from the scheduler.
+            composer.set(loopTimeSlot, scheduler.getLastCycleMs(), scheduler.getMaxCycleMs(), scheduler.getLastStartLatenessMs());
+            composer.set(overrunsSlot, scheduler.getCycleOverruns(), scheduler.getCycleCount());
+            composer.setText(percentilesSlot, loopTimer.getTelemetryLine());
+
+            // Background task rates and costs.
+            for (int i = 0; i < taskSlots.length; i++) {
+                composer.set(taskSlots[i], robot.tasks.getMeasuredHz(i), robot.tasks.getAverageCostMs(i), robot.tasks.getMaxCostMs(i));
+            }
+            composer.set(formattingSavedSlot, composer.getFormatTimeSavedMsPerSecond());
+            composer.set(flightRecordsSlot, matchRecorder.getRecorder().getRecordCount(),
+                    matchRecorder.getRecorder().getMaxRecords());
+
+            // Display the live log from the health monitor.
+            int shown = 0;
+            if (robot.healthMonitor != null) {
+                for (String logEntry : robot.healthMonitor.getEventLog()) {
+                    if (shown == HEALTH_LOG_LINES) break;
+                    composer.setText(healthLogSlots[shown], logEntry);
+                    composer.setVisible(healthLogSlots[shown], true);
+                    shown++;
+                }
+            }
+            for (int i = shown; i < HEALTH_LOG_LINES; i++) {
+                composer.setVisible(healthLogSlots[i], false);
             }
         }
 
-        // Pushes all the data to the Driver Station screen.
-        telemetry.update();
+        // Pushes all the data to the Driver Station screen, at the composer's rate.
+        composer.update();
     }
 }
\ No newline at end of file
@@ -1,8 +1,6 @@
 // Filename: StallDetector.java
 package org.firstinspires.ftc.teamcode;
 
-import com.qualcomm.robotcore.util.ElapsedTime;
-
 /**
  * =================================================================================================
  * MOTOR STALL DETECTOR UTILITY
@@ -24,6 +22,9 @@ import com.qualcomm.robotcore.util.ElapsedTime;
  * when the motor is truly stuck, providing a reliable way for an OpMode to react by cutting
  * power to the motor and preventing damage.
  *
+ * All timing goes through a {@link NanoClock}, so the detector has no hardware dependencies and
+ * can be tested and benchmarked on a desktop JVM.
+ *
  * @author Team 13353
  */
 public class StallDetector {
@@ -37,9 +38,12 @@ public class StallDetector {
      * 'stallThresholdAmps' continuously for this duration to be confirmed as stalled. */
     private final long stallTimeThresholdMs;
 
+    /** The clock used to measure how long the current has been high. */
+    private final NanoClock clock;
+
     // --- STATE VARIABLES ---
-    /** A timer (stopwatch) that measures how long the current has been continuously high. */
-    private final ElapsedTime timer = new ElapsedTime();
+    /** The clock time, in nanoseconds, at which the current most recently went above the threshold. */
+    private long overThresholdSinceNanos = 0;
 
     /** The final output state. True if the motor is considered stalled, otherwise false. */
     private boolean isStalled = false;
@@ -55,9 +59,20 @@ public class StallDetector {
      *               threshold to confirm a stall.
      */
     public StallDetector(double thresholdAmps, long timeMs) {
+        this(thresholdAmps, timeMs, NanoClock.SYSTEM);
+    }
+
+    /**
+     * Constructor for the StallDetector with a specific clock.
+     * @param thresholdAmps The current draw in Amperes that signifies a potential stall.
+     * @param timeMs The continuous duration in milliseconds the current must exceed the
+     *               threshold to confirm a stall.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public StallDetector(double thresholdAmps, long timeMs, NanoClock clock) {
         this.stallThresholdAmps = thresholdAmps;
         this.stallTimeThresholdMs = timeMs;
-        timer.reset();
+        this.clock = clock;
     }
 
     /**
@@ -74,13 +89,13 @@ public class StallDetector {
             if (!wasOverThresholdLastCheck) {
                 // This is the very first moment the current spiked above the threshold.
                 // We need to start the timer to see how long it lasts.
-                timer.reset();
+                overThresholdSinceNanos = clock.nanoTime();
                 // Set the memory flag to true so that on the next loop, we know the stall is continuing.
                 wasOverThresholdLastCheck = true;
             } else {
                 // The current was already high on the previous check, so the stall is continuing.
                 // Now we check the timer to see if it has been stalled long enough.
-                if (timer.milliseconds() > stallTimeThresholdMs) {
+                if (clock.nanoTime() - overThresholdSinceNanos > stallTimeThresholdMs * 1_000_000L) {
                     // The timer has exceeded our time threshold. This is a confirmed stall.
                     isStalled = true;
                 }
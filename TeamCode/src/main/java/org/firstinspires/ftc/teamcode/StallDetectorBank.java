@@ -0,0 +1,175 @@
+// Filename: StallDetectorBank.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * MULTI-MOTOR STALL DETECTOR BANK
+ * =================================================================================================
+ *
+ * This helper class watches the current of several motors at once (up to 64) and reports which
+ * of them are STALLED: pushing against something and drawing high current without moving, which
+ * overheats the motor and browns out the battery.
+ *
+ * It works like {@link StallDetector}, with two improvements:
+ * 1.  HYSTERESIS. A motor becomes stalled when its current stays ABOVE its stall threshold for
+ *     its stall time, and only stops being stalled when the current stays BELOW a lower clear
+ *     threshold for its clear time. A current hovering around one threshold cannot make the
+ *     state flicker on and off.
+ * 2.  ONE OBJECT FOR ALL MOTORS. Each motor is a CHANNEL, and every channel's settings and state
+ *     live in plain arrays. One update() reads the clock once and checks every channel, without
+ *     allocating anything. The result is a BITMASK: bit i is set while channel i is stalled.
+ *
+ * Current readings are slow hub transactions, so a caller may not read every motor on every
+ * update. Pass Double.NaN for a channel that was not read: its state is simply left as it was.
+ *
+ * USAGE:
+ * ```java
+ * StallDetectorBank stalls = new StallDetectorBank(5, NanoClock.SYSTEM);
+ * int arm = stalls.addChannel("arm", 9.0, 8.0, 500, 250);
+ * // every loop:
+ * currents[arm] = armMotor.getCurrent(CurrentUnit.AMPS);
+ * long stalled = stalls.update(currents);
+ * if (stalls.isStalled(arm)) { ... }
+ * ```
+ *
+ * @author Team 13353
+ */
+public class StallDetectorBank {
+
+    /** The most channels a bank can have: one bit each in a long. */
+    public static final int MAX_CHANNELS = 64;
+
+    private final NanoClock clock;
+
+    // --- CONFIGURATION (per channel) ---
+    private final String[] names;
+    private final double[] stallAmps;
+    private final double[] clearAmps;
+    private final long[] stallNanos;
+    private final long[] clearNanos;
+    private int channelCount = 0;
+
+    // --- STATE VARIABLES ---
+    private final long[] crossedSinceNanos; // When the current last crossed the threshold that matters
+    private long crossedMask = 0;           // Bit set while the current is past that threshold
+    private long stalledMask = 0;
+    private long newlyStalledMask = 0;
+
+    // --- STATISTICS ---
+    private final int[] stallCounts;
+
+    /**
+     * Constructor for the StallDetectorBank.
+     * @param capacity The most channels that will be added (at most MAX_CHANNELS).
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public StallDetectorBank(int capacity, NanoClock clock) {
+        if (capacity < 0 || capacity > MAX_CHANNELS) {
+            throw new IllegalArgumentException("capacity must be 0 to " + MAX_CHANNELS);
+        }
+        this.clock = clock;
+        names = new String[capacity];
+        stallAmps = new double[capacity];
+        clearAmps = new double[capacity];
+        stallNanos = new long[capacity];
+        clearNanos = new long[capacity];
+        crossedSinceNanos = new long[capacity];
+        stallCounts = new int[capacity];
+    }
+
+    /**
+     * Adds a motor to watch.
+     * @param name A short name, for telemetry (e.g. "arm").
+     * @param stallThresholdAmps The current above which the motor may be stalled.
+     * @param clearThresholdAmps The current below which a stalled motor may have recovered. Must
+     *                           not be above the stall threshold.
+     * @param stallTimeMs How long the current must stay above the stall threshold.
+     * @param clearTimeMs How long the current must stay below the clear threshold.
+     * @return The channel's index: its slot in the currents array and its bit in the mask.
+     */
+    public int addChannel(String name, double stallThresholdAmps, double clearThresholdAmps,
+                          long stallTimeMs, long clearTimeMs) {
+        if (channelCount == names.length) {
+            throw new IllegalStateException("The bank is full (" + names.length + " channels)");
+        }
+        int channel = channelCount++;
+        names[channel] = name;
+        setThresholds(channel, stallThresholdAmps, clearThresholdAmps);
+        stallNanos[channel] = stallTimeMs * 1_000_000L;
+        clearNanos[channel] = clearTimeMs * 1_000_000L;
+        return channel;
+    }
+
+    /**
+     * Changes a channel's thresholds (e.g. after the config file was edited). Its state is kept.
+     * @param channel The channel.
+     * @param stallThresholdAmps The current above which the motor may be stalled.
+     * @param clearThresholdAmps The current below which a stalled motor may have recovered.
+     */
+    public void setThresholds(int channel, double stallThresholdAmps, double clearThresholdAmps) {
+        if (clearThresholdAmps > stallThresholdAmps) {
+            throw new IllegalArgumentException("The clear threshold must not be above the stall threshold");
+        }
+        stallAmps[channel] = stallThresholdAmps;
+        clearAmps[channel] = clearThresholdAmps;
+    }
+
+    /**
+     * Updates every channel. Call it once per loop (or per stall-detection task run).
+     * @param currentsAmps Each channel's current, indexed by channel. NaN means "not read this time".
+     * @return The stalled bitmask: bit i is set while channel i is stalled.
+     */
+    public long update(double[] currentsAmps) {
+        long now = clock.nanoTime();
+        long newlyStalled = 0;
+        for (int i = 0; i < channelCount; i++) {
+            double amps = currentsAmps[i];
+            if (amps != amps) continue; // NaN: not read this time
+            long bit = 1L << i;
+            boolean isStalled = (stalledMask & bit) != 0;
+            // Not stalled: watch for the current going above the stall threshold.
+            // Stalled: watch for it going below the clear threshold.
+            boolean isCrossed = isStalled ? amps < clearAmps[i] : amps > stallAmps[i];
+            if (!isCrossed) {
+                crossedMask &= ~bit;
+            } else if ((crossedMask & bit) == 0) {
+                crossedMask |= bit;
+                crossedSinceNanos[i] = now;
+            } else if (now - crossedSinceNanos[i] >= (isStalled ? clearNanos[i] : stallNanos[i])) {
+                // The crossing lasted long enough: flip the channel's state.
+                stalledMask ^= bit;
+                crossedMask &= ~bit;
+                if (!isStalled) {
+                    newlyStalled |= bit;
+                    stallCounts[i]++;
+                }
+            }
+        }
+        newlyStalledMask = newlyStalled;
+        return stalledMask;
+    }
+
+    /**
+     * Clears every channel's state, e.g. after the motors were stopped.
+     */
+    public void reset() {
+        stalledMask = 0;
+        crossedMask = 0;
+        newlyStalledMask = 0;
+    }
+
+    /** @return True while the channel is stalled. */
+    public boolean isStalled(int channel) { return (stalledMask & (1L << channel)) != 0; }
+    /** @return The stalled bitmask: bit i is set while channel i is stalled. */
+    public long getStalledMask() { return stalledMask; }
+    /** @return The channels that became stalled during the last update(), as a bitmask. */
+    public long getNewlyStalledMask() { return newlyStalledMask; }
+
+    // --- STATISTICS ---
+    /** @return How many channels have been added. */
+    public int getChannelCount() { return channelCount; }
+    /** @return A channel's name. */
+    public String getName(int channel) { return names[channel]; }
+    /** @return How many times a channel has become stalled. */
+    public int getStallCount(int channel) { return stallCounts[channel]; }
+}
@@ -1,6 +1,7 @@
 // Filename: Standalone_OdometryPod_Tester.java
 package org.firstinspires.ftc.teamcode;
 
+import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 import com.qualcomm.robotcore.hardware.DcMotor;
@@ -47,9 +48,17 @@ import com.qualcomm.robotcore.hardware.DcMotor;
  *     - **Observe the Telemetry:** The `Perpendicular Encoder` value should change significantly.
  *       (The direction, positive or negative, will depend on its mounting).
  *
+ * 5.  **CHECK THE POSE:**
+ *     - The tool also runs a `ThreeWheelLocalizer` on the pods and shows the robot's pose. Press (Y),
+ *       push the robot around the field and back to where it started: X, Y and Heading should all
+ *       come back close to zero.
+ *     - If the heading drifts when the robot only spins in place, tune ODOMETRY_TRACK_WIDTH_IN in
+ *       robot_config.properties. If X or Y drift when it only spins, tune ODOMETRY_FORWARD_OFFSET_IN.
+ *       Restart the OpMode to pick up new values.
+ *
  * By following these steps, you can be confident that your odometry hardware is ready for use.
  *
- * @version 2.0 - Added critical directionality checks, non-blocking debounce, and full documentation.
+ * @version 3.0 - Added the live pose from ThreeWheelLocalizer, read from one bulk read per loop.
  */
 @TeleOp(name = "Standalone: Odometry Pod Tester", group = "Standalone Tools")
 public class Standalone_OdometryPod_Tester extends LinearOpMode {
@@ -63,6 +72,10 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
 
     private DcMotor leftEncoder, rightEncoder, perpendicularEncoder;
 
+    // Reads all three pods in one bulk read per loop, and the localizer that turns them into a pose.
+    private final BulkReadManager bulkReads = new BulkReadManager();
+    private ThreeWheelLocalizer odometry;
+
     // A variable to handle non-blocking debounce for the reset button.
     private boolean yWasPressed = false;
 
@@ -81,6 +94,16 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
             // This is CRITICAL. It resets the encoders and prepares them for reading.
             resetEncoders();
 
+            // The pod geometry can be tuned in robot_config.properties without recompiling.
+            Config.load();
+            ConfigSnapshot config = Config.snapshot();
+            odometry = new ThreeWheelLocalizer(leftEncoder::getCurrentPosition,
+                    rightEncoder::getCurrentPosition, perpendicularEncoder::getCurrentPosition,
+                    Constants.ODOMETRY_INCHES_PER_TICK,
+                    config.get(ConfigKey.ODOMETRY_TRACK_WIDTH_IN),
+                    config.get(ConfigKey.ODOMETRY_FORWARD_OFFSET_IN));
+            bulkReads.init(LynxHub.wrap(hardwareMap.getAll(LynxModule.class)));
+
         } catch (Exception e) {
             // If an encoder is not found, report a clear error and stop.
             telemetry.addLine("\n!!! AN ODOMETRY ENCODER WAS NOT FOUND !!!");
@@ -103,14 +126,21 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
             // This ensures one press of the 'Y' button resets the encoders exactly once.
             if (gamepad1.y && !yWasPressed) {
                 resetEncoders();
+                odometry.reset();
             }
             yWasPressed = gamepad1.y; // Update the button's state for the next loop.
 
+            // --- ODOMETRY ---
+            // Clear the bulk cache AFTER any reset, so the localizer never sees the old positions.
+            // Every encoder read below comes from this one bulk read.
+            bulkReads.update();
+            odometry.update();
+
             // --- TELEMETRY ---
             telemetry.clearAll();
             telemetry.addLine("--- Standalone Odometry Pod Tester ---");
             telemetry.addLine("Manually push the robot and observe the values.");
-            telemetry.addLine("Press (Y) on Gamepad 1 to RESET all encoders.");
+            telemetry.addLine("Press (Y) on Gamepad 1 to RESET all encoders and the pose.");
             telemetry.addLine();
 
             // Display the live raw tick counts from each encoder.
@@ -119,6 +149,15 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
             telemetry.addData("Perpendicular Encoder (Strafe)", perpendicularEncoder.getCurrentPosition());
             telemetry.addLine();
 
+            // Display the pose integrated from the three pods.
+            telemetry.addLine("--- POSE (ThreeWheelLocalizer) ---");
+            telemetry.addData("X (Forward)", "%.2f in", odometry.getX());
+            telemetry.addData("Y (Left)", "%.2f in", odometry.getY());
+            telemetry.addData("Heading", "%.2f degrees", Math.toDegrees(odometry.getHeading()));
+            telemetry.addData("Track Width / Forward Offset", "%.2f in / %.2f in",
+                    odometry.getTrackWidthInches(), odometry.getForwardOffsetInches());
+            telemetry.addLine();
+
             // Display the critical instructions for the directionality check.
             telemetry.addLine("--- DIRECTIONALITY CHECK ---");
             telemetry.addLine("ACTION: Push robot FORWARD one tile.");
@@ -7,7 +7,6 @@ import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -17,19 +16,134 @@ import java.util.Locale;
 
 import java.io.File;
 
-
+/**
+ * =================================================================================================
+ * SYSTEM HEALTH MONITOR
+ * =================================================================================================
+ *
+ * Watches the hubs' input voltage and current draw, and records what happened during the match.
+ *
+ * Everything is stored in preallocated RING BUFFERS of plain numbers, sized for a whole match:
+ * - SAMPLES: the time, battery voltage and each hub's current, once per update().
+ * - EVENTS: the time, an {@link Event} code and an optional value (e.g. the voltage at a brownout).
+ * Recording a sample or an event only writes a few array slots; nothing is allocated. When a ring
+ * is full, the oldest entries are overwritten.
+ *
+ * Human-readable text is only made when something asks for it: {@link #getEventLog()} formats the
+ * newest events for telemetry (and re-uses that list until a new event arrives), and
+ * {@link #saveLogToFile()} formats everything once, after the match.
+ *
+ * Every sample also feeds a {@link BatteryEstimator}, which fits the battery's open-circuit
+ * voltage and internal resistance as the match goes. Its results go in the match log and, for a
+ * numbered pack (see setBatteryId()), are added to the pack's {@link BatteryHistory}. Each hub's
+ * current also goes to an {@link EnergyAccountant}, to which the robot adds its motors, so the
+ * match log shows how much of the battery each subsystem used.
+ *
+ * Files are written through an {@link AsyncLogWriter}, so the OpMode thread only formats the
+ * lines and never waits for the flash storage. During the match, {@link #writeLiveLog()} streams
+ * new samples and events to a live log as well, so the data survives even if the match log is
+ * never saved (e.g. the robot loses power).
+ *
+ * @author Team 13353
+ */
 public class SystemHealthMonitor {
 
-    private List<LynxModule> allHubs;
-    private List<String> eventLog = new ArrayList<>();
+    /** Something that can add its own summary lines to the match log (e.g. the loop timer). */
+    public interface SummarySource {
+        void appendSummary(List<String> lines);
+    }
+
+    /** The kinds of event the monitor records. The unit is null for events without a value. */
+    public enum Event {
+        MONITOR_INITIALIZED("Monitor Initialized. Battery at ", "V"),
+        HUBS_DISCONNECTED("Hubs DISCONNECTED!", null),
+        HUB_NOT_RESPONDING("A Hub is NOT RESPONDING!", null),
+        HUB_RECOVERED("All Hubs Responding Again", null),
+        VOLTAGE_BROWNOUT("Voltage Brownout: ", "V"),
+        VOLTAGE_RECOVERED("Voltage Recovered: ", "V"),
+        LOG_SAVED("Log SAVED to ", null),
+        LOG_SAVE_FAILED("FAILED to save log!", null);
+
+        final String label;
+        final String unit;
+
+        Event(String label, String unit) {
+            this.label = label;
+            this.unit = unit;
+        }
+    }
+
+    // --- CONFIGURATION ---
+    /** How many of the newest events getEventLog() returns. */
     private final int MAX_LOG_SIZE = 10;
+    private final int sampleCapacity;
+    private final int eventCapacity;
+
+    private List<LynxModule> allHubs;
+    private int hubCount = 0;
+    private final List<SummarySource> summarySources = new ArrayList<>();
+    private int batteryId = Constants.BATTERY_ID;
+
+    // --- SAMPLE RING ---
+    private final double[] sampleTime;
+    private final double[] sampleVoltage;
+    private double[] sampleHubCurrent = new double[0]; // [sample * hubCount + hub], sized in init()
+    private long sampleCount = 0;
+
+    // --- EVENT RING ---
+    private final double[] eventTime;
+    private final Event[] eventCode;
+    private final double[] eventValue;
+    private final String[] eventDetail; // Optional text that already exists (e.g. a file name)
+    private long eventCount = 0;
 
+    // --- STATE VARIABLES ---
     private double minVoltage = 14.0;
     private double maxCurrentAmps = 0.0;
     private boolean isHubOk = true;
-
+    private boolean isHubNotResponding = false;
     private boolean isVoltageLow = false;
     private boolean isFirstUpdate = true;
+    private double lastTimeSeconds = 0;
+    private final BatteryEstimator battery = new BatteryEstimator(Constants.BATTERY_ESTIMATOR_FORGETTING,
+            Constants.BATTERY_NEW_RESISTANCE_OHMS, Constants.BATTERY_RETIRE_RESISTANCE_OHMS,
+            Constants.BATTERY_CAPACITY_AH);
+    private EnergyAccountant energy; // Created by init(), once the number of hubs is known
+
+    // --- LAZY TEXT ---
+    private final StringBuilder logLine = new StringBuilder(64);
+    private final List<String> eventLog = new ArrayList<>();
+    private long eventLogRenderedCount = -1;
+
+    // --- LIVE LOG ---
+    private AsyncLogWriter liveLog;
+    private boolean isLiveLogFailed = false;
+    private long liveSamplesWritten = 0; // How many samples (in total) are already in the live log
+    private long liveEventsWritten = 0;
+
+    /**
+     * Creates a monitor that keeps a whole match of samples at the health monitor's rate.
+     */
+    public SystemHealthMonitor() {
+        this((int) Math.ceil(Constants.HEALTH_MONITOR_RATE_HZ * Constants.HEALTH_HISTORY_SECONDS),
+                Constants.HEALTH_EVENT_CAPACITY);
+    }
+
+    /**
+     * Creates a monitor with the given ring sizes.
+     * @param sampleCapacity How many samples to keep before overwriting the oldest.
+     * @param eventCapacity How many events to keep before overwriting the oldest.
+     */
+    public SystemHealthMonitor(int sampleCapacity, int eventCapacity) {
+        this.sampleCapacity = sampleCapacity;
+        this.eventCapacity = eventCapacity;
+        sampleTime = new double[sampleCapacity];
+        sampleVoltage = new double[sampleCapacity];
+        eventTime = new double[eventCapacity];
+        eventCode = new Event[eventCapacity];
+        eventValue = new double[eventCapacity];
+        eventDetail = new String[eventCapacity];
+    }
 
     /**
      * Initializes the monitor with the robot's hubs.
@@ -37,6 +151,31 @@ public class SystemHealthMonitor {
      */
     public void init(List<LynxModule> hubs) {
         this.allHubs = hubs;
+        this.hubCount = hubs == null ? 0 : hubs.size();
+        this.sampleHubCurrent = new double[sampleCapacity * hubCount];
+        this.sampleCount = 0;
+        // Hub h is energy channel h; the robot adds its motors after init().
+        this.energy = new EnergyAccountant(hubCount + Constants.ENERGY_MAX_MOTOR_CHANNELS,
+                Constants.ENERGY_BURN_RATE_TAU_S, NanoClock.SYSTEM);
+        for (int h = 0; h < hubCount; h++) {
+            energy.addChannel("hub" + h, EnergyAccountant.Group.HUB);
+        }
+    }
+
+    /**
+     * Sets the number of the battery pack in the robot, so its results are added to its history.
+     * @param batteryId The number written on the pack, or 0 if it is not numbered.
+     */
+    public void setBatteryId(int batteryId) {
+        this.batteryId = batteryId;
+    }
+
+    /**
+     * Registers an extra source of summary lines, written to the match log by saveLogToFile().
+     * @param source The source to add.
+     */
+    public void addSummarySource(SummarySource source) {
+        summarySources.add(source);
     }
 
     /**
@@ -44,77 +183,328 @@ public class SystemHealthMonitor {
      * @param matchTimer The main timer from the OpMode to use for timestamps.
      */
     public void update(ElapsedTime matchTimer) {
+        double now = matchTimer.seconds();
+        lastTimeSeconds = now;
         if (allHubs == null || allHubs.isEmpty()) {
-            if (isHubOk) logEvent("Hubs DISCONNECTED!", matchTimer);
+            if (isHubOk) logEvent(Event.HUBS_DISCONNECTED, now, 0, null);
             isHubOk = false;
             return;
         }
 
+        int slot = (int) (sampleCount % sampleCapacity);
         double totalCurrent = 0;
         double inputVoltage = 0;
-        isHubOk = true;
+        boolean hasVoltage = false;
+        boolean notResponding = false;
 
-        for (LynxModule hub : allHubs) {
-            if (hub.isNotResponding()) {
-                isHubOk = false;
+        // Each hub's current is its own, but every hub sees the same battery: read the voltage
+        // once, from the first hub that is responding.
+        for (int h = 0; h < hubCount; h++) {
+            LynxModule hub = allHubs.get(h);
+            boolean isResponding = !hub.isNotResponding();
+            if (!isResponding) {
+                notResponding = true;
             }
-            totalCurrent += hub.getCurrent(CurrentUnit.AMPS);
-            inputVoltage = hub.getInputVoltage(VoltageUnit.VOLTS);
+            double current = hub.getCurrent(CurrentUnit.AMPS);
+            sampleHubCurrent[slot * hubCount + h] = current;
+            totalCurrent += current;
+            if (isResponding && !hasVoltage) {
+                inputVoltage = hub.getInputVoltage(VoltageUnit.VOLTS);
+                hasVoltage = true;
+            }
+        }
+        if (!hasVoltage) {
+            inputVoltage = allHubs.get(0).getInputVoltage(VoltageUnit.VOLTS);
+        }
+        sampleTime[slot] = now;
+        sampleVoltage[slot] = inputVoltage;
+        sampleCount++;
+
+        energy.setBusVoltage(inputVoltage);
+        for (int h = 0; h < hubCount; h++) {
+            energy.record(h, sampleHubCurrent[slot * hubCount + h]);
         }
+        energy.updateBurnRate();
 
         if (isFirstUpdate) {
-            logEvent("Monitor Initialized. Battery at " + String.format("%.2f", inputVoltage) + "V");
+            logEvent(Event.MONITOR_INITIALIZED, now, inputVoltage, null);
             isFirstUpdate = false;
         }
 
-        if (!isHubOk) logEvent("A Hub is NOT RESPONDING!", matchTimer);
+        // Only the change is an event; a hub that stays down would otherwise flood the log.
+        if (notResponding && !isHubNotResponding) {
+            logEvent(Event.HUB_NOT_RESPONDING, now, 0, null);
+        } else if (!notResponding && isHubNotResponding) {
+            logEvent(Event.HUB_RECOVERED, now, 0, null);
+        }
+        isHubNotResponding = notResponding;
+        isHubOk = !notResponding;
+
+        // A hub that is not responding reports stale numbers; keep them out of the battery fit.
+        if (!notResponding) {
+            battery.addSample(inputVoltage, totalCurrent);
+        }
 
         if (totalCurrent > maxCurrentAmps) maxCurrentAmps = totalCurrent;
         if (inputVoltage < minVoltage) minVoltage = inputVoltage;
 
         if (inputVoltage < Constants.VOLTAGE_WARNING_THRESHOLD && !isVoltageLow) {
-            logEvent(String.format("Voltage Brownout: %.2fV", inputVoltage), matchTimer);
+            logEvent(Event.VOLTAGE_BROWNOUT, now, inputVoltage, null);
             isVoltageLow = true;
         } else if (inputVoltage >= Constants.VOLTAGE_WARNING_THRESHOLD && isVoltageLow) {
-            logEvent(String.format("Voltage Recovered: %.2fV", inputVoltage), matchTimer);
+            logEvent(Event.VOLTAGE_RECOVERED, now, inputVoltage, null);
             isVoltageLow = false;
         }
     }
 
-    private void logEvent(String message, ElapsedTime timer) {
-        String logEntry = String.format(Locale.US, "[ %.1fs ] %s", timer.seconds(), message);
-        eventLog.add(0, logEntry);
-        if (eventLog.size() > MAX_LOG_SIZE) {
-            eventLog.remove(eventLog.size() - 1);
+    private void logEvent(Event event, double timeSeconds, double value, String detail) {
+        int slot = (int) (eventCount % eventCapacity);
+        eventTime[slot] = timeSeconds;
+        eventCode[slot] = event;
+        eventValue[slot] = value;
+        eventDetail[slot] = detail;
+        eventCount++;
+    }
+
+    /** Formats event number {@code index} (0 = the oldest one kept) into logLine. */
+    private StringBuilder formatEvent(long index) {
+        int slot = (int) (index % eventCapacity);
+        Event event = eventCode[slot];
+        logLine.setLength(0);
+        logLine.append("[ ");
+        FastFormat.appendFixed(logLine, eventTime[slot], 1);
+        logLine.append("s ] ").append(event.label);
+        if (event.unit != null) {
+            FastFormat.appendFixed(logLine, eventValue[slot], 2);
+            logLine.append(event.unit);
+        }
+        if (eventDetail[slot] != null) {
+            logLine.append(eventDetail[slot]);
+        }
+        return logLine;
+    }
+
+    /** Formats sample number {@code index} (counting every sample ever recorded) as a CSV line. */
+    private StringBuilder formatSample(long index) {
+        int slot = (int) (index % sampleCapacity);
+        logLine.setLength(0);
+        FastFormat.appendFixed(logLine, sampleTime[slot], 2).append(',');
+        FastFormat.appendFixed(logLine, sampleVoltage[slot], 3);
+        for (int h = 0; h < hubCount; h++) {
+            logLine.append(',');
+            FastFormat.appendFixed(logLine, sampleHubCurrent[slot * hubCount + h], 3);
+        }
+        return logLine;
+    }
+
+    private String sampleHeader() {
+        StringBuilder header = new StringBuilder("time_s,voltage_v");
+        for (int h = 0; h < hubCount; h++) {
+            header.append(",hub").append(h).append("_current_a");
         }
+        return header.toString();
     }
 
-    private void logEvent(String message) {
-        logEvent(message, new ElapsedTime(0));
+    private long oldestEventIndex() {
+        return Math.max(0, eventCount - eventCapacity);
     }
 
+    /**
+     * Writes the match log: the summary, every event kept, and the sample history. The lines are
+     * queued for a background thread, so this returns without waiting for the file.
+     */
     public void saveLogToFile() {
         try {
-            String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss", Locale.US).format(new Date());
-            String filename = "MatchLog_" + timestamp + ".txt";
+            String filename = "MatchLog_" + fileTimestamp() + ".txt";
             File file = AppUtil.getInstance().getSettingsFile(filename);
-            FileWriter writer = new FileWriter(file, false);
 
-            writer.write("--- Match Log ---\n");
-            writer.write("Summary - Min Voltage: " + String.format("%.2fV", minVoltage) + "\n");
-            writer.write("Summary - Max Current: " + String.format("%.2fA", maxCurrentAmps) + "\n\n");
+            List<String> extraLines = new ArrayList<>();
+            if (energy != null) {
+                energy.appendSummary(extraLines);
+                extraLines.add("Projected Charge Left at End: " + FastFormat.toFixed(getProjectedEndAmpHours(), 2) + " Ah");
+            }
+            for (SummarySource source : summarySources) {
+                source.appendSummary(extraLines);
+            }
+            // Big enough for every line, so nothing from the match is ever dropped.
+            int lineCount = 9 + extraLines.size() + getEventCount() + getSampleCount();
+            AsyncLogWriter writer = new AsyncLogWriter(file, false, lineCount, AsyncLogWriter.DEFAULT_MAX_LINE_BYTES);
+
+            writer.write("--- Match Log ---");
+            writer.write("Summary - Min Voltage: " + FastFormat.toFixed(minVoltage, 2) + "V");
+            writer.write("Summary - Max Current: " + FastFormat.toFixed(maxCurrentAmps, 2) + "A");
+            writer.write("Summary - Battery #" + batteryId + ": " + formatBattery());
+            for (String line : extraLines) {
+                writer.write("Summary - " + line);
+            }
+            writer.write("");
+
+            for (long i = oldestEventIndex(); i < eventCount; i++) {
+                writer.write(formatEvent(i));
+            }
+
+            writer.write("");
+            writer.write("--- Samples ---");
+            writer.write(sampleHeader());
+            for (long i = Math.max(0, sampleCount - sampleCapacity); i < sampleCount; i++) {
+                writer.write(formatSample(i));
+            }
+            // Flushes and closes the file on the writer thread once every line is written.
+            writer.closeAsync();
+            logEvent(Event.LOG_SAVED, lastTimeSeconds, 0, filename);
+        } catch (IOException e) {
+            logEvent(Event.LOG_SAVE_FAILED, lastTimeSeconds, 0, null);
+        }
+        saveBatteryHistory();
+    }
+
+    /** @return The battery estimate as one line of text, e.g. for the match log. */
+    private String formatBattery() {
+        if (!battery.hasEstimate()) {
+            return "not enough load to estimate (" + battery.getSampleCount() + " samples)";
+        }
+        return "open circuit " + FastFormat.toFixed(battery.getOpenCircuitVolts(), 2) + "V, resistance "
+                + FastFormat.toFixed(battery.getResistanceOhms() * 1000, 0) + " mOhm, health "
+                + FastFormat.toFixed(battery.getHealth() * 100, 0) + "%, charge "
+                + FastFormat.toFixed(battery.getStateOfCharge() * 100, 0) + "%";
+    }
 
-            for (int i = eventLog.size() - 1; i >= 0; i--) {
-                writer.write(eventLog.get(i) + "\n");
+    /**
+     * Adds this OpMode's battery estimate to the battery history file. Nothing is added for a pack
+     * that is not numbered, or if the current never varied enough for an estimate.
+     * Called by saveLogToFile().
+     */
+    public void saveBatteryHistory() {
+        if (batteryId == 0 || !battery.hasEstimate()) return;
+        try {
+            File file = AppUtil.getInstance().getSettingsFile(Constants.BATTERY_HISTORY_FILENAME);
+            boolean isNewFile = !file.exists();
+            AsyncLogWriter writer = new AsyncLogWriter(file, true);
+            if (isNewFile) {
+                writer.write(BatteryHistory.HEADER);
             }
-            writer.close();
-            logEvent("Log SAVED to " + filename);
+            writer.write(BatteryHistory.format(new BatteryHistory.Record(fileTimestamp(), batteryId,
+                    battery.getOpenCircuitVolts(), battery.getResistanceOhms(), battery.getHealth(),
+                    battery.getStateOfCharge(), minVoltage, battery.getSampleCount())));
+            writer.closeAsync();
+            logEvent(Event.LOG_SAVED, lastTimeSeconds, 0, Constants.BATTERY_HISTORY_FILENAME);
         } catch (IOException e) {
-            logEvent("FAILED to save log!");
+            logEvent(Event.LOG_SAVE_FAILED, lastTimeSeconds, 0, null);
         }
     }
 
+    /**
+     * Background task: queues every sample and event recorded since the last call to the live log
+     * file. Run it at Constants.FILE_LOGGING_RATE_HZ. The file is opened on the first call.
+     */
+    public void writeLiveLog() {
+        if (isLiveLogFailed) return;
+        if (liveLog == null) {
+            try {
+                String filename = "LiveLog_" + fileTimestamp() + ".csv";
+                liveLog = new AsyncLogWriter(AppUtil.getInstance().getSettingsFile(filename), false);
+                liveLog.write(sampleHeader());
+            } catch (IOException e) {
+                isLiveLogFailed = true;
+                logEvent(Event.LOG_SAVE_FAILED, lastTimeSeconds, 0, null);
+                return;
+            }
+        }
+        // Events go in as comment lines, so the file still loads as a CSV.
+        for (long i = Math.max(liveEventsWritten, oldestEventIndex()); i < eventCount; i++) {
+            liveLog.write(formatEvent(i).insert(0, "# "));
+        }
+        liveEventsWritten = eventCount;
+        for (long i = Math.max(liveSamplesWritten, sampleCount - sampleCapacity); i < sampleCount; i++) {
+            liveLog.write(formatSample(i));
+        }
+        liveSamplesWritten = sampleCount;
+    }
+
+    /**
+     * Closes the live log. Lines already queued are still written to the file in the background.
+     */
+    public void close() {
+        if (liveLog != null) {
+            liveLog.closeAsync();
+        }
+    }
+
+    /** @return The live log's writer (for its dropped-line statistics), or null if not open yet. */
+    public AsyncLogWriter getLiveLog() { return liveLog; }
+
+    private static String fileTimestamp() {
+        return new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss", Locale.US).format(new Date());
+    }
+
     public double getMinVoltage() { return minVoltage; }
     public double getMaxCurrentAmps() { return maxCurrentAmps; }
-    public List<String> getEventLog() { return eventLog; }
-}
\ No newline at end of file
+    /** @return The battery estimator fed by every sample. */
+    public BatteryEstimator getBatteryEstimator() { return battery; }
+    /** @return The number of the battery pack in the robot, or 0 if it is not numbered. */
+    public int getBatteryId() { return batteryId; }
+    /**
+     * @return The energy accountant, or null before init(). Hub h is channel h; add the robot's
+     *         motors to it after init().
+     */
+    public EnergyAccountant getEnergy() { return energy; }
+
+    /**
+     * @return The charge estimated to be left in the battery when the match ends, at the current
+     *         burn rate, in amp-hours. Negative means the battery would run flat first.
+     *         Only valid after init().
+     */
+    public double getProjectedEndAmpHours() {
+        double secondsLeft = Math.max(0, Constants.MATCH_DURATION_SECONDS - lastTimeSeconds);
+        return battery.getRemainingAmpHours() - (energy.projectAmpHours(secondsLeft) - energy.getTotalAmpHours());
+    }
+
+    /**
+     * @return The newest events as text, newest first. The list is only rebuilt when a new event
+     *         has been recorded since the last call, so calling this every loop is cheap.
+     */
+    public List<String> getEventLog() {
+        if (eventLogRenderedCount != eventCount) {
+            eventLog.clear();
+            long oldest = Math.max(oldestEventIndex(), eventCount - MAX_LOG_SIZE);
+            for (long i = eventCount - 1; i >= oldest; i--) {
+                eventLog.add(formatEvent(i).toString());
+            }
+            eventLogRenderedCount = eventCount;
+        }
+        return eventLog;
+    }
+
+    // --- RECORDED HISTORY ---
+    // Sample indices run from 0 (the oldest sample still kept) to getSampleCount() - 1 (the newest).
+
+    /** @return The battery voltage of the newest sample, or 0 before the first sample. */
+    public double getLatestVoltage() { return sampleCount == 0 ? 0 : getSampleVoltage(getSampleCount() - 1); }
+    /** @return One hub's current draw in the newest sample in amps, or 0 before the first sample. */
+    public double getLatestHubCurrent(int hub) { return sampleCount == 0 ? 0 : getSampleHubCurrent(getSampleCount() - 1, hub); }
+
+    /** @return How many samples are kept (at most the ring's capacity). */
+    public int getSampleCount() { return (int) Math.min(sampleCount, sampleCapacity); }
+    /** @return How many samples have been recorded in total, including overwritten ones. */
+    public long getTotalSampleCount() { return sampleCount; }
+    /** @return How many hubs each sample has a current for. */
+    public int getHubCount() { return hubCount; }
+    /** @return The match time of a sample, in seconds. */
+    public double getSampleTime(int index) { return sampleTime[sampleSlot(index)]; }
+    /** @return The battery voltage of a sample. */
+    public double getSampleVoltage(int index) { return sampleVoltage[sampleSlot(index)]; }
+    /** @return One hub's current draw in a sample, in amps. */
+    public double getSampleHubCurrent(int index, int hub) { return sampleHubCurrent[sampleSlot(index) * hubCount + hub]; }
+
+    /** @return How many events are kept (at most the ring's capacity). */
+    public int getEventCount() { return (int) (eventCount - oldestEventIndex()); }
+    /** @return The code of an event (0 = the oldest one kept). */
+    public Event getEvent(int index) { return eventCode[(int) ((oldestEventIndex() + index) % eventCapacity)]; }
+    /** @return The match time of an event, in seconds. */
+    public double getEventTime(int index) { return eventTime[(int) ((oldestEventIndex() + index) % eventCapacity)]; }
+
+    private int sampleSlot(int index) {
+        long oldest = Math.max(0, sampleCount - sampleCapacity);
+        return (int) ((oldest + index) % sampleCapacity);
+    }
+}
@@ -0,0 +1,261 @@
+// Filename: TaskScheduler.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * =================================================================================================
+ * MULTI-RATE TASK SCHEDULER
+ * =================================================================================================
+ *
+ * This helper class lets slow background work run at its own, lower rate instead of on every
+ * single loop.
+ *
+ * Many things a robot does do not need to happen 100 times a second. Battery voltage and hub
+ * current change slowly, so checking them 5 times a second is plenty. Stall detection is fine at
+ * 50 Hz. A log file only needs a new line once a second. Running all of these on every loop
+ * wastes hub transactions and makes the fast loop (driving) slower for no benefit.
+ *
+ * Each task is registered with:
+ * - A RATE in Hz. A rate of 0 means "every tick" (full loop rate).
+ * - A PRIORITY. When several rate-limited tasks are due on the same tick, the one with the
+ *   HIGHEST priority number runs first.
+ *
+ * To keep slow tasks from piling up on the same loop, two things happen:
+ * 1.  Each rate-limited task starts with a different phase offset, so their due times are
+ *     naturally spread across ticks.
+ * 2.  At most a set number of rate-limited tasks (default 1) run on any one tick. A task that is
+ *     due but does not fit is deferred to the next tick, and the deferral is counted.
+ *
+ * A task is never deferred more than a set number of ticks in a row (default 5). Once a task
+ * passes that limit it is STARVING, and starving tasks run before any other due task, most
+ * overdue first, whatever their priority. Without this, a high-priority task that is due on
+ * every tick (e.g. 50 Hz stall detection with a 20 ms loop) would keep every lower-priority task
+ * from ever running.
+ *
+ * The scheduler keeps per-task statistics: how often it really ran (measured Hz), and how long
+ * it took (average and worst-case cost).
+ *
+ * All timing goes through a {@link NanoClock}, so the scheduler can be tested with a fake clock.
+ *
+ * USAGE:
+ * 1. In your Robot class: `tasks.addTask("health", 5, 1, () -> healthMonitor.update(timer));`
+ * 2. Call `tasks.tick()` once per loop from the robot's update() method.
+ *
+ * @author Team 13353
+ */
+public class TaskScheduler {
+
+    /** One registered task, with its schedule and statistics. */
+    private static class Task {
+        final String name;
+        final long periodNanos; // 0 = every tick
+        final int priority;
+        final Runnable action;
+
+        long nextDueNanos = 0;
+        long lastRunNanos = 0;
+        double measuredHz = 0;
+
+        long runs = 0;
+        long deferrals = 0;
+        int consecutiveDeferrals = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+
+        Task(String name, long periodNanos, int priority, Runnable action) {
+            this.name = name;
+            this.periodNanos = periodNanos;
+            this.priority = priority;
+            this.action = action;
+        }
+    }
+
+    /** How strongly each new run interval is blended into the measured rate. */
+    private static final double RATE_SMOOTHING = 0.2;
+
+    // --- CONFIGURATION ---
+    private final NanoClock clock;
+    private final List<Task> tasks = new ArrayList<>();
+
+    /** Reusable scratch list of rate-limited tasks that are due on the current tick. */
+    private Task[] dueTasks = new Task[0];
+
+    /** The most rate-limited tasks that may run on a single tick. */
+    private int maxRateLimitedPerTick = 1;
+
+    /** A due task is run ahead of all others after being deferred this many ticks in a row. */
+    private int maxConsecutiveDeferrals = 5;
+
+    /** The spacing, in nanoseconds, between the starting offsets of rate-limited tasks. */
+    private final long staggerNanos;
+
+    // --- STATE VARIABLES ---
+    private boolean isStarted = false;
+    private int rateLimitedCount = 0;
+    private long ticks = 0;
+
+    /**
+     * Constructor for the TaskScheduler.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public TaskScheduler(NanoClock clock) {
+        this.clock = clock;
+        this.staggerNanos = Constants.LOOP_PERIOD_MS * 1_000_000L;
+    }
+
+    /**
+     * Registers a task. Tasks should be registered during init, before the first tick().
+     * @param name A short name for telemetry.
+     * @param rateHz How many times per second the task should run. 0 means every tick.
+     * @param priority Higher numbers run first when several rate-limited tasks are due together.
+     * @param action The code to run.
+     * @return The index of the new task, for use with the statistics getters.
+     */
+    public int addTask(String name, double rateHz, int priority, Runnable action) {
+        long periodNanos = rateHz > 0 ? (long) (1e9 / rateHz) : 0;
+        Task task = new Task(name, periodNanos, priority, action);
+        if (periodNanos > 0) {
+            // Give each rate-limited task its own starting offset, so they do not all come due
+            // on the same tick.
+            task.nextDueNanos = rateLimitedCount * staggerNanos;
+            rateLimitedCount++;
+            dueTasks = new Task[rateLimitedCount];
+        }
+        tasks.add(task);
+        return tasks.size() - 1;
+    }
+
+    /**
+     * Sets how many rate-limited tasks may run on one tick. Full-rate tasks are not affected.
+     * @param max The maximum number of rate-limited tasks per tick (at least 1).
+     */
+    public void setMaxRateLimitedPerTick(int max) {
+        this.maxRateLimitedPerTick = Math.max(1, max);
+    }
+
+    /**
+     * Sets how many ticks in a row a due task may be deferred before it runs ahead of all others.
+     * @param maxDeferrals The maximum number of consecutive deferrals.
+     */
+    public void setMaxConsecutiveDeferrals(int maxDeferrals) {
+        this.maxConsecutiveDeferrals = Math.max(0, maxDeferrals);
+    }
+
+    /**
+     * Runs every task that is due. Call this once per loop.
+     */
+    public void tick() {
+        long now = clock.nanoTime();
+        if (!isStarted) {
+            // Convert the relative starting offsets into absolute due times.
+            for (Task task : tasks) {
+                task.nextDueNanos += now;
+            }
+            isStarted = true;
+        }
+        ticks++;
+
+        // Full-rate tasks run every tick, in registration order. Rate-limited tasks that are due
+        // are collected so they can be ordered by priority.
+        int dueCount = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.periodNanos == 0) {
+                run(task);
+            } else if (now >= task.nextDueNanos) {
+                dueTasks[dueCount++] = task;
+            }
+        }
+
+        // Run the due tasks in order, up to the limit: starving tasks first (most overdue first),
+        // then the highest priority (most overdue first on a tie). A simple selection is used;
+        // there are only ever a handful of tasks.
+        int allowed = Math.min(dueCount, maxRateLimitedPerTick);
+        for (int n = 0; n < allowed; n++) {
+            int best = n;
+            for (int j = n + 1; j < dueCount; j++) {
+                if (runsBefore(dueTasks[j], dueTasks[best])) {
+                    best = j;
+                }
+            }
+            Task chosen = dueTasks[best];
+            dueTasks[best] = dueTasks[n];
+            dueTasks[n] = chosen;
+
+            run(chosen);
+            chosen.consecutiveDeferrals = 0;
+
+            // Keep the task on its own phase. If it has fallen more than a period behind,
+            // restart its schedule from now rather than letting it run back-to-back.
+            chosen.nextDueNanos += chosen.periodNanos;
+            if (chosen.nextDueNanos <= now) {
+                chosen.nextDueNanos = now + chosen.periodNanos;
+            }
+        }
+        for (int n = allowed; n < dueCount; n++) {
+            dueTasks[n].deferrals++;
+            dueTasks[n].consecutiveDeferrals++;
+        }
+        for (int n = 0; n < dueCount; n++) {
+            dueTasks[n] = null;
+        }
+    }
+
+    /** @return True if due task a should run before due task b. */
+    private boolean runsBefore(Task a, Task b) {
+        boolean aStarving = a.consecutiveDeferrals >= maxConsecutiveDeferrals;
+        boolean bStarving = b.consecutiveDeferrals >= maxConsecutiveDeferrals;
+        if (aStarving != bStarving) return aStarving;
+        if (!aStarving && a.priority != b.priority) return a.priority > b.priority;
+        return a.nextDueNanos < b.nextDueNanos;
+    }
+
+    private void run(Task task) {
+        long start = clock.nanoTime();
+        task.action.run();
+        long end = clock.nanoTime();
+
+        long cost = end - start;
+        task.runs++;
+        task.totalNanos += cost;
+        if (cost > task.maxNanos) task.maxNanos = cost;
+
+        if (task.runs > 1) {
+            long interval = start - task.lastRunNanos;
+            if (interval > 0) {
+                double hz = 1e9 / interval;
+                task.measuredHz = task.runs == 2 ? hz : task.measuredHz + RATE_SMOOTHING * (hz - task.measuredHz);
+            }
+        }
+        task.lastRunNanos = start;
+    }
+
+    // --- STATISTICS ---
+    public long getTickCount() { return ticks; }
+    public int getTaskCount() { return tasks.size(); }
+    public String getTaskName(int index) { return tasks.get(index).name; }
+
+    /** @return The rate the task was registered with, in Hz (0 for every tick). */
+    public double getTargetHz(int index) {
+        long period = tasks.get(index).periodNanos;
+        return period == 0 ? 0 : 1e9 / period;
+    }
+
+    /** @return The rate the task is really running at, smoothed, in Hz. */
+    public double getMeasuredHz(int index) { return tasks.get(index).measuredHz; }
+    public long getRuns(int index) { return tasks.get(index).runs; }
+
+    /** @return How many times the task was due but pushed to a later tick. */
+    public long getDeferrals(int index) { return tasks.get(index).deferrals; }
+
+    /** @return The average time one run of the task takes, in milliseconds. */
+    public double getAverageCostMs(int index) {
+        Task task = tasks.get(index);
+        return task.runs == 0 ? 0 : task.totalNanos / 1e6 / task.runs;
+    }
+
+    /** @return The longest time one run of the task has taken, in milliseconds. */
+    public double getMaxCostMs(int index) { return tasks.get(index).maxNanos / 1e6; }
+}
@@ -0,0 +1,339 @@
+// Filename: TelemetryComposer.java
+package org.firstinspires.ftc.teamcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * =================================================================================================
+ * DIRTY-TRACKING, RATE-LIMITED TELEMETRY COMPOSER
+ * =================================================================================================
+ *
+ * This helper class builds the Driver Station screen out of named SLOTS, and only does the
+ * expensive work (formatting numbers into text) when it actually changes what the drivers see.
+ *
+ * The usual pattern, `telemetry.addData("Heading", "%.2f", heading)` in every loop, runs a full
+ * String.format on every loop. But the SDK only transmits telemetry every 250 ms or so, so most of
+ * those strings are thrown away unseen. And when the value has not changed in the digits shown,
+ * the new string is identical to the old one anyway.
+ *
+ * The composer fixes both:
+ * 1.  DIRTY TRACKING: Each number slot has a display PRECISION (e.g. 0.01 for "%.2f"). A new value
+ *     only marks the slot as dirty if it would change the displayed digits. Clean slots re-use
+ *     their cached text.
+ * 2.  RATE LIMITING: `update()` only formats dirty slots and pushes to the Driver Station at the
+ *     configured rate. On all the other loops it does nothing at all.
+ *
+ * It keeps count of the formatting it avoided, and estimates the time saved per second from the
+ * measured cost of the formats it did run.
+ *
+ * USAGE:
+ * ```java
+ * TelemetryComposer composer = new TelemetryComposer(new SdkTelemetry(telemetry), 4, NanoClock.SYSTEM);
+ * int heading = composer.addNumber("Heading", "%.2f deg", 0.01, 1);
+ * // in the loop:
+ * if (composer.isDue()) {
+ *     composer.set(heading, robot.getHeading(AngleUnit.DEGREES));
+ * }
+ * composer.update();
+ * ```
+ * Classes that do not own the `telemetry.update()` call can use `render()` instead, which only
+ * adds the (cached) lines.
+ *
+ * The screen is reached through the {@link Display} interface, so this class stays pure Java:
+ * {@link SdkTelemetry} connects it to the OpMode's telemetry, and tests can pass a fake.
+ *
+ * @author Team 13353
+ */
+public class TelemetryComposer {
+
+    /**
+     * The minimal view of the Driver Station screen needed by the composer. The OpMode's
+     * telemetry is wrapped by {@link SdkTelemetry}; tests can pass a fake.
+     */
+    public interface Display {
+        /** Sets how often the SDK transmits to the Driver Station, in milliseconds. */
+        void setMsTransmissionInterval(int ms);
+
+        /** Adds a plain line of text. */
+        void addLine(String text);
+
+        /** Adds a "caption: value" line. */
+        void addData(String caption, String text);
+
+        /** Sends everything added since the last update. */
+        void update();
+    }
+
+    /** One line on the Driver Station screen. */
+    private static class Slot {
+        final String caption;    // null = a plain line (addLine) instead of a caption/value pair
+        final FastFormat.Pattern format; // null = a text slot
+        final double precision;
+        final double[] values;
+        final long[] displayedUnits; // Each value as a whole number of "precision" steps
+
+        String text;             // The cached rendered text
+        boolean dirty = true;
+        boolean visible = true;
+
+        Slot(String caption, FastFormat.Pattern format, double precision, int valueCount) {
+            this.caption = caption;
+            this.format = format;
+            this.precision = precision;
+            this.values = new double[valueCount];
+            this.displayedUnits = new long[valueCount];
+        }
+    }
+
+    /** How long the "time saved" statistic is averaged over. */
+    private static final long STATS_WINDOW_NANOS = 1_000_000_000L;
+
+    // --- CONFIGURATION ---
+    private final Display telemetry;
+    private final NanoClock clock;
+    private final long periodNanos;
+    private final List<Slot> slots = new ArrayList<>();
+    private final StringBuilder formatBuffer = new StringBuilder(64);
+
+    // --- STATE VARIABLES ---
+    private long nextPushNanos = 0;
+    private boolean isStarted = false;
+
+    // --- STATISTICS ---
+    private long formats = 0;
+    private long skippedFormats = 0;
+    private long pushes = 0;
+    private long formatNanosTotal = 0;
+    private long windowStartNanos = 0;
+    private long windowSkippedFormats = 0;
+    private double timeSavedMsPerSecond = 0;
+
+    /**
+     * Constructor for the TelemetryComposer. Also sets the SDK's transmission interval to match.
+     * @param telemetry The OpMode's telemetry, e.g. `new SdkTelemetry(telemetry)`.
+     * @param updateRateHz How many times per second to push to the Driver Station.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public TelemetryComposer(Display telemetry, double updateRateHz, NanoClock clock) {
+        this.telemetry = telemetry;
+        this.clock = clock;
+        this.periodNanos = (long) (1e9 / updateRateHz);
+        telemetry.setMsTransmissionInterval((int) (periodNanos / 1_000_000L));
+    }
+
+    /**
+     * Constructor for a composer that is only used through {@link #render()}, by a class that
+     * shares an OpMode's telemetry. It does not change the SDK's transmission interval.
+     * @param telemetry The OpMode's telemetry, e.g. `new SdkTelemetry(telemetry)`.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public TelemetryComposer(Display telemetry, NanoClock clock) {
+        this.telemetry = telemetry;
+        this.clock = clock;
+        this.periodNanos = 0;
+    }
+
+    // --- SLOT SETUP ---
+
+    /**
+     * Adds a text slot. Set its text with {@link #setText(int, String)}.
+     * @param caption The caption, or null for a plain line.
+     * @return The slot's index.
+     */
+    public int addText(String caption) {
+        slots.add(new Slot(caption, null, 0, 0));
+        return slots.size() - 1;
+    }
+
+    /**
+     * Adds a fixed line of text that never changes (e.g. a section header).
+     * @param text The text to show.
+     * @return The slot's index.
+     */
+    public int addLine(String text) {
+        int slot = addText(null);
+        setText(slot, text);
+        return slot;
+    }
+
+    /**
+     * Adds a number slot.
+     * @param caption The caption, or null for a plain line.
+     * @param format A printf-style pattern with one %f or %d per value (e.g. "%.1f ms"). It is
+     *               compiled once by {@link FastFormat#compile(String)}.
+     * @param precision The smallest change the format can show (e.g. 0.1 for "%.1f").
+     * @param valueCount How many values the format takes (1 to 3).
+     * @return The slot's index.
+     * @throws IllegalArgumentException If the pattern is not supported or takes a different number of values.
+     */
+    public int addNumber(String caption, String format, double precision, int valueCount) {
+        FastFormat.Pattern pattern = FastFormat.compile(format);
+        if (pattern.getValueCount() != valueCount) {
+            throw new IllegalArgumentException("Pattern \"" + format + "\" takes " + pattern.getValueCount()
+                    + " values, not " + valueCount);
+        }
+        slots.add(new Slot(caption, pattern, precision, valueCount));
+        return slots.size() - 1;
+    }
+
+    // --- SETTING VALUES ---
+
+    /** Sets the value of a one-value number slot. */
+    public void set(int slot, double value) {
+        Slot s = slots.get(slot);
+        setValue(s, 0, value);
+    }
+
+    /** Sets the values of a two-value number slot. */
+    public void set(int slot, double a, double b) {
+        Slot s = slots.get(slot);
+        setValue(s, 0, a);
+        setValue(s, 1, b);
+    }
+
+    /** Sets the values of a three-value number slot. */
+    public void set(int slot, double a, double b, double c) {
+        Slot s = slots.get(slot);
+        setValue(s, 0, a);
+        setValue(s, 1, b);
+        setValue(s, 2, c);
+    }
+
+    /**
+     * Sets the text of a text slot. Passing the same String again costs almost nothing.
+     * @param slot The slot's index.
+     * @param text The text to show.
+     */
+    public void setText(int slot, String text) {
+        Slot s = slots.get(slot);
+        s.text = text;
+        s.dirty = false; // Text needs no formatting.
+    }
+
+    /**
+     * Shows or hides a slot. Hidden slots are not sent and not formatted.
+     * @param slot The slot's index.
+     * @param visible True to show the slot.
+     */
+    public void setVisible(int slot, boolean visible) {
+        slots.get(slot).visible = visible;
+    }
+
+    private void setValue(Slot s, int index, double value) {
+        long units = Math.round(value / s.precision);
+        // NaN rounds to 0, so compare NaN-ness separately to still catch a change to/from NaN.
+        if (units != s.displayedUnits[index] || Double.isNaN(value) != Double.isNaN(s.values[index])) {
+            s.displayedUnits[index] = units;
+            s.dirty = true;
+        }
+        s.values[index] = value;
+    }
+
+    // --- PUSHING ---
+
+    /**
+     * @return True if the next call to update() will push to the Driver Station. Use this to skip
+     *         reading values that would not be shown anyway.
+     */
+    public boolean isDue() {
+        return !isStarted || clock.nanoTime() >= nextPushNanos;
+    }
+
+    /**
+     * Formats any dirty slots and pushes everything to the Driver Station, if a push is due.
+     * Call this once per loop.
+     * @return True if telemetry was pushed on this call.
+     */
+    public boolean update() {
+        long now = clock.nanoTime();
+        if (isStarted && now < nextPushNanos) {
+            // Every visible number slot would have been formatted by the old every-loop code.
+            countSkipped(visibleNumberSlots(), now);
+            return false;
+        }
+        if (!isStarted) {
+            isStarted = true;
+            nextPushNanos = now;
+            windowStartNanos = now;
+        }
+        render();
+        telemetry.update();
+        pushes++;
+
+        // Keep the push schedule steady, but never try to catch up with a burst.
+        nextPushNanos += periodNanos;
+        if (nextPushNanos <= now) {
+            nextPushNanos = now + periodNanos;
+        }
+        return true;
+    }
+
+    /**
+     * Formats any dirty slots and adds every visible slot to telemetry, without calling
+     * telemetry.update() and without rate limiting. For classes that share an OpMode's telemetry.
+     */
+    public void render() {
+        int skipped = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot s = slots.get(i);
+            if (!s.visible) continue;
+            if (s.format != null) {
+                if (s.dirty || s.text == null) {
+                    format(s);
+                } else {
+                    skipped++;
+                }
+            }
+            String text = s.text == null ? "" : s.text;
+            if (s.caption == null) {
+                telemetry.addLine(text);
+            } else {
+                telemetry.addData(s.caption, text);
+            }
+        }
+        countSkipped(skipped, clock.nanoTime());
+    }
+
+    private void format(Slot s) {
+        long start = clock.nanoTime();
+        formatBuffer.setLength(0);
+        s.format.appendTo(formatBuffer, s.values);
+        s.text = formatBuffer.toString();
+        s.dirty = false;
+        formatNanosTotal += clock.nanoTime() - start;
+        formats++;
+    }
+
+    private int visibleNumberSlots() {
+        int count = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot s = slots.get(i);
+            if (s.visible && s.format != null) count++;
+        }
+        return count;
+    }
+
+    private void countSkipped(int skipped, long now) {
+        skippedFormats += skipped;
+        windowSkippedFormats += skipped;
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= STATS_WINDOW_NANOS) {
+            timeSavedMsPerSecond = windowSkippedFormats * getAverageFormatMs() / (elapsed / 1e9);
+            windowSkippedFormats = 0;
+            windowStartNanos = now;
+        }
+    }
+
+    // --- STATISTICS ---
+    /** @return How many times a slot was actually formatted. */
+    public long getFormatCount() { return formats; }
+    /** @return How many slot formats were avoided (clean slot, or no push due). */
+    public long getSkippedFormatCount() { return skippedFormats; }
+    /** @return How many times telemetry was pushed to the Driver Station. */
+    public long getPushCount() { return pushes; }
+    /** @return The average cost of formatting one slot, in milliseconds. */
+    public double getAverageFormatMs() { return formats == 0 ? 0 : formatNanosTotal / 1e6 / formats; }
+    /** @return The estimated formatting time avoided, in milliseconds per second. */
+    public double getFormatTimeSavedMsPerSecond() { return timeSavedMsPerSecond; }
+}
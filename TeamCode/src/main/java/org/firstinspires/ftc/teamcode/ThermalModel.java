@@ -0,0 +1,151 @@
+// Filename: ThermalModel.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * MOTOR THERMAL MODEL (I^2*t)
+ * =================================================================================================
+ *
+ * This helper class estimates how hot one motor's windings are, from its current, and tells the
+ * robot how much to turn the motor's power down so it never gets hot enough to be damaged.
+ *
+ * A {@link StallDetector} only catches a motor that is stuck: a current above its threshold for
+ * half a second. A motor worked hard, but below that threshold, for a whole match (an arm held up
+ * against gravity, a drivetrain pushing another robot) still overheats. The heat in the windings
+ * grows with the current SQUARED (I^2*R), so this class integrates I^2 over time:
+ *
+ * 1.  A steady current I would eventually heat the windings to
+ *         target = ambient + riseCPerAmp2 * I^2
+ * 2.  The temperature moves towards that target exponentially, with the HEATING time constant
+ *     when the target is above the temperature and the slower COOLING time constant when it is
+ *     below. Each update is the exact solution over its time step, so a slow or uneven update
+ *     rate gives the same answer as a fast one.
+ * 3.  The POWER SCALE is 1.0 up to the derate temperature, then falls in a straight line to the
+ *     minimum scale at the maximum temperature. Multiply the motor's power by it before
+ *     setPower(); less power means less current, which lets the motor cool.
+ *
+ * The model has no hardware dependencies: feed it currents from DcMotorEx.getCurrent() on the
+ * robot, or a synthetic current trace and a fake {@link NanoClock} on a desktop.
+ *
+ * USAGE:
+ * ```java
+ * ThermalModel armHeat = new ThermalModel(25, 1.5, 90, 180, 70, 100, 0.3, NanoClock.SYSTEM);
+ * // in a task that reads the current:
+ * armHeat.update(armMotor.getCurrent(CurrentUnit.AMPS));
+ * // when commanding the motor:
+ * armMotor.setPower(power * armHeat.getPowerScale());
+ * ```
+ *
+ * @author Team 13353
+ */
+public class ThermalModel {
+
+    // --- CONFIGURATION ---
+    private final double ambientC;
+    private final double riseCPerAmp2;     // Steady-state temperature rise per amp squared
+    private final double heatingTauSeconds;
+    private final double coolingTauSeconds;
+    private final double derateStartC;
+    private final double maxC;
+    private final double minPowerScale;
+    private final NanoClock clock;
+
+    // --- STATE VARIABLES ---
+    private double temperatureC;
+    private double powerScale = 1.0;
+    private long lastUpdateNanos = 0;
+    private boolean hasUpdated = false;
+
+    // --- STATISTICS ---
+    private double peakTemperatureC;
+
+    /**
+     * Constructor for the ThermalModel. The motor starts at the ambient temperature.
+     * @param ambientC The temperature of a cold motor, in deg C.
+     * @param riseCPerAmp2 How far above ambient a steady current of 1 A would heat the windings,
+     *                     in deg C. A steady current I heats them riseCPerAmp2 * I^2 above ambient.
+     * @param heatingTauSeconds The time constant while heating up, in seconds.
+     * @param coolingTauSeconds The time constant while cooling down, in seconds.
+     * @param derateStartC The temperature at which the power scale starts to drop below 1.0.
+     * @param maxC The temperature at which the power scale reaches its minimum.
+     * @param minPowerScale The smallest power scale (0.0 to 1.0). Keep it above zero, so a hot
+     *                      motor still responds instead of going limp.
+     * @param clock The clock to use. Pass NanoClock.SYSTEM on the robot.
+     */
+    public ThermalModel(double ambientC, double riseCPerAmp2, double heatingTauSeconds, double coolingTauSeconds,
+                        double derateStartC, double maxC, double minPowerScale, NanoClock clock) {
+        if (heatingTauSeconds <= 0 || coolingTauSeconds <= 0) {
+            throw new IllegalArgumentException("The time constants must be positive");
+        }
+        if (maxC <= derateStartC) {
+            throw new IllegalArgumentException("The maximum temperature must be above the derate temperature");
+        }
+        this.ambientC = ambientC;
+        this.riseCPerAmp2 = riseCPerAmp2;
+        this.heatingTauSeconds = heatingTauSeconds;
+        this.coolingTauSeconds = coolingTauSeconds;
+        this.derateStartC = derateStartC;
+        this.maxC = maxC;
+        this.minPowerScale = minPowerScale;
+        this.clock = clock;
+        this.temperatureC = ambientC;
+        this.peakTemperatureC = ambientC;
+    }
+
+    /**
+     * Updates the estimate with a new current reading, timed by the clock. The first call only
+     * starts the clock. Readings do not need to come at a steady rate.
+     * @param currentAmps The motor's current, in Amperes. NaN is ignored.
+     */
+    public void update(double currentAmps) {
+        long now = clock.nanoTime();
+        if (hasUpdated) {
+            update(currentAmps, (now - lastUpdateNanos) * 1e-9);
+        }
+        lastUpdateNanos = now;
+        hasUpdated = true;
+    }
+
+    /**
+     * Updates the estimate with a current that flowed for a known time. Use this to run a
+     * synthetic current trace without a clock.
+     * @param currentAmps The motor's current during the step, in Amperes. NaN is ignored.
+     * @param dtSeconds How long the current flowed, in seconds.
+     */
+    public void update(double currentAmps, double dtSeconds) {
+        if (currentAmps != currentAmps || dtSeconds <= 0) return; // NaN, or no time has passed
+        double target = ambientC + riseCPerAmp2 * currentAmps * currentAmps;
+        double tau = target > temperatureC ? heatingTauSeconds : coolingTauSeconds;
+        temperatureC += (target - temperatureC) * (1 - Math.exp(-dtSeconds / tau));
+        if (temperatureC > peakTemperatureC) peakTemperatureC = temperatureC;
+
+        if (temperatureC <= derateStartC) {
+            powerScale = 1.0;
+        } else if (temperatureC >= maxC) {
+            powerScale = minPowerScale;
+        } else {
+            double fraction = (temperatureC - derateStartC) / (maxC - derateStartC);
+            powerScale = 1.0 - fraction * (1.0 - minPowerScale);
+        }
+    }
+
+    /**
+     * Sets the motor back to the ambient temperature, e.g. when a new match starts with cold motors.
+     */
+    public void reset() {
+        temperatureC = ambientC;
+        powerScale = 1.0;
+        hasUpdated = false;
+    }
+
+    /** @return The estimated winding temperature, in deg C. */
+    public double getTemperatureC() { return temperatureC; }
+    /** @return The factor (minPowerScale to 1.0) to multiply the motor's power by. */
+    public double getPowerScale() { return powerScale; }
+    /** @return True while the power is being turned down. */
+    public boolean isDerating() { return powerScale < 1.0; }
+
+    // --- STATISTICS ---
+    /** @return The highest temperature estimated since the model was created. */
+    public double getPeakTemperatureC() { return peakTemperatureC; }
+}
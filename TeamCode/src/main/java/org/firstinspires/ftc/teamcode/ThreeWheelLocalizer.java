@@ -0,0 +1,147 @@
+// Filename: ThreeWheelLocalizer.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * THREE-WHEEL ODOMETRY LOCALIZER
+ * =================================================================================================
+ *
+ * Tracks the robot's pose from three unpowered ("dead wheel") odometry pods: two PARALLEL pods,
+ * pointing forward on the left and right of the robot, and one PERPENDICULAR pod, pointing
+ * sideways. Run the Standalone Odometry Pod Tester first to check their names and directions.
+ *
+ * HOW IT WORKS:
+ * 1.  Every loop, each pod's change in ticks since the last loop is turned into inches.
+ * 2.  The two parallel pods are TRACK WIDTH apart, so the difference between them is the turn:
+ *         dTheta = (dRight - dLeft) / trackWidth
+ *     and their average is how far the robot went forward.
+ * 3.  The perpendicular pod measures the sideways motion, but it also rolls when the robot turns,
+ *     because it sits FORWARD OFFSET inches in front of the center of rotation (negative if it is
+ *     behind). That part is taken out:
+ *         dy = dPerpendicular - forwardOffset * dTheta
+ * 4.  The forward, sideways and turning motion is handed to a {@link PoseTracker}, which moves the
+ *     pose along the arc the robot drove.
+ *
+ * All three pods are read once per update, and with bulk caching in MANUAL mode all three reads
+ * come from the same bulk read: one consistent snapshot, and no extra hub transactions. The state
+ * is a handful of primitives, so update() allocates nothing and can run at the full loop rate.
+ *
+ * USAGE:
+ * ```java
+ * Localizer odometry = new ThreeWheelLocalizer(leftPod::getCurrentPosition,
+ *         rightPod::getCurrentPosition, perpendicularPod::getCurrentPosition,
+ *         Constants.ODOMETRY_INCHES_PER_TICK, trackWidth, forwardOffset);
+ * // every loop:
+ * bulkReads.update();
+ * odometry.update();
+ * ```
+ *
+ * @author Team 13353
+ */
+public class ThreeWheelLocalizer implements Localizer {
+
+    // --- CONFIGURATION ---
+    private final Encoder left;
+    private final Encoder right;
+    private final Encoder perpendicular;
+    private final double inchesPerTick;
+    private double trackWidthInches;
+    private double forwardOffsetInches;
+
+    // --- STATE VARIABLES ---
+    private final PoseTracker pose = new PoseTracker();
+    private int lastLeft, lastRight, lastPerpendicular;
+    private boolean hasPositions = false;
+
+    // --- STATISTICS ---
+    private long updates = 0;
+
+    /**
+     * Constructor for the ThreeWheelLocalizer. The pose starts at (0, 0), heading 0.
+     * @param left The left parallel pod. Must count UP when the robot drives forward.
+     * @param right The right parallel pod. Must count UP when the robot drives forward.
+     * @param perpendicular The perpendicular pod. Must count UP when the robot strafes LEFT.
+     * @param inchesPerTick The distance a pod rolls per tick (wheel circumference / ticks per rev).
+     * @param trackWidthInches The distance between the two parallel pods.
+     * @param forwardOffsetInches How far the perpendicular pod is in front of the center of rotation.
+     */
+    public ThreeWheelLocalizer(Encoder left, Encoder right, Encoder perpendicular,
+                               double inchesPerTick, double trackWidthInches, double forwardOffsetInches) {
+        this.left = left;
+        this.right = right;
+        this.perpendicular = perpendicular;
+        this.inchesPerTick = inchesPerTick;
+        setGeometry(trackWidthInches, forwardOffsetInches);
+    }
+
+    /**
+     * Changes where the pods are, e.g. after the values were re-tuned in robot_config.properties.
+     * @param trackWidthInches The distance between the two parallel pods.
+     * @param forwardOffsetInches How far the perpendicular pod is in front of the center of rotation.
+     */
+    public void setGeometry(double trackWidthInches, double forwardOffsetInches) {
+        if (trackWidthInches <= 0) {
+            throw new IllegalArgumentException("The track width must be positive");
+        }
+        this.trackWidthInches = trackWidthInches;
+        this.forwardOffsetInches = forwardOffsetInches;
+    }
+
+    @Override
+    public void update() {
+        update(left.getPosition(), right.getPosition(), perpendicular.getPosition());
+    }
+
+    /**
+     * Moves the pose by the pods' changes since the last update. Use this to feed positions that
+     * were read elsewhere (or simulated) instead of reading the encoders.
+     * @param leftTicks The left parallel pod's position.
+     * @param rightTicks The right parallel pod's position.
+     * @param perpendicularTicks The perpendicular pod's position.
+     */
+    public void update(int leftTicks, int rightTicks, int perpendicularTicks) {
+        if (hasPositions) {
+            // Integer subtraction first, so a large position never loses precision as a double.
+            double dLeft = (leftTicks - lastLeft) * inchesPerTick;
+            double dRight = (rightTicks - lastRight) * inchesPerTick;
+            double dPerpendicular = (perpendicularTicks - lastPerpendicular) * inchesPerTick;
+
+            double dTheta = (dRight - dLeft) / trackWidthInches;
+            double dx = (dLeft + dRight) / 2;
+            double dy = dPerpendicular - forwardOffsetInches * dTheta;
+            pose.applyTwist(dx, dy, dTheta);
+            updates++;
+        }
+        lastLeft = leftTicks;
+        lastRight = rightTicks;
+        lastPerpendicular = perpendicularTicks;
+        hasPositions = true;
+    }
+
+    /**
+     * Starts again from (0, 0), heading 0, and takes the next positions read as the new starting
+     * point. Call it after the encoders were reset.
+     */
+    public void reset() {
+        pose.setPose(0, 0, 0);
+        hasPositions = false;
+    }
+
+    @Override
+    public void setPose(double x, double y, double headingRadians) {
+        pose.setPose(x, y, headingRadians);
+    }
+
+    @Override public double getX() { return pose.getX(); }
+    @Override public double getY() { return pose.getY(); }
+    @Override public double getHeading() { return pose.getHeading(); }
+
+    /** @return The distance between the two parallel pods, in inches. */
+    public double getTrackWidthInches() { return trackWidthInches; }
+    /** @return How far the perpendicular pod is in front of the center of rotation, in inches. */
+    public double getForwardOffsetInches() { return forwardOffsetInches; }
+
+    // --- STATISTICS ---
+    /** @return How many updates have moved the pose. */
+    public long getUpdateCount() { return updates; }
+}
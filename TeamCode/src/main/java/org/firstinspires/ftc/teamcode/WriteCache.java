@@ -0,0 +1,121 @@
+// Filename: WriteCache.java
+package org.firstinspires.ftc.teamcode;
+
+/**
+ * =================================================================================================
+ * WRITE CACHE - REDUNDANT OUTPUT SUPPRESSION
+ * =================================================================================================
+ *
+ * This helper class decides whether a new output command (a motor power or a servo position)
+ * actually needs to be sent to the hardware.
+ *
+ * Every `setPower` or `setPosition` call is a separate write on the hub's serial bus, even when
+ * the value is exactly the same as last loop's. With 4-6 actuators commanded every loop, those
+ * redundant writes make up a large share of the loop time. This class remembers the last value
+ * that was really written and suppresses any new command that falls within a small epsilon of it.
+ *
+ * Rules, in order:
+ * 1.  The very first command (or the first one after {@link #invalidate()}) is always written.
+ * 2.  A command of exactly zero is always written if the last written value was not zero, so a
+ *     "stop" can never be swallowed by the epsilon.
+ * 3.  A command that differs from the last written value by more than the epsilon is written.
+ * 4.  Even an unchanged command is re-written once the refresh period has passed, so a write
+ *     that was lost (e.g. during a hub reset) is corrected quickly.
+ * 5.  Anything else is suppressed and counted.
+ *
+ * This class contains no hardware code at all; {@link CachedMotor} and {@link CachedServo} wrap
+ * it around real devices.
+ *
+ * @author Team 13353
+ */
+public class WriteCache {
+
+    // --- CONFIGURATION ---
+    /** Commands closer than this to the last written value are considered unchanged. */
+    private final double epsilon;
+
+    /** An unchanged value is re-written after this many nanoseconds, as a safety refresh. */
+    private final long refreshPeriodNanos;
+
+    // --- STATE VARIABLES ---
+    private boolean hasValue = false;
+    private double lastWrittenValue = 0;
+    private long lastWriteNanos = 0;
+
+    // --- STATISTICS ---
+    private long writes = 0;
+    private long suppressedWrites = 0;
+    private long refreshWrites = 0;
+
+    /**
+     * Constructor for the WriteCache.
+     * @param epsilon The smallest change in value that is worth a write.
+     * @param refreshMs The longest time, in milliseconds, an unchanged value goes without a write.
+     */
+    public WriteCache(double epsilon, long refreshMs) {
+        this.epsilon = epsilon;
+        this.refreshPeriodNanos = refreshMs * 1_000_000L;
+    }
+
+    /**
+     * Decides whether a command needs to be written, and updates the cache if it does.
+     * @param value The newly commanded value.
+     * @param nowNanos The current time from System.nanoTime().
+     * @return True if the caller must write the value to the hardware, false if it is redundant.
+     */
+    public boolean shouldWrite(double value, long nowNanos) {
+        boolean write;
+        if (!hasValue) {
+            write = true;
+        } else if (value == 0 && lastWrittenValue != 0) {
+            write = true;
+        } else if (Math.abs(value - lastWrittenValue) > epsilon) {
+            write = true;
+        } else if (nowNanos - lastWriteNanos >= refreshPeriodNanos) {
+            write = true;
+            refreshWrites++;
+        } else {
+            write = false;
+        }
+
+        if (write) {
+            markWritten(value, nowNanos);
+        } else {
+            suppressedWrites++;
+        }
+        return write;
+    }
+
+    /**
+     * Records that a value was written to the hardware without asking {@link #shouldWrite}.
+     * Use this after a forced write so the cache stays in sync.
+     * @param value The value that was written.
+     * @param nowNanos The current time from System.nanoTime().
+     */
+    public void markWritten(double value, long nowNanos) {
+        hasValue = true;
+        lastWrittenValue = value;
+        lastWriteNanos = nowNanos;
+        writes++;
+    }
+
+    /**
+     * Forgets the last written value, so the next command is always written.
+     * Call this whenever something else may have changed the output (e.g. a run mode change).
+     */
+    public void invalidate() {
+        hasValue = false;
+    }
+
+    /** @return The last value actually written to the hardware. */
+    public double getLastWrittenValue() { return lastWrittenValue; }
+
+    /** @return The number of commands that were written to the hardware. */
+    public long getWrites() { return writes; }
+
+    /** @return The number of commands that were suppressed as redundant. */
+    public long getSuppressedWrites() { return suppressedWrites; }
+
+    /** @return The number of writes that only happened because the refresh period ran out. */
+    public long getRefreshWrites() { return refreshWrites; }
+}
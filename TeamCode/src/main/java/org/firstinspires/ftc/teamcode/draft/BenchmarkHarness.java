@@ -0,0 +1,216 @@
+// Filename: BenchmarkHarness.java
+package org.firstinspires.ftc.teamcode.draft;
+
+import org.firstinspires.ftc.teamcode.LatencyHistogram;
+import org.firstinspires.ftc.teamcode.NanoClock;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * =================================================================================================
+ * HARDWARE CALL BENCHMARK HARNESS
+ * =================================================================================================
+ *
+ * This class times individual hardware calls (reading an encoder, reading the IMU, setting a
+ * motor power, ...) one at a time, so we know exactly what each one costs our loop.
+ *
+ * Every primitive is measured under each of the three hub bulk-caching modes:
+ * - OFF:    Every read is its own hub transaction.
+ * - AUTO:   The hub fetches all "bulk" data at once, and re-fetches when a value is read twice.
+ * - MANUAL: The hub fetches all bulk data once, and keeps it until the cache is cleared.
+ *
+ * HOW A MEASUREMENT WORKS:
+ * 1.  WARMUP: The call is made a number of times without timing, so the JIT and the hub settle.
+ * 2.  REPETITIONS: Each repetition simulates one robot loop. In MANUAL mode, the bulk cache is
+ *     cleared at the start of every repetition (just like BulkReadManager does). Then the call
+ *     is made several times in a row (like reading four drive encoders), and EVERY call is timed
+ *     and recorded into a {@link LatencyHistogram}.
+ * 3.  The result is a per-call latency DISTRIBUTION (p50/p90/p99/max), not just an average.
+ *
+ * All latencies are recorded in NANOSECONDS (the histogram's units are simply "whatever was
+ * recorded"), and are reported in microseconds.
+ *
+ * The hardware itself is reached through the {@link Backend} interface. On the robot this is an
+ * adapter around real devices (see Standalone_Performance_Benchmarker); on a desktop JVM it is a
+ * {@link SimulatedHardwareBackend} with configurable latencies, so the harness can be checked
+ * without a robot.
+ *
+ * @author Team 13353
+ */
+public class BenchmarkHarness {
+
+    /** The hub bulk-caching modes. Mirrors LynxModule.BulkCachingMode, so this class stays pure Java. */
+    public enum CachingMode { OFF, AUTO, MANUAL }
+
+    /** How a primitive reaches the hardware, which decides whether bulk caching can help it. */
+    public enum Kind {
+        /** No hardware access at all. Measures the harness's own overhead. */
+        NONE,
+        /** Part of the hub's bulk data (encoders, velocities). Helped by AUTO and MANUAL caching. */
+        BULK,
+        /** A separate hub command that is never bulk-cached (motor current, input voltage). */
+        HUB_COMMAND,
+        /** An I2C sensor read. Always a full bus transaction (IMU, distance, color). */
+        I2C,
+        /** A command sent to the hub (motor power). */
+        WRITE
+    }
+
+    /** The individual hardware calls we know how to measure. */
+    public enum Primitive {
+        BASELINE("empty call", Kind.NONE),
+        ENCODER("DcMotor.getCurrentPosition", Kind.BULK),
+        VELOCITY("DcMotorEx.getVelocity", Kind.BULK),
+        MOTOR_CURRENT("DcMotorEx.getCurrent", Kind.HUB_COMMAND),
+        INPUT_VOLTAGE("LynxModule.getInputVoltage", Kind.HUB_COMMAND),
+        IMU_ANGLES("IMU.getRobotYawPitchRollAngles", Kind.I2C),
+        DISTANCE("DistanceSensor.getDistance", Kind.I2C),
+        COLOR_RED("ColorSensor.red", Kind.I2C),
+        SET_POWER("DcMotor.setPower", Kind.WRITE);
+
+        public final String label;
+        public final Kind kind;
+
+        Primitive(String label, Kind kind) {
+            this.label = label;
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * The hardware the harness talks to. Each call performs exactly one real (or simulated)
+     * hardware call and returns a value, so the JIT cannot optimize the call away.
+     */
+    public interface Backend {
+        /** @return True if the device needed for this primitive is available. */
+        boolean supports(Primitive primitive);
+        /** Puts every hub into the given bulk-caching mode. */
+        void setCachingMode(CachingMode mode);
+        /** Clears every hub's bulk cache (only meaningful in MANUAL mode). */
+        void clearBulkCache();
+        /**
+         * Performs the primitive once.
+         * @param primitive The call to make.
+         * @param argument An argument for write primitives (e.g. the motor power). Ignored by reads.
+         * @return The value read (0 for writes), so the call has a visible result.
+         */
+        double call(Primitive primitive, double argument);
+    }
+
+    /** The measurement of one primitive under one caching mode. */
+    public static class Result {
+        public final Primitive primitive;
+        public final CachingMode mode;
+        /** Per-call latencies, in nanoseconds. */
+        public final LatencyHistogram nanos = new LatencyHistogram();
+
+        Result(Primitive primitive, CachingMode mode) {
+            this.primitive = primitive;
+            this.mode = mode;
+        }
+
+        /**
+         * @return A one-line summary, e.g. "MANUAL DcMotor.getCurrentPosition: p50 1.2 p90 ... us".
+         */
+        public String toReportLine() {
+            return String.format(Locale.US, "%-6s %-32s p50 %8.1f p90 %8.1f p99 %8.1f max %8.1f us (n=%d)",
+                    mode, primitive.label,
+                    nanos.getPercentile(50) / 1000.0, nanos.getPercentile(90) / 1000.0,
+                    nanos.getPercentile(99) / 1000.0, nanos.getMaxMicros() / 1000.0,
+                    nanos.getCount());
+        }
+    }
+
+    // --- CONFIGURATION ---
+    private final Backend backend;
+    private final NanoClock clock;
+    private int warmupCalls = 50;
+    private int repetitions = 200;
+    private int callsPerRepetition = 4;
+
+    /** Sink for the values returned by calls, so they cannot be optimized away. */
+    private double blackhole = 0;
+
+    /**
+     * Constructor for the BenchmarkHarness.
+     * @param backend The hardware to measure.
+     * @param clock The clock used to time each call. Pass NanoClock.SYSTEM on the robot.
+     */
+    public BenchmarkHarness(Backend backend, NanoClock clock) {
+        this.backend = backend;
+        this.clock = clock;
+    }
+
+    /** @param calls How many untimed calls to make before measuring. */
+    public void setWarmupCalls(int calls) { this.warmupCalls = Math.max(0, calls); }
+
+    /** @param repetitions How many simulated loops to measure. */
+    public void setRepetitions(int repetitions) { this.repetitions = Math.max(1, repetitions); }
+
+    /** @param calls How many times the primitive is called per simulated loop (e.g. 4 drive motors). */
+    public void setCallsPerRepetition(int calls) { this.callsPerRepetition = Math.max(1, calls); }
+
+    /**
+     * Measures one primitive under one caching mode.
+     * @param primitive The call to measure.
+     * @param mode The bulk-caching mode to put the hubs in first.
+     * @return The measured latency distribution, or null if the backend does not support the primitive.
+     */
+    public Result run(Primitive primitive, CachingMode mode) {
+        if (!backend.supports(primitive)) {
+            return null;
+        }
+        backend.setCachingMode(mode);
+        Result result = new Result(primitive, mode);
+
+        // --- WARMUP ---
+        for (int i = 0; i < warmupCalls; i++) {
+            if (mode == CachingMode.MANUAL && i % callsPerRepetition == 0) {
+                backend.clearBulkCache();
+            }
+            blackhole += backend.call(primitive, argumentFor(i));
+        }
+
+        // --- MEASUREMENT ---
+        int n = 0;
+        for (int rep = 0; rep < repetitions; rep++) {
+            if (mode == CachingMode.MANUAL) {
+                backend.clearBulkCache();
+            }
+            for (int c = 0; c < callsPerRepetition; c++) {
+                double argument = argumentFor(n++);
+                long start = clock.nanoTime();
+                blackhole += backend.call(primitive, argument);
+                result.nanos.record(clock.nanoTime() - start);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Measures every supported primitive under every caching mode and adds the results to a list.
+     * @param results The list to add the results to.
+     */
+    public void runAll(List<Result> results) {
+        for (CachingMode mode : CachingMode.values()) {
+            for (Primitive primitive : Primitive.values()) {
+                Result result = run(primitive, mode);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write primitives alternate between two different values, so an output cache (or the hub
+     * itself) can never skip the write as "unchanged". Both are far too small to move a motor.
+     */
+    private static double argumentFor(int callIndex) {
+        return (callIndex & 1) == 0 ? 0.0 : 0.01;
+    }
+
+    /** @return The running sum of every value read. Only useful to keep calls from being optimized away. */
+    public double getBlackhole() { return blackhole; }
+}
@@ -2,12 +2,17 @@
 package org.firstinspires.ftc.teamcode.draft;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.ConfigFile;
+import org.firstinspires.ftc.teamcode.ConfigSnapshot;
+import org.firstinspires.ftc.teamcode.ConfigWatcher;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This is the Configuration Manager class.
@@ -15,24 +20,60 @@ import java.util.Properties;
  * It reads and writes to a .properties file on the robot's file system to manage
  * constants and tuning values. This allows for quick adjustments without recompiling code.
  *
- * To use, call Config.load() once at the beginning of an OpMode.
- * Then, access values using the static getter methods, which provide a default
- * value as a fallback from the Constants.java class.
+ * To use, call ConfigDraft.load() once at the beginning of an OpMode.
+ * load() parses every ConfigKeyDraft once into a typed ConfigSnapshot, with the defaults from
+ * ConstantsDraft.java as the fallback. Read tunables from snapshot() (a plain array read, safe
+ * in a loop), and show getLoadErrors() at init so a typo in the file does not go unnoticed.
+ * The string getters parse on every call, so keep them out of the loop.
+ * To pick up edits made while the OpMode runs, use watch().
+ *
+ * save() applies the value in memory at once and writes the file on a background thread, crash-safely
+ * (see ConfigFile), so a slow flash write never stalls the OpMode.
  *
  * @author Team 13353
  */
 public class ConfigDraft {
     private static Properties properties = new Properties();
+    // The parsed values. Replaced (never changed) by load() and save().
+    private static volatile ConfigSnapshot snapshot = ConfigSnapshot.parse(ConfigKeyDraft.class, properties);
+
+    // Writes the file off the OpMode thread. One thread, so writes can never overlap.
+    private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ConfigSaver");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public static void load() {
         try {
             File file = AppUtil.getInstance().getSettingsFile("robot_config.properties");
-            FileReader reader = new FileReader(file);
-            properties.load(reader);
-            reader.close();
+            properties.putAll(ConfigFile.read(file));
         } catch (IOException e) {
             // File not found or unreadable, defaults will be used.
         }
+        snapshot = ConfigSnapshot.parse(ConfigKeyDraft.class, properties);
+    }
+
+    /** @return The current parsed values. Keep the returned snapshot for the whole loop. */
+    public static ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /** @return One message per value in the file that was rejected at the last load. */
+    public static List<String> getLoadErrors() {
+        return snapshot.getErrors();
+    }
+
+    /**
+     * Starts following edits to the file while the OpMode runs. Call update() on the returned
+     * watcher a few times per second from the loop; snapshot() then follows the file.
+     * @return The watcher. Add listeners to it to be told when the values change.
+     */
+    public static ConfigWatcher watch() {
+        File file = AppUtil.getInstance().getSettingsFile("robot_config.properties");
+        ConfigWatcher watcher = new ConfigWatcher(file, ConfigKeyDraft.class, snapshot);
+        watcher.addListener(newSnapshot -> snapshot = newSnapshot);
+        return watcher;
     }
 
     public static String getString(String key, String defaultValue) {
@@ -55,15 +96,22 @@ public class ConfigDraft {
         }
     }
 
-    public static void save(String key, Object value) {
+    public static Future<Void> save(ConfigSnapshot.Key key, Object value) {
+        return save(key.name(), value);
+    }
+
+    /**
+     * Sets a value in memory now, and writes the whole file on a background thread.
+     * @return Completes once the file holds the value, or fails with the write's IOException.
+     */
+    public static Future<Void> save(String key, Object value) {
         properties.setProperty(key, String.valueOf(value));
-        try {
+        snapshot = ConfigSnapshot.parse(ConfigKeyDraft.class, properties);
+        Properties copy = (Properties) properties.clone();
+        return saveExecutor.submit(() -> {
             File file = AppUtil.getInstance().getSettingsFile("robot_config.properties");
-            FileWriter writer = new FileWriter(file, false);
-            properties.store(writer, "Robot Configuration - Updated by an Ultimate Tool");
-            writer.close();
-        } catch (IOException e) {
-            // Handle error
-        }
+            ConfigFile.write(file, copy, "Robot Configuration - Updated by an Ultimate Tool");
+            return null;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+// Filename: ConfigKeyDraft.java
+package org.firstinspires.ftc.teamcode.draft;
+
+import org.firstinspires.ftc.teamcode.ConfigSnapshot;
+
+/**
+ * The tunable values of the draft Robot that robot_config.properties can override, with their
+ * defaults from {@link ConstantsDraft} and the range a value must be in to be accepted.
+ *
+ * Read them from the current snapshot: `ConfigDraft.snapshot().get(ConfigKeyDraft.ARM_POWER_LIMIT)`.
+ *
+ * @author Team 13353
+ */
+public enum ConfigKeyDraft implements ConfigSnapshot.Key {
+    // DRIVETRAIN
+    DRIVE_POWER_MULTIPLIER(ConstantsDraft.DRIVE_POWER_MULTIPLIER, 0.0, 1.0),
+    DRIVE_SLOW_MODE_MULTIPLIER(ConstantsDraft.DRIVE_SLOW_MODE_MULTIPLIER, 0.0, 1.0),
+    // MECHANISMS - CLAW
+    CLAW_OPEN_POSITION(ConstantsDraft.CLAW_OPEN_POSITION, 0.0, 1.0),
+    CLAW_CLOSED_POSITION(ConstantsDraft.CLAW_CLOSED_POSITION, 0.0, 1.0),
+    // MECHANISMS - WRIST
+    WRIST_STOW_POSITION(ConstantsDraft.WRIST_STOW_POSITION, 0.0, 1.0),
+    WRIST_SCORE_POSITION(ConstantsDraft.WRIST_SCORE_POSITION, 0.0, 1.0),
+    // MECHANISMS - ARM
+    ARM_LIFT_POSITION(ConstantsDraft.ARM_LIFT_POSITION, -10000, 10000),
+    ARM_CARRY_POSITION(ConstantsDraft.ARM_CARRY_POSITION, -10000, 10000),
+    ARM_INTAKE_POSITION(ConstantsDraft.ARM_INTAKE_POSITION, -10000, 10000),
+    ARM_POWER_LIMIT(ConstantsDraft.ARM_POWER_LIMIT, 0.0, 1.0),
+    ARM_MANUAL_POWER_MULTIPLIER(ConstantsDraft.ARM_MANUAL_POWER_MULTIPLIER, 0.0, 1.0),
+    // MECHANISMS - ARM PIDF
+    ARM_P(ConstantsDraft.ARM_P, 0.0, 100.0),
+    ARM_I(ConstantsDraft.ARM_I, 0.0, 100.0),
+    ARM_D(ConstantsDraft.ARM_D, 0.0, 100.0),
+    ARM_F(ConstantsDraft.ARM_F, 0.0, 100.0),
+    // STALL DETECTION
+    ARM_STALL_THRESHOLD_AMPS(ConstantsDraft.ARM_STALL_THRESHOLD_AMPS, 0.0, 20.0),
+    DRIVE_STALL_THRESHOLD_AMPS(ConstantsDraft.DRIVE_STALL_THRESHOLD_AMPS, 0.0, 20.0),
+    // ODOMETRY
+    ODOMETRY_TRACK_WIDTH_IN(ConstantsDraft.ODOMETRY_TRACK_WIDTH_IN, 1.0, 36.0),
+    ODOMETRY_FORWARD_OFFSET_IN(ConstantsDraft.ODOMETRY_FORWARD_OFFSET_IN, -18.0, 18.0),
+    // POWER & BATTERY
+    VOLTAGE_WARNING_THRESHOLD(ConstantsDraft.VOLTAGE_WARNING_THRESHOLD, 0.0, 20.0),
+    BATTERY_ID(ConstantsDraft.BATTERY_ID, 0, 999);
+
+    private final double defaultValue;
+    private final double min;
+    private final double max;
+    private final boolean isInteger;
+
+    ConfigKeyDraft(double defaultValue, double min, double max) {
+        this(defaultValue, min, max, false);
+    }
+
+    ConfigKeyDraft(int defaultValue, int min, int max) {
+        this(defaultValue, min, max, true);
+    }
+
+    ConfigKeyDraft(double defaultValue, double min, double max, boolean isInteger) {
+        this.defaultValue = defaultValue;
+        this.min = min;
+        this.max = max;
+        this.isInteger = isInteger;
+    }
+
+    @Override public double getDefault() { return defaultValue; }
+    @Override public double getMin() { return min; }
+    @Override public double getMax() { return max; }
+    @Override public boolean isInteger() { return isInteger; }
+}
@@ -48,6 +48,13 @@ public class ConstantsDraft {
     public static final double ARM_FREE_SPIN_CURRENT_AMPS = 1.5;
     public static final double ARM_STALL_CURRENT_AMPS = 10.0;
     public static final double ARM_STALL_THRESHOLD_AMPS = 9.0;
+    // STALL DETECTION - ALL MOTORS
+    public static final double DRIVE_STALL_THRESHOLD_AMPS = 8.0;
+    // A stalled motor must drop this far below its stall threshold before it counts as recovered.
+    public static final double STALL_HYSTERESIS_AMPS = 1.0;
+    // How long the current must stay above the threshold to be a stall, and below it to clear.
+    public static final long STALL_TIME_MS = 500;
+    public static final long STALL_CLEAR_TIME_MS = 250;
     // DIAGNOSTIC TOOLS
     public static final double SERVO_TUNER_SAFE_MIN = 0.05;
     public static final double SERVO_TUNER_SAFE_MAX = 0.95;
@@ -63,9 +70,64 @@ public class ConstantsDraft {
     // indicates a poor battery or bad wiring. 1.0V is a reasonable starting point.
     public static final double VOLTAGE_DROP_CRITICAL_THRESHOLD = 1.0;
 
+    // The predictive power governor (see PowerGovernor) turns motor power down so the battery
+    // is never pulled below this voltage. The hubs reset somewhere under 7 V; this leaves margin.
+    public static final double POWER_GOVERNOR_FLOOR_VOLTS = 9.0;
+    // The robot's current draw with every motor stopped.
+    public static final double POWER_GOVERNOR_IDLE_AMPS = 1.0;
+    // Starting guess, refined while the robot runs: the current drawn per unit of commanded motor
+    // power. The battery's resistance comes from the health monitor's battery estimator.
+    public static final double POWER_GOVERNOR_AMPS_PER_POWER = 5.0;
+
+    // The number written on the pack in the robot; set it in robot_config.properties before each
+    // match. 0 means "not numbered", and nothing is added to the battery history.
+    public static final int BATTERY_ID = 0;
+
     // The power to apply to the drivetrain motors during the stress test.
     // 50% is a significant, sustained load.
     public static final double STRESS_TEST_POWER = 0.5;
 
+    // =============================================================================================
+    //                                     MOTOR THERMAL CONSTANTS
+    // =============================================================================================
+
+    // The estimated winding temperature of each motor (see ThermalModel). A steady current I heats
+    // a motor MOTOR_RISE_C_PER_AMP2 * I^2 above ambient: a 9 A stall would settle 120 deg C above it,
+    // a motor run at 70% of that current about 60 deg C above it.
+    public static final double MOTOR_AMBIENT_C = 25;
+    public static final double MOTOR_RISE_C_PER_AMP2 = 1.5;
+    // How quickly the windings heat up under load and cool down again, in seconds.
+    public static final double MOTOR_HEATING_TAU_S = 90;
+    public static final double MOTOR_COOLING_TAU_S = 180;
+    // Above MOTOR_DERATE_START_C a motor's power is turned down, reaching MOTOR_MIN_POWER_SCALE
+    // at MOTOR_MAX_C.
+    public static final double MOTOR_DERATE_START_C = 70;
+    public static final double MOTOR_MAX_C = 100;
+    public static final double MOTOR_MIN_POWER_SCALE = 0.3;
+
+    // =============================================================================================
+    //                                     ODOMETRY CONSTANTS
+    // =============================================================================================
+
+    // The distance an odometry pod rolls per encoder tick: a 48 mm goBILDA pod wheel with a
+    // 2000-tick encoder. Change it if your pods are different.
+    public static final double ODOMETRY_INCHES_PER_TICK = Math.PI * 48 / 25.4 / 2000;
+    // Where the pods are (see ThreeWheelLocalizer): the distance between the two parallel pods,
+    // and how far the perpendicular pod is in front of the center of rotation (negative if it is
+    // behind). Measure them first, then tune them in robot_config.properties: spin the robot
+    // ten turns in place and adjust the track width until the heading comes back to zero.
+    public static final double ODOMETRY_TRACK_WIDTH_IN = 12.0;
+    public static final double ODOMETRY_FORWARD_OFFSET_IN = -6.0;
+
+    // =============================================================================================
+    //                                     LOOP PERFORMANCE CONSTANTS
+    // =============================================================================================
+
+    // How often the slow background tasks run, in Hz. Driving always runs every loop.
+    public static final double STALL_DETECTION_RATE_HZ = 50;
+    public static final double HEALTH_MONITOR_RATE_HZ = 5;
+
+    // How often robot_config.properties is checked for changes while an OpMode runs, in Hz.
+    public static final double CONFIG_POLL_RATE_HZ = 2;
 
 }
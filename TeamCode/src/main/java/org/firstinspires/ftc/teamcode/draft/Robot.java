@@ -9,6 +9,7 @@ import com.qualcomm.robotcore.hardware.DcMotorSimple;
 import com.qualcomm.robotcore.hardware.DistanceSensor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
 import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
@@ -16,10 +17,23 @@ import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
 import org.firstinspires.ftc.teamcode.draft.ConfigDraft;
+import org.firstinspires.ftc.teamcode.draft.ConfigKeyDraft;
 import org.firstinspires.ftc.teamcode.draft.ConstantsDraft;
-import org.firstinspires.ftc.teamcode.StallDetector;
+import org.firstinspires.ftc.teamcode.BulkReadManager;
+import org.firstinspires.ftc.teamcode.LynxHub;
+import org.firstinspires.ftc.teamcode.CachedMotor;
+import org.firstinspires.ftc.teamcode.CachedServo;
+import org.firstinspires.ftc.teamcode.ConfigSnapshot;
+import org.firstinspires.ftc.teamcode.ConfigWatcher;
+import org.firstinspires.ftc.teamcode.EnergyAccountant;
+import org.firstinspires.ftc.teamcode.NanoClock;
+import org.firstinspires.ftc.teamcode.PowerGovernor;
+import org.firstinspires.ftc.teamcode.StallDetectorBank;
 import org.firstinspires.ftc.teamcode.SystemHealthMonitor;
+import org.firstinspires.ftc.teamcode.TaskScheduler;
+import org.firstinspires.ftc.teamcode.ThermalModel;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -37,6 +51,15 @@ import java.util.List;
  */
 public class Robot {
 
+    // Motor channels: the index of each motor's current and thermal model, and its bit in the
+    // stalled mask.
+    public static final int STALL_LEFT_FRONT = 0;
+    public static final int STALL_RIGHT_FRONT = 1;
+    public static final int STALL_LEFT_REAR = 2;
+    public static final int STALL_RIGHT_REAR = 3;
+    public static final int STALL_ARM = 4;
+    private static final long DRIVE_STALL_MASK = 0b1111;
+
     // --- HARDWARE DECLARATIONS ---
     public DcMotor leftFront, rightFront, leftRear, rightRear;
     public IMU imu;
@@ -46,15 +69,33 @@ public class Robot {
 
     // --- STATE & HELPERS ---
     private HardwareMap hardwareMap;
-    private StallDetector armStallDetector;
+    private StallDetectorBank stallDetectors;
+    private DcMotor[] driveMotors;
+    private final double[] motorCurrents = new double[5]; // Indexed by the STALL_ channels
+    private final ThermalModel[] motorHeat = new ThermalModel[5]; // Indexed by the STALL_ channels
+    private final int[] motorEnergy = new int[5]; // Each motor's channel in the energy accountant
+    private int nextDriveStallChannel = 0;
+    private boolean isArmHoldingPosition = false; // RUN_TO_POSITION, at the power limit
+    private double drivePowerDemand = 0, armPowerDemand = 0; // Sums of absolute powers, before the governor
     public SystemHealthMonitor healthMonitor;
+    public PowerGovernor powerGovernor; // Turns power down before the battery sags too far
+    public BulkReadManager bulkReads;
+    public TaskScheduler tasks;
+    public ConfigWatcher configWatcher;
+    private ElapsedTime matchTimer;
     private List<LynxModule> allHubs;
 
+    // --- OUTPUT CACHES ---
+    // Every power and position command goes through these, so unchanged values are not re-sent.
+    private CachedMotor leftFrontOut, rightFrontOut, leftRearOut, rightRearOut, armOut;
+    private CachedServo clawOut, wristOut;
+
     // --- CONFIGURATION CONSTANTS ---
     public double CLAW_OPEN_POSITION, CLAW_CLOSED_POSITION;
     public double WRIST_STOW_POSITION, WRIST_SCORE_POSITION;
     public double ARM_MANUAL_POWER_MULTIPLIER, ARM_POWER_LIMIT;
-    public double ARM_STALL_THRESHOLD_AMPS;
+    public double ARM_STALL_THRESHOLD_AMPS, DRIVE_STALL_THRESHOLD_AMPS;
+    public double ARM_P, ARM_I, ARM_D, ARM_F;
 
     public Robot(HardwareMap hwMap) {
         this.hardwareMap = hwMap;
@@ -63,13 +104,9 @@ public class Robot {
     public boolean init() {
         try {
             // --- LOAD CONSTANTS ---
-            CLAW_OPEN_POSITION = ConfigDraft.getDouble("CLAW_OPEN_POSITION", ConstantsDraft.CLAW_OPEN_POSITION);
-            CLAW_CLOSED_POSITION = ConfigDraft.getDouble("CLAW_CLOSED_POSITION", ConstantsDraft.CLAW_CLOSED_POSITION);
-            WRIST_STOW_POSITION = ConfigDraft.getDouble("WRIST_STOW_POSITION", ConstantsDraft.WRIST_STOW_POSITION);
-            WRIST_SCORE_POSITION = ConfigDraft.getDouble("WRIST_SCORE_POSITION", ConstantsDraft.WRIST_SCORE_POSITION);
-            ARM_MANUAL_POWER_MULTIPLIER = ConfigDraft.getDouble("ARM_MANUAL_POWER_MULTIPLIER", ConstantsDraft.ARM_MANUAL_POWER_MULTIPLIER);
-            ARM_POWER_LIMIT = ConfigDraft.getDouble("ARM_POWER_LIMIT", ConstantsDraft.ARM_POWER_LIMIT);
-            ARM_STALL_THRESHOLD_AMPS = ConfigDraft.getDouble("ARM_STALL_THRESHOLD_AMPS", ConstantsDraft.ARM_STALL_THRESHOLD_AMPS);
+            // Parsed once from the file; each value is then a plain array read.
+            ConfigDraft.load();
+            readConfig(ConfigDraft.snapshot());
 
             // --- HARDWARE INIT ---
             leftFront = hardwareMap.get(DcMotor.class, "leftFront");
@@ -83,6 +120,11 @@ public class Robot {
             frontDistanceSensor = hardwareMap.get(DistanceSensor.class, "frontDistanceSensor");
             allHubs = hardwareMap.getAll(LynxModule.class);
 
+            // --- BULK READS ---
+            // MANUAL caching: one bulk read per hub per loop, refreshed at the top of update().
+            bulkReads = new BulkReadManager();
+            bulkReads.init(LynxHub.wrap(allHubs));
+
             // --- DRIVETRAIN CONFIG ---
             leftFront.setDirection(DcMotor.Direction.REVERSE);
             leftRear.setDirection(DcMotor.Direction.REVERSE);
@@ -105,13 +147,61 @@ public class Robot {
             // --- ARM CONFIG ---
             armMotor.setDirection(DcMotorSimple.Direction.FORWARD);
             armMotor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+            // --- OUTPUT CACHES ---
+            leftFrontOut = new CachedMotor(leftFront, bulkReads);
+            rightFrontOut = new CachedMotor(rightFront, bulkReads);
+            leftRearOut = new CachedMotor(leftRear, bulkReads);
+            rightRearOut = new CachedMotor(rightRear, bulkReads);
+            armOut = new CachedMotor(armMotor, bulkReads);
+            clawOut = new CachedServo(clawServo, bulkReads);
+            wristOut = new CachedServo(wristServo, bulkReads);
+
             resetArmEncoder();
             armMotor.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
 
+            applyArmPidf();
+
             // --- CREATE HELPERS ---
-            armStallDetector = new StallDetector(ARM_STALL_THRESHOLD_AMPS, 500);
+            // Every drivetrain and mechanism motor is watched for stalls.
+            driveMotors = new DcMotor[]{leftFront, rightFront, leftRear, rightRear};
+            stallDetectors = new StallDetectorBank(motorCurrents.length, NanoClock.SYSTEM);
+            String[] driveNames = {"leftFront", "rightFront", "leftRear", "rightRear"};
+            for (String name : driveNames) {
+                stallDetectors.addChannel(name, DRIVE_STALL_THRESHOLD_AMPS, stallClearThreshold(DRIVE_STALL_THRESHOLD_AMPS),
+                        ConstantsDraft.STALL_TIME_MS, ConstantsDraft.STALL_CLEAR_TIME_MS);
+            }
+            stallDetectors.addChannel("arm", ARM_STALL_THRESHOLD_AMPS, stallClearThreshold(ARM_STALL_THRESHOLD_AMPS),
+                    ConstantsDraft.STALL_TIME_MS, ConstantsDraft.STALL_CLEAR_TIME_MS);
+            // ...and has a thermal model, which turns its power down when it runs hot.
+            for (int channel = 0; channel < motorHeat.length; channel++) {
+                motorHeat[channel] = new ThermalModel(ConstantsDraft.MOTOR_AMBIENT_C, ConstantsDraft.MOTOR_RISE_C_PER_AMP2,
+                        ConstantsDraft.MOTOR_HEATING_TAU_S, ConstantsDraft.MOTOR_COOLING_TAU_S,
+                        ConstantsDraft.MOTOR_DERATE_START_C, ConstantsDraft.MOTOR_MAX_C, ConstantsDraft.MOTOR_MIN_POWER_SCALE,
+                        NanoClock.SYSTEM);
+            }
             healthMonitor = new SystemHealthMonitor();
             healthMonitor.init(allHubs);
+            healthMonitor.setBatteryId(ConfigDraft.snapshot().getInt(ConfigKeyDraft.BATTERY_ID));
+            EnergyAccountant energy = healthMonitor.getEnergy();
+            for (int channel = STALL_LEFT_FRONT; channel <= STALL_RIGHT_REAR; channel++) {
+                motorEnergy[channel] = energy.addChannel(stallDetectors.getName(channel), EnergyAccountant.Group.DRIVETRAIN);
+            }
+            motorEnergy[STALL_ARM] = energy.addChannel("arm", EnergyAccountant.Group.MECHANISM);
+            // The drivetrain gets the battery's current budget first; the arm gets what is left.
+            powerGovernor = new PowerGovernor(healthMonitor.getBatteryEstimator(), ConstantsDraft.POWER_GOVERNOR_FLOOR_VOLTS,
+                    ConstantsDraft.POWER_GOVERNOR_IDLE_AMPS, ConstantsDraft.POWER_GOVERNOR_AMPS_PER_POWER);
+
+            // --- BACKGROUND TASKS ---
+            // Each runs at its own rate; stall detection outranks health polling on a busy tick.
+            tasks = new TaskScheduler(NanoClock.SYSTEM);
+            tasks.addTask("stall", ConstantsDraft.STALL_DETECTION_RATE_HZ, 2, this::updateStallDetection);
+            tasks.addTask("health", ConstantsDraft.HEALTH_MONITOR_RATE_HZ, 1, this::updateHealthMonitor);
+
+            // --- CONFIG HOT RELOAD ---
+            // Edits to robot_config.properties are applied while the OpMode runs.
+            configWatcher = ConfigDraft.watch();
+            configWatcher.addListener(this::onConfigChanged);
+            tasks.addTask("config", ConstantsDraft.CONFIG_POLL_RATE_HZ, 0, configWatcher::update);
 
             // Set initial mechanism positions
             closeClaw();
@@ -125,8 +215,100 @@ public class Robot {
     }
 
     public void update(ElapsedTime matchTimer) {
-        armStallDetector.update(getArmCurrent(CurrentUnit.AMPS));
+        // Must run first: every read below this line sees fresh bulk data.
+        bulkReads.update();
+        this.matchTimer = matchTimer;
+        tasks.tick();
+    }
+
+    /**
+     * Copies the tunable values out of a config snapshot.
+     */
+    private void readConfig(ConfigSnapshot config) {
+        CLAW_OPEN_POSITION = config.get(ConfigKeyDraft.CLAW_OPEN_POSITION);
+        CLAW_CLOSED_POSITION = config.get(ConfigKeyDraft.CLAW_CLOSED_POSITION);
+        WRIST_STOW_POSITION = config.get(ConfigKeyDraft.WRIST_STOW_POSITION);
+        WRIST_SCORE_POSITION = config.get(ConfigKeyDraft.WRIST_SCORE_POSITION);
+        ARM_MANUAL_POWER_MULTIPLIER = config.get(ConfigKeyDraft.ARM_MANUAL_POWER_MULTIPLIER);
+        ARM_POWER_LIMIT = config.get(ConfigKeyDraft.ARM_POWER_LIMIT);
+        ARM_STALL_THRESHOLD_AMPS = config.get(ConfigKeyDraft.ARM_STALL_THRESHOLD_AMPS);
+        DRIVE_STALL_THRESHOLD_AMPS = config.get(ConfigKeyDraft.DRIVE_STALL_THRESHOLD_AMPS);
+        ARM_P = config.get(ConfigKeyDraft.ARM_P);
+        ARM_I = config.get(ConfigKeyDraft.ARM_I);
+        ARM_D = config.get(ConfigKeyDraft.ARM_D);
+        ARM_F = config.get(ConfigKeyDraft.ARM_F);
+    }
+
+    /**
+     * Called on the loop thread (from the "config" task) when robot_config.properties was edited.
+     */
+    private void onConfigChanged(ConfigSnapshot config) {
+        readConfig(config);
+        applyArmPidf();
+        for (int channel = STALL_LEFT_FRONT; channel <= STALL_RIGHT_REAR; channel++) {
+            setStallThreshold(channel, DRIVE_STALL_THRESHOLD_AMPS);
+        }
+        setStallThreshold(STALL_ARM, ARM_STALL_THRESHOLD_AMPS);
+        // The positions and power limits are read when they are next used.
+    }
+
+    /**
+     * Sends the arm's PIDF gains to the motor controller.
+     */
+    private void applyArmPidf() {
+        if (armMotor instanceof DcMotorEx) {
+            ((DcMotorEx) armMotor).setPIDFCoefficients(DcMotor.RunMode.RUN_TO_POSITION,
+                    new PIDFCoefficients(ARM_P, ARM_I, ARM_D, ARM_F));
+        }
+    }
+
+    private void setStallThreshold(int channel, double thresholdAmps) {
+        stallDetectors.setThresholds(channel, thresholdAmps, stallClearThreshold(thresholdAmps));
+    }
+
+    private static double stallClearThreshold(double stallThresholdAmps) {
+        return Math.max(0, stallThresholdAmps - ConstantsDraft.STALL_HYSTERESIS_AMPS);
+    }
+
+    private void updateStallDetection() {
+        // Motor current is not part of the bulk data: every reading is a hub transaction. The arm
+        // is read every time; the four drive motors take turns, one per run.
+        int driveChannel = nextDriveStallChannel;
+        nextDriveStallChannel = (nextDriveStallChannel + 1) % driveMotors.length;
+        Arrays.fill(motorCurrents, Double.NaN);
+        motorCurrents[STALL_ARM] = getArmCurrent(CurrentUnit.AMPS);
+        motorCurrents[driveChannel] = getMotorCurrent(driveMotors[driveChannel], CurrentUnit.AMPS);
+        stallDetectors.update(motorCurrents);
+
+        // The same readings feed the thermal models and the energy accountant.
+        motorHeat[STALL_ARM].update(motorCurrents[STALL_ARM]);
+        motorHeat[driveChannel].update(motorCurrents[driveChannel]);
+        EnergyAccountant energy = healthMonitor.getEnergy();
+        energy.record(motorEnergy[STALL_ARM], motorCurrents[STALL_ARM]);
+        energy.record(motorEnergy[driveChannel], motorCurrents[driveChannel]);
+        if (isArmHoldingPosition) {
+            // RUN_TO_POSITION keeps using the power it was given, so follow the arm's thermal and
+            // battery limits here. The output cache drops the write while they are unchanged.
+            setArmOutput(ARM_POWER_LIMIT * motorHeat[STALL_ARM].getPowerScale());
+        }
+    }
+
+    private void updateHealthMonitor() {
         healthMonitor.update(matchTimer);
+        // Hub current and voltage are not part of the bulk data: one current read per hub, plus
+        // one voltage read for the whole robot.
+        int hubs = bulkReads.getHubCount();
+        bulkReads.recordTransactions(hubs == 0 ? 0 : hubs + 1);
+
+        // The health monitor has fed the battery estimator; the same current teaches the power
+        // governor how many amps each unit of power draws.
+        double totalAmps = 0;
+        for (int hub = 0; hub < healthMonitor.getHubCount(); hub++) {
+            totalAmps += healthMonitor.getLatestHubCurrent(hub);
+        }
+        double appliedPower = drivePowerDemand * powerGovernor.getDriveScale()
+                + armPowerDemand * powerGovernor.getMechanismScale();
+        powerGovernor.addMeasurement(totalAmps, appliedPower);
     }
 
     // --- Drivetrain Methods ---
@@ -136,53 +318,101 @@ public class Robot {
         double leftRearPower = forward - strafe + turn;
         double rightRearPower = forward + strafe - turn;
         double denominator = Math.max(Math.abs(forward) + Math.abs(strafe) + Math.abs(turn), 1.0);
-        leftFront.setPower(leftFrontPower / denominator);
-        rightFront.setPower(rightFrontPower / denominator);
-        leftRear.setPower(leftRearPower / denominator);
-        rightRear.setPower(rightRearPower / denominator);
+        setDrivePowers(leftFrontPower / denominator, rightFrontPower / denominator,
+                leftRearPower / denominator, rightRearPower / denominator);
     }
     public void driveFieldCentric(double forward, double strafe, double turn) {
         double heading = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+        bulkReads.recordTransaction();
         double rotX = strafe * Math.cos(-heading) - forward * Math.sin(-heading);
         double rotY = strafe * Math.sin(-heading) + forward * Math.cos(-heading);
         double denominator = Math.max(Math.abs(rotY) + Math.abs(rotX) + Math.abs(turn), 1.0);
-        leftFront.setPower((rotY + rotX + turn) / denominator);
-        rightFront.setPower((rotY - rotX - turn) / denominator);
-        leftRear.setPower((rotY - rotX + turn) / denominator);
-        rightRear.setPower((rotY + rotX - turn) / denominator);
+        setDrivePowers((rotY + rotX + turn) / denominator, (rotY - rotX - turn) / denominator,
+                (rotY - rotX + turn) / denominator, (rotY + rotX - turn) / denominator);
+    }
+    // Each wheel's power is turned down by its thermal model while that motor runs hot, then all
+    // of them by the power governor if together they would sag the battery below its floor.
+    private void setDrivePowers(double leftFrontPower, double rightFrontPower, double leftRearPower, double rightRearPower) {
+        leftFrontPower *= motorHeat[STALL_LEFT_FRONT].getPowerScale();
+        rightFrontPower *= motorHeat[STALL_RIGHT_FRONT].getPowerScale();
+        leftRearPower *= motorHeat[STALL_LEFT_REAR].getPowerScale();
+        rightRearPower *= motorHeat[STALL_RIGHT_REAR].getPowerScale();
+        drivePowerDemand = Math.abs(leftFrontPower) + Math.abs(rightFrontPower) + Math.abs(leftRearPower) + Math.abs(rightRearPower);
+        powerGovernor.govern(drivePowerDemand, armPowerDemand);
+        double scale = powerGovernor.getDriveScale();
+        leftFrontOut.setPower(leftFrontPower * scale);
+        rightFrontOut.setPower(rightFrontPower * scale);
+        leftRearOut.setPower(leftRearPower * scale);
+        rightRearOut.setPower(rightRearPower * scale);
     }
     public void stop() {
-        leftFront.setPower(0);
-        rightFront.setPower(0);
-        leftRear.setPower(0);
-        rightRear.setPower(0);
+        // A stop is always sent, even if the cache believes the motors are already stopped.
+        drivePowerDemand = 0;
+        leftFrontOut.forcePower(0);
+        rightFrontOut.forcePower(0);
+        leftRearOut.forcePower(0);
+        rightRearOut.forcePower(0);
     }
 
     // --- Claw & Wrist Methods ---
-    public void openClaw() { clawServo.setPosition(CLAW_OPEN_POSITION); }
-    public void closeClaw() { clawServo.setPosition(CLAW_CLOSED_POSITION); }
-    public void setClawPosition(double position) { clawServo.setPosition(position); }
-    public void stowWrist() { wristServo.setPosition(WRIST_STOW_POSITION); }
-    public void scoreWrist() { wristServo.setPosition(WRIST_SCORE_POSITION); }
-    public void setWristPosition(double position) { wristServo.setPosition(position); }
+    public void openClaw() { clawOut.setPosition(CLAW_OPEN_POSITION); }
+    public void closeClaw() { clawOut.setPosition(CLAW_CLOSED_POSITION); }
+    public void setClawPosition(double position) { clawOut.setPosition(position); }
+    public void stowWrist() { wristOut.setPosition(WRIST_STOW_POSITION); }
+    public void scoreWrist() { wristOut.setPosition(WRIST_SCORE_POSITION); }
+    public void setWristPosition(double position) { wristOut.setPosition(position); }
 
     // --- Arm Methods ---
     public void setArmPower(double power) {
         armMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
-        armMotor.setPower(power * ARM_MANUAL_POWER_MULTIPLIER);
+        isArmHoldingPosition = false;
+        setArmOutput(power * ARM_MANUAL_POWER_MULTIPLIER * motorHeat[STALL_ARM].getPowerScale());
     }
     public int getArmPosition() { return armMotor.getCurrentPosition(); }
-    public void resetArmEncoder() { armMotor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER); }
+    public void resetArmEncoder() {
+        armMotor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+        isArmHoldingPosition = false;
+        armPowerDemand = 0;
+        // Resetting the encoder also cuts the motor's power, so the cached power is no longer true.
+        armOut.invalidate();
+    }
     public void setArmPosition(int position) {
         armMotor.setTargetPosition(position);
         armMotor.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        armMotor.setPower(ARM_POWER_LIMIT);
+        isArmHoldingPosition = true;
+        setArmOutput(ARM_POWER_LIMIT * motorHeat[STALL_ARM].getPowerScale());
+    }
+    // The arm only gets the battery budget the drivetrain leaves over.
+    private void setArmOutput(double power) {
+        armPowerDemand = Math.abs(power);
+        powerGovernor.govern(drivePowerDemand, armPowerDemand);
+        armOut.setPower(power * powerGovernor.getMechanismScale());
     }
     public boolean isArmBusy() { return armMotor.isBusy(); }
-    public boolean isArmStalled() { return armStallDetector.isStalled(); }
+    public boolean isArmStalled() { return stallDetectors.isStalled(STALL_ARM); }
     public double getArmCurrent(CurrentUnit unit) {
-        if (armMotor instanceof DcMotorEx) {
-            return ((DcMotorEx) armMotor).getCurrent(unit);
+        return getMotorCurrent(armMotor, unit);
+    }
+
+    // --- Stall Detection ---
+    /** @return True while any drivetrain motor is stalled. */
+    public boolean isDriveStalled() { return (stallDetectors.getStalledMask() & DRIVE_STALL_MASK) != 0; }
+    /** @return The stalled motors as a bitmask: bit STALL_LEFT_FRONT etc. is set while that motor is stalled. */
+    public long getStalledMotors() { return stallDetectors.getStalledMask(); }
+    /** @return The stall detectors, for their channel names and stall counts. */
+    public StallDetectorBank getStallDetectors() { return stallDetectors; }
+
+    // --- Motor Temperatures ---
+    // Both take a motor channel: STALL_LEFT_FRONT ... STALL_ARM.
+    /** @return The motor's estimated winding temperature, in deg C. */
+    public double getMotorTemperatureC(int channel) { return motorHeat[channel].getTemperatureC(); }
+    /** @return The factor the motor's power is multiplied by: 1.0 while it is cool. */
+    public double getMotorPowerScale(int channel) { return motorHeat[channel].getPowerScale(); }
+
+    private double getMotorCurrent(DcMotor motor, CurrentUnit unit) {
+        if (motor instanceof DcMotorEx) {
+            bulkReads.recordTransaction(); // Motor current is not part of the bulk data.
+            return ((DcMotorEx) motor).getCurrent(unit);
         }
         return 0;
     }
@@ -210,15 +440,30 @@ public class Robot {
         rightRear.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
         armMotor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
 
-        leftFront.setPower(power);
-        rightFront.setPower(power);
-        leftRear.setPower(power);
-        rightRear.setPower(power);
-        armMotor.setPower(power);
+        leftFrontOut.setPower(power);
+        rightFrontOut.setPower(power);
+        leftRearOut.setPower(power);
+        rightRearOut.setPower(power);
+        armOut.setPower(power);
 
         // Actuate Servos
         double servoPosition = (Math.sin(System.currentTimeMillis() / 500.0) + 1.0) / 2.0;
         setClawPosition(servoPosition);
         setWristPosition(servoPosition);
     }
+
+    /**
+     * Gets the total number of output writes that were skipped because the commanded value had
+     * not changed, across all motors and servos.
+     * @return The number of suppressed writes since init.
+     */
+    public long getSuppressedWrites() {
+        return leftFrontOut.getCache().getSuppressedWrites()
+                + rightFrontOut.getCache().getSuppressedWrites()
+                + leftRearOut.getCache().getSuppressedWrites()
+                + rightRearOut.getCache().getSuppressedWrites()
+                + armOut.getCache().getSuppressedWrites()
+                + clawOut.getCache().getSuppressedWrites()
+                + wristOut.getCache().getSuppressedWrites();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+// Filename: SimulatedHardwareBackend.java
+package org.firstinspires.ftc.teamcode.draft;
+
+import org.firstinspires.ftc.teamcode.NanoClock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fake robot for {@link BenchmarkHarness}, so the benchmark suite can be run and checked on a
+ * desktop JVM without any hardware.
+ *
+ * It models the cost of each kind of hardware call with a configurable latency, and follows the
+ * same bulk-caching rules as a real hub:
+ * - OFF:    Every bulk-data read costs a single-value hub transaction.
+ * - AUTO:   A bulk read fills the cache; reading the same value a second time triggers a new one.
+ * - MANUAL: A bulk read fills the cache; it stays filled until clearBulkCache() is called.
+ * Hub commands (current, voltage), I2C reads and writes always cost their full latency.
+ *
+ * "Spending" a latency means sleeping on the backend's clock. With the built-in {@link VirtualClock}
+ * that sleep just moves time forward, so every run gives exactly the same numbers.
+ *
+ * USAGE (desktop): `./gradlew :Benchmarks:simulateHardwareBenchmark`
+ * prints a full report using the default latencies.
+ *
+ * @author Team 13353
+ */
+public class SimulatedHardwareBackend implements BenchmarkHarness.Backend {
+
+    /**
+     * A clock where time only moves when someone sleeps on it (or calls advance()).
+     */
+    public static class VirtualClock implements NanoClock {
+        private long now = 0;
+
+        @Override
+        public long nanoTime() { return now; }
+
+        @Override
+        public void sleepNanos(long nanos) {
+            if (nanos > 0) now += nanos;
+        }
+
+        /** Moves time forward by the given amount. */
+        public void advance(long nanos) { sleepNanos(nanos); }
+    }
+
+    // --- LATENCIES (nanoseconds), roughly what a Control Hub sees over its internal USB link ---
+    private long bulkReadNanos = 2_000_000;
+    private long singleReadNanos = 1_500_000;
+    private long hubCommandNanos = 1_500_000;
+    private long i2cReadNanos = 3_000_000;
+    private long writeNanos = 1_200_000;
+    private long cachedReadNanos = 2_000;
+
+    // --- STATE VARIABLES ---
+    private final NanoClock clock;
+    private BenchmarkHarness.CachingMode mode = BenchmarkHarness.CachingMode.OFF;
+    private boolean cacheValid = false;
+    /** Which bulk primitives have been read from the current cache (for AUTO mode), by ordinal. */
+    private final boolean[] readSinceBulk = new boolean[BenchmarkHarness.Primitive.values().length];
+    private long transactions = 0;
+    private double lastPower = 0;
+
+    /** Creates a simulated backend with its own virtual clock. */
+    public SimulatedHardwareBackend() {
+        this(new VirtualClock());
+    }
+
+    /**
+     * Creates a simulated backend.
+     * @param clock The clock to spend latencies on. Use the same clock for the harness.
+     */
+    public SimulatedHardwareBackend(NanoClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the simulated latencies, in microseconds.
+     * @param bulkReadUs One bulk read (all encoders and velocities of a hub).
+     * @param singleReadUs One bulk-data value read with caching OFF.
+     * @param hubCommandUs One non-cached hub command (motor current, input voltage).
+     * @param i2cReadUs One I2C sensor read (IMU, distance, color).
+     * @param writeUs One motor power write.
+     * @param cachedReadUs Returning a value from the bulk cache.
+     */
+    public void setLatenciesMicros(double bulkReadUs, double singleReadUs, double hubCommandUs,
+                                   double i2cReadUs, double writeUs, double cachedReadUs) {
+        this.bulkReadNanos = (long) (bulkReadUs * 1000);
+        this.singleReadNanos = (long) (singleReadUs * 1000);
+        this.hubCommandNanos = (long) (hubCommandUs * 1000);
+        this.i2cReadNanos = (long) (i2cReadUs * 1000);
+        this.writeNanos = (long) (writeUs * 1000);
+        this.cachedReadNanos = (long) (cachedReadUs * 1000);
+    }
+
+    /** @return The clock this backend spends its latencies on. */
+    public NanoClock getClock() { return clock; }
+
+    /** @return How many simulated hub/I2C transactions have been made. */
+    public long getTransactionCount() { return transactions; }
+
+    @Override
+    public boolean supports(BenchmarkHarness.Primitive primitive) {
+        return true;
+    }
+
+    @Override
+    public void setCachingMode(BenchmarkHarness.CachingMode mode) {
+        this.mode = mode;
+        invalidate();
+    }
+
+    @Override
+    public void clearBulkCache() {
+        if (mode == BenchmarkHarness.CachingMode.MANUAL) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public double call(BenchmarkHarness.Primitive primitive, double argument) {
+        switch (primitive.kind) {
+            case NONE:
+                return 0;
+            case BULK:
+                readBulk(primitive);
+                return primitive.ordinal();
+            case HUB_COMMAND:
+                spend(hubCommandNanos);
+                return 12.5;
+            case I2C:
+                spend(i2cReadNanos);
+                return 1.0;
+            case WRITE:
+            default:
+                spend(writeNanos);
+                lastPower = argument;
+                return 0;
+        }
+    }
+
+    /** @return The last motor power written. */
+    public double getLastPower() { return lastPower; }
+
+    private void readBulk(BenchmarkHarness.Primitive primitive) {
+        if (mode == BenchmarkHarness.CachingMode.OFF) {
+            spend(singleReadNanos);
+            return;
+        }
+        // In AUTO mode, reading a value twice from the same cache forces a fresh bulk read.
+        boolean stale = !cacheValid
+                || (mode == BenchmarkHarness.CachingMode.AUTO && readSinceBulk[primitive.ordinal()]);
+        if (stale) {
+            invalidate();
+            spend(bulkReadNanos);
+            cacheValid = true;
+        } else {
+            sleep(cachedReadNanos);
+        }
+        readSinceBulk[primitive.ordinal()] = true;
+    }
+
+    private void invalidate() {
+        cacheValid = false;
+        for (int i = 0; i < readSinceBulk.length; i++) {
+            readSinceBulk[i] = false;
+        }
+    }
+
+    private void spend(long nanos) {
+        transactions++;
+        sleep(nanos);
+    }
+
+    private void sleep(long nanos) {
+        try {
+            clock.sleepNanos(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the whole benchmark suite against the simulated backend and prints the report.
+     */
+    public static void main(String[] args) {
+        SimulatedHardwareBackend backend = new SimulatedHardwareBackend();
+        BenchmarkHarness harness = new BenchmarkHarness(backend, backend.getClock());
+        List<BenchmarkHarness.Result> results = new ArrayList<>();
+        harness.runAll(results);
+        for (BenchmarkHarness.Result result : results) {
+            System.out.println(result.toReportLine());
+        }
+        System.out.println("Simulated transactions: " + backend.getTransactionCount());
+    }
+}
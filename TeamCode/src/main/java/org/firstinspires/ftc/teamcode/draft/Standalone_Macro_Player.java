@@ -0,0 +1,115 @@
+// Filename: Standalone_Macro_Player.java
+package org.firstinspires.ftc.teamcode.draft;
+
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import org.firstinspires.ftc.teamcode.Config;
+import org.firstinspires.ftc.teamcode.Constants;
+import org.firstinspires.ftc.teamcode.FlightLogDecoder;
+import org.firstinspires.ftc.teamcode.LoopScheduler;
+import org.firstinspires.ftc.teamcode.MacroPlayer;
+import org.firstinspires.ftc.teamcode.NanoClock;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Plays back the macro saved by Standalone_Macro_Recorder as an autonomous path.
+ *
+ * The macro is loaded during init. After START, a fixed-rate LoopScheduler sends
+ * the macro's drive commands every Constants.LOOP_PERIOD_MS. MacroPlayer plays
+ * the macro against the real clock and interpolates between the recorded samples,
+ * so a late loop never makes the rest of the path late: the run takes exactly as
+ * long as the driver's did. The robot stops when the macro ends.
+ *
+ * @author Team 13353
+ */
+@Autonomous(name = "Standalone: Macro Player", group = "Standalone Tools")
+public class Standalone_Macro_Player extends LinearOpMode {
+
+    // --- LOOP BUDGETS (microseconds) ---
+    private static final long UPDATE_BUDGET_US = 4000;
+    private static final long DRIVING_BUDGET_US = 3000;
+    private static final long TELEMETRY_BUDGET_US = 2000;
+
+    private Robot robot;
+    private MacroPlayer player;
+    private final ElapsedTime matchTimer = new ElapsedTime();
+    private final LoopScheduler scheduler = new LoopScheduler(Constants.LOOP_PERIOD_MS, NanoClock.SYSTEM);
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        robot = new Robot(hardwareMap);
+        Config.load();
+
+        if (!robot.init()) {
+            telemetry.addLine("ERROR: Robot initialization failed.");
+            telemetry.update();
+            while (opModeIsActive()) { sleep(20); }
+            return;
+        }
+
+        // Load the whole macro now, so playback never waits on storage.
+        String filename = Standalone_Macro_Recorder.MACRO_FILENAME;
+        File file = AppUtil.getInstance().getSettingsFile(filename);
+        try {
+            player = new MacroPlayer(new FlightLogDecoder(file), NanoClock.SYSTEM);
+        } catch (IOException | IllegalArgumentException e) {
+            telemetry.addLine("ERROR: Could not load " + filename + ".");
+            telemetry.addLine(e.getMessage());
+            telemetry.addLine("Record and save a macro with 'Standalone: Macro Recorder' first.");
+            telemetry.update();
+            while (opModeIsActive()) { sleep(20); }
+            return;
+        }
+
+        scheduler.addPhase("update", UPDATE_BUDGET_US, LoopScheduler.Priority.CRITICAL, () -> robot.update(matchTimer));
+        scheduler.addPhase("driving", DRIVING_BUDGET_US, LoopScheduler.Priority.CRITICAL, this::playMacro);
+        scheduler.addPhase("telemetry", TELEMETRY_BUDGET_US, LoopScheduler.Priority.DEFERRABLE, this::displayTelemetry);
+
+        telemetry.addLine("Macro Player Initialized.");
+        telemetry.addData("Macro", "%s (%d samples, %.1f s)", filename, player.getSampleCount(), player.getDurationSeconds());
+        telemetry.addLine("Press START to play it.");
+        telemetry.update();
+
+        waitForStart();
+
+        matchTimer.reset();
+        player.start();
+        // Pressing stop usually interrupts the scheduler's sleep; stop the motors either way.
+        try {
+            while (opModeIsActive() && !player.isFinished()) {
+                scheduler.runCycle();
+            }
+        } finally {
+            robot.stop();
+        }
+
+        // Show the final statistics until the OpMode is stopped.
+        while (opModeIsActive()) {
+            displayTelemetry();
+            sleep(100);
+        }
+    }
+
+    private void playMacro() {
+        if (player.update()) {
+            robot.drive(player.getForward(), player.getStrafe(), player.getTurn());
+        } else {
+            robot.stop();
+        }
+    }
+
+    private void displayTelemetry() {
+        telemetry.addLine("--- Standalone Macro Player ---");
+        telemetry.addData("Status", player.isFinished() ? "Finished" : "PLAYING...");
+        telemetry.addData("Playback", "%.2f / %.2f s", player.getPlaybackSeconds(), player.getDurationSeconds());
+        telemetry.addData("Command (F/S/T)", "%.2f / %.2f / %.2f", player.getForward(), player.getStrafe(), player.getTurn());
+        telemetry.addData("Longest Loop", "%.1f ms", player.getMaxStepSeconds() * 1000);
+        telemetry.addData("Loop Overruns", "%d of %d", scheduler.getCycleOverruns(), scheduler.getCycleCount());
+        telemetry.update();
+    }
+}
@@ -3,27 +3,36 @@ package org.firstinspires.ftc.teamcode.draft;
 
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
-import com.qualcomm.robotcore.util.ElapsedTime;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.MacroRecorder;
+import org.firstinspires.ftc.teamcode.NanoClock;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 
 /**
  * A standalone tool to create simple autonomous paths by recording driver movements.
- * NOTE: This is a conceptual, time-based recorder. A more advanced version
- * would use encoder-based recordings.
+ * NOTE: This is a time-based recorder. A more advanced version would use
+ * encoder-based recordings.
+ * The drive commands are streamed to a binary macro file by MacroRecorder while
+ * recording, and played back as an autonomous path by Standalone_Macro_Player.
  * ... (full Javadoc header) ...
  */
 @TeleOp(name = "Standalone: Macro Recorder", group = "Standalone Tools")
 public class Standalone_Macro_Recorder extends LinearOpMode {
 
-    // A list to store our recorded commands
-    private ArrayList<String> recordedCommands = new ArrayList<>();
-    private ElapsedTime timer = new ElapsedTime();
+    /** The saved macro, in the FIRST/settings folder. Standalone_Macro_Player plays this file. */
+    public static final String MACRO_FILENAME = "my_macro.macro";
+    // Recordings go here first, so a bad take never replaces the saved macro until (B) is pressed.
+    private static final String RECORDING_FILENAME = "my_macro_recording.macro";
+
+    // The recording in progress (or the last one), streamed straight to its file.
+    private MacroRecorder macroRecorder;
     private boolean isRecording = false;
+    private boolean hasUnsavedRecording = false;
+    private boolean aWasPressed = false;
+    private boolean bWasPressed = false;
+    private String status = "";
 
     // We will use a simplified Robot class for this example
     private Robot robot;
@@ -33,6 +42,8 @@ public class Standalone_Macro_Recorder extends LinearOpMode {
         robot = new Robot(hardwareMap);
         robot.init(); // Assuming a basic init
 
+        File recordingFile = AppUtil.getInstance().getSettingsFile(RECORDING_FILENAME);
+
         telemetry.addLine("Macro Recorder Initialized.");
         telemetry.addLine("Press (A) to START/STOP recording.");
         telemetry.addLine("Press (B) to SAVE the recording.");
@@ -48,60 +59,66 @@ public class Standalone_Macro_Recorder extends LinearOpMode {
             robot.drive(forward, strafe, turn);
 
             // --- Recording Logic ---
-            if (gamepad1.a) {
+            // Toggle on the press itself, so no sleep() interrupts the recording.
+            if (gamepad1.a && !aWasPressed) {
                 if (!isRecording) {
                     // Start a new recording
-                    recordedCommands.clear();
-                    isRecording = true;
-                    timer.reset();
+                    macroRecorder = new MacroRecorder(recordingFile, NanoClock.SYSTEM);
+                    try {
+                        macroRecorder.open();
+                        isRecording = true;
+                        status = "";
+                    } catch (IOException e) {
+                        status = "--> FAILED to create the recording file! <--";
+                    }
                 } else {
                     // Stop the current recording
                     isRecording = false;
+                    macroRecorder.close();
+                    hasUnsavedRecording = macroRecorder.getSampleCount() > 0;
                 }
-                sleep(500); // Debounce
             }
+            aWasPressed = gamepad1.a;
 
             if (isRecording) {
-                // Add a drive command to our list
-                // Format: "drive,forward,strafe,turn,duration"
-                String command = String.format("drive,%.2f,%.2f,%.2f,%.3f",
-                        forward, strafe, turn, timer.seconds());
-                recordedCommands.add(command);
-                timer.reset(); // Reset timer for the next command's duration
+                // One binary sample per loop, written straight into the file.
+                macroRecorder.record(forward, strafe, turn);
             }
 
             // --- Saving Logic ---
-            if (gamepad1.b && !isRecording && !recordedCommands.isEmpty()) {
-                saveRecording("my_macro.txt");
-                recordedCommands.clear(); // Clear after saving
-                sleep(500); // Debounce
+            if (gamepad1.b && !bWasPressed && !isRecording && hasUnsavedRecording) {
+                saveRecording(recordingFile, MACRO_FILENAME);
             }
+            bWasPressed = gamepad1.b;
 
             // --- Telemetry ---
             telemetry.clearAll();
             telemetry.addLine("--- Standalone Macro Recorder ---");
             telemetry.addData("Recording Status", isRecording ? "RECORDING..." : "Stopped");
-            telemetry.addData("Commands Recorded", recordedCommands.size());
+            if (macroRecorder != null) {
+                telemetry.addData("Samples Recorded", macroRecorder.getSampleCount());
+                if (macroRecorder.getDroppedCount() > 0) {
+                    telemetry.addData("Too Long! Dropped", macroRecorder.getDroppedCount());
+                }
+            }
+            if (!status.isEmpty()) telemetry.addLine(status);
             telemetry.addLine();
             telemetry.addLine("Press (A) to Start/Stop Recording.");
             telemetry.addLine("Press (B) to Save Recording.");
             telemetry.update();
         }
+
+        if (isRecording) macroRecorder.close();
     }
 
-    private void saveRecording(String filename) {
+    private void saveRecording(File recordingFile, String filename) {
+        // The samples are already on storage; saving only gives the recording its final name.
         File file = AppUtil.getInstance().getSettingsFile(filename);
-        try {
-            FileWriter writer = new FileWriter(file, false);
-            for (String command : recordedCommands) {
-                writer.write(command + "\n");
-            }
-            writer.close();
-            telemetry.addLine("--> Recording SAVED to " + filename + " <--");
-            telemetry.update();
-        } catch (IOException e) {
-            telemetry.addLine("--> FAILED to save recording! <--");
-            telemetry.update();
+        if ((!file.exists() || file.delete()) && recordingFile.renameTo(file)) {
+            hasUnsavedRecording = false;
+            status = "--> Recording SAVED to " + filename + " <--";
+        } else {
+            status = "--> FAILED to save recording! <--";
         }
     }
 }
@@ -1,9 +1,14 @@
 package org.firstinspires.ftc.teamcode.draft;
 
 
+import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 import com.qualcomm.robotcore.hardware.DcMotor;
+import org.firstinspires.ftc.teamcode.BulkReadManager;
+import org.firstinspires.ftc.teamcode.LynxHub;
+import org.firstinspires.ftc.teamcode.ConfigSnapshot;
+import org.firstinspires.ftc.teamcode.ThreeWheelLocalizer;
 
 /**
  * A standalone tool to test the three unpowered odometry pod encoders.
@@ -20,6 +25,10 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
 
     private DcMotor leftEncoder, rightEncoder, perpendicularEncoder;
 
+    // All three pods are read from one bulk read per loop and integrated into a pose.
+    private final BulkReadManager bulkReads = new BulkReadManager();
+    private ThreeWheelLocalizer odometry;
+
     @Override
     public void runOpMode() throws InterruptedException {
         telemetry.addLine("Odometry Pod Tester Initializing...");
@@ -40,6 +49,16 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
             rightEncoder.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
             perpendicularEncoder.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
 
+            // The pod geometry can be tuned in robot_config.properties.
+            ConfigDraft.load();
+            ConfigSnapshot config = ConfigDraft.snapshot();
+            odometry = new ThreeWheelLocalizer(leftEncoder::getCurrentPosition,
+                    rightEncoder::getCurrentPosition, perpendicularEncoder::getCurrentPosition,
+                    ConstantsDraft.ODOMETRY_INCHES_PER_TICK,
+                    config.get(ConfigKeyDraft.ODOMETRY_TRACK_WIDTH_IN),
+                    config.get(ConfigKeyDraft.ODOMETRY_FORWARD_OFFSET_IN));
+            bulkReads.init(LynxHub.wrap(hardwareMap.getAll(LynxModule.class)));
+
         } catch (Exception e) {
             telemetry.addLine("\n!!! AN ODOMETRY ENCODER WAS NOT FOUND !!!");
             telemetry.addData("Error", e.getMessage());
@@ -55,6 +74,10 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
         waitForStart();
 
         while (opModeIsActive()) {
+            // Every encoder read in this loop comes from this one bulk read.
+            bulkReads.update();
+            odometry.update();
+
             telemetry.clearAll();
             telemetry.addLine("--- Standalone Odometry Pod Tester ---");
             telemetry.addLine("Manually push the robot to see values change.");
@@ -64,6 +87,10 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
             telemetry.addData("Right Encoder (Parallel)", rightEncoder.getCurrentPosition());
             telemetry.addData("Perpendicular Encoder (Strafe)", perpendicularEncoder.getCurrentPosition());
             telemetry.addLine();
+            telemetry.addData("Pose X (in)", "%.2f", odometry.getX());
+            telemetry.addData("Pose Y (in)", "%.2f", odometry.getY());
+            telemetry.addData("Heading (deg)", "%.2f", Math.toDegrees(odometry.getHeading()));
+            telemetry.addLine();
             telemetry.addLine("ACTION: Push robot FORWARD. Left and Right should change.");
             telemetry.addLine("ACTION: Push robot SIDEWAYS. Perpendicular should change.");
 
@@ -75,6 +102,8 @@ public class Standalone_OdometryPod_Tester extends LinearOpMode {
                 leftEncoder.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                 rightEncoder.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
                 perpendicularEncoder.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+                // The next loop's bulk read is the new starting point.
+                odometry.reset();
 
                 telemetry.addLine("\n--> Encoders Reset! <--");
             }
@@ -1,68 +1,213 @@
 package org.firstinspires.ftc.teamcode.draft;
 
+import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.ColorSensor;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.IMU;
 import com.qualcomm.robotcore.util.ElapsedTime;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
+import org.firstinspires.ftc.teamcode.NanoClock;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * A standalone tool to measure the robot's control loop speed.
- * ... (full Javadoc header) ...
+ * A standalone tool to measure what each hardware call costs the robot's control loop.
+ *
+ * V2: This used to measure only an empty loop. It is now a benchmark SUITE: every hardware
+ * primitive (encoder, velocity, motor current, hub voltage, IMU, distance sensor, color sensor
+ * and setPower) is timed on its own, with warmup and many repetitions, under each bulk-caching
+ * mode (OFF, AUTO, MANUAL). The result is a per-call latency distribution (p50/p90/p99/max).
+ *
+ * The timing logic lives in {@link BenchmarkHarness}. This OpMode only connects it to the real
+ * hardware. The same harness can run on a desktop JVM against {@link SimulatedHardwareBackend}.
+ *
+ * HOW TO USE:
+ * 1. Set the device names below to match your configuration. Missing devices are simply skipped.
+ * 2. IMPORTANT: Put the robot ON A STAND. setPower is tested with tiny powers (0.00 and 0.01),
+ *    which should not move anything, but be safe.
+ * 3. Press START. The suite takes about a minute. Progress is shown on the Driver Station.
+ * 4. Read the results. Press A to run the suite again.
+ *
+ * @author Team 13353
  */
 @TeleOp(name = "Standalone: Performance Benchmarker", group = "Standalone Tools")
 public class Standalone_Performance_Benchmarker extends LinearOpMode {
 
-    private ElapsedTime loopTimer = new ElapsedTime();
-    private int loopCount = 0;
-    private double lastDisplayTime = 0;
-    private double loopsPerSecond = 0;
+    // IMPORTANT: Change these to the names in your configuration. Missing devices are skipped.
+    private final String MOTOR_NAME = "leftFront";
+    private final String IMU_NAME = "imu";
+    private final String DISTANCE_SENSOR_NAME = "frontDistanceSensor";
+    private final String COLOR_SENSOR_NAME = "colorSensor";
+
+    // How much work each measurement does.
+    private final int WARMUP_CALLS = 50;
+    private final int REPETITIONS = 200;
+    private final int CALLS_PER_REPETITION = 4;
+
+    private final List<BenchmarkHarness.Result> results = new ArrayList<>();
 
     @Override
     public void runOpMode() throws InterruptedException {
-        telemetry.addLine("Performance Benchmarker Initialized.");
-        telemetry.addLine("Press START to begin.");
+        telemetry.addLine("Performance Benchmarker Initializing...");
         telemetry.update();
 
-        // --- Optional: Test Bulk Reads ---
-        // Uncomment the following lines to see how bulk reads affect performance.
-        // List<LynxModule> allHubs = hardwareMap.getAll(LynxModule.class);
-        // for (LynxModule hub : allHubs) {
-        //     hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
-        // }
+        RobotBackend backend = new RobotBackend();
+        BenchmarkHarness harness = new BenchmarkHarness(backend, NanoClock.SYSTEM);
+        harness.setWarmupCalls(WARMUP_CALLS);
+        harness.setRepetitions(REPETITIONS);
+        harness.setCallsPerRepetition(CALLS_PER_REPETITION);
 
-        waitForStart();
+        telemetry.addLine("Hubs Detected: " + backend.hubs.size());
+        for (BenchmarkHarness.Primitive primitive : BenchmarkHarness.Primitive.values()) {
+            telemetry.addData(primitive.label, backend.supports(primitive) ? "ready" : "SKIPPED (not found)");
+        }
+        telemetry.addLine();
+        telemetry.addLine("Put the robot ON A STAND, then press START.");
+        telemetry.update();
 
-        loopTimer.reset();
-        lastDisplayTime = loopTimer.seconds();
+        waitForStart();
 
+        boolean aWasPressed = false;
+        boolean runRequested = true;
         while (opModeIsActive()) {
+            if (runRequested) {
+                runSuite(harness, backend);
+                runRequested = false;
+            }
 
-            // --- Optional: Test Bulk Reads ---
-            // Uncomment this line if you enabled MANUAL caching mode above.
-            // for (LynxModule hub : allHubs) {
-            //     hub.clearBulkCache();
-            // }
-
-            loopCount++;
-
-            // Update the display once per second to avoid flooding the telemetry
-            // which would itself slow down the loop.
-            double currentTime = loopTimer.seconds();
-            if (currentTime - lastDisplayTime >= 1.0) {
-                loopsPerSecond = loopCount / (currentTime - lastDisplayTime);
-                loopCount = 0;
-                lastDisplayTime = currentTime;
+            if (gamepad1.a && !aWasPressed) {
+                runRequested = true;
             }
+            aWasPressed = gamepad1.a;
 
             telemetry.clearAll();
             telemetry.addLine("--- Standalone Performance Benchmarker ---");
-            telemetry.addLine("This tool measures the raw speed of the robot's control loop.");
-            telemetry.addLine();
-            telemetry.addData("Loop Speed (Hz)", "%.1f loops/sec", loopsPerSecond);
-            telemetry.addData("Loop Time (ms)", "%.3f ms/loop", 1000.0 / loopsPerSecond);
+            telemetry.addLine("Per-call latency in microseconds. Press A to run again.");
             telemetry.addLine();
-            telemetry.addLine("A higher Hz is better. Most robots run between 50-150 Hz.");
-
+            for (BenchmarkHarness.Result result : results) {
+                telemetry.addLine(result.toReportLine());
+            }
             telemetry.update();
+            sleep(100);
+        }
+
+        // Leave the hubs the way the SDK starts them and make sure the test motor is stopped.
+        backend.setCachingMode(BenchmarkHarness.CachingMode.OFF);
+        if (backend.motor != null) backend.motor.setPower(0);
+    }
+
+    /**
+     * Runs every supported primitive under every caching mode, showing progress as it goes.
+     */
+    private void runSuite(BenchmarkHarness harness, RobotBackend backend) {
+        results.clear();
+        ElapsedTime suiteTimer = new ElapsedTime();
+        for (BenchmarkHarness.CachingMode mode : BenchmarkHarness.CachingMode.values()) {
+            for (BenchmarkHarness.Primitive primitive : BenchmarkHarness.Primitive.values()) {
+                if (!opModeIsActive()) return;
+
+                telemetry.clearAll();
+                telemetry.addLine("--- Running Benchmark Suite ---");
+                telemetry.addData("Caching Mode", mode);
+                telemetry.addData("Primitive", primitive.label);
+                telemetry.addData("Elapsed", "%.1f s", suiteTimer.seconds());
+                telemetry.update();
+
+                BenchmarkHarness.Result result = harness.run(primitive, mode);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+        }
+        if (backend.motor != null) backend.motor.setPower(0);
+    }
+
+    /**
+     * Connects the benchmark harness to the real robot hardware.
+     */
+    private class RobotBackend implements BenchmarkHarness.Backend {
+        final List<LynxModule> hubs;
+        final DcMotorEx motor;
+        final IMU imu;
+        final DistanceSensor distanceSensor;
+        final ColorSensor colorSensor;
+
+        RobotBackend() {
+            hubs = hardwareMap.getAll(LynxModule.class);
+            motor = hardwareMap.tryGet(DcMotorEx.class, MOTOR_NAME);
+            imu = hardwareMap.tryGet(IMU.class, IMU_NAME);
+            distanceSensor = hardwareMap.tryGet(DistanceSensor.class, DISTANCE_SENSOR_NAME);
+            colorSensor = hardwareMap.tryGet(ColorSensor.class, COLOR_SENSOR_NAME);
+            if (motor != null) {
+                motor.setZeroPowerBehavior(DcMotor.ZeroPowerBehavior.BRAKE);
+            }
+        }
+
+        @Override
+        public boolean supports(BenchmarkHarness.Primitive primitive) {
+            switch (primitive) {
+                case BASELINE:
+                    return true;
+                case INPUT_VOLTAGE:
+                    return !hubs.isEmpty();
+                case IMU_ANGLES:
+                    return imu != null;
+                case DISTANCE:
+                    return distanceSensor != null;
+                case COLOR_RED:
+                    return colorSensor != null;
+                default:
+                    return motor != null;
+            }
+        }
+
+        @Override
+        public void setCachingMode(BenchmarkHarness.CachingMode mode) {
+            LynxModule.BulkCachingMode lynxMode = LynxModule.BulkCachingMode.valueOf(mode.name());
+            for (LynxModule hub : hubs) {
+                hub.setBulkCachingMode(lynxMode);
+            }
+        }
+
+        @Override
+        public void clearBulkCache() {
+            for (LynxModule hub : hubs) {
+                hub.clearBulkCache();
+            }
+        }
+
+        @Override
+        public double call(BenchmarkHarness.Primitive primitive, double argument) {
+            switch (primitive) {
+                case ENCODER:
+                    return motor.getCurrentPosition();
+                case VELOCITY:
+                    return motor.getVelocity();
+                case MOTOR_CURRENT:
+                    return motor.getCurrent(CurrentUnit.AMPS);
+                case INPUT_VOLTAGE:
+                    return hubs.get(0).getInputVoltage(VoltageUnit.VOLTS);
+                case IMU_ANGLES:
+                    return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES);
+                case DISTANCE:
+                    return distanceSensor.getDistance(DistanceUnit.MM);
+                case COLOR_RED:
+                    return colorSensor.red();
+                case SET_POWER:
+                    motor.setPower(argument);
+                    return 0;
+                case BASELINE:
+                default:
+                    return 0;
+            }
         }
     }
-}
\ No newline at end of file
+}
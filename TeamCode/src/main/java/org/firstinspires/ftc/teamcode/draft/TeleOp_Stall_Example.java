@@ -68,6 +68,9 @@ public class TeleOp_Stall_Example extends LinearOpMode {
             telemetry.addData("Arm Power Command", "%.2f", armPower);
             telemetry.addData("Arm is Stalled", robot.isArmStalled());
             telemetry.addData("Stall Threshold", "%.2f A", robot.ARM_STALL_THRESHOLD_AMPS);
+            telemetry.addData("Drive is Stalled", robot.isDriveStalled());
+            telemetry.addData("Arm Temperature", "%.0f C (power %.0f%%)",
+                    robot.getMotorTemperatureC(Robot.STALL_ARM), 100 * robot.getMotorPowerScale(Robot.STALL_ARM));
             telemetry.update();
         }
     }
@@ -9,7 +9,13 @@ import com.qualcomm.robotcore.hardware.PIDFCoefficients;
 import com.qualcomm.robotcore.util.ElapsedTime;
 
 import org.firstinspires.ftc.teamcode.Config;
+import org.firstinspires.ftc.teamcode.ConfigKey;
+import org.firstinspires.ftc.teamcode.ConfigSnapshot;
 import org.firstinspires.ftc.teamcode.Constants;
+import org.firstinspires.ftc.teamcode.FastFormat;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 @TeleOp(name = "Ultimate: PID Tuner", group = "3-Performance")
 public class Ultimate_PID_Tuner extends LinearOpMode {
@@ -34,6 +40,12 @@ public class Ultimate_PID_Tuner extends LinearOpMode {
     private double timeToSettle = 0;
     private ElapsedTime timer = new ElapsedTime();
     private String lastSaveStatus = "None";
+    private Future<Void> pendingSave = null;
+    // The P, I, D and F being written by pendingSave. They become the "saved" values once it succeeds.
+    private final double[] pendingValues = new double[4];
+
+    // Reused for the telemetry lines, which are rebuilt every loop.
+    private final StringBuilder line = new StringBuilder(48);
 
     @Override
     public void runOpMode() throws InterruptedException {
@@ -66,6 +78,7 @@ public class Ultimate_PID_Tuner extends LinearOpMode {
 
         while (opModeIsActive()) {
             handleGamepadInput();
+            checkSaveResult();
             displayTelemetry();
         }
     }
@@ -121,12 +134,12 @@ public class Ultimate_PID_Tuner extends LinearOpMode {
      * Loads the PIDF coefficients from the external config file to update the "saved" values.
      */
     private void loadCoefficientsFromConfig() {
-        // This will read from robot_config.properties if it exists,
-        // otherwise it falls back to the Constants value we already loaded.
-        p_saved = Config.getDouble("ARM_P", p_saved);
-        i_saved = Config.getDouble("ARM_I", i_saved);
-        d_saved = Config.getDouble("ARM_D", d_saved);
-        f_saved = Config.getDouble("ARM_F", f_saved);
+        // These come from robot_config.properties if it sets them, otherwise from Constants.
+        ConfigSnapshot config = Config.snapshot();
+        p_saved = config.get(ConfigKey.ARM_P);
+        i_saved = config.get(ConfigKey.ARM_I);
+        d_saved = config.get(ConfigKey.ARM_D);
+        f_saved = config.get(ConfigKey.ARM_F);
 
         // Also update the live values to match, so the user starts with the last saved tune.
         p_live = p_saved;
@@ -137,24 +150,44 @@ public class Ultimate_PID_Tuner extends LinearOpMode {
 
     /**
      * Saves the current LIVE PIDF values to the robot_config.properties file.
+     * All four go in one batch: one crash-safe write, on a background thread.
      */
     private void saveCoefficients() {
-        try {
-            Config.save("ARM_P", String.format("%.4f", p_live));
-            Config.save("ARM_I", String.format("%.4f", i_live));
-            Config.save("ARM_D", String.format("%.4f", d_live));
-            Config.save("ARM_F", String.format("%.4f", f_live));
-
-            // Update the "saved" values to match the new live values.
-            p_saved = p_live;
-            i_saved = i_live;
-            d_saved = d_live;
-            f_saved = f_live;
+        pendingSave = Config.edit()
+                .set(ConfigKey.ARM_P, FastFormat.toFixed(p_live, 4))
+                .set(ConfigKey.ARM_I, FastFormat.toFixed(i_live, 4))
+                .set(ConfigKey.ARM_D, FastFormat.toFixed(d_live, 4))
+                .set(ConfigKey.ARM_F, FastFormat.toFixed(f_live, 4))
+                .commitAsync();
+
+        // The "saved" values change only once the file really holds them (see checkSaveResult).
+        pendingValues[0] = p_live;
+        pendingValues[1] = i_live;
+        pendingValues[2] = d_live;
+        pendingValues[3] = f_live;
+
+        lastSaveStatus = "Saving...";
+    }
 
+    /**
+     * Reports the result of the last save once its write has finished. On success, the values
+     * it wrote become the "saved" values; on failure, the "saved" values stay as they were.
+     */
+    private void checkSaveResult() {
+        if (pendingSave == null || !pendingSave.isDone()) return;
+        try {
+            pendingSave.get();
+            p_saved = pendingValues[0];
+            i_saved = pendingValues[1];
+            d_saved = pendingValues[2];
+            f_saved = pendingValues[3];
             lastSaveStatus = "Success!";
-        } catch (Exception e) {
-            lastSaveStatus = "FAILED: " + e.getMessage();
+        } catch (ExecutionException e) {
+            lastSaveStatus = "FAILED: " + e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        pendingSave = null;
     }
 
     /**
@@ -184,19 +217,33 @@ public class Ultimate_PID_Tuner extends LinearOpMode {
         telemetry.addLine();
 
         // Display Live vs. Saved values for clarity
-        telemetry.addData((selectedCoeff == Coeff.P ? ">> P <<" : " P"), "Live: %.4f (Saved: %.4f)", p_live, p_saved);
-        telemetry.addData((selectedCoeff == Coeff.I ? ">> I <<" : " I"), "Live: %.4f (Saved: %.4f)", i_live, i_saved);
-        telemetry.addData((selectedCoeff == Coeff.D ? ">> D <<" : " D"), "Live: %.4f (Saved: %.4f)", d_live, d_saved);
-        telemetry.addData((selectedCoeff == Coeff.F ? ">> F <<" : " F"), "Live: %.4f (Saved: %.4f)", f_live, f_saved);
-        telemetry.addData("   Step", "%.4f", stepSize);
+        addCoeff((selectedCoeff == Coeff.P ? ">> P <<" : " P"), p_live, p_saved);
+        addCoeff((selectedCoeff == Coeff.I ? ">> I <<" : " I"), i_live, i_saved);
+        addCoeff((selectedCoeff == Coeff.D ? ">> D <<" : " D"), d_live, d_saved);
+        addCoeff((selectedCoeff == Coeff.F ? ">> F <<" : " F"), f_live, f_saved);
+        line.setLength(0);
+        telemetry.addData("   Step", FastFormat.appendFixed(line, stepSize, 4).toString());
         telemetry.addLine();
 
         telemetry.addLine("--- Run Stats ---");
         telemetry.addData("Target", targetPosition);
         telemetry.addData("Current", robot.getArmPosition());
-        telemetry.addData("Overshoot", "%d ticks", overshoot);
-        telemetry.addData("Time to Settle", "%.0f ms", timeToSettle);
+        line.setLength(0);
+        telemetry.addData("Overshoot", FastFormat.appendInt(line, overshoot).append(" ticks").toString());
+        line.setLength(0);
+        telemetry.addData("Time to Settle", FastFormat.appendFixed(line, timeToSettle, 0).append(" ms").toString());
         telemetry.addData("Last Save", lastSaveStatus);
         telemetry.update();
     }
+
+    /** Adds a "Live: x (Saved: y)" line for one coefficient. */
+    private void addCoeff(String caption, double live, double saved) {
+        line.setLength(0);
+        line.append("Live: ");
+        FastFormat.appendFixed(line, live, 4);
+        line.append(" (Saved: ");
+        FastFormat.appendFixed(line, saved, 4);
+        line.append(')');
+        telemetry.addData(caption, line.toString());
+    }
 }
\ No newline at end of file
@@ -2,10 +2,18 @@ package org.firstinspires.ftc.teamcode.draft;
 
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.util.ElapsedTime;
 
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.BatteryEstimator;
+import org.firstinspires.ftc.teamcode.BatteryHistory;
 import org.firstinspires.ftc.teamcode.Config;
 import org.firstinspires.ftc.teamcode.Constants;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * This is the "Ultimate Power & Battery Monitor" from the FTC Ultimate Toolkit.
  *
@@ -15,6 +23,11 @@ import org.firstinspires.ftc.teamcode.Constants;
  * A significant voltage drop (> 1.0V) under load is a strong indicator of a
  * weak battery or a high-resistance connection (e.g., a loose wire).
  *
+ * While it runs, the health monitor's battery estimator fits the pack's internal resistance
+ * from every sample, so the resistance, health and charge are shown too. If BATTERY_ID is set in
+ * robot_config.properties, the pack's earlier results are shown at init, and this run's result
+ * is added to its history when the OpMode stops.
+ *
  * @author Team 13353
  */
 @TeleOp(name = "Ultimate: Power & Battery Monitor", group = "3-Performance")
@@ -27,6 +40,8 @@ public class Ultimate_Power_Monitor extends LinearOpMode {
     private double minVoltageUnderTest = 14.0; // Start high
     private double voltageDrop = 0.0;
     private boolean isTesting = false;
+    private final ElapsedTime matchTimer = new ElapsedTime();
+    private List<BatteryHistory.Record> history = Collections.emptyList();
 
     @Override
     public void runOpMode() throws InterruptedException {
@@ -40,17 +55,31 @@ public class Ultimate_Power_Monitor extends LinearOpMode {
             return;
         }
 
+        int batteryId = robot.healthMonitor.getBatteryId();
+        if (batteryId != 0) {
+            try {
+                history = BatteryHistory.read(AppUtil.getInstance().getSettingsFile(Constants.BATTERY_HISTORY_FILENAME), batteryId);
+            } catch (IOException e) {
+                telemetry.addLine("WARNING: Could not read the battery history.");
+            }
+        }
+
         telemetry.addLine("Power & Battery Monitor Initialized.");
+        displayHistory(batteryId);
         telemetry.addLine("Press START to begin.");
         telemetry.update();
 
         waitForStart();
+        matchTimer.reset();
 
         // Get the initial resting voltage
         restingVoltage = robot.getVoltage();
         minVoltageUnderTest = restingVoltage;
 
         while (opModeIsActive()) {
+            // Runs the health monitor, which feeds the battery estimator.
+            robot.update(matchTimer);
+
             // --- USER CONTROL ---
             // Hold the 'A' button to run the stress test
             if (gamepad1.a) {
@@ -87,6 +116,22 @@ public class Ultimate_Power_Monitor extends LinearOpMode {
             // --- TELEMETRY ---
             displayTelemetry(liveVoltage);
         }
+
+        robot.healthMonitor.saveBatteryHistory();
+    }
+
+    private void displayHistory(int batteryId) {
+        if (batteryId == 0) {
+            telemetry.addLine("Set BATTERY_ID in robot_config.properties to track this pack.");
+            return;
+        }
+        telemetry.addData("Battery", "#%d, %d earlier runs", batteryId, history.size());
+        // The last few runs, newest first.
+        for (int i = history.size() - 1; i >= Math.max(0, history.size() - 3); i--) {
+            BatteryHistory.Record record = history.get(i);
+            telemetry.addData(record.time, "%.0f mOhm, health %.0f%%",
+                    record.resistanceOhms * 1000, record.health * 100);
+        }
     }
 
     private void displayTelemetry(double liveVoltage) {
@@ -113,6 +158,21 @@ public class Ultimate_Power_Monitor extends LinearOpMode {
 
         telemetry.addData("Voltage Drop", "%.2f V", voltageDrop);
         telemetry.addData("System Health", status);
+        telemetry.addLine();
+
+        // The estimator needs the current to vary (run a stress test) before it can tell.
+        BatteryEstimator battery = robot.healthMonitor.getBatteryEstimator();
+        telemetry.addLine("--- Battery Estimate ---");
+        if (battery.hasEstimate()) {
+            telemetry.addData("Open-Circuit Voltage", "%.2f V", battery.getOpenCircuitVolts());
+            telemetry.addData("Internal Resistance", "%.0f mOhm", battery.getResistanceOhms() * 1000);
+            telemetry.addData("Battery Health", "%.0f %%", battery.getHealth() * 100);
+            telemetry.addData("Charge", "%.0f %% (%.1f Ah left)", battery.getStateOfCharge() * 100,
+                    battery.getRemainingAmpHours());
+        } else {
+            telemetry.addLine("Hold (A) to load the battery for an estimate.");
+        }
+        displayHistory(robot.healthMonitor.getBatteryId());
         telemetry.update();
     }
 }
\ No newline at end of file